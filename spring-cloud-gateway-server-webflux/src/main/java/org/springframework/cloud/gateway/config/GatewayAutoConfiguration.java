@@ -30,10 +30,13 @@ import java.util.function.Supplier;
 import javax.net.ssl.TrustManagerFactory;
 
 import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
+import io.netty.handler.codec.compression.Brotli;
+import io.netty.handler.codec.compression.Zstd;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.netty.http.client.HttpClient;
 import reactor.netty.http.client.WebsocketClientSpec;
 import reactor.netty.http.server.WebsocketServerSpec;
@@ -49,11 +52,14 @@ import org.springframework.boot.actuate.autoconfigure.endpoint.condition.Conditi
 import org.springframework.boot.actuate.autoconfigure.endpoint.web.WebEndpointProperties;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
+import org.springframework.boot.autoconfigure.condition.ConditionMessage;
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.condition.NoneNestedConditions;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.boot.context.properties.PropertyMapper;
 import org.springframework.boot.reactor.netty.NettyReactiveWebServerFactory;
@@ -81,6 +87,7 @@ import org.springframework.cloud.gateway.filter.NettyRoutingFilter;
 import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
 import org.springframework.cloud.gateway.filter.RemoveCachedBodyFilter;
 import org.springframework.cloud.gateway.filter.RouteToRequestUrlFilter;
+import org.springframework.cloud.gateway.filter.WebsocketMetrics;
 import org.springframework.cloud.gateway.filter.WebsocketRoutingFilter;
 import org.springframework.cloud.gateway.filter.WeightCalculatorWebFilter;
 import org.springframework.cloud.gateway.filter.cors.CorsGatewayFilterApplicationListener;
@@ -90,6 +97,8 @@ import org.springframework.cloud.gateway.filter.factory.AddRequestHeadersIfNotPr
 import org.springframework.cloud.gateway.filter.factory.AddRequestParameterGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.AddResponseHeaderGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.CacheRequestBodyGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.CompressResponseGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.CompressionMetrics;
 import org.springframework.cloud.gateway.filter.factory.DedupeResponseHeaderGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.JsonToGrpcGatewayFilterFactory;
@@ -121,11 +130,14 @@ import org.springframework.cloud.gateway.filter.factory.SetResponseHeaderGateway
 import org.springframework.cloud.gateway.filter.factory.SetStatusGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.StripPrefixGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.TokenRelayGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.rewrite.BrotliMessageBodyResolver;
+import org.springframework.cloud.gateway.filter.factory.rewrite.DeflateMessageBodyResolver;
 import org.springframework.cloud.gateway.filter.factory.rewrite.GzipMessageBodyResolver;
 import org.springframework.cloud.gateway.filter.factory.rewrite.MessageBodyDecoder;
 import org.springframework.cloud.gateway.filter.factory.rewrite.MessageBodyEncoder;
 import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyRequestBodyGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyResponseBodyGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.rewrite.ZstdMessageBodyResolver;
 import org.springframework.cloud.gateway.filter.headers.ForwardedHeadersFilter;
 import org.springframework.cloud.gateway.filter.headers.GRPCRequestHeadersFilter;
 import org.springframework.cloud.gateway.filter.headers.GRPCResponseHeadersFilter;
@@ -167,13 +179,17 @@ import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
 import org.springframework.cloud.gateway.route.RouteDefinitionWriter;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.RouteRefreshListener;
+import org.springframework.cloud.gateway.route.RouteRefreshMetrics;
+import org.springframework.cloud.gateway.route.SnapshotRouteDefinitionLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.cloud.gateway.support.RequestBodyCachePolicy;
 import org.springframework.cloud.gateway.support.StringToZonedDateTimeConverter;
 import org.springframework.cloud.gateway.support.config.KeyValueConverter;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ConfigurableApplicationContext;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ConditionContext;
 import org.springframework.context.annotation.Conditional;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.DependsOn;
@@ -181,6 +197,8 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.core.env.Environment;
 import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+import org.springframework.http.HttpCookie;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.security.oauth2.client.OAuth2AuthorizedClient;
 import org.springframework.security.oauth2.client.ReactiveOAuth2AuthorizedClientManager;
@@ -246,15 +264,24 @@ public class GatewayAutoConfiguration {
 
 	@Bean
 	@Primary
-	public RouteDefinitionLocator routeDefinitionLocator(List<RouteDefinitionLocator> routeDefinitionLocators) {
-		return new CompositeRouteDefinitionLocator(Flux.fromIterable(routeDefinitionLocators));
+	public RouteDefinitionLocator routeDefinitionLocator(List<RouteDefinitionLocator> routeDefinitionLocators,
+			GatewayProperties properties) {
+		RouteDefinitionLocator locator = new CompositeRouteDefinitionLocator(
+				Flux.fromIterable(routeDefinitionLocators));
+		if (properties.getRouteSnapshotFile() != null) {
+			return new SnapshotRouteDefinitionLocator(locator, properties.getRouteSnapshotFile());
+		}
+		return locator;
 	}
 
 	@Bean
 	public ConfigurationService gatewayConfigurationService(BeanFactory beanFactory,
 			@Qualifier("webFluxConversionService") ObjectProvider<ConversionService> conversionService,
-			ObjectProvider<Validator> validator) {
-		return new ConfigurationService(beanFactory, conversionService, validator);
+			ObjectProvider<Validator> validator, GatewayProperties properties) {
+		ConfigurationService configurationService = new ConfigurationService(beanFactory, conversionService,
+				validator);
+		configurationService.setSpelCompilerMode(properties.getSpelCompilerMode());
+		return configurationService;
 	}
 
 	@Bean
@@ -269,8 +296,13 @@ public class GatewayAutoConfiguration {
 	@Primary
 	@ConditionalOnMissingBean(name = "cachedCompositeRouteLocator")
 	// TODO: property to disable composite?
-	public RouteLocator cachedCompositeRouteLocator(List<RouteLocator> routeLocators) {
-		return new CachingRouteLocator(new CompositeRouteLocator(Flux.fromIterable(routeLocators)));
+	public RouteLocator cachedCompositeRouteLocator(List<RouteLocator> routeLocators, GatewayProperties properties,
+			ObjectProvider<RouteRefreshMetrics> refreshMetrics) {
+		CachingRouteLocator routeLocator = new CachingRouteLocator(
+				new CompositeRouteLocator(Flux.fromIterable(routeLocators)));
+		routeLocator.setRefreshDebounce(properties.getRouteRefreshDebounce());
+		refreshMetrics.ifAvailable(routeLocator::setRefreshMetrics);
+		return routeLocator;
 	}
 
 	@Bean
@@ -397,10 +429,20 @@ public class GatewayAutoConfiguration {
 
 	// GlobalFilter beans
 
+	@Bean
+	@ConditionalOnMissingBean
+	public RequestBodyCachePolicy requestBodyCachePolicy(GatewayProperties properties) {
+		GatewayProperties.RequestBodyCache requestBodyCache = properties.getRequestBodyCache();
+		if (requestBodyCache.getMemoryThreshold() == null) {
+			return RequestBodyCachePolicy.IN_MEMORY;
+		}
+		return new RequestBodyCachePolicy(requestBodyCache.getMemoryThreshold(), requestBodyCache.getDirectory());
+	}
+
 	@Bean
 	@ConditionalOnEnabledGlobalFilter
-	public AdaptCachedBodyGlobalFilter adaptCachedBodyGlobalFilter() {
-		return new AdaptCachedBodyGlobalFilter();
+	public AdaptCachedBodyGlobalFilter adaptCachedBodyGlobalFilter(RequestBodyCachePolicy requestBodyCachePolicy) {
+		return new AdaptCachedBodyGlobalFilter(requestBodyCachePolicy);
 	}
 
 	@Bean
@@ -436,15 +478,49 @@ public class GatewayAutoConfiguration {
 	@Bean
 	@ConditionalOnEnabledGlobalFilter
 	public WebsocketRoutingFilter websocketRoutingFilter(WebSocketClient webSocketClient,
-			WebSocketService webSocketService, ObjectProvider<List<HttpHeadersFilter>> headersFilters) {
-		return new WebsocketRoutingFilter(webSocketClient, webSocketService, headersFilters);
+			WebSocketService webSocketService, ObjectProvider<List<HttpHeadersFilter>> headersFilters,
+			HttpClientProperties httpClientProperties, ObjectProvider<WebsocketMetrics> metrics) {
+		WebsocketRoutingFilter filter = new WebsocketRoutingFilter(webSocketClient, webSocketService, headersFilters);
+		filter.setNativeRelay(httpClientProperties.getWebsocket().isNativeRelay());
+		metrics.ifAvailable(filter::setMetrics);
+		return filter;
+	}
+
+	@Bean
+	public GatewayWeightProperties gatewayWeightProperties() {
+		return new GatewayWeightProperties();
 	}
 
 	@Bean
 	@ConditionalOnEnabledPredicate(WeightRoutePredicateFactory.class)
 	public WeightCalculatorWebFilter weightCalculatorWebFilter(ConfigurationService configurationService,
-			ObjectProvider<RouteLocator> routeLocator) {
-		return new WeightCalculatorWebFilter(routeLocator, configurationService);
+			ObjectProvider<RouteLocator> routeLocator, GatewayWeightProperties weightProperties,
+			BeanFactory beanFactory) {
+		WeightCalculatorWebFilter filter = new WeightCalculatorWebFilter(routeLocator, configurationService);
+		GatewayWeightProperties.Hashing hashing = weightProperties.getHashing();
+		if (hashing.isEnabled()) {
+			filter.setHashKeyResolver(hashKeyResolver(hashing, beanFactory));
+			filter.setHashGroups(hashing.getGroups());
+			filter.setHashTableSize(hashing.getTableSize());
+		}
+		return filter;
+	}
+
+	private static KeyResolver hashKeyResolver(GatewayWeightProperties.Hashing hashing, BeanFactory beanFactory) {
+		if (StringUtils.hasText(hashing.getHeader())) {
+			String header = hashing.getHeader();
+			return exchange -> Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst(header));
+		}
+		if (StringUtils.hasText(hashing.getCookie())) {
+			String cookie = hashing.getCookie();
+			return exchange -> Mono.justOrEmpty(exchange.getRequest().getCookies().getFirst(cookie))
+				.map(HttpCookie::getValue);
+		}
+		if (StringUtils.hasText(hashing.getKeyResolver())) {
+			return beanFactory.getBean(hashing.getKeyResolver(), KeyResolver.class);
+		}
+		throw new IllegalStateException("One of header, cookie or key-resolver must be set when "
+				+ GatewayProperties.PREFIX + ".weight.hashing.enabled is true");
 	}
 
 	// Predicate Factory beans
@@ -507,8 +583,9 @@ public class GatewayAutoConfiguration {
 
 	@Bean
 	@ConditionalOnEnabledPredicate
-	public ReadBodyRoutePredicateFactory readBodyPredicateFactory(ServerCodecConfigurer codecConfigurer) {
-		return new ReadBodyRoutePredicateFactory(codecConfigurer.getReaders());
+	public ReadBodyRoutePredicateFactory readBodyPredicateFactory(ServerCodecConfigurer codecConfigurer,
+			RequestBodyCachePolicy requestBodyCachePolicy) {
+		return new ReadBodyRoutePredicateFactory(codecConfigurer.getReaders(), requestBodyCachePolicy);
 	}
 
 	@Bean
@@ -596,11 +673,20 @@ public class GatewayAutoConfiguration {
 		return new ModifyResponseBodyGatewayFilterFactory(codecConfigurer.getReaders(), bodyDecoders, bodyEncoders);
 	}
 
+	@Bean
+	@ConditionalOnEnabledFilter
+	public CompressResponseGatewayFilterFactory compressResponseGatewayFilterFactory(
+			Set<MessageBodyEncoder> bodyEncoders, ObjectProvider<CompressionMetrics> metrics) {
+		CompressResponseGatewayFilterFactory factory = new CompressResponseGatewayFilterFactory(bodyEncoders);
+		metrics.ifAvailable(factory::setMetrics);
+		return factory;
+	}
+
 	@Bean
 	@ConditionalOnEnabledFilter
 	public CacheRequestBodyGatewayFilterFactory cacheRequestBodyGatewayFilterFactory(
-			ServerCodecConfigurer codecConfigurer) {
-		return new CacheRequestBodyGatewayFilterFactory(codecConfigurer.getReaders());
+			ServerCodecConfigurer codecConfigurer, RequestBodyCachePolicy requestBodyCachePolicy) {
+		return new CacheRequestBodyGatewayFilterFactory(codecConfigurer.getReaders(), requestBodyCachePolicy);
 	}
 
 	@Bean
@@ -771,6 +857,12 @@ public class GatewayAutoConfiguration {
 		return new GzipMessageBodyResolver();
 	}
 
+	@Bean
+	@ConditionalOnMissingBean
+	public DeflateMessageBodyResolver deflateMessageBodyResolver() {
+		return new DeflateMessageBodyResolver();
+	}
+
 	@Bean
 	static ConfigurableHintsRegistrationProcessor configurableHintsRegistrationProcessor() {
 		return new ConfigurableHintsRegistrationProcessor();
@@ -806,6 +898,32 @@ public class GatewayAutoConfiguration {
 
 	}
 
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "com.aayushatharva.brotli4j.Brotli4jLoader")
+	@Conditional(OnBrotliAvailableCondition.class)
+	protected static class BrotliConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public BrotliMessageBodyResolver brotliMessageBodyResolver() {
+			return new BrotliMessageBodyResolver();
+		}
+
+	}
+
+	@Configuration(proxyBeanMethods = false)
+	@ConditionalOnClass(name = "com.github.luben.zstd.Zstd")
+	@Conditional(OnZstdAvailableCondition.class)
+	protected static class ZstdConfiguration {
+
+		@Bean
+		@ConditionalOnMissingBean
+		public ZstdMessageBodyResolver zstdMessageBodyResolver() {
+			return new ZstdMessageBodyResolver();
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnClass(AsyncProxyManager.class)
 	protected static class Bucket4jConfiguration {
@@ -894,7 +1012,8 @@ public class GatewayAutoConfiguration {
 				HttpClient httpClient) {
 			Supplier<WebsocketClientSpec.Builder> builderSupplier = () -> {
 				WebsocketClientSpec.Builder builder = WebsocketClientSpec.builder()
-					.handlePing(properties.getWebsocket().isProxyPing());
+					.handlePing(properties.getWebsocket().isProxyPing())
+					.compress(properties.getWebsocket().isCompress());
 				if (properties.getWebsocket().getMaxFramePayloadLength() != null) {
 					builder.maxFramePayloadLength(properties.getWebsocket().getMaxFramePayloadLength());
 				}
@@ -914,6 +1033,7 @@ public class GatewayAutoConfiguration {
 				PropertyMapper map = PropertyMapper.get();
 				map.from(websocket::getMaxFramePayloadLength).when(Objects::nonNull).to(builder::maxFramePayloadLength);
 				map.from(websocket::isProxyPing).to(builder::handlePing);
+				map.from(websocket::isCompress).to(builder::compress);
 				return builder;
 			};
 
@@ -966,6 +1086,38 @@ public class GatewayAutoConfiguration {
 
 	}
 
+	/**
+	 * Matches when the native Brotli library can be loaded on this platform.
+	 */
+	private static class OnBrotliAvailableCondition extends SpringBootCondition {
+
+		@Override
+		public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			ConditionMessage.Builder message = ConditionMessage.forCondition("Brotli");
+			if (Brotli.isAvailable()) {
+				return ConditionOutcome.match(message.available("native library"));
+			}
+			return ConditionOutcome.noMatch(message.notAvailable("native library"));
+		}
+
+	}
+
+	/**
+	 * Matches when the native Zstandard library can be loaded on this platform.
+	 */
+	private static class OnZstdAvailableCondition extends SpringBootCondition {
+
+		@Override
+		public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+			ConditionMessage.Builder message = ConditionMessage.forCondition("Zstd");
+			if (Zstd.isAvailable()) {
+				return ConditionOutcome.match(message.available("native library"));
+			}
+			return ConditionOutcome.noMatch(message.notAvailable("native library"));
+		}
+
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnProperty(name = "spring.cloud.gateway.server.webflux.enabled", matchIfMissing = true)
 	@ConditionalOnClass({ OAuth2AuthorizedClient.class, SecurityWebFilterChain.class, SecurityProperties.class })
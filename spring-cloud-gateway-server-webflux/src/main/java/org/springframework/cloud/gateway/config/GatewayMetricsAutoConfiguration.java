@@ -35,10 +35,14 @@ import org.springframework.boot.micrometer.metrics.autoconfigure.MetricsAutoConf
 import org.springframework.boot.micrometer.observation.autoconfigure.ObservationAutoConfiguration;
 import org.springframework.boot.webflux.autoconfigure.HttpHandlerAutoConfiguration;
 import org.springframework.cloud.gateway.filter.GatewayMetricsFilter;
+import org.springframework.cloud.gateway.filter.MicrometerWebsocketMetrics;
+import org.springframework.cloud.gateway.filter.factory.MicrometerCircuitBreakerFilterMetrics;
+import org.springframework.cloud.gateway.filter.factory.MicrometerCompressionMetrics;
 import org.springframework.cloud.gateway.filter.headers.observation.GatewayObservationConvention;
 import org.springframework.cloud.gateway.filter.headers.observation.ObservationClosingWebExceptionHandler;
 import org.springframework.cloud.gateway.filter.headers.observation.ObservedRequestHttpHeadersFilter;
 import org.springframework.cloud.gateway.filter.headers.observation.ObservedResponseHttpHeadersFilter;
+import org.springframework.cloud.gateway.route.MicrometerRouteRefreshMetrics;
 import org.springframework.cloud.gateway.route.RouteDefinitionLocator;
 import org.springframework.cloud.gateway.route.RouteDefinitionMetrics;
 import org.springframework.cloud.gateway.support.tagsprovider.GatewayHttpTagsProvider;
@@ -102,6 +106,38 @@ public class GatewayMetricsAutoConfiguration {
 		return new RouteDefinitionMetrics(meterRegistry, routeDefinitionLocator, properties.getPrefix());
 	}
 
+	@Bean
+	@ConditionalOnBean(MeterRegistry.class)
+	@ConditionalOnProperty(name = GatewayProperties.PREFIX + ".metrics.enabled", matchIfMissing = true)
+	public MicrometerCircuitBreakerFilterMetrics circuitBreakerFilterMetrics(MeterRegistry meterRegistry,
+			GatewayMetricsProperties properties) {
+		return new MicrometerCircuitBreakerFilterMetrics(meterRegistry, properties.getPrefix());
+	}
+
+	@Bean
+	@ConditionalOnBean(MeterRegistry.class)
+	@ConditionalOnProperty(name = GatewayProperties.PREFIX + ".metrics.enabled", matchIfMissing = true)
+	public MicrometerCompressionMetrics compressionMetrics(MeterRegistry meterRegistry,
+			GatewayMetricsProperties properties) {
+		return new MicrometerCompressionMetrics(meterRegistry, properties.getPrefix());
+	}
+
+	@Bean
+	@ConditionalOnBean(MeterRegistry.class)
+	@ConditionalOnProperty(name = GatewayProperties.PREFIX + ".metrics.enabled", matchIfMissing = true)
+	public MicrometerWebsocketMetrics websocketMetrics(MeterRegistry meterRegistry,
+			GatewayMetricsProperties properties) {
+		return new MicrometerWebsocketMetrics(meterRegistry, properties.getPrefix());
+	}
+
+	@Bean
+	@ConditionalOnBean(MeterRegistry.class)
+	@ConditionalOnProperty(name = GatewayProperties.PREFIX + ".metrics.enabled", matchIfMissing = true)
+	public MicrometerRouteRefreshMetrics routeRefreshMetrics(MeterRegistry meterRegistry,
+			GatewayMetricsProperties properties) {
+		return new MicrometerRouteRefreshMetrics(meterRegistry, properties.getPrefix());
+	}
+
 	@Configuration(proxyBeanMethods = false)
 	@ConditionalOnBean(ObservationRegistry.class)
 	@ConditionalOnProperty(name = GatewayProperties.PREFIX + ".observability.enabled", matchIfMissing = true)
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.gateway.config;
 
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -29,7 +31,9 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.gateway.filter.FilterDefinition;
 import org.springframework.cloud.gateway.route.RouteDefinition;
 import org.springframework.core.style.ToStringCreator;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.http.MediaType;
+import org.springframework.util.unit.DataSize;
 import org.springframework.validation.annotation.Validated;
 
 /**
@@ -73,12 +77,54 @@ public class GatewayProperties {
 	 */
 	private boolean routeFilterCacheEnabled = false;
 
+	/**
+	 * Option to rebuild only the routes whose definition changed when routes are
+	 * refreshed, reusing the others, defaults to true. Routes with SpEL arguments are
+	 * always rebuilt.
+	 */
+	private boolean incrementalRouteRefresh = true;
+
+	/**
+	 * Number of routes that are built concurrently from their definitions on startup and
+	 * refresh, defaults to 1. Routes are still returned in the order of their
+	 * definitions.
+	 */
+	private int routeCompilationParallelism = 1;
+
+	/**
+	 * Time that route refresh events are collected for before the routes are refreshed
+	 * once for all of them, defaults to zero, which refreshes the routes right away. A
+	 * refresh never runs concurrently with another one, events received meanwhile are
+	 * merged into a single pending refresh.
+	 */
+	private Duration routeRefreshDebounce = Duration.ZERO;
+
+	/**
+	 * Compiler mode of the SpEL expressions in route predicate and filter arguments,
+	 * defaults to OFF. Parsed expressions are cached, so a compiled expression stays
+	 * compiled across route refreshes.
+	 */
+	private SpelCompilerMode spelCompilerMode = SpelCompilerMode.OFF;
+
+	/**
+	 * File the route definitions are written to after every refresh, so that on the next
+	 * startup routes are served from it while they are read from their sources in the
+	 * background. Disabled if not set.
+	 */
+	private Path routeSnapshotFile;
+
 	/**
 	 * Regular expression defining proxies that are trusted when they appear in a
 	 * Forwarded or X-Forwarded header.
 	 */
 	private String trustedProxies;
 
+	/**
+	 * Caching of request bodies that are read by predicates or filters, or replayed by
+	 * retries.
+	 */
+	private RequestBodyCache requestBodyCache = new RequestBodyCache();
+
 	public boolean isRouteFilterCacheEnabled() {
 		return routeFilterCacheEnabled;
 	}
@@ -87,6 +133,46 @@ public class GatewayProperties {
 		this.routeFilterCacheEnabled = routeFilterCacheEnabled;
 	}
 
+	public boolean isIncrementalRouteRefresh() {
+		return incrementalRouteRefresh;
+	}
+
+	public void setIncrementalRouteRefresh(boolean incrementalRouteRefresh) {
+		this.incrementalRouteRefresh = incrementalRouteRefresh;
+	}
+
+	public int getRouteCompilationParallelism() {
+		return routeCompilationParallelism;
+	}
+
+	public void setRouteCompilationParallelism(int routeCompilationParallelism) {
+		this.routeCompilationParallelism = routeCompilationParallelism;
+	}
+
+	public Duration getRouteRefreshDebounce() {
+		return routeRefreshDebounce;
+	}
+
+	public void setRouteRefreshDebounce(Duration routeRefreshDebounce) {
+		this.routeRefreshDebounce = routeRefreshDebounce;
+	}
+
+	public SpelCompilerMode getSpelCompilerMode() {
+		return spelCompilerMode;
+	}
+
+	public void setSpelCompilerMode(SpelCompilerMode spelCompilerMode) {
+		this.spelCompilerMode = spelCompilerMode;
+	}
+
+	public Path getRouteSnapshotFile() {
+		return routeSnapshotFile;
+	}
+
+	public void setRouteSnapshotFile(Path routeSnapshotFile) {
+		this.routeSnapshotFile = routeSnapshotFile;
+	}
+
 	public List<RouteDefinition> getRoutes() {
 		return routes;
 	}
@@ -130,6 +216,14 @@ public class GatewayProperties {
 		this.trustedProxies = trustedProxies;
 	}
 
+	public RequestBodyCache getRequestBodyCache() {
+		return requestBodyCache;
+	}
+
+	public void setRequestBodyCache(RequestBodyCache requestBodyCache) {
+		this.requestBodyCache = requestBodyCache;
+	}
+
 	@Override
 	public String toString() {
 		return new ToStringCreator(this).append("routes", routes)
@@ -137,9 +231,55 @@ public class GatewayProperties {
 			.append("streamingMediaTypes", streamingMediaTypes)
 			.append("failOnRouteDefinitionError", failOnRouteDefinitionError)
 			.append("routeFilterCacheEnabled", routeFilterCacheEnabled)
+			.append("incrementalRouteRefresh", incrementalRouteRefresh)
+			.append("routeCompilationParallelism", routeCompilationParallelism)
+			.append("routeRefreshDebounce", routeRefreshDebounce)
+			.append("spelCompilerMode", spelCompilerMode)
+			.append("routeSnapshotFile", routeSnapshotFile)
 			.append("trustedProxies", trustedProxies)
+			.append("requestBodyCache", requestBodyCache)
 			.toString();
 
 	}
 
+	public static class RequestBodyCache {
+
+		/**
+		 * Size above which a cached request body is written to a temporary file instead
+		 * of being held in memory. Request bodies are held in memory whatever their size
+		 * if not set.
+		 */
+		private DataSize memoryThreshold;
+
+		/**
+		 * Directory of the temporary files of request bodies larger than the memory
+		 * threshold, defaults to the system temporary directory.
+		 */
+		private Path directory;
+
+		public DataSize getMemoryThreshold() {
+			return memoryThreshold;
+		}
+
+		public void setMemoryThreshold(DataSize memoryThreshold) {
+			this.memoryThreshold = memoryThreshold;
+		}
+
+		public Path getDirectory() {
+			return directory;
+		}
+
+		public void setDirectory(Path directory) {
+			this.directory = directory;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringCreator(this).append("memoryThreshold", memoryThreshold)
+				.append("directory", directory)
+				.toString();
+		}
+
+	}
+
 }
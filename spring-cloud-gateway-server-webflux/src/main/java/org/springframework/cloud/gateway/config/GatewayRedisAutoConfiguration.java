@@ -18,6 +18,7 @@ package org.springframework.cloud.gateway.config;
 
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.AutoConfigureAfter;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
@@ -32,6 +33,7 @@ import org.springframework.cloud.gateway.route.RouteDefinition;
 import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
@@ -76,8 +78,20 @@ class GatewayRedisAutoConfiguration {
 			havingValue = "true")
 	@ConditionalOnClass(ReactiveRedisTemplate.class)
 	public RedisRouteDefinitionRepository redisRouteDefinitionRepository(
-			ReactiveRedisTemplate<String, RouteDefinition> reactiveRedisTemplate) {
-		return new RedisRouteDefinitionRepository(reactiveRedisTemplate);
+			ReactiveRedisTemplate<String, RouteDefinition> reactiveRedisTemplate,
+			ObjectProvider<ReactiveStringRedisTemplate> stringRedisTemplate, Environment env) {
+		RedisRouteDefinitionRepository repository = new RedisRouteDefinitionRepository(reactiveRedisTemplate,
+				stringRedisTemplate.getIfAvailable());
+		repository.setBatchSize(
+				env.getProperty(GatewayProperties.PREFIX + ".redis-route-definition-repository.batch-size",
+						Integer.class, 500));
+		repository.setChangeNotificationsEnabled(env.getProperty(
+				GatewayProperties.PREFIX + ".redis-route-definition-repository.change-notifications.enabled",
+				Boolean.class, false));
+		repository.setVersionCheckEnabled(env.getProperty(
+				GatewayProperties.PREFIX + ".redis-route-definition-repository.version-check.enabled", Boolean.class,
+				false));
+		return repository;
 	}
 
 	@Bean
@@ -26,6 +26,7 @@ import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4
 import org.springframework.cloud.circuitbreaker.resilience4j.ReactiveResilience4JCircuitBreakerFactory;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.cloud.gateway.config.conditional.ConditionalOnEnabledFilter;
+import org.springframework.cloud.gateway.filter.factory.CircuitBreakerFilterMetrics;
 import org.springframework.cloud.gateway.filter.factory.FallbackHeadersGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerResilience4JFilterFactory;
 import org.springframework.context.annotation.Bean;
@@ -47,8 +48,11 @@ public class GatewayResilience4JCircuitBreakerAutoConfiguration {
 	@ConditionalOnEnabledFilter
 	public SpringCloudCircuitBreakerResilience4JFilterFactory springCloudCircuitBreakerResilience4JFilterFactory(
 			ReactiveResilience4JCircuitBreakerFactory reactiveCircuitBreakerFactory,
-			ObjectProvider<DispatcherHandler> dispatcherHandler) {
-		return new SpringCloudCircuitBreakerResilience4JFilterFactory(reactiveCircuitBreakerFactory, dispatcherHandler);
+			ObjectProvider<DispatcherHandler> dispatcherHandler, ObjectProvider<CircuitBreakerFilterMetrics> metrics) {
+		SpringCloudCircuitBreakerResilience4JFilterFactory factory = new SpringCloudCircuitBreakerResilience4JFilterFactory(
+				reactiveCircuitBreakerFactory, dispatcherHandler);
+		metrics.ifAvailable(factory::setMetrics);
+		return factory;
 	}
 
 	@Bean
@@ -0,0 +1,139 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.config;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.validation.annotation.Validated;
+
+/**
+ * Configuration properties for the weight route predicate.
+ */
+@ConfigurationProperties(GatewayProperties.PREFIX + ".weight")
+@Validated
+public class GatewayWeightProperties {
+
+	private final Hashing hashing = new Hashing();
+
+	public Hashing getHashing() {
+		return hashing;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this).append("hashing", hashing).toString();
+	}
+
+	public static class Hashing {
+
+		/**
+		 * Enables consistent hashing of weight groups, so that requests with the same key
+		 * are always sent to the same route of a group.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Weight groups that use consistent hashing. All groups if empty.
+		 */
+		private Set<String> groups = new LinkedHashSet<>();
+
+		/**
+		 * Name of the request header used as hash key.
+		 */
+		private String header;
+
+		/**
+		 * Name of the cookie used as hash key, if no header is configured.
+		 */
+		private String cookie;
+
+		/**
+		 * Name of a KeyResolver bean used as hash key, if neither a header nor a cookie
+		 * is configured.
+		 */
+		private String keyResolver;
+
+		/**
+		 * Size of the lookup table of each weight group. Rounded up to the next prime.
+		 */
+		private int tableSize = 4093;
+
+		public boolean isEnabled() {
+			return enabled;
+		}
+
+		public void setEnabled(boolean enabled) {
+			this.enabled = enabled;
+		}
+
+		public Set<String> getGroups() {
+			return groups;
+		}
+
+		public void setGroups(Set<String> groups) {
+			this.groups = groups;
+		}
+
+		public String getHeader() {
+			return header;
+		}
+
+		public void setHeader(String header) {
+			this.header = header;
+		}
+
+		public String getCookie() {
+			return cookie;
+		}
+
+		public void setCookie(String cookie) {
+			this.cookie = cookie;
+		}
+
+		public String getKeyResolver() {
+			return keyResolver;
+		}
+
+		public void setKeyResolver(String keyResolver) {
+			this.keyResolver = keyResolver;
+		}
+
+		public int getTableSize() {
+			return tableSize;
+		}
+
+		public void setTableSize(int tableSize) {
+			this.tableSize = tableSize;
+		}
+
+		@Override
+		public String toString() {
+			return new ToStringCreator(this).append("enabled", enabled)
+				.append("groups", groups)
+				.append("header", header)
+				.append("cookie", cookie)
+				.append("keyResolver", keyResolver)
+				.append("tableSize", tableSize)
+				.toString();
+		}
+
+	}
+
+}
@@ -558,6 +558,18 @@ public class HttpClientProperties {
 		/** Proxy ping frames to downstream services, defaults to true. */
 		private boolean proxyPing = true;
 
+		/**
+		 * Relay frames directly between the Netty connections of clients and downstream
+		 * services, defaults to false.
+		 */
+		private boolean nativeRelay = false;
+
+		/**
+		 * Negotiate the permessage-deflate extension with clients and downstream services,
+		 * defaults to false.
+		 */
+		private boolean compress = false;
+
 		public Integer getMaxFramePayloadLength() {
 			return this.maxFramePayloadLength;
 		}
@@ -574,10 +586,28 @@ public class HttpClientProperties {
 			this.proxyPing = proxyPing;
 		}
 
+		public boolean isNativeRelay() {
+			return nativeRelay;
+		}
+
+		public void setNativeRelay(boolean nativeRelay) {
+			this.nativeRelay = nativeRelay;
+		}
+
+		public boolean isCompress() {
+			return compress;
+		}
+
+		public void setCompress(boolean compress) {
+			this.compress = compress;
+		}
+
 		@Override
 		public String toString() {
 			return new ToStringCreator(this).append("maxFramePayloadLength", maxFramePayloadLength)
 				.append("proxyPing", proxyPing)
+				.append("nativeRelay", nativeRelay)
+				.append("compress", compress)
 				.toString();
 		}
 
@@ -17,12 +17,16 @@
 package org.springframework.cloud.gateway.discovery;
 
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
-import java.util.function.Predicate;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -60,6 +64,12 @@ public class DiscoveryClientRouteDefinitionLocator implements RouteDefinitionLoc
 
 	private @Nullable Flux<List<ServiceInstance>> serviceInstances;
 
+	private final SpelExpressionParser parser = new SpelExpressionParser();
+
+	private final Map<String, Expression> expressions = new ConcurrentHashMap<>();
+
+	private volatile ServiceRoutes serviceRoutes = new ServiceRoutes(null, Map.of());
+
 	public DiscoveryClientRouteDefinitionLocator(ReactiveDiscoveryClient discoveryClient,
 			DiscoveryLocatorProperties properties) {
 		this(discoveryClient.getClass().getSimpleName(), properties);
@@ -80,66 +90,103 @@ public class DiscoveryClientRouteDefinitionLocator implements RouteDefinitionLoc
 
 	@Override
 	public Flux<RouteDefinition> getRouteDefinitions() {
+		Objects.requireNonNull(serviceInstances, "serviceInstances must be set");
+		return serviceInstances.filter(instances -> !instances.isEmpty())
+			.collectList()
+			.flatMapMany(instanceLists -> Flux.fromIterable(getRouteDefinitions(instanceLists)));
+	}
 
-		SpelExpressionParser parser = new SpelExpressionParser();
-		Expression includeExpr = parser.parseExpression(properties.getIncludeExpression());
-		Expression urlExpr = parser.parseExpression(properties.getUrlExpression());
+	/**
+	 * Builds the route definitions of the services whose instances changed since the
+	 * previous call and reuses the definitions of the other services.
+	 */
+	private List<RouteDefinition> getRouteDefinitions(List<List<ServiceInstance>> instanceLists) {
+		Map<String, List<ServiceInstance>> instancesByService = new LinkedHashMap<>();
+		for (List<ServiceInstance> instances : instanceLists) {
+			for (ServiceInstance instance : instances) {
+				instancesByService.computeIfAbsent(instance.getServiceId(), serviceId -> new ArrayList<>())
+					.add(instance);
+			}
+		}
 
-		Predicate<ServiceInstance> includePredicate;
-		if (properties.getIncludeExpression() == null || "true".equalsIgnoreCase(properties.getIncludeExpression())) {
-			includePredicate = instance -> true;
+		PropertiesState propertiesState = new PropertiesState(properties);
+		ServiceRoutes previous = this.serviceRoutes;
+		Map<String, ServiceRoute> previousRoutes = propertiesState.equals(previous.propertiesState())
+				? previous.routes() : Map.of();
+		Map<String, ServiceRoute> routes = new LinkedHashMap<>();
+		List<RouteDefinition> definitions = new ArrayList<>();
+		Set<String> changedServices = new LinkedHashSet<>();
+		for (Map.Entry<String, List<ServiceInstance>> entry : instancesByService.entrySet()) {
+			List<InstanceState> instanceStates = entry.getValue().stream().map(InstanceState::new).toList();
+			ServiceRoute route = previousRoutes.get(entry.getKey());
+			if (route == null || !route.instanceStates().equals(instanceStates)) {
+				route = new ServiceRoute(instanceStates, buildRouteDefinition(entry.getValue()));
+				changedServices.add(entry.getKey());
+			}
+			routes.put(entry.getKey(), route);
+			if (route.definition() != null) {
+				definitions.add(route.definition());
+			}
 		}
-		else {
-			includePredicate = instance -> {
-				Boolean include = includeExpr.getValue(evalCtxt, instance, Boolean.class);
-				if (include == null) {
-					return false;
-				}
-				return include;
-			};
+		this.serviceRoutes = new ServiceRoutes(propertiesState, routes);
+
+		if (log.isDebugEnabled()) {
+			Set<String> removedServices = new LinkedHashSet<>(previousRoutes.keySet());
+			removedServices.removeAll(routes.keySet());
+			log.debug("Discovered services changed: " + changedServices + ", removed: " + removedServices);
 		}
-		Objects.requireNonNull(serviceInstances, "serviceInstances must be set");
-		return serviceInstances.filter(instances -> !instances.isEmpty())
-			.flatMap(Flux::fromIterable)
-			.filter(includePredicate)
-			.collectMap(instance -> instance.getServiceId())
-			// remove duplicates
-			.flatMapMany(map -> Flux.fromIterable(map.values()))
-			.map(instance -> {
-				RouteDefinition routeDefinition = buildRouteDefinition(urlExpr, instance);
-
-				final ServiceInstance instanceForEval = new DelegatingServiceInstance(instance, properties);
-
-				for (PredicateDefinition original : this.properties.getPredicates()) {
-					PredicateDefinition predicate = new PredicateDefinition();
-					if (original.getName() != null) {
-						predicate.setName(original.getName());
-					}
-					for (Map.Entry<String, String> entry : original.getArgs().entrySet()) {
-						String value = getValueFromExpr(evalCtxt, parser, instanceForEval, entry);
-						if (value != null) {
-							predicate.addArg(entry.getKey(), value);
-						}
-					}
-					routeDefinition.getPredicates().add(predicate);
+		return definitions;
+	}
+
+	private @Nullable RouteDefinition buildRouteDefinition(List<ServiceInstance> instances) {
+		String includeExpression = properties.getIncludeExpression();
+		Expression includeExpr = (includeExpression == null || "true".equalsIgnoreCase(includeExpression)) ? null
+				: parseExpression(includeExpression);
+		ServiceInstance instance = null;
+		// the last included instance of the service is used
+		for (ServiceInstance candidate : instances) {
+			if (includeExpr == null || Boolean.TRUE.equals(includeExpr.getValue(evalCtxt, candidate, Boolean.class))) {
+				instance = candidate;
+			}
+		}
+		if (instance == null) {
+			return null;
+		}
+
+		RouteDefinition routeDefinition = buildRouteDefinition(parseExpression(properties.getUrlExpression()),
+				instance);
+
+		final ServiceInstance instanceForEval = new DelegatingServiceInstance(instance, properties);
+
+		for (PredicateDefinition original : this.properties.getPredicates()) {
+			PredicateDefinition predicate = new PredicateDefinition();
+			if (original.getName() != null) {
+				predicate.setName(original.getName());
+			}
+			for (Map.Entry<String, String> entry : original.getArgs().entrySet()) {
+				String value = getValueFromExpr(evalCtxt, instanceForEval, entry);
+				if (value != null) {
+					predicate.addArg(entry.getKey(), value);
 				}
+			}
+			routeDefinition.getPredicates().add(predicate);
+		}
 
-				for (FilterDefinition original : this.properties.getFilters()) {
-					FilterDefinition filter = new FilterDefinition();
-					if (original.getName() != null) {
-						filter.setName(original.getName());
-					}
-					for (Map.Entry<String, String> entry : original.getArgs().entrySet()) {
-						String value = getValueFromExpr(evalCtxt, parser, instanceForEval, entry);
-						if (value != null) {
-							filter.addArg(entry.getKey(), value);
-						}
-					}
-					routeDefinition.getFilters().add(filter);
+		for (FilterDefinition original : this.properties.getFilters()) {
+			FilterDefinition filter = new FilterDefinition();
+			if (original.getName() != null) {
+				filter.setName(original.getName());
+			}
+			for (Map.Entry<String, String> entry : original.getArgs().entrySet()) {
+				String value = getValueFromExpr(evalCtxt, instanceForEval, entry);
+				if (value != null) {
+					filter.addArg(entry.getKey(), value);
 				}
+			}
+			routeDefinition.getFilters().add(filter);
+		}
 
-				return routeDefinition;
-			});
+		return routeDefinition;
 	}
 
 	protected RouteDefinition buildRouteDefinition(Expression urlExpr, ServiceInstance serviceInstance) {
@@ -155,10 +202,10 @@ public class DiscoveryClientRouteDefinitionLocator implements RouteDefinitionLoc
 		return routeDefinition;
 	}
 
-	private @Nullable String getValueFromExpr(SimpleEvaluationContext evalCtxt, SpelExpressionParser parser,
-			ServiceInstance instance, Map.Entry<String, String> entry) {
+	private @Nullable String getValueFromExpr(SimpleEvaluationContext evalCtxt, ServiceInstance instance,
+			Map.Entry<String, String> entry) {
 		try {
-			Expression valueExpr = parser.parseExpression(entry.getValue());
+			Expression valueExpr = parseExpression(entry.getValue());
 			return valueExpr.getValue(evalCtxt, instance, String.class);
 		}
 		catch (ParseException | EvaluationException e) {
@@ -169,6 +216,64 @@ public class DiscoveryClientRouteDefinitionLocator implements RouteDefinitionLoc
 		}
 	}
 
+	private Expression parseExpression(String expression) {
+		return expressions.computeIfAbsent(expression, parser::parseExpression);
+	}
+
+	/**
+	 * The properties that route definitions are built from, which invalidate all cached
+	 * definitions when they change.
+	 */
+	private record PropertiesState(@Nullable String includeExpression, String urlExpression,
+			List<DefinitionState> predicates, List<DefinitionState> filters, boolean lowerCaseServiceId) {
+
+		PropertiesState(DiscoveryLocatorProperties properties) {
+			this(properties.getIncludeExpression(), properties.getUrlExpression(),
+					properties.getPredicates()
+						.stream()
+						.map(predicate -> new DefinitionState(predicate.getName(), predicate.getArgs()))
+						.toList(),
+					properties.getFilters()
+						.stream()
+						.map(filter -> new DefinitionState(filter.getName(), filter.getArgs()))
+						.toList(),
+					properties.isLowerCaseServiceId());
+		}
+
+	}
+
+	private record DefinitionState(@Nullable String name, Map<String, String> args) {
+
+		DefinitionState {
+			args = new HashMap<>(args);
+		}
+
+	}
+
+	/**
+	 * The state of an instance that route definitions may be built from.
+	 */
+	private record InstanceState(@Nullable String instanceId, String serviceId, String host, int port, boolean secure,
+			@Nullable String scheme, @Nullable Map<String, String> metadata) {
+
+		InstanceState(ServiceInstance instance) {
+			this(instance.getInstanceId(), instance.getServiceId(), instance.getHost(), instance.getPort(),
+					instance.isSecure(), instance.getScheme(),
+					instance.getMetadata() != null ? new HashMap<>(instance.getMetadata()) : null);
+		}
+
+	}
+
+	/**
+	 * The route definition of a service, or {@code null} if none of its instances is
+	 * included, with the instances it was built from.
+	 */
+	private record ServiceRoute(List<InstanceState> instanceStates, @Nullable RouteDefinition definition) {
+	}
+
+	private record ServiceRoutes(@Nullable PropertiesState propertiesState, Map<String, ServiceRoute> routes) {
+	}
+
 	private static class DelegatingServiceInstance implements ServiceInstance {
 
 		final ServiceInstance delegate;
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.gateway.event;
 
+import java.util.Set;
+
 import org.jspecify.annotations.Nullable;
 
 import org.springframework.context.ApplicationEvent;
@@ -27,6 +29,8 @@ public class RefreshRoutesResultEvent extends ApplicationEvent {
 
 	private @Nullable Throwable throwable;
 
+	private Set<String> changedRouteIds = Set.of();
+
 	public RefreshRoutesResultEvent(Object source, Throwable throwable) {
 		super(source);
 		this.throwable = throwable;
@@ -36,6 +40,11 @@ public class RefreshRoutesResultEvent extends ApplicationEvent {
 		super(source);
 	}
 
+	public RefreshRoutesResultEvent(Object source, Set<String> changedRouteIds) {
+		super(source);
+		this.changedRouteIds = changedRouteIds;
+	}
+
 	public @Nullable Throwable getThrowable() {
 		return throwable;
 	}
@@ -44,4 +53,12 @@ public class RefreshRoutesResultEvent extends ApplicationEvent {
 		return throwable == null;
 	}
 
+	/**
+	 * @return the ids of the routes that were added, removed or rebuilt by the refresh,
+	 * empty if the refresh failed
+	 */
+	public Set<String> getChangedRouteIds() {
+		return changedRouteIds;
+	}
+
 }
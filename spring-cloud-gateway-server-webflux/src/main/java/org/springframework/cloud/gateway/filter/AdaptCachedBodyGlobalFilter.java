@@ -23,10 +23,10 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.event.EnableBodyCachingEvent;
 import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RequestBodyCachePolicy;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
-import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -38,6 +38,16 @@ public class AdaptCachedBodyGlobalFilter implements GlobalFilter, Ordered, Appli
 
 	private ConcurrentMap<String, Boolean> routesToCache = new ConcurrentHashMap<>();
 
+	private final RequestBodyCachePolicy requestBodyCachePolicy;
+
+	public AdaptCachedBodyGlobalFilter() {
+		this(RequestBodyCachePolicy.IN_MEMORY);
+	}
+
+	public AdaptCachedBodyGlobalFilter(RequestBodyCachePolicy requestBodyCachePolicy) {
+		this.requestBodyCachePolicy = requestBodyCachePolicy;
+	}
+
 	@Override
 	public void onApplicationEvent(EnableBodyCachingEvent event) {
 		this.routesToCache.putIfAbsent(event.getRouteId(), true);
@@ -55,14 +65,14 @@ public class AdaptCachedBodyGlobalFilter implements GlobalFilter, Ordered, Appli
 		}
 
 		//
-		DataBuffer body = exchange.getAttribute(CACHED_REQUEST_BODY_ATTR);
+		Object body = exchange.getAttribute(CACHED_REQUEST_BODY_ATTR);
 		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
 
 		if (body != null || route == null || !this.routesToCache.containsKey(route.getId())) {
 			return chain.filter(exchange);
 		}
 
-		return ServerWebExchangeUtils.cacheRequestBody(exchange, (serverHttpRequest) -> {
+		return ServerWebExchangeUtils.cacheRequestBody(exchange, requestBodyCachePolicy, (serverHttpRequest) -> {
 			// don't mutate and build if same request object
 			if (serverHttpRequest == exchange.getRequest()) {
 				return chain.filter(exchange);
@@ -27,18 +27,17 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import org.springframework.cloud.function.context.FunctionCatalog;
 import org.springframework.cloud.function.context.catalog.SimpleFunctionRegistry.FunctionInvocationWrapper;
 import org.springframework.cloud.gateway.filter.factory.rewrite.CachedBodyOutputMessage;
+import org.springframework.cloud.gateway.filter.factory.rewrite.CompressionMessageBodyResolver;
 import org.springframework.cloud.gateway.filter.factory.rewrite.MessageBodyEncoder;
 import org.springframework.cloud.gateway.support.BodyInserterContext;
 import org.springframework.cloud.gateway.support.MessageHeaderUtils;
 import org.springframework.cloud.gateway.support.NotFoundException;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.codec.HttpMessageReader;
@@ -76,7 +75,8 @@ public class FunctionRoutingFilter implements GlobalFilter, Ordered {
 		this.functionCatalog = functionCatalog;
 		this.messageReaders = messageReaders;
 		this.messageBodyEncoders = messageBodyEncoders.stream()
-			.collect(Collectors.toMap(MessageBodyEncoder::encodingType, identity()));
+			.collect(Collectors.toMap(MessageBodyEncoder::encodingType, identity(),
+					CompressionMessageBodyResolver::preferUserDefined));
 	}
 
 	@Override
@@ -173,26 +173,19 @@ public class FunctionRoutingFilter implements GlobalFilter, Ordered {
 
 	private Mono<DataBuffer> writeBody(ServerHttpResponse httpResponse, CachedBodyOutputMessage message,
 			Class<?> outClass) {
-		Mono<DataBuffer> response = DataBufferUtils.join(message.getBody());
 		if (byte[].class.isAssignableFrom(outClass)) {
-			return response;
+			return DataBufferUtils.join(message.getBody());
 		}
 
 		List<String> encodingHeaders = httpResponse.getHeaders().getOrEmpty(HttpHeaders.CONTENT_ENCODING);
 		for (String encoding : encodingHeaders) {
 			MessageBodyEncoder encoder = messageBodyEncoders.get(encoding);
 			if (encoder != null) {
-				DataBufferFactory dataBufferFactory = httpResponse.bufferFactory();
-				response = response.publishOn(Schedulers.parallel()).map(buffer -> {
-					byte[] encodedResponse = encoder.encode(buffer);
-					DataBufferUtils.release(buffer);
-					return encodedResponse;
-				}).map(dataBufferFactory::wrap);
-				break;
+				return DataBufferUtils.join(encoder.encode(message.getBody(), httpResponse.bufferFactory()));
 			}
 		}
 
-		return response;
+		return DataBufferUtils.join(message.getBody());
 	}
 
 }
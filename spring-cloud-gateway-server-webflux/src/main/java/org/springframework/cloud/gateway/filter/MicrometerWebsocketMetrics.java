@@ -0,0 +1,107 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter;
+
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link WebsocketMetrics} exporting per route the number of active sessions and, per
+ * direction, the number of frames and payload bytes relayed to a {@link MeterRegistry}.
+ * Meters are registered once per route.
+ */
+public class MicrometerWebsocketMetrics implements WebsocketMetrics {
+
+	private final MeterRegistry meterRegistry;
+
+	private final String metricsPrefix;
+
+	private final Map<String, RouteMeters> routes = new ConcurrentHashMap<>();
+
+	public MicrometerWebsocketMetrics(MeterRegistry meterRegistry, String metricsPrefix) {
+		this.meterRegistry = meterRegistry;
+		if (metricsPrefix.endsWith(".")) {
+			this.metricsPrefix = metricsPrefix.substring(0, metricsPrefix.length() - 1);
+		}
+		else {
+			this.metricsPrefix = metricsPrefix;
+		}
+	}
+
+	@Override
+	public RouteRecorder forRoute(@Nullable String routeId) {
+		return routes.computeIfAbsent(routeId != null ? routeId : "", RouteMeters::new);
+	}
+
+	private final class RouteMeters implements RouteRecorder {
+
+		private final AtomicInteger activeSessions = new AtomicInteger();
+
+		private final Map<Direction, Counter> frames = new EnumMap<>(Direction.class);
+
+		private final Map<Direction, Counter> bytes = new EnumMap<>(Direction.class);
+
+		private RouteMeters(String routeId) {
+			Tags tags = Tags.of("routeId", routeId);
+			Gauge.builder(metricsPrefix + ".websocket.sessions.active", activeSessions, AtomicInteger::get)
+				.description("Number of WebSocket sessions being proxied")
+				.tags(tags)
+				.register(meterRegistry);
+			for (Direction direction : Direction.values()) {
+				Tags directionTags = tags.and("direction", direction.name().toLowerCase(Locale.ROOT));
+				frames.put(direction,
+						Counter.builder(metricsPrefix + ".websocket.frames")
+							.description("Number of WebSocket frames relayed")
+							.tags(directionTags)
+							.register(meterRegistry));
+				bytes.put(direction,
+						Counter.builder(metricsPrefix + ".websocket.bytes")
+							.description("Payload size of the WebSocket frames relayed")
+							.baseUnit("bytes")
+							.tags(directionTags)
+							.register(meterRegistry));
+			}
+		}
+
+		@Override
+		public void sessionOpened() {
+			activeSessions.incrementAndGet();
+		}
+
+		@Override
+		public void sessionClosed() {
+			activeSessions.decrementAndGet();
+		}
+
+		@Override
+		public void frame(Direction direction, int bytes) {
+			this.frames.get(direction).increment();
+			this.bytes.get(direction).increment(bytes);
+		}
+
+	}
+
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+import io.netty.handler.codec.http.websocketx.WebSocketCloseStatus;
+import io.netty.handler.codec.http.websocketx.WebSocketFrame;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.netty.channel.AbortedException;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.WebsocketClientSpec;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.http.server.WebsocketServerSpec;
+import reactor.netty.http.websocket.WebsocketInbound;
+import reactor.netty.http.websocket.WebsocketOutbound;
+
+import org.springframework.cloud.gateway.filter.WebsocketMetrics.Direction;
+import org.springframework.cloud.gateway.filter.WebsocketMetrics.RouteRecorder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.CollectionUtils;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.client.ReactorNettyWebSocketClient;
+import org.springframework.web.reactive.socket.client.WebSocketClient;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Relays WebSocket frames directly between the Reactor Netty connections of the client
+ * and of the downstream service. Frames, including fragments and control frames, are
+ * forwarded as they are received, with their buffers retained rather than wrapped as
+ * {@code WebSocketMessage}s. Reading from one side is driven by the demand of the other,
+ * so a slow reader pauses the other connection, and writes are flushed once no more
+ * frames are pending, so that bursts share a single flush.
+ *
+ * <p>
+ * The downstream connection is established first, so that its selected sub-protocol is
+ * the one accepted from the client, and a failed connection is reported to the client as
+ * an HTTP error instead of a closed session.
+ */
+final class NettyWebsocketRelay {
+
+	private final HttpClient httpClient;
+
+	private final WebsocketClientSpec clientSpec;
+
+	private final WebsocketServerSpec serverSpec;
+
+	private NettyWebsocketRelay(HttpClient httpClient, WebsocketClientSpec clientSpec,
+			WebsocketServerSpec serverSpec) {
+		this.httpClient = httpClient;
+		this.clientSpec = clientSpec;
+		this.serverSpec = serverSpec;
+	}
+
+	/**
+	 * @param client the client used to connect to downstream services
+	 * @param service the service used to upgrade client requests
+	 * @return the relay, or {@code null} if the client or the service do not use Reactor
+	 * Netty
+	 */
+	static @Nullable NettyWebsocketRelay create(WebSocketClient client, WebSocketService service) {
+		if (client instanceof ReactorNettyWebSocketClient reactorClient
+				&& service instanceof HandshakeWebSocketService handshakeService
+				&& handshakeService.getUpgradeStrategy() instanceof ReactorNettyRequestUpgradeStrategy strategy) {
+			return new NettyWebsocketRelay(reactorClient.getHttpClient(), reactorClient.getWebsocketClientSpec(),
+					strategy.getWebsocketServerSpec());
+		}
+		return null;
+	}
+
+	/**
+	 * @param exchange the current exchange
+	 * @return the Reactor Netty response of a WebSocket upgrade request, or {@code null}
+	 * if the request is not an upgrade request or is not served by Reactor Netty
+	 */
+	static @Nullable HttpServerResponse getNativeResponse(ServerWebExchange exchange) {
+		HttpHeaders headers = exchange.getRequest().getHeaders();
+		if (!HttpMethod.GET.equals(exchange.getRequest().getMethod())
+				|| !"WebSocket".equalsIgnoreCase(headers.getUpgrade())) {
+			// leave the error response to the WebSocketService
+			return null;
+		}
+		try {
+			Object response = ServerHttpResponseDecorator.getNativeResponse(exchange.getResponse());
+			return (response instanceof HttpServerResponse serverResponse) ? serverResponse : null;
+		}
+		catch (IllegalArgumentException e) {
+			return null;
+		}
+	}
+
+	Mono<Void> relay(ServerWebExchange exchange, HttpServerResponse nativeResponse, URI url, HttpHeaders headers,
+			@Nullable List<String> protocols, RouteRecorder recorder) {
+		WebsocketClientSpec.Builder spec = WebsocketClientSpec.builder()
+			.maxFramePayloadLength(clientSpec.maxFramePayloadLength())
+			.handlePing(clientSpec.handlePing())
+			.compress(clientSpec.compress());
+		if (!CollectionUtils.isEmpty(protocols)) {
+			spec.protocols(String.join(",", protocols));
+		}
+		return httpClient.headers(nettyHeaders -> {
+			for (Map.Entry<String, List<String>> entry : headers.headerSet()) {
+				nettyHeaders.set(entry.getKey(), entry.getValue());
+			}
+		})
+			.websocket(spec.build())
+			.uri(url.toString())
+			.handle((downstreamIn, downstreamOut) -> upgrade(exchange.getResponse(), nativeResponse,
+					downstreamIn, downstreamOut, recorder))
+			.then();
+	}
+
+	private Mono<Void> upgrade(ServerHttpResponse response, HttpServerResponse nativeResponse,
+			WebsocketInbound downstreamIn, WebsocketOutbound downstreamOut, RouteRecorder recorder) {
+		WebsocketServerSpec.Builder spec = WebsocketServerSpec.builder()
+			.maxFramePayloadLength(serverSpec.maxFramePayloadLength())
+			.handlePing(serverSpec.handlePing())
+			.compress(serverSpec.compress());
+		String protocol = downstreamIn.selectedSubprotocol();
+		if (protocol != null && !protocol.isEmpty()) {
+			spec.protocols(protocol);
+		}
+		// the downstream connection is disposed once this handler completes, which
+		// sendWebsocket does as soon as the client upgrade is done, so the handler
+		// completes only once the relay of frames terminated
+		Sinks.Empty<Void> relayed = Sinks.empty();
+		// commit the headers added by filters before the upgrade response is written
+		return response.setComplete()
+			.then(Mono.defer(() -> nativeResponse.sendWebsocket(
+					(clientIn, clientOut) -> relay(clientIn, clientOut, downstreamIn, downstreamOut, recorder)
+						.doFinally(signalType -> relayed.tryEmitEmpty()),
+					spec.build())))
+			.then(relayed.asMono());
+	}
+
+	private static Mono<Void> relay(WebsocketInbound clientIn, WebsocketOutbound clientOut,
+			WebsocketInbound downstreamIn, WebsocketOutbound downstreamOut, RouteRecorder recorder) {
+		// Ensure closeStatus from one propagates to the other
+		Mono<Void> closeDownstream = clientIn.receiveCloseStatus().flatMap(status -> close(downstreamOut, status));
+		Mono<Void> closeClient = downstreamIn.receiveCloseStatus().flatMap(status -> close(clientOut, status));
+		Mono.when(closeDownstream, closeClient).subscribe();
+
+		recorder.sessionOpened();
+		Mono<Void> toDownstream = send(downstreamOut, frames(clientIn, recorder, Direction.INBOUND));
+		Mono<Void> toClient = send(clientOut, frames(downstreamIn, recorder, Direction.OUTBOUND));
+		return Mono.when(toDownstream, toClient).doFinally(signalType -> recorder.sessionClosed());
+	}
+
+	private static Flux<WebSocketFrame> frames(WebsocketInbound inbound, RouteRecorder recorder,
+			Direction direction) {
+		// frames are released once emitted, retain them until they are written to the other side
+		return inbound.receiveFrames().doOnNext(frame -> {
+			frame.retain();
+			recorder.frame(direction, frame.content().readableBytes());
+		});
+	}
+
+	private static Mono<Void> send(WebsocketOutbound outbound, Flux<WebSocketFrame> frames) {
+		// without a flush predicate, frames are flushed once no more are pending
+		return outbound.sendObject(frames).then().onErrorResume(AbortedException.class, e -> Mono.empty());
+	}
+
+	private static Mono<Void> close(WebsocketOutbound outbound, WebSocketCloseStatus status) {
+		int code = status.code();
+		CloseStatus closeStatus = (code >= 1000 && code < 5000)
+				? WebsocketRoutingFilter.adaptCloseStatus(new CloseStatus(code, status.reasonText()))
+				: CloseStatus.PROTOCOL_ERROR;
+		return outbound.sendClose(closeStatus.getCode(), closeStatus.getReason())
+			.onErrorResume(AbortedException.class, e -> Mono.empty());
+	}
+
+}
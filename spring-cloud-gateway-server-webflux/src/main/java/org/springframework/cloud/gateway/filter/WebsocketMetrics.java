@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Records the sessions and frames proxied by the {@link WebsocketRoutingFilter}, for
+ * example to export them as metrics.
+ */
+public interface WebsocketMetrics {
+
+	/**
+	 * Called once for every proxied session.
+	 * @param routeId the id of the route
+	 * @return the recorder used for the frames of the session
+	 */
+	RouteRecorder forRoute(@Nullable String routeId);
+
+	/**
+	 * The direction in which a frame is relayed.
+	 */
+	enum Direction {
+
+		/**
+		 * From the client to the downstream service.
+		 */
+		INBOUND,
+
+		/**
+		 * From the downstream service to the client.
+		 */
+		OUTBOUND
+
+	}
+
+	interface RouteRecorder {
+
+		/**
+		 * No-op recorder.
+		 */
+		RouteRecorder NONE = new RouteRecorder() {
+
+			@Override
+			public void sessionOpened() {
+			}
+
+			@Override
+			public void sessionClosed() {
+			}
+
+			@Override
+			public void frame(Direction direction, int bytes) {
+			}
+
+		};
+
+		/**
+		 * Called when both sides of a session are connected.
+		 */
+		void sessionOpened();
+
+		/**
+		 * Called when a session that was opened ends.
+		 */
+		void sessionClosed();
+
+		/**
+		 * Called for every data or control frame relayed.
+		 * @param direction the direction of the frame
+		 * @param bytes the size of the frame payload
+		 */
+		void frame(Direction direction, int bytes);
+
+	}
+
+}
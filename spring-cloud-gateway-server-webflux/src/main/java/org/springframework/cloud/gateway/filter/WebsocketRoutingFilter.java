@@ -28,9 +28,11 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.server.HttpServerResponse;
 
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter;
+import org.springframework.cloud.gateway.route.Route;
 import org.springframework.core.Ordered;
 import org.springframework.http.HttpHeaders;
 import org.springframework.util.StringUtils;
@@ -45,6 +47,7 @@ import org.springframework.web.util.UriComponentsBuilder;
 
 import static org.springframework.cloud.gateway.filter.headers.HttpHeadersFilter.filterRequest;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.PRESERVE_HOST_HEADER_ATTRIBUTE;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.containsEncodedParts;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.isAlreadyRouted;
@@ -72,6 +75,10 @@ public class WebsocketRoutingFilter implements GlobalFilter, Ordered {
 	// do not use this headersFilters directly, use getHeadersFilters() instead.
 	private volatile @Nullable List<HttpHeadersFilter> headersFilters;
 
+	private @Nullable NettyWebsocketRelay nettyRelay;
+
+	private WebsocketMetrics metrics = routeId -> WebsocketMetrics.RouteRecorder.NONE;
+
 	public WebsocketRoutingFilter(WebSocketClient webSocketClient, WebSocketService webSocketService,
 			ObjectProvider<List<HttpHeadersFilter>> headersFiltersProvider) {
 		this.webSocketClient = webSocketClient;
@@ -79,6 +86,29 @@ public class WebsocketRoutingFilter implements GlobalFilter, Ordered {
 		this.headersFiltersProvider = headersFiltersProvider;
 	}
 
+	/**
+	 * Relays frames directly between the Reactor Netty connections of the client and of
+	 * the downstream service, rather than through {@link WebSocketSession}s. Only applies
+	 * if both the {@link WebSocketClient} and the {@link WebSocketService} use Reactor
+	 * Netty, other requests are proxied through sessions.
+	 * @param nativeRelay whether to relay frames between the Netty connections
+	 */
+	public void setNativeRelay(boolean nativeRelay) {
+		this.nettyRelay = nativeRelay ? NettyWebsocketRelay.create(this.webSocketClient, this.webSocketService) : null;
+	}
+
+	/**
+	 * @return whether frames are relayed between the Netty connections, which requires
+	 * {@link #setNativeRelay(boolean)} and Reactor Netty
+	 */
+	public boolean isNativeRelay() {
+		return this.nettyRelay != null;
+	}
+
+	public void setMetrics(WebsocketMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	/* for testing */
 	static String convertHttpToWs(String scheme) {
 		scheme = scheme.toLowerCase(Locale.ROOT);
@@ -108,8 +138,58 @@ public class WebsocketRoutingFilter implements GlobalFilter, Ordered {
 
 		List<String> protocols = getProtocols(headers);
 
+		Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+		WebsocketMetrics.RouteRecorder recorder = this.metrics.forRoute(route != null ? route.getId() : null);
+
+		NettyWebsocketRelay nettyRelay = this.nettyRelay;
+		if (nettyRelay != null) {
+			HttpServerResponse nativeResponse = NettyWebsocketRelay.getNativeResponse(exchange);
+			if (nativeResponse != null) {
+				return nettyRelay.relay(exchange, nativeResponse, requestUrl, filtered, protocols, recorder);
+			}
+		}
+
 		return this.webSocketService.handleRequest(exchange,
-				new ProxyWebSocketHandler(requestUrl, this.webSocketClient, filtered, protocols));
+				new ProxyWebSocketHandler(requestUrl, this.webSocketClient, filtered, protocols, recorder));
+	}
+
+	static CloseStatus adaptCloseStatus(CloseStatus closeStatus) {
+		int code = closeStatus.getCode();
+		if (code > 2999 && code < 5000) {
+			return closeStatus;
+		}
+		switch (code) {
+			case 1000:
+			case 1001:
+			case 1002:
+			case 1003:
+			case 1007:
+			case 1008:
+			case 1009:
+			case 1010:
+			case 1011:
+				return closeStatus;
+			case 1004:
+				// Should not be used in a close frame
+				// RESERVED;
+			case 1005:
+				// Should not be used in a close frame
+				// return CloseStatus.NO_STATUS_CODE;
+			case 1006:
+				// Should not be used in a close frame
+				// return CloseStatus.NO_CLOSE_FRAME;
+			case 1012:
+				// Not in RFC6455
+				// return CloseStatus.SERVICE_RESTARTED;
+			case 1013:
+				// Not in RFC6455
+				// return CloseStatus.SERVICE_OVERLOAD;
+			case 1015:
+				// Should not be used in a close frame
+				// return CloseStatus.TLS_HANDSHAKE_FAILURE;
+			default:
+				return CloseStatus.PROTOCOL_ERROR;
+		}
 	}
 
 	/* for testing */ static @Nullable List<String> getProtocols(HttpHeaders headers) {
@@ -183,10 +263,14 @@ public class WebsocketRoutingFilter implements GlobalFilter, Ordered {
 
 		private final List<String> subProtocols;
 
-		ProxyWebSocketHandler(URI url, WebSocketClient client, HttpHeaders headers, @Nullable List<String> protocols) {
+		private final WebsocketMetrics.RouteRecorder recorder;
+
+		ProxyWebSocketHandler(URI url, WebSocketClient client, HttpHeaders headers, @Nullable List<String> protocols,
+				WebsocketMetrics.RouteRecorder recorder) {
 			this.client = client;
 			this.url = url;
 			this.headers = headers;
+			this.recorder = recorder;
 			if (protocols != null) {
 				this.subProtocols = protocols;
 			}
@@ -205,58 +289,21 @@ public class WebsocketRoutingFilter implements GlobalFilter, Ordered {
 			// pass headers along so custom headers can be sent through
 			return client.execute(url, this.headers, new WebSocketHandler() {
 
-				private CloseStatus adaptCloseStatus(CloseStatus closeStatus) {
-					int code = closeStatus.getCode();
-					if (code > 2999 && code < 5000) {
-						return closeStatus;
-					}
-					switch (code) {
-						case 1000:
-						case 1001:
-						case 1002:
-						case 1003:
-						case 1007:
-						case 1008:
-						case 1009:
-						case 1010:
-						case 1011:
-							return closeStatus;
-						case 1004:
-							// Should not be used in a close frame
-							// RESERVED;
-						case 1005:
-							// Should not be used in a close frame
-							// return CloseStatus.NO_STATUS_CODE;
-						case 1006:
-							// Should not be used in a close frame
-							// return CloseStatus.NO_CLOSE_FRAME;
-						case 1012:
-							// Not in RFC6455
-							// return CloseStatus.SERVICE_RESTARTED;
-						case 1013:
-							// Not in RFC6455
-							// return CloseStatus.SERVICE_OVERLOAD;
-						case 1015:
-							// Should not be used in a close frame
-							// return CloseStatus.TLS_HANDSHAKE_FAILURE;
-						default:
-							return CloseStatus.PROTOCOL_ERROR;
-					}
-				}
-
 				@Override
 				public Mono<Void> handle(WebSocketSession proxySession) {
 					Mono<Void> serverClose = proxySession.closeStatus()
 						.filter(__ -> session.isOpen())
-						.map(this::adaptCloseStatus)
+						.map(WebsocketRoutingFilter::adaptCloseStatus)
 						.flatMap(session::close);
 					Mono<Void> proxyClose = session.closeStatus()
 						.filter(__ -> proxySession.isOpen())
-						.map(this::adaptCloseStatus)
+						.map(WebsocketRoutingFilter::adaptCloseStatus)
 						.flatMap(proxySession::close);
 					// Use retain() for Reactor Netty
 					Mono<Void> proxySessionSend = proxySession
 						.send(session.receive().doOnNext(WebSocketMessage::retain).doOnNext(webSocketMessage -> {
+							recorder.frame(WebsocketMetrics.Direction.INBOUND,
+									webSocketMessage.getPayload().readableByteCount());
 							if (log.isTraceEnabled()) {
 								log.trace("proxySession(send from client): " + proxySession.getId()
 										+ ", corresponding session:" + session.getId() + ", packet: "
@@ -266,6 +313,8 @@ public class WebsocketRoutingFilter implements GlobalFilter, Ordered {
 					// .log("proxySessionSend", Level.FINE);
 					Mono<Void> serverSessionSend = session
 						.send(proxySession.receive().doOnNext(WebSocketMessage::retain).doOnNext(webSocketMessage -> {
+							recorder.frame(WebsocketMetrics.Direction.OUTBOUND,
+									webSocketMessage.getPayload().readableByteCount());
 							if (log.isTraceEnabled()) {
 								log.trace("session(send from backend): " + session.getId()
 										+ ", corresponding proxySession:" + proxySession.getId() + " packet: "
@@ -275,8 +324,11 @@ public class WebsocketRoutingFilter implements GlobalFilter, Ordered {
 					// .log("sessionSend", Level.FINE);
 					// Ensure closeStatus from one propagates to the other
 					Mono.when(serverClose, proxyClose).subscribe();
+					recorder.sessionOpened();
 					// Complete when both sessions are done
-					return Mono.zip(proxySessionSend, serverSessionSend).then();
+					return Mono.zip(proxySessionSend, serverSessionSend)
+						.then()
+						.doFinally(signalType -> recorder.sessionClosed());
 				}
 
 				/**
@@ -16,11 +16,13 @@
 
 package org.springframework.cloud.gateway.filter;
 
-import java.util.ArrayList;
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedHashMap;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -38,6 +40,7 @@ import org.springframework.cloud.gateway.event.PredicateArgsEvent;
 import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.event.RouteDeletedEvent;
 import org.springframework.cloud.gateway.event.WeightDefinedEvent;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.cloud.gateway.support.WeightConfig;
@@ -46,6 +49,7 @@ import org.springframework.context.event.SmartApplicationListener;
 import org.springframework.core.Ordered;
 import org.springframework.core.log.LogMessage;
 import org.springframework.core.style.ToStringCreator;
+import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
@@ -75,6 +79,12 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 
 	private Map<String, GroupWeightConfig> groupWeights = new ConcurrentHashMap<>();
 
+	private @Nullable KeyResolver hashKeyResolver;
+
+	private Set<String> hashGroups = Collections.emptySet();
+
+	private int hashTableSize = WeightedMaglevTable.DEFAULT_TABLE_SIZE;
+
 	private final AtomicBoolean routeLocatorInitialized = new AtomicBoolean();
 
 	public WeightCalculatorWebFilter(ObjectProvider<RouteLocator> routeLocator,
@@ -113,6 +123,37 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 		this.randomFunction = randomFunction;
 	}
 
+	/**
+	 * Enables consistent hashing of weight groups. Requests resolving to the same key are
+	 * always routed to the same route of a group, and a change of weights only moves a
+	 * share of keys proportional to the change. Requests for which the resolver emits no
+	 * key fall back to the random function.
+	 * @param hashKeyResolver resolves the key to hash, or {@code null} to disable
+	 * consistent hashing
+	 */
+	public void setHashKeyResolver(@Nullable KeyResolver hashKeyResolver) {
+		this.hashKeyResolver = hashKeyResolver;
+	}
+
+	/**
+	 * @param hashGroups the weight groups using consistent hashing, all groups if empty
+	 */
+	public void setHashGroups(Set<String> hashGroups) {
+		Objects.requireNonNull(hashGroups, "hashGroups may not be null");
+		this.hashGroups = hashGroups;
+	}
+
+	/**
+	 * @param hashTableSize the size of the consistent hashing lookup table of a group,
+	 * rounded up to the next prime
+	 */
+	public void setHashTableSize(int hashTableSize) {
+		if (hashTableSize < 1) {
+			throw new IllegalArgumentException("hashTableSize must be greater than 0");
+		}
+		this.hashTableSize = hashTableSize;
+	}
+
 	@Override
 	public boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
 		// from config file
@@ -175,7 +216,8 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 		return args.keySet().stream().anyMatch(key -> key.startsWith(WeightConfig.CONFIG_PREFIX + "."));
 	}
 
-	/* for testing */ void addWeightConfig(WeightConfig weightConfig) {
+	// synchronized as routes may be built in parallel
+	/* for testing */ synchronized void addWeightConfig(WeightConfig weightConfig) {
 		String group = weightConfig.getGroup();
 		GroupWeightConfig config;
 		// only create new GroupWeightConfig rather than modify
@@ -210,18 +252,14 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 			config.rangeIndexes.put(index.getAndIncrement(), routeId);
 		}
 
-		// TODO: calculate ranges
-		config.ranges.clear();
-
-		config.ranges.add(0.0);
-
-		List<Double> values = new ArrayList<>(config.normalizedWeights.values());
-		for (int i = 0; i < values.size(); i++) {
-			Double currentWeight = values.get(i);
-			Double previousRange = config.ranges.get(i);
-			Double range = previousRange + currentWeight;
-			config.ranges.add(range);
+		double[] ranges = new double[config.normalizedWeights.size() + 1];
+		int i = 0;
+		for (Double currentWeight : config.normalizedWeights.values()) {
+			ranges[i + 1] = ranges[i] + currentWeight;
+			i++;
 		}
+		config.ranges = ranges;
+		config.rangeRouteIds = config.normalizedWeights.keySet().toArray(new String[0]);
 
 		if (log.isTraceEnabled()) {
 			log.trace("Recalculated group weight config " + config);
@@ -230,12 +268,13 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 		groupWeights.put(group, config);
 	}
 
-	private void removeWeightConfig(String routeId) {
+	private synchronized void removeWeightConfig(String routeId) {
 		log.trace(LogMessage.format("Removing weight config for route %s", routeId));
 		groupWeights.forEach((group, weightConfig) -> {
 			if (weightConfig.normalizedWeights.containsKey(routeId)) {
 				weightConfig.normalizedWeights.remove(routeId);
 				weightConfig.weights.remove(routeId);
+				weightConfig.hashTable = null;
 			}
 		});
 	}
@@ -246,42 +285,123 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 
 	@Override
 	public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-		Map<String, String> weights = getWeights(exchange);
+		// weights are only calculated for the groups a WeightRoutePredicateFactory
+		// actually asks for, see LazyWeights
+		Map<String, String> existing = exchange.getAttribute(WEIGHT_ATTR);
+
+		if (hashKeyResolver == null) {
+			exchange.getAttributes().put(WEIGHT_ATTR, new LazyWeights(exchange, existing, null));
+			return chain.filter(exchange);
+		}
+
+		return hashKeyResolver.resolve(exchange).defaultIfEmpty("").flatMap(key -> {
+			exchange.getAttributes()
+				.put(WEIGHT_ATTR, new LazyWeights(exchange, existing, StringUtils.hasLength(key) ? key : null));
+			return chain.filter(exchange);
+		});
+	}
+
+	/* for testing */ @Nullable String chooseRoute(ServerWebExchange exchange, String group,
+			@Nullable String hashKey) {
+		GroupWeightConfig config = groupWeights.get(group);
 
-		for (String group : groupWeights.keySet()) {
-			GroupWeightConfig config = groupWeights.get(group);
+		if (config == null) {
+			if (log.isDebugEnabled()) {
+				log.debug("No GroupWeightConfig found for group: " + group);
+			}
+			return null;
+		}
 
-			if (config == null) {
-				if (log.isDebugEnabled()) {
-					log.debug("No GroupWeightConfig found for group: " + group);
+		if (hashKey != null && (hashGroups.isEmpty() || hashGroups.contains(group))) {
+			WeightedMaglevTable table = config.getHashTable(hashTableSize);
+			if (table != null) {
+				String routeId = table.lookup(hashKey);
+				if (log.isTraceEnabled()) {
+					log.trace("Weight for group: " + group + ", hash key: " + hashKey + ", route: " + routeId);
 				}
-				continue; // nothing we can do, but this is odd
+				return routeId;
 			}
+		}
+
+		// Usually, multiple threads accessing the same random object will have some
+		// performance problems, so we can use ThreadLocalRandom by default
+		double r = randomFunction.apply(exchange);
 
-			// Usually, multiple threads accessing the same random object will have some
-			// performance problems, so we can use ThreadLocalRandom by default
-			double r = randomFunction.apply(exchange);
+		double[] ranges = config.ranges;
 
-			List<Double> ranges = config.ranges;
+		if (log.isTraceEnabled()) {
+			log.trace("Weight for group: " + group + ", ranges: " + Arrays.toString(ranges) + ", r: " + r);
+		}
+
+		int index = config.rangeIndexOf(r);
+		return index >= 0 ? config.rangeRouteIds[index] : null;
+	}
 
-			if (log.isTraceEnabled()) {
-				log.trace("Weight for group: " + group + ", ranges: " + ranges + ", r: " + r);
+	/**
+	 * Per exchange view of the chosen route for each weight group. A group is only
+	 * evaluated the first time it is looked up, so requests do not pay for weight groups
+	 * unrelated to the routes being tested. Entries already present in a weights map
+	 * placed on the exchange before this filter ran are kept for groups that have no
+	 * {@link GroupWeightConfig}.
+	 */
+	private final class LazyWeights extends AbstractMap<String, String> {
+
+		private final ServerWebExchange exchange;
+
+		private final @Nullable String hashKey;
+
+		private final Map<String, String> chosen = new ConcurrentHashMap<>();
+
+		LazyWeights(ServerWebExchange exchange, @Nullable Map<String, String> existing, @Nullable String hashKey) {
+			this.exchange = exchange;
+			this.hashKey = hashKey;
+			if (existing != null) {
+				existing.forEach((group, routeId) -> {
+					if (!groupWeights.containsKey(group)) {
+						chosen.put(group, routeId);
+					}
+				});
 			}
+		}
 
-			for (int i = 0; i < ranges.size() - 1; i++) {
-				if (r >= ranges.get(i) && r < ranges.get(i + 1)) {
-					String routeId = config.rangeIndexes.get(i);
-					weights.put(group, routeId);
-					break;
+		@Override
+		public @Nullable String get(Object key) {
+			if (!(key instanceof String group)) {
+				return null;
+			}
+			String routeId = chosen.get(group);
+			if (routeId == null) {
+				routeId = chooseRoute(exchange, group, hashKey);
+				if (routeId != null) {
+					String previous = chosen.putIfAbsent(group, routeId);
+					if (previous != null) {
+						routeId = previous;
+					}
 				}
 			}
+			return routeId;
 		}
 
-		if (log.isTraceEnabled()) {
-			log.trace("Weights attr: " + weights);
+		@Override
+		public boolean containsKey(Object key) {
+			return get(key) != null;
+		}
+
+		@Override
+		public @Nullable String put(String group, String routeId) {
+			return chosen.put(group, routeId);
+		}
+
+		@Override
+		public @Nullable String remove(Object key) {
+			return chosen.remove(key);
+		}
+
+		@Override
+		public Set<Entry<String, String>> entrySet() {
+			return chosen.entrySet();
 		}
 
-		return chain.filter(exchange);
 	}
 
 	/* for testing */ static class GroupWeightConfig {
@@ -294,7 +414,11 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 
 		LinkedHashMap<Integer, String> rangeIndexes = new LinkedHashMap<>();
 
-		List<Double> ranges = new ArrayList<>();
+		double[] ranges = new double[0];
+
+		String[] rangeRouteIds = new String[0];
+
+		private volatile @Nullable WeightedMaglevTable hashTable;
 
 		GroupWeightConfig(String group) {
 			this.group = group;
@@ -313,9 +437,49 @@ public class WeightCalculatorWebFilter implements WebFilter, Ordered, SmartAppli
 				.append("weights", weights)
 				.append("normalizedWeights", normalizedWeights)
 				.append("rangeIndexes", rangeIndexes)
+				.append("ranges", ranges)
 				.toString();
 		}
 
+		/**
+		 * The consistent hashing table is only built once a group is looked up with a
+		 * hash key. Concurrent first lookups may build it more than once, which is
+		 * harmless as the result is identical.
+		 */
+		@Nullable WeightedMaglevTable getHashTable(int tableSize) {
+			WeightedMaglevTable table = hashTable;
+			if (table == null) {
+				table = WeightedMaglevTable.build(weights, tableSize);
+				hashTable = table;
+			}
+			return table;
+		}
+
+		/**
+		 * Binary search for the range containing {@code r}.
+		 * @param r a value in {@code [0, 1)}
+		 * @return the index of the range {@code [ranges[i], ranges[i + 1])} containing
+		 * {@code r}, or {@code -1} if none does
+		 */
+		int rangeIndexOf(double r) {
+			if (ranges.length < 2 || r < ranges[0]) {
+				return -1;
+			}
+			// find the last boundary that is <= r, this skips empty ranges of zero weight
+			int low = 0;
+			int high = ranges.length - 1;
+			while (low < high) {
+				int mid = (low + high + 1) >>> 1;
+				if (ranges[mid] <= r) {
+					low = mid;
+				}
+				else {
+					high = mid - 1;
+				}
+			}
+			return low < ranges.length - 1 ? low : -1;
+		}
+
 	}
 
 }
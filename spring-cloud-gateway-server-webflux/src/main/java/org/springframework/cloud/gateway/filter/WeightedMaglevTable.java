@@ -0,0 +1,181 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Weighted Maglev lookup table used for consistent hashing of weight groups. Every route
+ * fills slots of the table following its own permutation, proportionally to its weight,
+ * so that a key always maps to the same route and a weight change only moves a share of
+ * keys proportional to the change.
+ *
+ * @see <a href="https://research.google/pubs/pub44824/">Maglev: A Fast and Reliable
+ * Software Network Load Balancer</a>
+ */
+final class WeightedMaglevTable {
+
+	/**
+	 * Default size of the lookup table.
+	 */
+	static final int DEFAULT_TABLE_SIZE = 4093;
+
+	private static final long OFFSET_SEED = 0x9E3779B97F4A7C15L;
+
+	private static final long SKIP_SEED = 0xC2B2AE3D27D4EB4FL;
+
+	private final String[] table;
+
+	private WeightedMaglevTable(String[] table) {
+		this.table = table;
+	}
+
+	/**
+	 * Builds a table for the given route weights.
+	 * @param weights route ids to weights, routes with a weight of 0 are never chosen
+	 * @param tableSize the requested table size, rounded up to the next prime that is
+	 * larger than the number of routes
+	 * @return the table, or {@code null} if no route has a positive weight
+	 */
+	static @Nullable WeightedMaglevTable build(Map<String, Integer> weights, int tableSize) {
+		List<Entry> entries = new ArrayList<>(weights.size());
+		long maxWeight = 0;
+		for (Map.Entry<String, Integer> weight : weights.entrySet()) {
+			if (weight.getValue() != null && weight.getValue() > 0) {
+				entries.add(new Entry(weight.getKey(), weight.getValue()));
+				maxWeight = Math.max(maxWeight, weight.getValue());
+			}
+		}
+		if (entries.isEmpty()) {
+			return null;
+		}
+
+		int size = nextPrime(Math.max(tableSize, entries.size() + 1));
+		for (Entry entry : entries) {
+			entry.offset = Long.remainderUnsigned(hash(entry.routeId, OFFSET_SEED), size);
+			entry.skip = Long.remainderUnsigned(hash(entry.routeId, SKIP_SEED), size - 1) + 1;
+		}
+
+		String[] table = new String[size];
+		int filled = 0;
+		for (long iteration = 1; filled < size; iteration++) {
+			for (int i = 0; i < entries.size() && filled < size; i++) {
+				Entry entry = entries.get(i);
+				// the heaviest route places an entry on every iteration, a route with a
+				// third of that weight only on every third iteration
+				if (iteration * entry.weight < entry.target) {
+					continue;
+				}
+				entry.target += maxWeight;
+				int slot = entry.nextSlot(size);
+				while (table[slot] != null) {
+					slot = entry.nextSlot(size);
+				}
+				table[slot] = entry.routeId;
+				filled++;
+			}
+		}
+		return new WeightedMaglevTable(table);
+	}
+
+	/**
+	 * @param key the key to look up
+	 * @return the route id the key is assigned to
+	 */
+	String lookup(String key) {
+		return table[(int) Long.remainderUnsigned(hash(key, 0), table.length)];
+	}
+
+	/* for testing */ int size() {
+		return table.length;
+	}
+
+	/**
+	 * Stable 64 bit hash of a string, FNV-1a over the UTF-8 bytes followed by the
+	 * MurmurHash3 finalizer. Unlike {@link String#hashCode()} the result is well
+	 * distributed and identical on every gateway instance.
+	 */
+	static long hash(String value, long seed) {
+		long h = 0xCBF29CE484222325L ^ seed;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			h ^= (b & 0xFF);
+			h *= 0x100000001B3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	static int nextPrime(int n) {
+		int candidate = Math.max(n, 2);
+		while (!isPrime(candidate)) {
+			candidate++;
+		}
+		return candidate;
+	}
+
+	private static boolean isPrime(int n) {
+		if (n < 4) {
+			return n > 1;
+		}
+		if (n % 2 == 0) {
+			return false;
+		}
+		for (int i = 3; (long) i * i <= n; i += 2) {
+			if (n % i == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static final class Entry {
+
+		final String routeId;
+
+		final long weight;
+
+		long offset;
+
+		long skip;
+
+		long next;
+
+		long target;
+
+		Entry(String routeId, long weight) {
+			this.routeId = routeId;
+			this.weight = weight;
+		}
+
+		int nextSlot(int size) {
+			int slot = (int) ((offset + skip * next) % size);
+			next++;
+			return slot;
+		}
+
+	}
+
+}
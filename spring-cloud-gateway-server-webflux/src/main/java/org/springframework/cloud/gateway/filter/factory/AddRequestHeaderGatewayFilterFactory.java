@@ -22,8 +22,8 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
+import org.springframework.cloud.gateway.support.ExpandableTemplate;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
@@ -35,18 +35,15 @@ public class AddRequestHeaderGatewayFilterFactory extends AbstractNameValueGatew
 
 	@Override
 	public GatewayFilter apply(NameValueConfig config) {
+		ExpandableTemplate valueTemplate = ExpandableTemplate
+			.compile(Objects.requireNonNull(config.getValue(), "value must not be null"));
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
 				String name = Objects.requireNonNull(config.getName(), "name must not be null");
-				String rawValue = Objects.requireNonNull(config.getValue(), "value must not be null");
-				String value = ServerWebExchangeUtils.expand(exchange, rawValue);
-				ServerHttpRequest request = exchange.getRequest()
-					.mutate()
-					.headers(httpHeaders -> httpHeaders.add(name, value))
-					.build();
-
-				return chain.filter(exchange.mutate().request(request).build());
+				String value = valueTemplate.expand(exchange);
+				return chain.filter(AccumulatingRequestExchange.from(exchange)
+					.mutateHeaders(httpHeaders -> httpHeaders.add(name, value)));
 			}
 
 			@Override
@@ -23,7 +23,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ExpandableTemplate;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
@@ -39,11 +39,12 @@ public class AddRequestParameterGatewayFilterFactory extends AbstractNameValueGa
 
 	@Override
 	public GatewayFilter apply(NameValueConfig config) {
+		ExpandableTemplate valueTemplate = ExpandableTemplate
+			.compile(Objects.requireNonNull(config.getValue(), "value must not be null"));
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
 				String name = Objects.requireNonNull(config.getName(), "name must not be null");
-				String rawValue = Objects.requireNonNull(config.getValue(), "value must not be null");
 				URI uri = exchange.getRequest().getURI();
 				StringBuilder query = new StringBuilder();
 				String originalQuery = uri.getRawQuery();
@@ -55,7 +56,7 @@ public class AddRequestParameterGatewayFilterFactory extends AbstractNameValueGa
 					}
 				}
 
-				String value = ServerWebExchangeUtils.expand(exchange, rawValue);
+				String value = valueTemplate.expand(exchange);
 				// TODO urlencode?
 				query.append(name);
 				query.append('=');
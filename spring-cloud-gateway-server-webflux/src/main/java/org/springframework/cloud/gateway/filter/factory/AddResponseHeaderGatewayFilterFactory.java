@@ -24,7 +24,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ExpandableTemplate;
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.http.HttpHeaders;
 import org.springframework.util.StringUtils;
@@ -56,10 +56,13 @@ public class AddResponseHeaderGatewayFilterFactory extends AbstractNameValueGate
 
 	@Override
 	public GatewayFilter apply(NameValueConfig config) {
+		ExpandableTemplate valueTemplate = ExpandableTemplate
+			.compile(Objects.requireNonNull(config.getValue(), "value must not be null"));
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				return chain.filter(exchange).then(Mono.fromRunnable(() -> addHeader(exchange, config)));
+				return chain.filter(exchange)
+					.then(Mono.fromRunnable(() -> addHeader(exchange, config, valueTemplate)));
 			}
 
 			@Override
@@ -80,12 +83,11 @@ public class AddResponseHeaderGatewayFilterFactory extends AbstractNameValueGate
 		};
 	}
 
-	void addHeader(ServerWebExchange exchange, NameValueConfig config) {
+	void addHeader(ServerWebExchange exchange, NameValueConfig config, ExpandableTemplate valueTemplate) {
 		// if response has been commited, no more response headers will bee added.
 		if (!exchange.getResponse().isCommitted()) {
 			String name = Objects.requireNonNull(config.getName(), "name must not be null");
-			String rawValue = Objects.requireNonNull(config.getValue(), "value must not be null");
-			final String value = ServerWebExchangeUtils.expand(exchange, rawValue);
+			final String value = valueTemplate.expand(exchange);
 			HttpHeaders headers = exchange.getResponse().getHeaders();
 
 			boolean override = true; // default is true
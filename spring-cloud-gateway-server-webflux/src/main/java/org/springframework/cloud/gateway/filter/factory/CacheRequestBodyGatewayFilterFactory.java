@@ -25,6 +25,8 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.CachedRequestBodyFile;
+import org.springframework.cloud.gateway.support.RequestBodyCachePolicy;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DataBufferUtils;
@@ -47,14 +49,21 @@ public class CacheRequestBodyGatewayFilterFactory
 
 	private final List<HttpMessageReader<?>> messageReaders;
 
+	private final RequestBodyCachePolicy requestBodyCachePolicy;
+
 	public CacheRequestBodyGatewayFilterFactory() {
-		super(CacheRequestBodyGatewayFilterFactory.Config.class);
-		this.messageReaders = HandlerStrategies.withDefaults().messageReaders();
+		this(HandlerStrategies.withDefaults().messageReaders());
 	}
 
 	public CacheRequestBodyGatewayFilterFactory(List<HttpMessageReader<?>> messageReaders) {
+		this(messageReaders, RequestBodyCachePolicy.IN_MEMORY);
+	}
+
+	public CacheRequestBodyGatewayFilterFactory(List<HttpMessageReader<?>> messageReaders,
+			RequestBodyCachePolicy requestBodyCachePolicy) {
 		super(CacheRequestBodyGatewayFilterFactory.Config.class);
 		this.messageReaders = messageReaders;
+		this.requestBodyCachePolicy = requestBodyCachePolicy;
 	}
 
 	@Override
@@ -76,7 +85,8 @@ public class CacheRequestBodyGatewayFilterFactory
 					return chain.filter(exchange);
 				}
 
-				return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, (serverHttpRequest) -> {
+				return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, requestBodyCachePolicy,
+						(serverHttpRequest) -> {
 					final ServerRequest serverRequest = ServerRequest
 						.create(exchange.mutate().request(serverHttpRequest).build(), messageReaders);
 					Class<?> bodyClass = Objects.requireNonNull(config.getBodyClass(), "bodyClass must not be null");
@@ -99,6 +109,9 @@ public class CacheRequestBodyGatewayFilterFactory
 							if (backupCachedBody instanceof DataBuffer dataBuffer) {
 								DataBufferUtils.release(dataBuffer);
 							}
+							else if (backupCachedBody instanceof CachedRequestBodyFile file) {
+								file.delete();
+							}
 						});
 					}));
 				});
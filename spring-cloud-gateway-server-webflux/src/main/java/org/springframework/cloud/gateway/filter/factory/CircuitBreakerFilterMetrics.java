@@ -0,0 +1,71 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * Records the outcomes of {@link SpringCloudCircuitBreakerFilterFactory} filters, for
+ * example to export them as metrics. The state of the circuit breakers themselves is
+ * exported by the circuit breaker implementation.
+ */
+public interface CircuitBreakerFilterMetrics {
+
+	/**
+	 * Called once when a circuit breaker filter is created for a route.
+	 * @param routeId the id of the route
+	 * @param circuitBreakerId the id of the circuit breaker
+	 * @return the recorder used by the filter on every request
+	 */
+	RouteRecorder forRoute(@Nullable String routeId, @Nullable String circuitBreakerId);
+
+	interface RouteRecorder {
+
+		/**
+		 * No-op recorder.
+		 */
+		RouteRecorder NONE = new RouteRecorder() {
+		};
+
+		/**
+		 * Called when a response status configured in
+		 * {@link SpringCloudCircuitBreakerFilterFactory.Config#getStatusCodes()} is
+		 * reported as a failure to the circuit breaker.
+		 * @param status the response status
+		 */
+		default void statusCodeTripped(HttpStatusCode status) {
+		}
+
+		/**
+		 * Called when the request is forwarded to the fallback uri.
+		 * @param cause the failure that triggered the fallback
+		 */
+		default void fallback(Throwable cause) {
+		}
+
+		/**
+		 * Called when the failure is handled without a fallback uri.
+		 * @param cause the failure
+		 */
+		default void error(Throwable cause) {
+		}
+
+	}
+
+}
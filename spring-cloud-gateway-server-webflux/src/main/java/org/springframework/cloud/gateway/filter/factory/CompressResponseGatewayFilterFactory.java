@@ -0,0 +1,476 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.jspecify.annotations.Nullable;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import reactor.core.CoreSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.rewrite.CompressionMessageBodyResolver;
+import org.springframework.cloud.gateway.filter.factory.rewrite.MessageBodyEncoder;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import static java.util.function.Function.identity;
+import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
+
+/**
+ * Compresses response bodies with the best encoding accepted by the client, using the
+ * streaming {@link MessageBodyEncoder}s. Only bodies of the configured media types and of
+ * at least the configured size are compressed, and bodies the upstream service already
+ * compressed are passed through untouched.
+ */
+public class CompressResponseGatewayFilterFactory
+		extends AbstractGatewayFilterFactory<CompressResponseGatewayFilterFactory.Config> {
+
+	/**
+	 * Order of the compression filter. It decorates the response before the filters
+	 * rewriting the response body, such as ModifyResponseBody, so that the rewritten body
+	 * is the one compressed.
+	 */
+	public static final int COMPRESS_RESPONSE_FILTER_ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+
+	/**
+	 * Min response size key.
+	 */
+	public static final String MIN_RESPONSE_SIZE_KEY = "minResponseSize";
+
+	private final Map<String, MessageBodyEncoder> messageBodyEncoders;
+
+	private @Nullable CompressionMetrics metrics;
+
+	public CompressResponseGatewayFilterFactory(Set<MessageBodyEncoder> messageBodyEncoders) {
+		super(Config.class);
+		this.messageBodyEncoders = messageBodyEncoders.stream()
+			.collect(Collectors.toMap(MessageBodyEncoder::encodingType, identity(),
+					CompressionMessageBodyResolver::preferUserDefined));
+	}
+
+	@Override
+	public List<String> shortcutFieldOrder() {
+		return Arrays.asList(MIN_RESPONSE_SIZE_KEY);
+	}
+
+	/**
+	 * Sets the metrics recorded for every route using this filter. Only routes created
+	 * afterwards record to them.
+	 * @param metrics the metrics, or {@code null} to disable recording
+	 */
+	public void setMetrics(@Nullable CompressionMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	@Override
+	public GatewayFilter apply(Config config) {
+		List<MessageBodyEncoder> encoders = config.getEncodings()
+			.stream()
+			.map(encoding -> messageBodyEncoders.get(encoding.toLowerCase(Locale.ROOT)))
+			.filter(Objects::nonNull)
+			.toList();
+		List<MimeType> mimeTypes = config.getMimeTypes().stream().map(MimeTypeUtils::parseMimeType).toList();
+		long minResponseSize = config.getMinResponseSize().toBytes();
+		CompressionMetrics.RouteRecorder recorder = metrics != null ? metrics.forRoute(config.getRouteId())
+				: CompressionMetrics.RouteRecorder.NONE;
+
+		GatewayFilter filter = new GatewayFilter() {
+			@Override
+			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+				if (encoders.isEmpty() || HttpMethod.HEAD.equals(exchange.getRequest().getMethod())) {
+					return chain.filter(exchange);
+				}
+				MessageBodyEncoder encoder = negotiate(
+						exchange.getRequest().getHeaders().getOrEmpty(HttpHeaders.ACCEPT_ENCODING), encoders);
+				if (encoder == null) {
+					return chain.filter(exchange);
+				}
+				return chain.filter(exchange.mutate()
+					.response(new CompressedServerHttpResponse(exchange.getResponse(), encoder, mimeTypes,
+							minResponseSize, recorder))
+					.build());
+			}
+
+			@Override
+			public String toString() {
+				return filterToStringCreator(CompressResponseGatewayFilterFactory.this)
+					.append("encodings", config.getEncodings())
+					.append(MIN_RESPONSE_SIZE_KEY, config.getMinResponseSize())
+					.toString();
+			}
+		};
+		return new OrderedGatewayFilter(filter, COMPRESS_RESPONSE_FILTER_ORDER);
+	}
+
+	/**
+	 * @param acceptEncodings the Accept-Encoding header values of the request
+	 * @param encoders the available encoders, in order of preference
+	 * @return the first encoder accepted by the client, or {@code null} if none is
+	 */
+	static @Nullable MessageBodyEncoder negotiate(List<String> acceptEncodings, List<MessageBodyEncoder> encoders) {
+		if (acceptEncodings.isEmpty()) {
+			return null;
+		}
+		Map<String, Float> qualities = new HashMap<>();
+		for (String acceptEncoding : acceptEncodings) {
+			for (String token : StringUtils.tokenizeToStringArray(acceptEncoding, ",")) {
+				String[] parts = StringUtils.tokenizeToStringArray(token, ";");
+				if (parts.length == 0) {
+					continue;
+				}
+				float quality = 1;
+				for (int i = 1; i < parts.length; i++) {
+					if (parts[i].startsWith("q=")) {
+						try {
+							quality = Float.parseFloat(parts[i].substring(2));
+						}
+						catch (NumberFormatException e) {
+							quality = 0;
+						}
+					}
+				}
+				qualities.put(parts[0].toLowerCase(Locale.ROOT), quality);
+			}
+		}
+		Float wildcard = qualities.get("*");
+		for (MessageBodyEncoder encoder : encoders) {
+			Float quality = qualities.getOrDefault(encoder.encodingType(), wildcard);
+			if (quality != null && quality > 0) {
+				return encoder;
+			}
+		}
+		return null;
+	}
+
+	public static class Config implements HasRouteId {
+
+		private List<String> encodings = new ArrayList<>(List.of("br", "zstd", "gzip", "deflate"));
+
+		private DataSize minResponseSize = DataSize.ofKilobytes(2);
+
+		private List<String> mimeTypes = new ArrayList<>(List.of("text/html", "text/xml", "text/plain", "text/css",
+				"text/javascript", "application/javascript", "application/json", "application/xml"));
+
+		private @Nullable String routeId;
+
+		public List<String> getEncodings() {
+			return encodings;
+		}
+
+		/**
+		 * @param encodings the content encodings to use, in order of preference. Encodings
+		 * without a {@link MessageBodyEncoder} are ignored.
+		 * @return this config
+		 */
+		public Config setEncodings(List<String> encodings) {
+			this.encodings = encodings;
+			return this;
+		}
+
+		public DataSize getMinResponseSize() {
+			return minResponseSize;
+		}
+
+		public Config setMinResponseSize(DataSize minResponseSize) {
+			this.minResponseSize = minResponseSize;
+			return this;
+		}
+
+		public List<String> getMimeTypes() {
+			return mimeTypes;
+		}
+
+		public Config setMimeTypes(List<String> mimeTypes) {
+			this.mimeTypes = mimeTypes;
+			return this;
+		}
+
+		@Override
+		public void setRouteId(String routeId) {
+			this.routeId = routeId;
+		}
+
+		@Override
+		public @Nullable String getRouteId() {
+			return routeId;
+		}
+
+	}
+
+	private static class CompressedServerHttpResponse extends ServerHttpResponseDecorator {
+
+		private final MessageBodyEncoder encoder;
+
+		private final List<MimeType> mimeTypes;
+
+		private final long minResponseSize;
+
+		private final CompressionMetrics.RouteRecorder recorder;
+
+		/**
+		 * Whether the encoder produced output, so that the headers of the compressed body
+		 * are set when the response is committed.
+		 */
+		private volatile boolean encoded;
+
+		CompressedServerHttpResponse(ServerHttpResponse delegate, MessageBodyEncoder encoder,
+				List<MimeType> mimeTypes, long minResponseSize, CompressionMetrics.RouteRecorder recorder) {
+			super(delegate);
+			this.encoder = encoder;
+			this.mimeTypes = mimeTypes;
+			this.minResponseSize = minResponseSize;
+			this.recorder = recorder;
+			// decorators inside this one may still change the headers while the body is
+			// written, such as the Content-Length of a rewritten body
+			beforeCommit(() -> Mono.fromRunnable(() -> {
+				if (encoded) {
+					prepareHeaders();
+				}
+			}));
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			if (!isCompressible()) {
+				return super.writeWith(body);
+			}
+			long contentLength = getHeaders().getContentLength();
+			if (contentLength >= 0) {
+				if (contentLength < minResponseSize) {
+					return super.writeWith(body);
+				}
+				return super.writeWith(compress(body));
+			}
+			// the size is unknown, hold back the body until it reaches the threshold
+			return super.writeWith(Flux.defer(() -> {
+				long[] size = new long[1];
+				return Flux.<DataBuffer>from(body)
+					.bufferUntil(buffer -> (size[0] += buffer.readableByteCount()) >= minResponseSize)
+					.switchOnFirst((signal, buffers) -> {
+						Flux<DataBuffer> flattened = buffers.concatMapIterable(Function.identity());
+						if (size[0] < minResponseSize) {
+							return flattened;
+						}
+						return compress(flattened);
+					})
+					.doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+			}));
+		}
+
+		@Override
+		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+			if (!isCompressible()) {
+				return super.writeAndFlushWith(body);
+			}
+			// flush every compressed chunk, so that streamed elements are not held back
+			return super.writeAndFlushWith(compress(Flux.from(body).concatMap(p -> p)).map(Mono::just));
+		}
+
+		private boolean isCompressible() {
+			HttpStatusCode status = getStatusCode();
+			if (status != null && (status.is1xxInformational() || status.value() == 204 || status.value() == 206
+					|| status.value() == 304)) {
+				return false;
+			}
+			HttpHeaders headers = getHeaders();
+			String contentEncoding = headers.getFirst(HttpHeaders.CONTENT_ENCODING);
+			if (StringUtils.hasText(contentEncoding) && !"identity".equalsIgnoreCase(contentEncoding)) {
+				// already compressed upstream
+				return false;
+			}
+			String cacheControl = headers.getCacheControl();
+			if (cacheControl != null && cacheControl.contains("no-transform")) {
+				return false;
+			}
+			MediaType contentType;
+			try {
+				contentType = headers.getContentType();
+			}
+			catch (InvalidMediaTypeException e) {
+				return false;
+			}
+			if (contentType == null) {
+				return false;
+			}
+			for (MimeType mimeType : mimeTypes) {
+				if (mimeType.isCompatibleWith(contentType)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private void prepareHeaders() {
+			HttpHeaders headers = getHeaders();
+			headers.set(HttpHeaders.CONTENT_ENCODING, encoder.encodingType());
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			if (!headers.getVary().contains(HttpHeaders.ACCEPT_ENCODING)) {
+				headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+			}
+			// the compressed body is not byte for byte the one a strong ETag validates
+			String etag = headers.getETag();
+			if (etag != null && !etag.startsWith("W/")) {
+				headers.setETag("W/" + etag);
+			}
+		}
+
+		private Flux<DataBuffer> compress(Publisher<? extends DataBuffer> body) {
+			return encode(body).doOnNext(buffer -> encoded = true);
+		}
+
+		private Flux<DataBuffer> encode(Publisher<? extends DataBuffer> body) {
+			if (recorder == CompressionMetrics.RouteRecorder.NONE) {
+				return encoder.encode(body, bufferFactory());
+			}
+			long[] sizes = new long[2];
+			EncodingTimer timer = new EncodingTimer();
+			Flux<DataBuffer> input = Flux.<DataBuffer>from(body)
+				.doOnNext(buffer -> sizes[0] += buffer.readableByteCount())
+				.transform(timed(timer, true));
+			return encoder.encode(input, bufferFactory())
+				.transform(timed(timer, false))
+				.doOnNext(buffer -> sizes[1] += buffer.readableByteCount())
+				.doOnComplete(() -> recorder.compressed(encoder.encodingType(), sizes[0], sizes[1], timer.elapsed));
+		}
+
+		private static Function<? super Publisher<DataBuffer>, ? extends Publisher<DataBuffer>> timed(
+				EncodingTimer timer, boolean input) {
+			return Operators.lift((scannable, actual) -> new TimedSubscriber<>(actual, timer, input));
+		}
+
+	}
+
+	/**
+	 * Measures the time spent in the encoder: from a chunk entering it to the compressed
+	 * chunks leaving it, excluding the time spent writing them downstream.
+	 */
+	private static final class EncodingTimer {
+
+		private long elapsed;
+
+		private long start;
+
+		private boolean running;
+
+		void start() {
+			start = System.nanoTime();
+			running = true;
+		}
+
+		void stop() {
+			if (running) {
+				elapsed += System.nanoTime() - start;
+				running = false;
+			}
+		}
+
+	}
+
+	private static final class TimedSubscriber<T> implements CoreSubscriber<T> {
+
+		private final CoreSubscriber<? super T> actual;
+
+		private final EncodingTimer timer;
+
+		private final boolean input;
+
+		TimedSubscriber(CoreSubscriber<? super T> actual, EncodingTimer timer, boolean input) {
+			this.actual = actual;
+			this.timer = timer;
+			this.input = input;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			actual.onSubscribe(subscription);
+		}
+
+		@Override
+		public void onNext(T value) {
+			if (input) {
+				timer.start();
+				actual.onNext(value);
+				timer.stop();
+			}
+			else {
+				boolean running = timer.running;
+				timer.stop();
+				actual.onNext(value);
+				if (running) {
+					timer.start();
+				}
+			}
+		}
+
+		@Override
+		public void onError(Throwable throwable) {
+			actual.onError(throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			if (input) {
+				// the encoder flushes its remaining output on completion
+				timer.start();
+				actual.onComplete();
+				timer.stop();
+			}
+			else {
+				timer.stop();
+				actual.onComplete();
+			}
+		}
+
+		@Override
+		public Context currentContext() {
+			return actual.currentContext();
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import org.jspecify.annotations.Nullable;
+
+/**
+ * Records the responses compressed by {@link CompressResponseGatewayFilterFactory}
+ * filters, for example to export them as metrics.
+ */
+public interface CompressionMetrics {
+
+	/**
+	 * Called once when a compression filter is created for a route.
+	 * @param routeId the id of the route
+	 * @return the recorder used by the filter on every compressed response
+	 */
+	RouteRecorder forRoute(@Nullable String routeId);
+
+	interface RouteRecorder {
+
+		/**
+		 * No-op recorder.
+		 */
+		RouteRecorder NONE = (encoding, originalBytes, compressedBytes, encodingNanos) -> {
+		};
+
+		/**
+		 * Called when a response body has been compressed.
+		 * @param encoding the content encoding used
+		 * @param originalBytes the size of the body before compression
+		 * @param compressedBytes the size of the body after compression
+		 * @param encodingNanos the time spent in the encoder
+		 */
+		void compressed(String encoding, long originalBytes, long compressedBytes, long encodingNanos);
+
+	}
+
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import io.grpc.ManagedChannel;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * Keeps one {@link ManagedChannel} open per route, so that gRPC calls of a route are
+ * multiplexed over the same connection instead of opening a new one for every request.
+ * Channels of routes that were removed or whose URI changed are shut down on route
+ * refresh.
+ */
+final class GrpcChannelRegistry {
+
+	private static final Log log = LogFactory.getLog(GrpcChannelRegistry.class);
+
+	private final Map<String, RouteChannel> channels = new ConcurrentHashMap<>();
+
+	private final Function<URI, ManagedChannel> channelFactory;
+
+	GrpcChannelRegistry(Function<URI, ManagedChannel> channelFactory) {
+		this.channelFactory = channelFactory;
+	}
+
+	/**
+	 * @param routeId the id of the route
+	 * @param uri the URI of the route
+	 * @return the channel of the route, created on first use or if the URI of the route
+	 * changed
+	 */
+	ManagedChannel getChannel(String routeId, URI uri) {
+		RouteChannel routeChannel = channels.get(routeId);
+		if (routeChannel != null && routeChannel.uri().equals(uri) && !routeChannel.channel().isShutdown()) {
+			return routeChannel.channel();
+		}
+		return channels.compute(routeId, (id, existing) -> {
+			if (existing != null) {
+				if (existing.uri().equals(uri) && !existing.channel().isShutdown()) {
+					return existing;
+				}
+				shutdown(id, existing);
+			}
+			return new RouteChannel(uri, channelFactory.apply(uri));
+		}).channel();
+	}
+
+	/**
+	 * Shuts down the channels of routes that no longer exist or whose URI changed.
+	 * @param routes the ids of the current routes to their URIs
+	 */
+	void retain(Map<String, URI> routes) {
+		channels.forEach((routeId, routeChannel) -> {
+			if (!routeChannel.uri().equals(routes.get(routeId)) && channels.remove(routeId, routeChannel)) {
+				shutdown(routeId, routeChannel);
+			}
+		});
+	}
+
+	void shutdown() {
+		channels.forEach((routeId, routeChannel) -> {
+			if (channels.remove(routeId, routeChannel)) {
+				shutdown(routeId, routeChannel);
+			}
+		});
+	}
+
+	/* for testing */ int size() {
+		return channels.size();
+	}
+
+	private static void shutdown(String routeId, RouteChannel routeChannel) {
+		if (log.isDebugEnabled()) {
+			log.debug("Shutting down gRPC channel of route " + routeId + " to " + routeChannel.uri());
+		}
+		// calls in flight are allowed to complete
+		routeChannel.channel().shutdown();
+	}
+
+	private record RouteChannel(URI uri, ManagedChannel channel) {
+	}
+
+}
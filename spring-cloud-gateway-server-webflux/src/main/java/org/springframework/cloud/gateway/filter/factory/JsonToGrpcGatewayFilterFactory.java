@@ -17,12 +17,15 @@
 package org.springframework.cloud.gateway.filter.factory;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.function.Function;
+import java.util.concurrent.TimeUnit;
 
 import javax.net.ssl.SSLException;
 
@@ -34,44 +37,44 @@ import com.google.protobuf.Descriptors.DescriptorValidationException;
 import com.google.protobuf.Descriptors.FileDescriptor;
 import com.google.protobuf.DynamicMessage;
 import com.google.protobuf.ProtocolStringList;
-import com.google.protobuf.util.JsonFormat;
 import io.grpc.CallOptions;
-import io.grpc.Channel;
 import io.grpc.ClientCall;
 import io.grpc.ManagedChannel;
 import io.grpc.MethodDescriptor;
+import io.grpc.Status;
 import io.grpc.netty.NettyChannelBuilder;
 import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ClientCallStreamObserver;
 import io.grpc.stub.ClientCalls;
-import io.netty.buffer.PooledByteBufAllocator;
+import io.grpc.stub.ClientResponseObserver;
 import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.ObjectReader;
-import tools.jackson.databind.SerializationFeature;
-import tools.jackson.databind.json.JsonMapper;
-import tools.jackson.databind.node.ObjectNode;
 
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.cloud.gateway.config.GrpcSslConfigurer;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
 import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
-import org.springframework.core.ResolvableType;
+import org.springframework.context.ApplicationListener;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.ResourceLoader;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.NettyDataBufferFactory;
-import org.springframework.http.codec.json.JacksonJsonDecoder;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
+import static org.springframework.cloud.gateway.support.RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR;
 
 /**
  * This filter takes a JSON payload, transform it into a protobuf object, send it to a
@@ -83,16 +86,34 @@ import static org.springframework.cloud.gateway.support.GatewayToStringStyler.fi
  * @author Alberto C. Ríos
  */
 public class JsonToGrpcGatewayFilterFactory
-		extends AbstractGatewayFilterFactory<JsonToGrpcGatewayFilterFactory.Config> {
+		extends AbstractGatewayFilterFactory<JsonToGrpcGatewayFilterFactory.Config>
+		implements ApplicationListener<RefreshRoutesResultEvent>, DisposableBean {
 
 	private final GrpcSslConfigurer grpcSslConfigurer;
 
 	private final ResourceLoader resourceLoader;
 
+	private final GrpcChannelRegistry channelRegistry;
+
 	public JsonToGrpcGatewayFilterFactory(GrpcSslConfigurer grpcSslConfigurer, ResourceLoader resourceLoader) {
 		super(Config.class);
 		this.grpcSslConfigurer = grpcSslConfigurer;
 		this.resourceLoader = resourceLoader;
+		this.channelRegistry = new GrpcChannelRegistry(this::createChannel);
+	}
+
+	@Override
+	public void onApplicationEvent(RefreshRoutesResultEvent event) {
+		if (event.isSuccess() && event.getSource() instanceof RouteLocator routeLocator) {
+			routeLocator.getRoutes()
+				.collectMap(Route::getId, Route::getUri)
+				.subscribe(channelRegistry::retain);
+		}
+	}
+
+	@Override
+	public void destroy() {
+		channelRegistry.shutdown();
 	}
 
 	@Override
@@ -102,10 +123,13 @@ public class JsonToGrpcGatewayFilterFactory
 
 	@Override
 	public GatewayFilter apply(Config config) {
+		// descriptors are resolved once per route, on first use, and rebuilt with the
+		// route on refresh
+		GrpcMethod grpcMethod = new GrpcMethod(config);
 		GatewayFilter filter = new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				GRPCResponseDecorator modifiedResponse = new GRPCResponseDecorator(exchange, config);
+				GRPCResponseDecorator modifiedResponse = new GRPCResponseDecorator(exchange, grpcMethod.resolve());
 
 				ServerWebExchangeUtils.setAlreadyRouted(exchange);
 				return modifiedResponse.writeWith(exchange.getRequest().getBody())
@@ -159,74 +183,89 @@ public class JsonToGrpcGatewayFilterFactory
 
 	}
 
-	class GRPCResponseDecorator extends ServerHttpResponseDecorator {
-
-		private final ServerWebExchange exchange;
-
-		private final Descriptors.Descriptor descriptor;
-
-		private final ObjectReader objectReader;
-
-		private final ClientCall<DynamicMessage, DynamicMessage> clientCall;
+	private ManagedChannel createChannel(URI uri) {
+		NettyChannelBuilder nettyChannelBuilder = NettyChannelBuilder.forAddress(uri.getHost(), uri.getPort());
+		try {
+			return grpcSslConfigurer.configureSsl(nettyChannelBuilder);
+		}
+		catch (SSLException e) {
+			throw new RuntimeException(e);
+		}
+	}
 
-		private final ObjectNode objectNode;
+	/**
+	 * @return the deadline of gRPC calls, taken from the response timeout of the route in
+	 * milliseconds, or {@code null} if none is configured
+	 */
+	static @Nullable Duration getResponseTimeout(Route route) {
+		Object responseTimeout = route.getMetadata().get(RESPONSE_TIMEOUT_ATTR);
+		try {
+			if (responseTimeout instanceof Number number) {
+				return number.longValue() >= 0 ? Duration.ofMillis(number.longValue()) : null;
+			}
+			if (responseTimeout != null) {
+				long millis = Long.parseLong(responseTimeout.toString());
+				return millis >= 0 ? Duration.ofMillis(millis) : null;
+			}
+		}
+		catch (NumberFormatException e) {
+			// ignore number format and use no deadline
+		}
+		return null;
+	}
 
-		GRPCResponseDecorator(ServerWebExchange exchange, Config config) {
-			super(exchange.getResponse());
-			this.exchange = exchange;
-			try {
-				Descriptors.MethodDescriptor methodDescriptor = getMethodDescriptor(config);
-				Descriptors.ServiceDescriptor serviceDescriptor = methodDescriptor.getService();
-				Descriptors.Descriptor outputType = methodDescriptor.getOutputType();
-				this.descriptor = methodDescriptor.getInputType();
+	/**
+	 * Descriptors and marshallers of the gRPC method of a route, resolved from the proto
+	 * descriptor on first use.
+	 */
+	private final class GrpcMethod {
 
-				clientCall = createClientCallForType(config, serviceDescriptor, outputType);
+		private final Config config;
 
-				ObjectMapper objectMapper = JsonMapper.builder()
-					.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false)
-					.build();
-				objectReader = objectMapper.readerFor(JsonNode.class);
-				objectNode = objectMapper.createObjectNode();
+		private volatile @Nullable ResolvedMethod resolved;
 
-			}
-			catch (IOException | Descriptors.DescriptorValidationException e) {
-				throw new RuntimeException(e);
-			}
+		GrpcMethod(Config config) {
+			this.config = config;
 		}
 
-		@Override
-		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
-			exchange.getResponse().getHeaders().set("Content-Type", "application/json");
-
-			return getDelegate().writeWith(deserializeJSONRequest().map(callGRPCServer())
-				.map(serialiseGRPCResponse())
-				.map(wrapGRPCResponse())
-				.cast(DataBuffer.class)
-				.last());
+		ResolvedMethod resolve() {
+			ResolvedMethod result = this.resolved;
+			if (result == null) {
+				try {
+					result = resolve(getMethodDescriptor(config));
+				}
+				catch (IOException | Descriptors.DescriptorValidationException e) {
+					throw new RuntimeException(e);
+				}
+				this.resolved = result;
+			}
+			return result;
 		}
 
-		private ClientCall<DynamicMessage, DynamicMessage> createClientCallForType(Config config,
-				Descriptors.ServiceDescriptor serviceDescriptor, Descriptors.Descriptor outputType) {
-			MethodDescriptor.Marshaller<DynamicMessage> marshaller = ProtoUtils
-				.marshaller(DynamicMessage.newBuilder(outputType).build());
-			MethodDescriptor<DynamicMessage, DynamicMessage> methodDescriptor = MethodDescriptor
+		private ResolvedMethod resolve(Descriptors.MethodDescriptor methodDescriptor) {
+			Descriptors.Descriptor inputType = methodDescriptor.getInputType();
+			Descriptors.Descriptor outputType = methodDescriptor.getOutputType();
+			MethodDescriptor<DynamicMessage, DynamicMessage> grpcMethodDescriptor = MethodDescriptor
 				.<DynamicMessage, DynamicMessage>newBuilder()
-				.setType(MethodDescriptor.MethodType.UNKNOWN)
-				.setFullMethodName(
-						MethodDescriptor.generateFullMethodName(serviceDescriptor.getFullName(), config.getMethod()))
-				.setRequestMarshaller(marshaller)
-				.setResponseMarshaller(marshaller)
+				.setType(methodDescriptor.isServerStreaming() ? MethodDescriptor.MethodType.SERVER_STREAMING
+						: MethodDescriptor.MethodType.UNARY)
+				.setFullMethodName(MethodDescriptor
+					.generateFullMethodName(methodDescriptor.getService().getFullName(), methodDescriptor.getName()))
+				.setRequestMarshaller(ProtoUtils.marshaller(DynamicMessage.getDefaultInstance(inputType)))
+				.setResponseMarshaller(ProtoUtils.marshaller(DynamicMessage.getDefaultInstance(outputType)))
 				.build();
-			Channel channel = createChannel();
-			return channel.newCall(methodDescriptor, CallOptions.DEFAULT);
+			return new ResolvedMethod(inputType, grpcMethodDescriptor, methodDescriptor.isServerStreaming(),
+					new ProtobufJsonTranscoder(inputType, outputType));
 		}
 
 		private Descriptors.MethodDescriptor getMethodDescriptor(Config config)
 				throws IOException, Descriptors.DescriptorValidationException {
 			Objects.requireNonNull(config.getProtoDescriptor(), "Proto Descriptor must not be null");
 			Resource descriptorFile = resourceLoader.getResource(config.getProtoDescriptor());
-			DescriptorProtos.FileDescriptorSet fileDescriptorSet = DescriptorProtos.FileDescriptorSet
-				.parseFrom(descriptorFile.getInputStream());
+			DescriptorProtos.FileDescriptorSet fileDescriptorSet;
+			try (InputStream inputStream = descriptorFile.getInputStream()) {
+				fileDescriptorSet = DescriptorProtos.FileDescriptorSet.parseFrom(inputStream);
+			}
 			DescriptorProtos.FileDescriptorProto fileProto = fileDescriptorSet.getFile(0);
 			Descriptors.FileDescriptor fileDescriptor = Descriptors.FileDescriptor.buildFrom(fileProto,
 					dependencies(fileDescriptorSet, fileProto.getDependencyList()));
@@ -271,61 +310,154 @@ public class JsonToGrpcGatewayFilterFactory
 			return null;
 		}
 
-		private ManagedChannel createChannel() {
-			Route route = (Route) exchange.getAttributes().get(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
-			URI requestURI = Objects.requireNonNull(route, "Route not found in exchange attributes").getUri();
-			return createChannelChannel(requestURI.getHost(), requestURI.getPort());
+	}
+
+	private record ResolvedMethod(Descriptors.Descriptor inputType,
+			MethodDescriptor<DynamicMessage, DynamicMessage> methodDescriptor, boolean serverStreaming,
+			ProtobufJsonTranscoder transcoder) {
+	}
+
+	class GRPCResponseDecorator extends ServerHttpResponseDecorator {
+
+		private static final byte[] NONE = new byte[0];
+
+		private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+
+		private static final byte[] SSE_DATA = "data:".getBytes(StandardCharsets.UTF_8);
+
+		private static final byte[] SSE_END = "\n\n".getBytes(StandardCharsets.UTF_8);
+
+		private final ServerWebExchange exchange;
+
+		private final ResolvedMethod method;
+
+		private final Route route;
+
+		GRPCResponseDecorator(ServerWebExchange exchange, ResolvedMethod method) {
+			super(exchange.getResponse());
+			this.exchange = exchange;
+			this.method = method;
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			this.route = Objects.requireNonNull(route, "Route not found in exchange attributes");
+		}
+
+		@Override
+		public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+			Flux<DynamicMessage> responses = readRequest().flatMapMany(this::callGRPCServer);
+
+			if (!method.serverStreaming()) {
+				exchange.getResponse().getHeaders().set("Content-Type", "application/json");
+
+				return getDelegate().writeWith(responses.last().map(message -> writeJson(message, NONE, NONE)));
+			}
+
+			// every message is written and flushed as soon as it arrives
+			boolean serverSentEvents = acceptsServerSentEvents();
+			exchange.getResponse()
+				.getHeaders()
+				.setContentType(serverSentEvents ? MediaType.TEXT_EVENT_STREAM : MediaType.APPLICATION_NDJSON);
+			byte[] prefix = serverSentEvents ? SSE_DATA : NONE;
+			byte[] suffix = serverSentEvents ? SSE_END : NEWLINE;
+			return getDelegate()
+				.writeAndFlushWith(responses.map(message -> Flux.just(writeJson(message, prefix, suffix))));
 		}
 
-		private Function<JsonNode, DynamicMessage> callGRPCServer() {
-			return jsonRequest -> {
-				try {
-					DynamicMessage.Builder builder = DynamicMessage.newBuilder(descriptor);
-					JsonFormat.parser().merge(jsonRequest.toString(), builder);
-					return ClientCalls.blockingUnaryCall(clientCall, builder.build());
-				}
-				catch (IOException e) {
-					throw new RuntimeException(e);
+		private boolean acceptsServerSentEvents() {
+			for (MediaType mediaType : exchange.getRequest().getHeaders().getAccept()) {
+				if (MediaType.TEXT_EVENT_STREAM.includes(mediaType)) {
+					return true;
 				}
-			};
+			}
+			return false;
 		}
 
-		private Function<DynamicMessage, Object> serialiseGRPCResponse() {
-			return gRPCResponse -> {
+		/**
+		 * Reads the JSON request body straight into the request message. An empty body is
+		 * read as the default request.
+		 */
+		private Mono<DynamicMessage> readRequest() {
+			return DataBufferUtils.join(exchange.getRequest().getBody()).map(buffer -> {
+				if (buffer.readableByteCount() == 0) {
+					DataBufferUtils.release(buffer);
+					return DynamicMessage.getDefaultInstance(method.inputType());
+				}
 				try {
-					return objectReader
-						.readValue(JsonFormat.printer().omittingInsignificantWhitespace().print(gRPCResponse));
+					return method.transcoder().readRequest(buffer.asInputStream(true));
 				}
 				catch (IOException e) {
 					throw new RuntimeException(e);
 				}
-			};
+			}).switchIfEmpty(Mono.fromSupplier(() -> DynamicMessage.getDefaultInstance(method.inputType())));
 		}
 
-		private Flux<JsonNode> deserializeJSONRequest() {
-			return exchange.getRequest().getBody().mapNotNull(dataBufferBody -> {
-				if (dataBufferBody.capacity() == 0) {
-					return objectNode;
-				}
-				ResolvableType targetType = ResolvableType.forType(JsonNode.class);
-				return new JacksonJsonDecoder().decode(dataBufferBody, targetType, null, null);
-			}).cast(JsonNode.class);
+		/**
+		 * Writes a response message as JSON straight into a buffer of the response.
+		 */
+		private DataBuffer writeJson(DynamicMessage message, byte[] prefix, byte[] suffix) {
+			DataBuffer buffer = bufferFactory().allocateBuffer(256);
+			try {
+				buffer.write(prefix);
+				method.transcoder().writeResponse(message, buffer.asOutputStream());
+				buffer.write(suffix);
+				return buffer;
+			}
+			catch (IOException | RuntimeException e) {
+				DataBufferUtils.release(buffer);
+				throw (e instanceof RuntimeException runtimeException) ? runtimeException : new RuntimeException(e);
+			}
 		}
 
-		private Function<Object, DataBuffer> wrapGRPCResponse() {
-			return jsonResponse -> new NettyDataBufferFactory(new PooledByteBufAllocator())
-				.wrap(Objects.requireNonNull(new ObjectMapper().writeValueAsBytes(jsonResponse)));
+		/**
+		 * Calls the gRPC service without blocking, emitting the response messages as they
+		 * arrive. Messages are only requested from the service as the response is written,
+		 * so a slow client slows the stream down rather than filling the gateway.
+		 * Cancelling the subscription cancels the call.
+		 */
+		private Flux<DynamicMessage> callGRPCServer(DynamicMessage request) {
+			Duration timeout = getResponseTimeout(route);
+			return Flux.create(sink -> {
+				CallOptions callOptions = CallOptions.DEFAULT;
+				if (timeout != null) {
+					callOptions = callOptions.withDeadlineAfter(timeout.toMillis(), TimeUnit.MILLISECONDS);
+				}
+				ClientCall<DynamicMessage, DynamicMessage> clientCall = channelRegistry
+					.getChannel(route.getId(), route.getUri())
+					.newCall(method.methodDescriptor(), callOptions);
+				sink.onCancel(() -> clientCall.cancel("Cancelled by the gateway", null));
+				ClientResponseObserver<DynamicMessage, DynamicMessage> observer = new ClientResponseObserver<>() {
+					@Override
+					public void beforeStart(ClientCallStreamObserver<DynamicMessage> requestStream) {
+						requestStream.disableAutoRequestWithInitial(0);
+					}
+
+					@Override
+					public void onNext(DynamicMessage response) {
+						sink.next(response);
+					}
+
+					@Override
+					public void onError(Throwable t) {
+						sink.error(mapError(t, timeout));
+					}
+
+					@Override
+					public void onCompleted() {
+						sink.complete();
+					}
+				};
+				// sends the request and half closes, which is valid for unary calls too
+				ClientCalls.asyncServerStreamingCall(clientCall, request, observer);
+				// the call is started, so messages can be requested now
+				sink.onRequest(n -> clientCall.request((int) Math.min(n, Integer.MAX_VALUE)));
+			});
 		}
 
-		// We are creating this on every call, should optimize?
-		private ManagedChannel createChannelChannel(String host, int port) {
-			NettyChannelBuilder nettyChannelBuilder = NettyChannelBuilder.forAddress(host, port);
-			try {
-				return grpcSslConfigurer.configureSsl(nettyChannelBuilder);
-			}
-			catch (SSLException e) {
-				throw new RuntimeException(e);
+		private Throwable mapError(Throwable t, @Nullable Duration timeout) {
+			if (timeout != null && Status.fromThrowable(t).getCode() == Status.Code.DEADLINE_EXCEEDED) {
+				return new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT,
+						"Response took longer than timeout: " + timeout, t);
 			}
+			return t;
 		}
 
 	}
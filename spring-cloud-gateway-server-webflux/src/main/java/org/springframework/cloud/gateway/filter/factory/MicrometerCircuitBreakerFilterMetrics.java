@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.http.HttpStatusCode;
+
+/**
+ * {@link CircuitBreakerFilterMetrics} exporting per route counters to a
+ * {@link MeterRegistry}. Counters are registered once per route, so recording an outcome
+ * is a plain counter increment. The counters of routes that a refresh removed, or built
+ * again without this filter, are removed from the registry.
+ */
+public class MicrometerCircuitBreakerFilterMetrics
+		implements CircuitBreakerFilterMetrics, ApplicationListener<RefreshRoutesResultEvent> {
+
+	private final MeterRegistry meterRegistry;
+
+	private final String metricsPrefix;
+
+	/**
+	 * Counters of the routes as of the last refresh.
+	 */
+	private final Map<String, Set<Meter>> meters = new ConcurrentHashMap<>();
+
+	/**
+	 * Counters of the routes built since the last refresh.
+	 */
+	private final Map<String, Set<Meter>> registered = new ConcurrentHashMap<>();
+
+	public MicrometerCircuitBreakerFilterMetrics(MeterRegistry meterRegistry, String metricsPrefix) {
+		this.meterRegistry = meterRegistry;
+		if (metricsPrefix.endsWith(".")) {
+			this.metricsPrefix = metricsPrefix.substring(0, metricsPrefix.length() - 1);
+		}
+		else {
+			this.metricsPrefix = metricsPrefix;
+		}
+	}
+
+	@Override
+	public RouteRecorder forRoute(@Nullable String routeId, @Nullable String circuitBreakerId) {
+		Tags tags = Tags.of("routeId", routeId != null ? routeId : "", "name",
+				circuitBreakerId != null ? circuitBreakerId : "");
+		Counter statusTrips = meterRegistry.counter(metricsPrefix + ".circuitbreaker.status.trips", tags);
+		Counter fallbacks = meterRegistry.counter(metricsPrefix + ".circuitbreaker.fallbacks", tags);
+		Counter errors = meterRegistry.counter(metricsPrefix + ".circuitbreaker.errors", tags);
+		if (routeId != null) {
+			registered.computeIfAbsent(routeId, id -> ConcurrentHashMap.newKeySet())
+				.addAll(List.of(statusTrips, fallbacks, errors));
+		}
+
+		return new RouteRecorder() {
+			@Override
+			public void statusCodeTripped(HttpStatusCode status) {
+				statusTrips.increment();
+			}
+
+			@Override
+			public void fallback(Throwable cause) {
+				fallbacks.increment();
+			}
+
+			@Override
+			public void error(Throwable cause) {
+				errors.increment();
+			}
+		};
+	}
+
+	@Override
+	public synchronized void onApplicationEvent(RefreshRoutesResultEvent event) {
+		if (!event.isSuccess()) {
+			return;
+		}
+		Map<String, Set<Meter>> built = new HashMap<>();
+		for (String routeId : new ArrayList<>(registered.keySet())) {
+			Set<Meter> current = registered.remove(routeId);
+			if (current != null) {
+				built.put(routeId, current);
+			}
+		}
+		built.forEach((routeId, current) -> {
+			if (!event.getChangedRouteIds().contains(routeId)) {
+				// built outside of the refresh, such as routes of other route locators
+				meters.computeIfAbsent(routeId, id -> ConcurrentHashMap.newKeySet()).addAll(current);
+			}
+		});
+		for (String routeId : event.getChangedRouteIds()) {
+			replace(routeId, built.getOrDefault(routeId, Set.of()));
+		}
+	}
+
+	private void replace(String routeId, Set<Meter> current) {
+		Set<Meter> previous = current.isEmpty() ? meters.remove(routeId) : meters.put(routeId, current);
+		if (previous != null) {
+			previous.stream().filter(meter -> !current.contains(meter)).forEach(meterRegistry::remove);
+		}
+	}
+
+}
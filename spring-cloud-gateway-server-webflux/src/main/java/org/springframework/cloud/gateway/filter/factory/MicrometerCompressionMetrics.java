@@ -0,0 +1,82 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.jspecify.annotations.Nullable;
+
+/**
+ * {@link CompressionMetrics} exporting per route and encoding the compression ratio and
+ * the time spent compressing to a {@link MeterRegistry}. Meters are registered once per
+ * route and encoding.
+ */
+public class MicrometerCompressionMetrics implements CompressionMetrics {
+
+	private final MeterRegistry meterRegistry;
+
+	private final String metricsPrefix;
+
+	public MicrometerCompressionMetrics(MeterRegistry meterRegistry, String metricsPrefix) {
+		this.meterRegistry = meterRegistry;
+		if (metricsPrefix.endsWith(".")) {
+			this.metricsPrefix = metricsPrefix.substring(0, metricsPrefix.length() - 1);
+		}
+		else {
+			this.metricsPrefix = metricsPrefix;
+		}
+	}
+
+	@Override
+	public RouteRecorder forRoute(@Nullable String routeId) {
+		Map<String, EncodingMeters> meters = new ConcurrentHashMap<>();
+		return (encoding, originalBytes, compressedBytes, encodingNanos) -> {
+			EncodingMeters encodingMeters = meters.computeIfAbsent(encoding,
+					key -> new EncodingMeters(Tags.of("routeId", routeId != null ? routeId : "", "encoding", key)));
+			if (originalBytes > 0) {
+				encodingMeters.ratio.record((double) compressedBytes / originalBytes);
+			}
+			encodingMeters.time.record(encodingNanos, TimeUnit.NANOSECONDS);
+		};
+	}
+
+	private final class EncodingMeters {
+
+		private final DistributionSummary ratio;
+
+		private final Timer time;
+
+		private EncodingMeters(Tags tags) {
+			this.ratio = DistributionSummary.builder(metricsPrefix + ".compression.ratio")
+				.description("Compressed size of response bodies relative to their original size")
+				.tags(tags)
+				.register(meterRegistry);
+			this.time = Timer.builder(metricsPrefix + ".compression.time")
+				.description("Time spent compressing response bodies")
+				.tags(tags)
+				.register(meterRegistry);
+		}
+
+	}
+
+}
@@ -29,7 +29,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriTemplate;
 
@@ -75,21 +75,22 @@ public class PrefixPathGatewayFilterFactory
 				}
 				exchange.getAttributes().put(GATEWAY_ALREADY_PREFIXED_ATTR, true);
 
-				ServerHttpRequest req = exchange.getRequest();
-				addOriginalRequestUrl(exchange, req.getURI());
+				AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange);
+				URI requestUri = accumulatingExchange.getRequestURI();
+				addOriginalRequestUrl(exchange, requestUri);
 
 				Map<String, String> uriVariables = getUriTemplateVariables(exchange);
 				URI uri = uriTemplate.expand(uriVariables);
 
-				String newPath = uri.getRawPath() + req.getURI().getRawPath();
+				String newPath = uri.getRawPath() + requestUri.getRawPath();
 				exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, uri);
-				ServerHttpRequest request = req.mutate().path(newPath).build();
+				AccumulatingRequestExchange newExchange = accumulatingExchange.mutatePath(newPath);
 
 				if (log.isTraceEnabled()) {
-					log.trace("Prefixed URI with: " + config.prefix + " -> " + request.getURI());
+					log.trace("Prefixed URI with: " + config.prefix + " -> " + newExchange.getRequestURI());
 				}
 
-				return chain.filter(exchange.mutate().request(request).build());
+				return chain.filter(newExchange);
 			}
 
 			@Override
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.Descriptors.EnumValueDescriptor;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import com.google.protobuf.util.JsonFormat;
+import org.jspecify.annotations.Nullable;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Transcodes between JSON and protobuf messages of a gRPC method following the proto3
+ * JSON mapping, like {@link JsonFormat}. JSON tokens are read straight into a
+ * {@link DynamicMessage.Builder} and fields are written straight to the output, without
+ * intermediate strings or trees. Messages using well-known types, which have a special
+ * JSON representation, are transcoded by {@link JsonFormat}.
+ */
+final class ProtobufJsonTranscoder {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+	private static final String WELL_KNOWN_TYPES_PACKAGE = "google.protobuf.";
+
+	private final Descriptor inputType;
+
+	/**
+	 * JSON and proto field names to fields, for every message type of the method.
+	 */
+	private final Map<Descriptor, Map<String, FieldDescriptor>> fields = new HashMap<>();
+
+	private final boolean usesWellKnownTypes;
+
+	ProtobufJsonTranscoder(Descriptor inputType, Descriptor outputType) {
+		this.inputType = inputType;
+		this.usesWellKnownTypes = !index(inputType) | !index(outputType);
+	}
+
+	/**
+	 * Indexes the fields of a message type and of the message types it uses.
+	 * @return {@code false} if a well-known type is used
+	 */
+	private boolean index(Descriptor type) {
+		if (type.getFullName().startsWith(WELL_KNOWN_TYPES_PACKAGE)) {
+			return false;
+		}
+		if (fields.containsKey(type)) {
+			return true;
+		}
+		Map<String, FieldDescriptor> byName = new HashMap<>();
+		fields.put(type, byName);
+		boolean supported = true;
+		for (FieldDescriptor field : type.getFields()) {
+			byName.put(field.getJsonName(), field);
+			byName.put(field.getName(), field);
+			if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+				supported &= index(field.getMessageType());
+			}
+		}
+		return supported;
+	}
+
+	/**
+	 * Reads a JSON request.
+	 * @param inputStream the JSON request, closed once read
+	 * @return the request message
+	 */
+	DynamicMessage readRequest(InputStream inputStream) throws IOException {
+		DynamicMessage.Builder builder = DynamicMessage.newBuilder(inputType);
+		if (usesWellKnownTypes) {
+			try (InputStreamReader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+				JsonFormat.parser().merge(reader, builder);
+			}
+			return builder.build();
+		}
+		try (inputStream; JsonParser parser = JSON_MAPPER.createParser(inputStream)) {
+			JsonToken token = parser.nextToken();
+			if (token == null) {
+				return builder.build();
+			}
+			if (token != JsonToken.START_OBJECT) {
+				throw new InvalidProtocolBufferException("Expect message object but got: " + token);
+			}
+			readMessage(parser, builder);
+			if (parser.nextToken() != null) {
+				throw new InvalidProtocolBufferException("Unexpected content after the request message");
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Writes a response message as JSON.
+	 * @param message the response message
+	 * @param outputStream the output, not closed
+	 */
+	void writeResponse(DynamicMessage message, OutputStream outputStream) throws IOException {
+		if (usesWellKnownTypes) {
+			Writer writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+			JsonFormat.printer().omittingInsignificantWhitespace().appendTo(message, writer);
+			writer.flush();
+			return;
+		}
+		try (JsonGenerator generator = JSON_MAPPER.createGenerator(new NonClosingOutputStream(outputStream))) {
+			writeMessage(message, generator);
+		}
+	}
+
+	private void readMessage(JsonParser parser, Message.Builder builder) throws IOException {
+		Map<String, FieldDescriptor> byName = fields.get(builder.getDescriptorForType());
+		JsonToken token;
+		while ((token = parser.nextToken()) == JsonToken.PROPERTY_NAME) {
+			String name = parser.currentName();
+			FieldDescriptor field = byName.get(name);
+			if (field == null) {
+				throw new InvalidProtocolBufferException(
+						"Cannot find field: " + name + " in message " + builder.getDescriptorForType().getFullName());
+			}
+			token = parser.nextToken();
+			if (token == JsonToken.VALUE_NULL) {
+				// null means the default value
+				continue;
+			}
+			if (field.isMapField()) {
+				readMap(parser, builder, field);
+			}
+			else if (field.isRepeated()) {
+				expect(token, JsonToken.START_ARRAY, field);
+				while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+					if (token == JsonToken.VALUE_NULL) {
+						// like JsonFormat, there is no default value for an element
+						throw new InvalidProtocolBufferException(
+								"Repeated field elements cannot be null in field: " + field.getFullName());
+					}
+					builder.addRepeatedField(field, readValue(parser, token, builder, field));
+				}
+			}
+			else {
+				builder.setField(field, readValue(parser, token, builder, field));
+			}
+		}
+		expect(token, JsonToken.END_OBJECT, null);
+	}
+
+	private void readMap(JsonParser parser, Message.Builder builder, FieldDescriptor field) throws IOException {
+		expect(parser.currentToken(), JsonToken.START_OBJECT, field);
+		Descriptor entryType = field.getMessageType();
+		FieldDescriptor keyField = entryType.findFieldByNumber(1);
+		FieldDescriptor valueField = entryType.findFieldByNumber(2);
+		while (parser.nextToken() == JsonToken.PROPERTY_NAME) {
+			Object key = readScalar(parser.currentName(), keyField);
+			JsonToken token = parser.nextToken();
+			Message.Builder entry = builder.newBuilderForField(field);
+			entry.setField(keyField, key);
+			if (token != JsonToken.VALUE_NULL) {
+				entry.setField(valueField, readValue(parser, token, entry, valueField));
+			}
+			builder.addRepeatedField(field, entry.build());
+		}
+	}
+
+	private Object readValue(JsonParser parser, JsonToken token, Message.Builder builder, FieldDescriptor field)
+			throws IOException {
+		if (field.getJavaType() == FieldDescriptor.JavaType.MESSAGE) {
+			expect(token, JsonToken.START_OBJECT, field);
+			Message.Builder nested = builder.newBuilderForField(field);
+			readMessage(parser, nested);
+			return nested.build();
+		}
+		if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+			throw new InvalidProtocolBufferException("Unexpected " + token + " for field: " + field.getFullName());
+		}
+		if (field.getJavaType() == FieldDescriptor.JavaType.BOOLEAN) {
+			if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+				return token == JsonToken.VALUE_TRUE;
+			}
+		}
+		else if (field.getJavaType() == FieldDescriptor.JavaType.ENUM && token == JsonToken.VALUE_NUMBER_INT) {
+			return enumValue(field, parser.getIntValue());
+		}
+		return readScalar(parser.getString(), field);
+	}
+
+	private Object readScalar(String text, FieldDescriptor field) throws InvalidProtocolBufferException {
+		try {
+			switch (field.getType()) {
+				case INT32:
+				case SINT32:
+				case SFIXED32:
+					return new BigDecimal(text).intValueExact();
+				case UINT32:
+				case FIXED32:
+					long unsigned32 = new BigDecimal(text).longValueExact();
+					if (unsigned32 < 0 || unsigned32 > 0xFFFFFFFFL) {
+						throw new NumberFormatException("Out of range: " + text);
+					}
+					return (int) unsigned32;
+				case INT64:
+				case SINT64:
+				case SFIXED64:
+					return new BigDecimal(text).longValueExact();
+				case UINT64:
+				case FIXED64:
+					BigInteger unsigned64 = new BigDecimal(text).toBigIntegerExact();
+					if (unsigned64.signum() < 0 || unsigned64.bitLength() > 64) {
+						throw new NumberFormatException("Out of range: " + text);
+					}
+					return unsigned64.longValue();
+				case FLOAT:
+					return Float.parseFloat(text);
+				case DOUBLE:
+					return Double.parseDouble(text);
+				case BOOL:
+					if ("true".equals(text) || "false".equals(text)) {
+						return Boolean.parseBoolean(text);
+					}
+					throw new NumberFormatException("Not a boolean: " + text);
+				case STRING:
+					return text;
+				case BYTES:
+					return ByteString.copyFrom(decodeBase64(text));
+				case ENUM:
+					EnumValueDescriptor value = field.getEnumType().findValueByName(text);
+					if (value == null) {
+						return enumValue(field, Integer.parseInt(text));
+					}
+					return value;
+				default:
+					throw new InvalidProtocolBufferException("Unsupported field: " + field.getFullName());
+			}
+		}
+		catch (ArithmeticException | IllegalArgumentException e) {
+			InvalidProtocolBufferException exception = new InvalidProtocolBufferException(
+					"Invalid value " + text + " for field: " + field.getFullName());
+			exception.initCause(e);
+			throw exception;
+		}
+	}
+
+	private static EnumValueDescriptor enumValue(FieldDescriptor field, int number) {
+		EnumValueDescriptor value = field.getEnumType().isClosed() ? field.getEnumType().findValueByNumber(number)
+				: field.getEnumType().findValueByNumberCreatingIfUnknown(number);
+		if (value == null) {
+			throw new IllegalArgumentException("Unknown enum value: " + number);
+		}
+		return value;
+	}
+
+	private static byte[] decodeBase64(String text) {
+		try {
+			return Base64.getDecoder().decode(text);
+		}
+		catch (IllegalArgumentException e) {
+			return Base64.getUrlDecoder().decode(text);
+		}
+	}
+
+	private static void expect(@Nullable JsonToken actual, JsonToken expected, @Nullable FieldDescriptor field)
+			throws InvalidProtocolBufferException {
+		if (actual != expected) {
+			throw new InvalidProtocolBufferException("Expect " + expected + " but got " + actual
+					+ ((field != null) ? " for field: " + field.getFullName() : ""));
+		}
+	}
+
+	private void writeMessage(Message message, JsonGenerator generator) {
+		generator.writeStartObject();
+		// only fields that are set, in field number order, like JsonFormat
+		for (Map.Entry<FieldDescriptor, Object> entry : message.getAllFields().entrySet()) {
+			FieldDescriptor field = entry.getKey();
+			generator.writeName(field.getJsonName());
+			if (field.isMapField()) {
+				FieldDescriptor keyField = field.getMessageType().findFieldByNumber(1);
+				FieldDescriptor valueField = field.getMessageType().findFieldByNumber(2);
+				generator.writeStartObject();
+				for (Object mapEntry : (List<?>) entry.getValue()) {
+					Message entryMessage = (Message) mapEntry;
+					generator.writeName(mapKey(keyField, entryMessage.getField(keyField)));
+					writeValue(valueField, entryMessage.getField(valueField), generator);
+				}
+				generator.writeEndObject();
+			}
+			else if (field.isRepeated()) {
+				generator.writeStartArray();
+				for (Object value : (List<?>) entry.getValue()) {
+					writeValue(field, value, generator);
+				}
+				generator.writeEndArray();
+			}
+			else {
+				writeValue(field, entry.getValue(), generator);
+			}
+		}
+		generator.writeEndObject();
+	}
+
+	private void writeValue(FieldDescriptor field, Object value, JsonGenerator generator) {
+		switch (field.getType()) {
+			case INT32, SINT32, SFIXED32 -> generator.writeNumber((Integer) value);
+			case UINT32, FIXED32 -> generator.writeNumber(Integer.toUnsignedLong((Integer) value));
+			// 64 bit integers are strings, as JSON numbers lose precision
+			case INT64, SINT64, SFIXED64 -> generator.writeString(value.toString());
+			case UINT64, FIXED64 -> generator.writeString(Long.toUnsignedString((Long) value));
+			case FLOAT -> {
+				Float number = (Float) value;
+				if (number.isNaN() || number.isInfinite()) {
+					generator.writeString(number.toString());
+				}
+				else {
+					generator.writeNumber(number);
+				}
+			}
+			case DOUBLE -> {
+				Double number = (Double) value;
+				if (number.isNaN() || number.isInfinite()) {
+					generator.writeString(number.toString());
+				}
+				else {
+					generator.writeNumber(number);
+				}
+			}
+			case BOOL -> generator.writeBoolean((Boolean) value);
+			case STRING -> generator.writeString((String) value);
+			case BYTES -> generator.writeString(Base64.getEncoder().encodeToString(((ByteString) value).toByteArray()));
+			case ENUM -> {
+				EnumValueDescriptor enumValue = (EnumValueDescriptor) value;
+				if (enumValue.getIndex() == -1) {
+					// unknown value of an open enum
+					generator.writeNumber(enumValue.getNumber());
+				}
+				else {
+					generator.writeString(enumValue.getName());
+				}
+			}
+			case MESSAGE, GROUP -> writeMessage((Message) value, generator);
+		}
+	}
+
+	private static String mapKey(FieldDescriptor keyField, Object key) {
+		return switch (keyField.getType()) {
+			case UINT32, FIXED32 -> Integer.toUnsignedString((Integer) key);
+			case UINT64, FIXED64 -> Long.toUnsignedString((Long) key);
+			default -> key.toString();
+		};
+	}
+
+	/**
+	 * Keeps the generator from closing the buffer it writes to.
+	 */
+	private static final class NonClosingOutputStream extends OutputStream {
+
+		private final OutputStream delegate;
+
+		NonClosingOutputStream(OutputStream delegate) {
+			this.delegate = delegate;
+		}
+
+		@Override
+		public void write(int b) throws IOException {
+			delegate.write(b);
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			delegate.write(b, off, len);
+		}
+
+		@Override
+		public void flush() throws IOException {
+			delegate.flush();
+		}
+
+	}
+
+}
@@ -21,15 +21,11 @@ import java.util.List;
 import java.util.Objects;
 
 import org.jspecify.annotations.Nullable;
-import reactor.core.publisher.Mono;
-import tools.jackson.core.JacksonException;
-import tools.jackson.databind.JsonNode;
-import tools.jackson.databind.ObjectMapper;
-import tools.jackson.databind.node.ObjectNode;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyResponseBodyGatewayFilterFactory;
-import org.springframework.cloud.gateway.filter.factory.rewrite.RewriteFunction;
+import org.springframework.cloud.gateway.filter.factory.rewrite.StreamingRewriteFunction;
+import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.http.MediaType;
 
@@ -67,45 +63,24 @@ public class RemoveJsonAttributesResponseBodyGatewayFilterFactory extends
 
 	@Override
 	public GatewayFilter apply(FieldListConfiguration config) {
-		ModifyResponseBodyGatewayFilterFactory.Config modifyResponseBodyConfig = new ModifyResponseBodyGatewayFilterFactory.Config();
-		modifyResponseBodyConfig.setInClass(String.class);
-		modifyResponseBodyConfig.setOutClass(String.class);
+		List<String> fieldList = Objects.requireNonNull(config.getFieldList(), "fieldList must not be null");
+		StreamingJsonAttributeRemover remover = new StreamingJsonAttributeRemover(fieldList,
+				config.isDeleteRecursively());
 
-		RewriteFunction<String, String> rewriteFunction = (exchange, body) -> {
+		StreamingRewriteFunction<DataBuffer, DataBuffer> rewriteFunction = (exchange, body) -> {
 			if (MediaType.APPLICATION_JSON.isCompatibleWith(exchange.getResponse().getHeaders().getContentType())) {
-				try {
-					JsonNode jsonNode = mapper.readValue(body, JsonNode.class);
-
-					List<String> fieldList = Objects.requireNonNull(config.getFieldList(),
-							"fieldList must not be null");
-					removeJsonAttributes(jsonNode, fieldList, config.isDeleteRecursively());
-
-					body = mapper.writeValueAsString(jsonNode);
-				}
-				catch (JacksonException e) {
-					return Mono.error(new IllegalStateException("Failed to process JSON of response body.", e));
-				}
+				return remover.remove(body, exchange.getResponse().bufferFactory());
 			}
-			return Mono.just(body);
+			return body;
 		};
-		modifyResponseBodyConfig.setRewriteFunction(rewriteFunction);
+		ModifyResponseBodyGatewayFilterFactory.Config modifyResponseBodyConfig = new ModifyResponseBodyGatewayFilterFactory.Config();
+		modifyResponseBodyConfig.setStreamingRewriteFunction(DataBuffer.class, DataBuffer.class, rewriteFunction);
 
 		return modifyResponseBodyGatewayFilterFactory.apply(modifyResponseBodyConfig);
 	}
 
 	private final ModifyResponseBodyGatewayFilterFactory modifyResponseBodyGatewayFilterFactory;
 
-	private ObjectMapper mapper = new ObjectMapper();
-
-	private void removeJsonAttributes(JsonNode jsonNode, List<String> fieldNames, boolean deleteRecursively) {
-		if (jsonNode instanceof ObjectNode objectNode) {
-			objectNode.remove(fieldNames);
-		}
-		if (deleteRecursively) {
-			jsonNode.forEach(childNode -> removeJsonAttributes(childNode, fieldNames, true));
-		}
-	}
-
 	public static class FieldListConfiguration {
 
 		private @Nullable List<String> fieldList;
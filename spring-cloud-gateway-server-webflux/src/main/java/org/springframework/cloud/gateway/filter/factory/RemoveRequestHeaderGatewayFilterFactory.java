@@ -24,7 +24,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
@@ -50,12 +50,8 @@ public class RemoveRequestHeaderGatewayFilterFactory
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
 				String name = Objects.requireNonNull(config.getName(), "name must not be null");
-				ServerHttpRequest request = exchange.getRequest()
-					.mutate()
-					.headers(httpHeaders -> httpHeaders.remove(name))
-					.build();
-
-				return chain.filter(exchange.mutate().request(request).build());
+				return chain.filter(AccumulatingRequestExchange.from(exchange)
+					.mutateHeaders(httpHeaders -> httpHeaders.remove(name)));
 			}
 
 			@Override
@@ -16,13 +16,17 @@
 
 package org.springframework.cloud.gateway.filter.factory;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Objects;
 
 import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
 import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
 import org.springframework.cloud.gateway.route.Route;
@@ -30,6 +34,7 @@ import org.springframework.cloud.gateway.support.HasRouteId;
 import org.springframework.cloud.gateway.support.HttpStatusHolder;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ServerWebExchange;
 
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.setResponseStatus;
 
@@ -99,6 +104,25 @@ public class RequestRateLimiterGatewayFilterFactory
 		HttpStatusHolder emptyKeyStatus = HttpStatusHolder
 			.parse(getOrDefault(config.emptyKeyStatus, this.emptyKeyStatusCode));
 
+		if (!config.getKeyResolvers().isEmpty()) {
+			Map<String, KeyResolver> resolvers = new LinkedHashMap<>(config.getKeyResolvers());
+			return (exchange, chain) -> resolveKeys(resolvers, exchange).flatMap(keys -> {
+				if (keys.containsValue(EMPTY_KEY)) {
+					if (denyEmpty) {
+						setResponseStatus(exchange, emptyKeyStatus);
+						return exchange.getResponse().setComplete();
+					}
+					// only check the limits with a key
+					keys.values().removeIf(EMPTY_KEY::equals);
+					if (keys.isEmpty()) {
+						return chain.filter(exchange);
+					}
+				}
+				return limiter.isAllowed(getRouteId(config, exchange), keys)
+					.flatMap(response -> handleResponse(response, config, exchange, chain));
+			});
+		}
+
 		return (exchange, chain) -> resolver.resolve(exchange).defaultIfEmpty(EMPTY_KEY).flatMap(key -> {
 			if (EMPTY_KEY.equals(key)) {
 				if (denyEmpty) {
@@ -107,25 +131,41 @@ public class RequestRateLimiterGatewayFilterFactory
 				}
 				return chain.filter(exchange);
 			}
-			String routeId = config.getRouteId();
-			if (routeId == null) {
-				Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
-				routeId = Objects.requireNonNull(route, "Route not found").getId();
-			}
-			return limiter.isAllowed(routeId, key).flatMap(response -> {
+			return limiter.isAllowed(getRouteId(config, exchange), key)
+				.flatMap(response -> handleResponse(response, config, exchange, chain));
+		});
+	}
 
-				for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
-					exchange.getResponse().getHeaders().add(header.getKey(), header.getValue());
-				}
+	private Mono<Map<String, String>> resolveKeys(Map<String, KeyResolver> resolvers, ServerWebExchange exchange) {
+		return Flux.fromIterable(resolvers.entrySet())
+			.concatMap(resolver -> resolver.getValue()
+				.resolve(exchange)
+				.defaultIfEmpty(EMPTY_KEY)
+				.map(key -> Map.entry(resolver.getKey(), key)))
+			.collectMap(Map.Entry::getKey, Map.Entry::getValue, LinkedHashMap::new);
+	}
 
-				if (response.isAllowed()) {
-					return chain.filter(exchange);
-				}
+	private String getRouteId(Config config, ServerWebExchange exchange) {
+		String routeId = config.getRouteId();
+		if (routeId == null) {
+			Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+			routeId = Objects.requireNonNull(route, "Route not found").getId();
+		}
+		return routeId;
+	}
 
-				setResponseStatus(exchange, config.getStatusCode());
-				return exchange.getResponse().setComplete();
-			});
-		});
+	private Mono<Void> handleResponse(RateLimiter.Response response, Config config, ServerWebExchange exchange,
+			GatewayFilterChain chain) {
+		for (Map.Entry<String, String> header : response.getHeaders().entrySet()) {
+			exchange.getResponse().getHeaders().add(header.getKey(), header.getValue());
+		}
+
+		if (response.isAllowed()) {
+			return chain.filter(exchange);
+		}
+
+		setResponseStatus(exchange, config.getStatusCode());
+		return exchange.getResponse().setComplete();
 	}
 
 	private <T> T getOrDefault(@Nullable T configValue, T defaultValue) {
@@ -136,6 +176,8 @@ public class RequestRateLimiterGatewayFilterFactory
 
 		private @Nullable KeyResolver keyResolver;
 
+		private Map<String, KeyResolver> keyResolvers = new LinkedHashMap<>();
+
 		private @Nullable RateLimiter rateLimiter;
 
 		private HttpStatus statusCode = HttpStatus.TOO_MANY_REQUESTS;
@@ -155,6 +197,25 @@ public class RequestRateLimiterGatewayFilterFactory
 			return this;
 		}
 
+		/**
+		 * @return limit names to the resolvers of their keys. If not empty, every limit
+		 * is checked by the rate limiter at once, in order, instead of the single key
+		 * resolver
+		 */
+		public Map<String, KeyResolver> getKeyResolvers() {
+			return keyResolvers;
+		}
+
+		public Config setKeyResolvers(Map<String, KeyResolver> keyResolvers) {
+			this.keyResolvers = keyResolvers;
+			return this;
+		}
+
+		public Config addKeyResolver(String limitName, KeyResolver keyResolver) {
+			this.keyResolvers.put(limitName, keyResolver);
+			return this;
+		}
+
 		public @Nullable RateLimiter getRateLimiter() {
 			return rateLimiter;
 		}
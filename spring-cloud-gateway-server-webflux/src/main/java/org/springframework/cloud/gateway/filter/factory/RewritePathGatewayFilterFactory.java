@@ -16,9 +16,13 @@
 
 package org.springframework.cloud.gateway.filter.factory;
 
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.UnaryOperator;
+import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 import org.jspecify.annotations.Nullable;
@@ -26,7 +30,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
 import org.springframework.util.Assert;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -50,6 +54,20 @@ public class RewritePathGatewayFilterFactory
 	 */
 	public static final String REPLACEMENT_KEY = "replacement";
 
+	private static final String REGEX_METACHARACTERS = "\\.[]{}()*+?^$|";
+
+	/**
+	 * An optionally anchored prefix, an optional slash and a captured tail, as in
+	 * {@code ^/red/?(?<segment>.*)}.
+	 */
+	private static final Pattern TAIL_PATTERN = Pattern
+		.compile("(\\^)?(.*?)(/\\?)?\\((?:\\?<([a-zA-Z][a-zA-Z0-9]*)>)?\\.\\*\\)");
+
+	/**
+	 * A group reference of a replacement, {@code $1} or {@code ${name}}.
+	 */
+	private static final Pattern REFERENCE_PATTERN = Pattern.compile("\\$(?:(\\d+)|\\{([a-zA-Z][a-zA-Z0-9]*)\\})");
+
 	public RewritePathGatewayFilterFactory() {
 		super(Config.class);
 	}
@@ -64,20 +82,25 @@ public class RewritePathGatewayFilterFactory
 		String replacementValue = Objects.requireNonNull(config.replacement, "replacement must not be null");
 		String replacement = replacementValue.replace("$\\", "$");
 		String regexpValue = Objects.requireNonNull(config.regexp, "regexp must not be null");
-		Pattern pattern = Pattern.compile(regexpValue);
+		UnaryOperator<String> rewrite = compileRewrite(regexpValue, replacement);
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				ServerHttpRequest req = exchange.getRequest();
-				addOriginalRequestUrl(exchange, req.getURI());
-				String path = req.getURI().getRawPath();
-				String newPath = pattern.matcher(path).replaceAll(replacement);
+				AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange);
+				URI uri = accumulatingExchange.getRequestURI();
+				addOriginalRequestUrl(exchange, uri);
+				String path = uri.getRawPath();
+				String newPath = rewrite.apply(path);
+				if (newPath.equals(path)) {
+					exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, uri);
+					return chain.filter(accumulatingExchange);
+				}
 
-				ServerHttpRequest request = req.mutate().path(newPath).build();
+				AccumulatingRequestExchange newExchange = accumulatingExchange.mutatePath(newPath);
 
-				exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, request.getURI());
+				exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, newExchange.getRequestURI());
 
-				return chain.filter(exchange.mutate().request(request).build());
+				return chain.filter(newExchange);
 			}
 
 			@Override
@@ -90,6 +113,104 @@ public class RewritePathGatewayFilterFactory
 		};
 	}
 
+	/**
+	 * Compiles the rewrite of a path by the given regular expression and replacement. The
+	 * common shapes of a literal prefix followed by a captured tail, such as
+	 * {@code /red/?(?<segment>.*)} replaced by {@code /${segment}}, and of a literal
+	 * replaced by a literal are rewritten with string operations, which give the same
+	 * result as {@link Matcher#replaceAll(String)}. Other expressions are matched as
+	 * regular expressions.
+	 * @param regexp the regular expression to match
+	 * @param replacement the replacement of the matches
+	 * @return the rewrite of a path
+	 */
+	static UnaryOperator<String> compileRewrite(String regexp, String replacement) {
+		UnaryOperator<String> rewrite = compileLiteralRewrite(regexp, replacement);
+		if (rewrite != null) {
+			return rewrite;
+		}
+		Pattern pattern = Pattern.compile(regexp);
+		return path -> pattern.matcher(path).replaceAll(replacement);
+	}
+
+	private static @Nullable UnaryOperator<String> compileLiteralRewrite(String regexp, String replacement) {
+		if (isLiteral(regexp)) {
+			if (regexp.isEmpty() || replacement.indexOf('$') != -1 || replacement.indexOf('\\') != -1) {
+				return null;
+			}
+			return path -> path.replace(regexp, replacement);
+		}
+		Matcher tailMatcher = TAIL_PATTERN.matcher(regexp);
+		if (!tailMatcher.matches()) {
+			return null;
+		}
+		boolean anchored = tailMatcher.group(1) != null;
+		String prefix = tailMatcher.group(2);
+		boolean optionalSlash = tailMatcher.group(3) != null;
+		String groupName = tailMatcher.group(4);
+		if (prefix.isEmpty() || !isLiteral(prefix)) {
+			return null;
+		}
+		// the replacement is split around its references to the tail
+		List<String> literals = new ArrayList<>();
+		StringBuilder literal = new StringBuilder();
+		int i = 0;
+		while (i < replacement.length()) {
+			char c = replacement.charAt(i);
+			if (c == '\\') {
+				return null;
+			}
+			if (c != '$') {
+				literal.append(c);
+				i++;
+				continue;
+			}
+			Matcher referenceMatcher = REFERENCE_PATTERN.matcher(replacement).region(i, replacement.length());
+			if (!referenceMatcher.lookingAt() || !isTailReference(referenceMatcher, groupName)) {
+				return null;
+			}
+			literals.add(literal.toString());
+			literal.setLength(0);
+			i = referenceMatcher.end();
+		}
+		literals.add(literal.toString());
+		String[] replacementLiterals = literals.toArray(new String[0]);
+		return path -> {
+			int start = anchored ? (path.startsWith(prefix) ? 0 : -1) : path.indexOf(prefix);
+			if (start < 0) {
+				return path;
+			}
+			int tailStart = start + prefix.length();
+			if (optionalSlash && tailStart < path.length() && path.charAt(tailStart) == '/') {
+				tailStart++;
+			}
+			String tail = path.substring(tailStart);
+			StringBuilder rewritten = new StringBuilder(path.length() + replacement.length());
+			rewritten.append(path, 0, start).append(replacementLiterals[0]);
+			for (int j = 1; j < replacementLiterals.length; j++) {
+				rewritten.append(tail).append(replacementLiterals[j]);
+			}
+			return rewritten.toString();
+		};
+	}
+
+	private static boolean isTailReference(Matcher referenceMatcher, @Nullable String groupName) {
+		String number = referenceMatcher.group(1);
+		if (number != null) {
+			return number.equals("1");
+		}
+		return referenceMatcher.group(2).equals(groupName);
+	}
+
+	private static boolean isLiteral(String regexp) {
+		for (int i = 0; i < regexp.length(); i++) {
+			if (REGEX_METACHARACTERS.indexOf(regexp.charAt(i)) != -1) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	public static class Config {
 
 		private @Nullable String regexp;
@@ -27,7 +27,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.util.UriTemplate;
 
@@ -63,8 +63,8 @@ public class SetPathGatewayFilterFactory extends AbstractGatewayFilterFactory<Se
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				ServerHttpRequest req = exchange.getRequest();
-				addOriginalRequestUrl(exchange, req.getURI());
+				AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange);
+				addOriginalRequestUrl(exchange, accumulatingExchange.getRequestURI());
 
 				Map<String, String> uriVariables = getUriTemplateVariables(exchange);
 
@@ -73,9 +73,7 @@ public class SetPathGatewayFilterFactory extends AbstractGatewayFilterFactory<Se
 
 				exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, uri);
 
-				ServerHttpRequest request = req.mutate().path(newPath).build();
-
-				return chain.filter(exchange.mutate().request(request).build());
+				return chain.filter(accumulatingExchange.mutatePath(newPath));
 			}
 
 			@Override
@@ -22,8 +22,8 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
+import org.springframework.cloud.gateway.support.ExpandableTemplate;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
@@ -35,17 +35,15 @@ public class SetRequestHeaderGatewayFilterFactory extends AbstractNameValueGatew
 
 	@Override
 	public GatewayFilter apply(NameValueConfig config) {
+		ExpandableTemplate valueTemplate = ExpandableTemplate
+			.compile(Objects.requireNonNull(config.getValue(), "value must not be null"));
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				String value = ServerWebExchangeUtils.expand(exchange, config.getValue());
+				String value = valueTemplate.expand(exchange);
 				String name = Objects.requireNonNull(config.name, "name must not be null");
-				ServerHttpRequest request = exchange.getRequest()
-					.mutate()
-					.headers(httpHeaders -> httpHeaders.set(name, value))
-					.build();
-
-				return chain.filter(exchange.mutate().request(request).build());
+				return chain.filter(AccumulatingRequestExchange.from(exchange)
+					.mutateHeaders(httpHeaders -> httpHeaders.set(name, value)));
 			}
 
 			@Override
@@ -18,14 +18,15 @@ package org.springframework.cloud.gateway.filter.factory;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.Objects;
 
 import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
+import org.springframework.cloud.gateway.support.ExpandableTemplate;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
@@ -48,20 +49,23 @@ public class SetRequestHostHeaderGatewayFilterFactory
 
 	@Override
 	public GatewayFilter apply(Config config) {
+		ExpandableTemplate hostTemplate = ExpandableTemplate
+			.compile(Objects.requireNonNull(config.getHost(), "host must not be null"));
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				String value = ServerWebExchangeUtils.expand(exchange, config.getHost());
+				String value = hostTemplate.expand(exchange);
 
-				ServerHttpRequest request = exchange.getRequest().mutate().headers(httpHeaders -> {
-					httpHeaders.remove("Host");
-					httpHeaders.add("Host", value);
-				}).build();
+				AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange)
+					.mutateHeaders(httpHeaders -> {
+						httpHeaders.remove("Host");
+						httpHeaders.add("Host", value);
+					});
 
 				// Make sure the header we just set is preserved
 				exchange.getAttributes().put(PRESERVE_HOST_HEADER_ATTRIBUTE, true);
 
-				return chain.filter(exchange.mutate().request(request).build());
+				return chain.filter(accumulatingExchange);
 			}
 
 			@Override
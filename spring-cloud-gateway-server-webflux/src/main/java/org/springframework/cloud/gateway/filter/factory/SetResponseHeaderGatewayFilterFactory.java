@@ -22,7 +22,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ExpandableTemplate;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.springframework.cloud.gateway.support.GatewayToStringStyler.filterToStringCreator;
@@ -34,10 +34,12 @@ public class SetResponseHeaderGatewayFilterFactory extends AbstractNameValueGate
 
 	@Override
 	public GatewayFilter apply(NameValueConfig config) {
+		ExpandableTemplate valueTemplate = ExpandableTemplate
+			.compile(Objects.requireNonNull(config.getValue(), "value must not be null"));
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				String value = ServerWebExchangeUtils.expand(exchange, config.getValue());
+				String value = valueTemplate.expand(exchange);
 				String name = Objects.requireNonNull(config.name, "name must not be null");
 				return chain.filter(exchange)
 					.then(Mono.fromRunnable(() -> exchange.getResponse().getHeaders().set(name, value)));
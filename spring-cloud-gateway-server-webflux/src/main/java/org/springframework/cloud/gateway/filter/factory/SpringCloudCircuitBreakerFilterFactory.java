@@ -17,10 +17,12 @@
 package org.springframework.cloud.gateway.filter.factory;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 import org.jspecify.annotations.Nullable;
 import reactor.core.publisher.Mono;
@@ -30,10 +32,9 @@ import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
 import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.support.ExpandableTemplate;
 import org.springframework.cloud.gateway.support.HasRouteId;
 import org.springframework.cloud.gateway.support.HttpStatusHolder;
-import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.util.StringUtils;
@@ -63,6 +64,8 @@ public abstract class SpringCloudCircuitBreakerFilterFactory
 
 	private @Nullable ReactiveCircuitBreaker cb;
 
+	private @Nullable CircuitBreakerFilterMetrics metrics;
+
 	private final ObjectProvider<DispatcherHandler> dispatcherHandlerProvider;
 
 	// do not use this dispatcherHandler directly, use getDispatcherHandler() instead.
@@ -90,49 +93,39 @@ public abstract class SpringCloudCircuitBreakerFilterFactory
 
 	@Override
 	public GatewayFilter apply(Config config) {
-		if (config.getFallbackUri() != null) {
+		URI fallbackUri = config.getFallbackUri();
+		if (fallbackUri != null) {
 			enableBodyCaching(config.getRouteId());
 		}
 		ReactiveCircuitBreaker cb = reactiveCircuitBreakerFactory.create(config.getId());
-		Set<HttpStatus> statuses = config.getStatusCodes()
-			.stream()
-			.map(HttpStatusHolder::parse)
-			.filter(statusHolder -> statusHolder.getHttpStatus() != null)
-			.map(HttpStatusHolder::getHttpStatus)
-			.collect(Collectors.toSet());
+		StatusCodes statuses = StatusCodes.of(config.getStatusCodes());
+		Fallback fallback = fallbackUri != null ? new Fallback(fallbackUri) : null;
+		CircuitBreakerFilterMetrics.RouteRecorder recorder = metrics != null
+				? metrics.forRoute(config.getRouteId(), config.getId())
+				: CircuitBreakerFilterMetrics.RouteRecorder.NONE;
 
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				return cb.run(chain.filter(exchange).doOnSuccess(v -> {
-					if (statuses.contains(exchange.getResponse().getStatusCode())) {
-						HttpStatusCode status = java.util.Objects.requireNonNull(exchange.getResponse().getStatusCode(),
-								"statusCode must not be null");
-						throw new CircuitBreakerStatusCodeException(status);
-					}
-				}), t -> {
-					if (config.getFallbackUri() == null) {
+				Mono<Void> upstream = chain.filter(exchange);
+				if (!statuses.isEmpty()) {
+					upstream = upstream.doOnSuccess(v -> {
+						HttpStatusCode status = exchange.getResponse().getStatusCode();
+						if (status != null && statuses.contains(status)) {
+							recorder.statusCodeTripped(status);
+							throw new CircuitBreakerStatusCodeException(status);
+						}
+					});
+				}
+				return cb.run(upstream, t -> {
+					if (fallback == null) {
 						return Mono.error(t);
 					}
+					recorder.fallback(t);
 
 					exchange.getResponse().setStatusCode(null);
 
-					// TODO: copied from RouteToRequestUrlFilter
-					URI uri = exchange.getRequest().getURI();
-					// TODO: assume always?
-					boolean encoded = containsEncodedParts(uri);
-
-					String expandedFallbackUri = ServerWebExchangeUtils.expand(exchange,
-							config.getFallbackUri().getPath());
-					String fullFallbackUri = String.format("%s:%s", config.getFallbackUri().getScheme(),
-							expandedFallbackUri);
-					URI requestUrl = UriComponentsBuilder.fromUri(uri)
-						.host(null)
-						.port(null)
-						.uri(URI.create(fullFallbackUri))
-						.scheme(null)
-						.build(encoded)
-						.toUri();
+					URI requestUrl = fallback.getRequestUrl(exchange);
 
 					exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, requestUrl);
 					addExceptionDetails(t, exchange);
@@ -142,13 +135,15 @@ public abstract class SpringCloudCircuitBreakerFilterFactory
 
 					ServerHttpRequest request = exchange.getRequest().mutate().uri(requestUrl).build();
 					return handle(getDispatcherHandler(), exchange.mutate().request(request).build());
-				}).onErrorResume(t -> handleErrorWithoutFallback(t, config.isResumeWithoutError()));
+				}).onErrorResume(t -> {
+					recorder.error(t);
+					return handleErrorWithoutFallback(t, config.isResumeWithoutError());
+				});
 			}
 
 			@Override
 			public String toString() {
 				String name = config.getName();
-				URI fallbackUri = config.getFallbackUri();
 				return filterToStringCreator(SpringCloudCircuitBreakerFilterFactory.this)
 					.append("name", name != null ? name : "")
 					.append("fallback", fallbackUri != null ? fallbackUri : "")
@@ -157,6 +152,15 @@ public abstract class SpringCloudCircuitBreakerFilterFactory
 		};
 	}
 
+	/**
+	 * Sets the metrics recorded for every route using this filter. Only routes created
+	 * after this call are recorded.
+	 * @param metrics the metrics, or {@code null} to disable recording
+	 */
+	public void setMetrics(@Nullable CircuitBreakerFilterMetrics metrics) {
+		this.metrics = metrics;
+	}
+
 	protected abstract Mono<Void> handleErrorWithoutFallback(Throwable t, boolean resumeWithoutError);
 
 	private void addExceptionDetails(Throwable t, ServerWebExchange exchange) {
@@ -244,6 +248,85 @@ public abstract class SpringCloudCircuitBreakerFilterFactory
 
 	}
 
+	/**
+	 * Status codes that are reported as failures, resolved once when the filter is
+	 * created.
+	 */
+	private static final class StatusCodes {
+
+		private static final StatusCodes EMPTY = new StatusCodes(new int[0]);
+
+		private final int[] codes;
+
+		private StatusCodes(int[] codes) {
+			this.codes = codes;
+		}
+
+		static StatusCodes of(Set<String> statusCodes) {
+			if (statusCodes.isEmpty()) {
+				return EMPTY;
+			}
+			int[] codes = statusCodes.stream()
+				.map(HttpStatusHolder::parse)
+				.filter(statusHolder -> statusHolder.getHttpStatus() != null)
+				.mapToInt(statusHolder -> statusHolder.getHttpStatus().value())
+				.distinct()
+				.sorted()
+				.toArray();
+			return new StatusCodes(codes);
+		}
+
+		boolean isEmpty() {
+			return codes.length == 0;
+		}
+
+		boolean contains(HttpStatusCode status) {
+			return Arrays.binarySearch(codes, status.value()) >= 0;
+		}
+
+	}
+
+	/**
+	 * Fallback uri of a route. A fallback uri without template variables is only parsed
+	 * once when the filter is created, and its path template is parsed only once
+	 * otherwise.
+	 */
+	private static final class Fallback {
+
+		private final @Nullable String scheme;
+
+		private final ExpandableTemplate path;
+
+		private final @Nullable URI uri;
+
+		Fallback(URI fallbackUri) {
+			this.scheme = fallbackUri.getScheme();
+			this.path = ExpandableTemplate.compile(Objects.requireNonNullElse(fallbackUri.getPath(), ""));
+			this.uri = path.hasVariables() ? null : URI.create(scheme + ":" + path.expand(Map.of()));
+		}
+
+		URI getRequestUrl(ServerWebExchange exchange) {
+			URI fallbackUri = this.uri;
+			if (fallbackUri == null) {
+				fallbackUri = URI.create(scheme + ":" + path.expand(exchange));
+			}
+
+			// TODO: copied from RouteToRequestUrlFilter
+			URI uri = exchange.getRequest().getURI();
+			// TODO: assume always?
+			boolean encoded = containsEncodedParts(uri);
+
+			return UriComponentsBuilder.fromUri(uri)
+				.host(null)
+				.port(null)
+				.uri(fallbackUri)
+				.scheme(null)
+				.build(encoded)
+				.toUri();
+		}
+
+	}
+
 	public class CircuitBreakerStatusCodeException extends HttpStatusCodeException {
 
 		public CircuitBreakerStatusCodeException(HttpStatusCode statusCode) {
@@ -0,0 +1,198 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import tools.jackson.core.JacksonException;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.JsonParser;
+import tools.jackson.core.JsonToken;
+import tools.jackson.core.TokenStreamContext;
+import tools.jackson.core.async.ByteArrayFeeder;
+import tools.jackson.core.util.ByteArrayBuilder;
+import tools.jackson.databind.json.JsonMapper;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Removes attributes from a JSON body while copying its tokens, chunk by chunk as the
+ * body is received, so that only the chunk in flight is held in memory. Attributes are
+ * matched by name, at the root level or at any level, or by a dot separated path from the
+ * root, such as {@code user.address.zip}, where arrays are traversed transparently.
+ */
+final class StreamingJsonAttributeRemover {
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+	/**
+	 * Output is held back until it reaches this size, so that small bodies are written at
+	 * once and their errors are reported before the response is committed.
+	 */
+	private static final int MIN_OUTPUT_SIZE = 8192;
+
+	private final Set<String> names;
+
+	private final List<String[]> paths = new ArrayList<>();
+
+	private final boolean recursively;
+
+	StreamingJsonAttributeRemover(List<String> fieldList, boolean recursively) {
+		this.names = new HashSet<>(fieldList);
+		this.recursively = recursively;
+		for (String field : fieldList) {
+			if (field.indexOf('.') > 0) {
+				paths.add(field.split("\\."));
+			}
+		}
+	}
+
+	Flux<DataBuffer> remove(Flux<DataBuffer> body, DataBufferFactory bufferFactory) {
+		return Flux.using(Session::new, session -> body.<DataBuffer>handle((buffer, sink) -> {
+			DataBuffer output = session.process(buffer, bufferFactory);
+			if (output != null) {
+				sink.next(output);
+			}
+		}).concatWith(Mono.fromSupplier(() -> session.finish(bufferFactory))), Session::close)
+			.onErrorMap(JacksonException.class,
+					e -> new IllegalStateException("Failed to process JSON of response body.", e));
+	}
+
+	private boolean shouldRemove(JsonParser parser) {
+		String name = parser.currentName();
+		TokenStreamContext context = parser.streamReadContext();
+		if (names.contains(name) && (recursively || context.getParent().inRoot())) {
+			return true;
+		}
+		for (String[] path : paths) {
+			if (path[path.length - 1].equals(name) && matches(context, path)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static boolean matches(TokenStreamContext context, String[] path) {
+		int index = path.length - 1;
+		TokenStreamContext current = context;
+		while (current != null && !current.inRoot()) {
+			if (current.inObject()) {
+				if (index < 0 || !path[index].equals(current.currentName())) {
+					return false;
+				}
+				index--;
+			}
+			current = current.getParent();
+		}
+		return index < 0;
+	}
+
+	/**
+	 * The parser and generator of a single body.
+	 */
+	private final class Session implements AutoCloseable {
+
+		private final JsonParser parser = JSON_MAPPER.createNonBlockingByteArrayParser();
+
+		private final ByteArrayFeeder feeder = (ByteArrayFeeder) parser.nonBlockingInputFeeder();
+
+		private final ByteArrayBuilder output = new ByteArrayBuilder();
+
+		private final JsonGenerator generator = JSON_MAPPER.createGenerator(output);
+
+		private byte[] input = new byte[0];
+
+		/**
+		 * Depth within the value being removed, or -1 if no value is being removed.
+		 */
+		private int skipDepth = -1;
+
+		@Nullable DataBuffer process(DataBuffer buffer, DataBufferFactory bufferFactory) {
+			int length = buffer.readableByteCount();
+			try {
+				if (input.length < length) {
+					input = new byte[length];
+				}
+				// the parser consumes all input before the next chunk is fed
+				buffer.read(input, 0, length);
+			}
+			finally {
+				DataBufferUtils.release(buffer);
+			}
+			feeder.feedInput(input, 0, length);
+			copyAvailableTokens();
+			generator.flush();
+			return (output.size() >= MIN_OUTPUT_SIZE) ? flush(bufferFactory) : null;
+		}
+
+		@Nullable DataBuffer finish(DataBufferFactory bufferFactory) {
+			feeder.endOfInput();
+			copyAvailableTokens();
+			return flush(bufferFactory);
+		}
+
+		private void copyAvailableTokens() {
+			JsonToken token;
+			while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+				if (skipDepth >= 0) {
+					if (token.isStructStart()) {
+						skipDepth++;
+					}
+					else if (token.isStructEnd()) {
+						skipDepth--;
+					}
+					if (skipDepth == 0) {
+						// the removed value is complete
+						skipDepth = -1;
+					}
+				}
+				else if (token == JsonToken.PROPERTY_NAME && shouldRemove(parser)) {
+					skipDepth = 0;
+				}
+				else {
+					generator.copyCurrentEvent(parser);
+				}
+			}
+		}
+
+		private @Nullable DataBuffer flush(DataBufferFactory bufferFactory) {
+			generator.flush();
+			if (output.size() == 0) {
+				return null;
+			}
+			byte[] bytes = output.toByteArray();
+			output.reset();
+			return bufferFactory.wrap(bytes);
+		}
+
+		@Override
+		public void close() {
+			parser.close();
+			generator.close();
+		}
+
+	}
+
+}
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.gateway.filter.factory;
 
+import java.net.URI;
 import java.util.Arrays;
 import java.util.List;
 
@@ -23,7 +24,7 @@ import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.support.AccumulatingRequestExchange;
 import org.springframework.util.StringUtils;
 import org.springframework.web.server.ServerWebExchange;
 
@@ -59,9 +60,10 @@ public class StripPrefixGatewayFilterFactory
 		return new GatewayFilter() {
 			@Override
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
-				ServerHttpRequest request = exchange.getRequest();
-				addOriginalRequestUrl(exchange, request.getURI());
-				String path = request.getURI().getRawPath();
+				AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange);
+				URI uri = accumulatingExchange.getRequestURI();
+				addOriginalRequestUrl(exchange, uri);
+				String path = uri.getRawPath();
 				String[] originalParts = StringUtils.tokenizeToStringArray(path, "/");
 
 				// all new paths start with /
@@ -79,11 +81,11 @@ public class StripPrefixGatewayFilterFactory
 					newPath.append('/');
 				}
 
-				ServerHttpRequest newRequest = request.mutate().path(newPath.toString()).build();
+				AccumulatingRequestExchange newExchange = accumulatingExchange.mutatePath(newPath.toString());
 
-				exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, newRequest.getURI());
+				exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, newExchange.getRequestURI());
 
-				return chain.filter(exchange.mutate().request(newRequest).build());
+				return chain.filter(newExchange);
 			}
 
 			@Override
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory.rewrite;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+/**
+ * Base class for {@link MessageBodyDecoder} and {@link MessageBodyEncoder}
+ * implementations backed by Netty compression codecs. Bodies are inflated and deflated
+ * chunk by chunk as they flow, in buffers of the pooled Netty allocator, without
+ * materializing the whole body.
+ */
+public abstract class CompressionMessageBodyResolver implements MessageBodyDecoder, MessageBodyEncoder {
+
+	private final String encodingType;
+
+	protected CompressionMessageBodyResolver(String encodingType) {
+		this.encodingType = encodingType;
+	}
+
+	@Override
+	public String encodingType() {
+		return encodingType;
+	}
+
+	/**
+	 * Merge function for decoders and encoders indexed by encoding type, preferring a
+	 * user-defined one to the one the gateway provides for the same encoding.
+	 * @param first the first resolver for the encoding
+	 * @param second the second resolver for the encoding
+	 * @param <T> the resolver type
+	 * @return the resolver to use for the encoding
+	 */
+	public static <T> T preferUserDefined(T first, T second) {
+		return isBuiltIn(first) ? second : first;
+	}
+
+	private static boolean isBuiltIn(Object resolver) {
+		Class<?> type = resolver.getClass();
+		return type == GzipMessageBodyResolver.class || type == DeflateMessageBodyResolver.class
+				|| type == BrotliMessageBodyResolver.class || type == ZstdMessageBodyResolver.class;
+	}
+
+	/**
+	 * @return a new decoder, used for a single message body
+	 */
+	protected abstract ChannelHandler newDecoder();
+
+	/**
+	 * @return a new encoder, used for a single message body
+	 */
+	protected abstract ChannelHandler newEncoder();
+
+	@Override
+	public byte[] decode(byte[] encoded) {
+		try {
+			return transcode(this::newDecoder, Unpooled.wrappedBuffer(encoded), true);
+		}
+		catch (RuntimeException e) {
+			throw new IllegalStateException("couldn't decode body from " + encodingType, e);
+		}
+	}
+
+	@Override
+	public byte[] encode(DataBuffer original) {
+		try {
+			// the caller keeps ownership of the original buffer
+			return transcode(this::newEncoder, NettyDataBufferFactory.toByteBuf(original).retainedDuplicate(), false);
+		}
+		catch (RuntimeException e) {
+			throw new IllegalStateException("couldn't encode body to " + encodingType, e);
+		}
+	}
+
+	@Override
+	public Flux<DataBuffer> decode(Publisher<? extends DataBuffer> encoded, DataBufferFactory bufferFactory) {
+		return transcode(this::newDecoder, encoded, bufferFactory, true);
+	}
+
+	@Override
+	public Flux<DataBuffer> encode(Publisher<? extends DataBuffer> original, DataBufferFactory bufferFactory) {
+		return transcode(this::newEncoder, original, bufferFactory, false);
+	}
+
+	private static byte[] transcode(Supplier<ChannelHandler> handler, ByteBuf input, boolean inbound) {
+		EmbeddedChannel channel = new EmbeddedChannel(handler.get());
+		ByteBuf result = Unpooled.buffer();
+		try {
+			write(channel, input, inbound);
+			channel.finish();
+			ByteBuf output;
+			while ((output = read(channel, inbound)) != null) {
+				result.writeBytes(output);
+				output.release();
+			}
+			return ByteBufUtil.getBytes(result);
+		}
+		finally {
+			result.release();
+			channel.finishAndReleaseAll();
+		}
+	}
+
+	private static Flux<DataBuffer> transcode(Supplier<ChannelHandler> handler, Publisher<? extends DataBuffer> body,
+			DataBufferFactory bufferFactory, boolean inbound) {
+		return Flux.using(() -> new EmbeddedChannel(handler.get()), channel -> Flux.from(body)
+			.concatMapIterable(buffer -> {
+				write(channel, NettyDataBufferFactory.toByteBuf(buffer), inbound);
+				return readAll(channel, bufferFactory, inbound);
+			})
+			.concatWith(Flux.defer(() -> {
+				channel.finish();
+				return Flux.fromIterable(readAll(channel, bufferFactory, inbound));
+			})), EmbeddedChannel::finishAndReleaseAll).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+	}
+
+	private static void write(EmbeddedChannel channel, ByteBuf input, boolean inbound) {
+		if (inbound) {
+			channel.writeInbound(input);
+		}
+		else {
+			channel.writeOutbound(input);
+		}
+	}
+
+	private static ByteBuf read(EmbeddedChannel channel, boolean inbound) {
+		return inbound ? channel.readInbound() : channel.readOutbound();
+	}
+
+	private static List<DataBuffer> readAll(EmbeddedChannel channel, DataBufferFactory bufferFactory,
+			boolean inbound) {
+		List<DataBuffer> buffers = new ArrayList<>(2);
+		ByteBuf output;
+		while ((output = read(channel, inbound)) != null) {
+			if (!output.isReadable()) {
+				output.release();
+			}
+			else if (bufferFactory instanceof NettyDataBufferFactory nettyDataBufferFactory) {
+				buffers.add(nettyDataBufferFactory.wrap(output));
+			}
+			else {
+				buffers.add(bufferFactory.wrap(ByteBufUtil.getBytes(output)));
+				output.release();
+			}
+		}
+		return buffers;
+	}
+
+}
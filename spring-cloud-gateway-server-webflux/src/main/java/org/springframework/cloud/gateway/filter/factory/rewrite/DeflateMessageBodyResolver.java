@@ -0,0 +1,43 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory.rewrite;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
+
+/**
+ * Resolves {@code deflate} bodies. Both zlib wrapped and raw deflate bodies are decoded,
+ * as some servers send the latter.
+ */
+public class DeflateMessageBodyResolver extends CompressionMessageBodyResolver {
+
+	public DeflateMessageBodyResolver() {
+		super("deflate");
+	}
+
+	@Override
+	protected ChannelHandler newDecoder() {
+		return ZlibCodecFactory.newZlibDecoder(ZlibWrapper.ZLIB_OR_NONE);
+	}
+
+	@Override
+	protected ChannelHandler newEncoder() {
+		return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.ZLIB);
+	}
+
+}
@@ -16,45 +16,24 @@
 
 package org.springframework.cloud.gateway.filter.factory.rewrite;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.util.zip.GZIPInputStream;
-import java.util.zip.GZIPOutputStream;
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.compression.ZlibCodecFactory;
+import io.netty.handler.codec.compression.ZlibWrapper;
 
-import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.util.FileCopyUtils;
+public class GzipMessageBodyResolver extends CompressionMessageBodyResolver {
 
-public class GzipMessageBodyResolver implements MessageBodyDecoder, MessageBodyEncoder {
-
-	@Override
-	public String encodingType() {
-		return "gzip";
+	public GzipMessageBodyResolver() {
+		super("gzip");
 	}
 
 	@Override
-	public byte[] decode(byte[] encoded) {
-		try {
-			ByteArrayInputStream bis = new ByteArrayInputStream(encoded);
-			GZIPInputStream gis = new GZIPInputStream(bis);
-			return FileCopyUtils.copyToByteArray(gis);
-		}
-		catch (IOException e) {
-			throw new IllegalStateException("couldn't decode body from gzip", e);
-		}
+	protected ChannelHandler newDecoder() {
+		return ZlibCodecFactory.newZlibDecoder(ZlibWrapper.GZIP);
 	}
 
 	@Override
-	public byte[] encode(DataBuffer original) {
-		try {
-			ByteArrayOutputStream bis = new ByteArrayOutputStream();
-			GZIPOutputStream gos = new GZIPOutputStream(bis);
-			FileCopyUtils.copy(original.asInputStream(), gos);
-			return bis.toByteArray();
-		}
-		catch (IOException e) {
-			throw new IllegalStateException("couldn't encode body to gzip", e);
-		}
+	protected ChannelHandler newEncoder() {
+		return ZlibCodecFactory.newZlibEncoder(ZlibWrapper.GZIP);
 	}
 
 }
@@ -16,6 +16,14 @@
 
 package org.springframework.cloud.gateway.filter.factory.rewrite;
 
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
 /**
  * Decoder that is used to decode message body in case it's encoding from Content-Encoding
  * header matches encoding returned by {@code encodingType()} call.
@@ -26,4 +34,21 @@ public interface MessageBodyDecoder {
 
 	String encodingType();
 
+	/**
+	 * Decodes a message body as it is received. The default implementation aggregates the
+	 * body and decodes it with {@link #decode(byte[])}, implementations able to decode
+	 * chunk by chunk should override it.
+	 * @param encoded the encoded message body
+	 * @param bufferFactory the factory for the decoded buffers
+	 * @return the decoded message body
+	 */
+	default Flux<DataBuffer> decode(Publisher<? extends DataBuffer> encoded, DataBufferFactory bufferFactory) {
+		return DataBufferUtils.join(encoded).publishOn(Schedulers.parallel()).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return bufferFactory.wrap(decode(bytes));
+		}).flux();
+	}
+
 }
@@ -16,7 +16,13 @@
 
 package org.springframework.cloud.gateway.filter.factory.rewrite;
 
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
 
 /**
  * Encoder that is used to encode message body in case it's encoding from Content-Encoding
@@ -28,4 +34,20 @@ public interface MessageBodyEncoder {
 
 	String encodingType();
 
+	/**
+	 * Encodes a message body as it is written. The default implementation aggregates the
+	 * body and encodes it with {@link #encode(DataBuffer)}, implementations able to
+	 * encode chunk by chunk should override it.
+	 * @param original the message body
+	 * @param bufferFactory the factory for the encoded buffers
+	 * @return the encoded message body
+	 */
+	default Flux<DataBuffer> encode(Publisher<? extends DataBuffer> original, DataBufferFactory bufferFactory) {
+		return DataBufferUtils.join(original).publishOn(Schedulers.parallel()).map(buffer -> {
+			byte[] encoded = encode(buffer);
+			DataBufferUtils.release(buffer);
+			return bufferFactory.wrap(encoded);
+		}).flux();
+	}
+
 }
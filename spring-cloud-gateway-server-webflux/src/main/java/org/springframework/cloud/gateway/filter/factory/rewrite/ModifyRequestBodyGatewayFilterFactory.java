@@ -21,6 +21,7 @@ import java.util.Objects;
 import java.util.function.Function;
 
 import org.jspecify.annotations.Nullable;
+import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
@@ -69,16 +70,24 @@ public class ModifyRequestBodyGatewayFilterFactory
 			public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
 				ParameterizedTypeReference inClass = Objects.requireNonNull(config.getInClass(),
 						"inClass must not be null");
-				RewriteFunction rewriteFunction = Objects.requireNonNull(config.getRewriteFunction(),
-						"rewriteFunction must not be null");
 				ParameterizedTypeReference outClass = Objects.requireNonNull(config.getOutClass(),
 						"outClass must not be null");
 				ServerRequest serverRequest = ServerRequest.create(exchange, messageReaders);
 
-				// TODO: flux or mono
-				Mono<?> modifiedBody = serverRequest.bodyToMono(inClass)
-					.flatMap(originalBody -> rewriteFunction.apply(exchange, originalBody))
-					.switchIfEmpty(Mono.defer(() -> (Mono) rewriteFunction.apply(exchange, null)));
+				Publisher<?> modifiedBody;
+				StreamingRewriteFunction streamingRewriteFunction = config.getStreamingRewriteFunction();
+				if (streamingRewriteFunction != null) {
+					// the elements are rewritten while the body is sent, so only the
+					// elements in flight are held in memory
+					modifiedBody = streamingRewriteFunction.apply(exchange, serverRequest.bodyToFlux(inClass));
+				}
+				else {
+					RewriteFunction rewriteFunction = Objects.requireNonNull(config.getRewriteFunction(),
+							"rewriteFunction must not be null");
+					modifiedBody = serverRequest.bodyToMono(inClass)
+						.flatMap(originalBody -> rewriteFunction.apply(exchange, originalBody))
+						.switchIfEmpty(Mono.defer(() -> (Mono) rewriteFunction.apply(exchange, null)));
+				}
 
 				BodyInserter bodyInserter = BodyInserters.fromPublisher(modifiedBody, outClass);
 				HttpHeaders headers = new HttpHeaders();
@@ -100,8 +109,10 @@ public class ModifyRequestBodyGatewayFilterFactory
 						ServerHttpRequest decorator = decorate(exchange, headers, outputMessage);
 						return chain.filter(exchange.mutate().request(decorator).build());
 					}))
-					.onErrorResume(
-							(Function<Throwable, Mono<Void>>) throwable -> release(exchange, outputMessage, throwable));
+					// a streamed body can only be read once, it is not read again to be
+					// released
+					.onErrorResume((Function<Throwable, Mono<Void>>) throwable -> (streamingRewriteFunction != null)
+							? Mono.error(throwable) : release(exchange, outputMessage, throwable));
 			}
 
 			@Override
@@ -110,6 +121,7 @@ public class ModifyRequestBodyGatewayFilterFactory
 					.append("Content type", config.getContentType())
 					.append("In class", config.getInClass())
 					.append("Out class", config.getOutClass())
+					.append("Streaming", config.getStreamingRewriteFunction() != null)
 					.toString();
 			}
 		};
@@ -159,6 +171,8 @@ public class ModifyRequestBodyGatewayFilterFactory
 
 		private @Nullable RewriteFunction rewriteFunction;
 
+		private @Nullable StreamingRewriteFunction streamingRewriteFunction;
+
 		public @Nullable ParameterizedTypeReference getInClass() {
 			return inClass;
 		}
@@ -210,6 +224,29 @@ public class ModifyRequestBodyGatewayFilterFactory
 			return this;
 		}
 
+		public @Nullable StreamingRewriteFunction getStreamingRewriteFunction() {
+			return streamingRewriteFunction;
+		}
+
+		/**
+		 * Rewrites the body element by element while it is sent, instead of aggregating
+		 * it. Takes precedence over the {@link #getRewriteFunction() rewrite function}.
+		 * @param streamingRewriteFunction the function rewriting the body elements
+		 * @return this config
+		 */
+		public Config setStreamingRewriteFunction(StreamingRewriteFunction streamingRewriteFunction) {
+			this.streamingRewriteFunction = streamingRewriteFunction;
+			return this;
+		}
+
+		public <T, R> Config setStreamingRewriteFunction(Class<T> inClass, Class<R> outClass,
+				StreamingRewriteFunction<T, R> streamingRewriteFunction) {
+			setInClass(inClass);
+			setOutClass(outClass);
+			setStreamingRewriteFunction(streamingRewriteFunction);
+			return this;
+		}
+
 		public @Nullable String getContentType() {
 			return contentType;
 		}
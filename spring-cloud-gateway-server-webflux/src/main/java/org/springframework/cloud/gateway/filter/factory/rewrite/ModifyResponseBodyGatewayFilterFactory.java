@@ -26,7 +26,6 @@ import org.jspecify.annotations.Nullable;
 import org.reactivestreams.Publisher;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
@@ -36,7 +35,6 @@ import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
 import org.springframework.cloud.gateway.support.BodyInserterContext;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferFactory;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.codec.HttpMessageReader;
@@ -69,9 +67,11 @@ public class ModifyResponseBodyGatewayFilterFactory
 		super(Config.class);
 		this.messageReaders = messageReaders;
 		this.messageBodyDecoders = messageBodyDecoders.stream()
-			.collect(Collectors.toMap(MessageBodyDecoder::encodingType, identity()));
+			.collect(Collectors.toMap(MessageBodyDecoder::encodingType, identity(),
+					CompressionMessageBodyResolver::preferUserDefined));
 		this.messageBodyEncoders = messageBodyEncoders.stream()
-			.collect(Collectors.toMap(MessageBodyEncoder::encodingType, identity()));
+			.collect(Collectors.toMap(MessageBodyEncoder::encodingType, identity(),
+					CompressionMessageBodyResolver::preferUserDefined));
 	}
 
 	@Override
@@ -95,6 +95,8 @@ public class ModifyResponseBodyGatewayFilterFactory
 
 		private @Nullable RewriteFunction rewriteFunction;
 
+		private @Nullable StreamingRewriteFunction streamingRewriteFunction;
+
 		public @Nullable Class getInClass() {
 			return inClass;
 		}
@@ -157,6 +159,29 @@ public class ModifyResponseBodyGatewayFilterFactory
 			return this;
 		}
 
+		public @Nullable StreamingRewriteFunction getStreamingRewriteFunction() {
+			return streamingRewriteFunction;
+		}
+
+		/**
+		 * Rewrites the body element by element as it is received, instead of aggregating
+		 * it. Takes precedence over the {@link #getRewriteFunction() rewrite function}.
+		 * @param streamingRewriteFunction the function rewriting the body elements
+		 * @return this config
+		 */
+		public Config setStreamingRewriteFunction(StreamingRewriteFunction streamingRewriteFunction) {
+			this.streamingRewriteFunction = streamingRewriteFunction;
+			return this;
+		}
+
+		public <T, R> Config setStreamingRewriteFunction(Class<T> inClass, Class<R> outClass,
+				StreamingRewriteFunction<T, R> streamingRewriteFunction) {
+			setInClass(inClass);
+			setOutClass(outClass);
+			setStreamingRewriteFunction(streamingRewriteFunction);
+			return this;
+		}
+
 	}
 
 	public class ModifyResponseGatewayFilter implements GatewayFilter, Ordered {
@@ -185,6 +210,7 @@ public class ModifyResponseBodyGatewayFilterFactory
 			return filterToStringCreator(obj).append("New content type", config.getNewContentType())
 				.append("In class", config.getInClass())
 				.append("Out class", config.getOutClass())
+				.append("Streaming", config.getStreamingRewriteFunction() != null)
 				.toString();
 		}
 
@@ -212,6 +238,9 @@ public class ModifyResponseBodyGatewayFilterFactory
 
 			Class inClass = Objects.requireNonNull(config.getInClass(), "inClass must not be null");
 			Class outClass = Objects.requireNonNull(config.getOutClass(), "outClass must not be null");
+			if (config.getStreamingRewriteFunction() != null) {
+				return writeStreaming(body, inClass, outClass, config.getStreamingRewriteFunction());
+			}
 			RewriteFunction rewriteFunction = Objects.requireNonNull(config.getRewriteFunction(),
 					"rewriteFunction must not be null");
 
@@ -250,6 +279,71 @@ public class ModifyResponseBodyGatewayFilterFactory
 			}));
 		}
 
+		/**
+		 * Decodes, rewrites and encodes the body element by element, without aggregating
+		 * it. The rewritten body has no computed Content-Length and is sent chunked.
+		 */
+		@SuppressWarnings("unchecked")
+		private Mono<Void> writeStreaming(Publisher<? extends DataBuffer> body, Class inClass, Class outClass,
+				StreamingRewriteFunction rewriteFunction) {
+			String originalResponseContentType = exchange.getAttribute(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR);
+			HttpHeaders httpHeaders = new HttpHeaders();
+			httpHeaders.add(HttpHeaders.CONTENT_TYPE, originalResponseContentType);
+
+			HttpHeaders headers = getDelegate().getHeaders();
+			// like the aggregated body, byte[] chunks are passed as received, compressed or not
+			MessageBodyDecoder decoder = byte[].class.isAssignableFrom(inClass) ? null : findDecoder(headers);
+			Publisher<? extends DataBuffer> upstream = (decoder != null)
+					? decoder.decode(body, getDelegate().bufferFactory()) : body;
+
+			Flux<?> elements = prepareClientResponse(upstream, httpHeaders).bodyToFlux(inClass);
+			Flux<?> modifiedBody = Flux.from((Publisher<?>) rewriteFunction.apply(exchange, elements));
+
+			headers.remove(HttpHeaders.CONTENT_LENGTH);
+			if (StringUtils.hasText(config.newContentType)) {
+				headers.set(HttpHeaders.CONTENT_TYPE, config.newContentType);
+			}
+
+			BodyInserter bodyInserter = BodyInserters.fromPublisher(modifiedBody, outClass);
+			MessageBodyEncoder encoder = findEncoder(headers);
+			if (decoder == null || encoder == null || byte[].class.isAssignableFrom(outClass)) {
+				return bodyInserter.insert(getDelegate(), new BodyInserterContext());
+			}
+			return bodyInserter.insert(new ServerHttpResponseDecorator(getDelegate()) {
+				@Override
+				public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+					return super.writeWith(encoder.encode(body, bufferFactory()));
+				}
+
+				@Override
+				public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+					// flush every compressed chunk, so that streamed elements are not held back
+					return super.writeAndFlushWith(
+							encoder.encode(Flux.from(body).concatMap(p -> p), bufferFactory()).map(Mono::just));
+				}
+			}, new BodyInserterContext());
+		}
+
+		private @Nullable MessageBodyDecoder findDecoder(HttpHeaders headers) {
+			for (String encoding : headers.getOrEmpty(HttpHeaders.CONTENT_ENCODING)) {
+				MessageBodyDecoder decoder = messageBodyDecoders.get(encoding);
+				if (decoder != null) {
+					return decoder;
+				}
+			}
+			return null;
+		}
+
+		private @Nullable MessageBodyEncoder findEncoder(HttpHeaders headers) {
+			for (String encoding : headers.getOrEmpty(HttpHeaders.CONTENT_ENCODING)) {
+				MessageBodyEncoder encoder = messageBodyEncoders.get(encoding);
+				if (encoder != null) {
+					return encoder;
+				}
+			}
+			return null;
+		}
+
 		@Override
 		public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
 			return writeWith(Flux.from(body).flatMapSequential(p -> p));
@@ -270,17 +364,11 @@ public class ModifyResponseBodyGatewayFilterFactory
 				return clientResponse.bodyToMono(inClass);
 			}
 
-			List<String> encodingHeaders = exchange.getResponse().getHeaders().getOrEmpty(HttpHeaders.CONTENT_ENCODING);
-			for (String encoding : encodingHeaders) {
-				MessageBodyDecoder decoder = messageBodyDecoders.get(encoding);
-				if (decoder != null) {
-					return clientResponse.bodyToMono(byte[].class)
-						.publishOn(Schedulers.parallel())
-						.map(decoder::decode)
-						.map(bytes -> exchange.getResponse().bufferFactory().wrap(bytes))
-						.map(buffer -> prepareClientResponse(Mono.just(buffer), exchange.getResponse().getHeaders()))
-						.flatMap(response -> response.bodyToMono(inClass));
-				}
+			MessageBodyDecoder decoder = findDecoder(exchange.getResponse().getHeaders());
+			if (decoder != null) {
+				Flux<DataBuffer> decoded = decoder.decode(clientResponse.bodyToFlux(DataBuffer.class),
+						exchange.getResponse().bufferFactory());
+				return prepareClientResponse(decoded, exchange.getResponse().getHeaders()).bodyToMono(inClass);
 			}
 
 			return clientResponse.bodyToMono(inClass);
@@ -288,26 +376,16 @@ public class ModifyResponseBodyGatewayFilterFactory
 
 		private Mono<DataBuffer> writeBody(ServerHttpResponse httpResponse, CachedBodyOutputMessage message,
 				Class<?> outClass) {
-			Mono<DataBuffer> response = DataBufferUtils.join(message.getBody());
 			if (byte[].class.isAssignableFrom(outClass)) {
-				return response;
+				return DataBufferUtils.join(message.getBody());
 			}
 
-			List<String> encodingHeaders = httpResponse.getHeaders().getOrEmpty(HttpHeaders.CONTENT_ENCODING);
-			for (String encoding : encodingHeaders) {
-				MessageBodyEncoder encoder = messageBodyEncoders.get(encoding);
-				if (encoder != null) {
-					DataBufferFactory dataBufferFactory = httpResponse.bufferFactory();
-					response = response.publishOn(Schedulers.parallel()).map(buffer -> {
-						byte[] encodedResponse = encoder.encode(buffer);
-						DataBufferUtils.release(buffer);
-						return encodedResponse;
-					}).map(dataBufferFactory::wrap);
-					break;
-				}
+			MessageBodyEncoder encoder = findEncoder(httpResponse.getHeaders());
+			if (encoder != null) {
+				return DataBufferUtils.join(encoder.encode(message.getBody(), httpResponse.bufferFactory()));
 			}
 
-			return response;
+			return DataBufferUtils.join(message.getBody());
 		}
 
 	}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory.rewrite;
+
+import java.util.function.BiFunction;
+
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Rewrites a body element by element as it is received, instead of aggregating it
+ * first like a {@link RewriteFunction}. The elements are decoded as they arrive, for
+ * example one per line of an NDJSON body, one per element of a JSON array, one per
+ * server-sent event or one per chunk of a {@code DataBuffer} body, so that only the
+ * elements in flight are held in memory.
+ *
+ * This interface is BETA and may be subject to change in a future release.
+ *
+ * @param <T> the type of the body elements
+ * @param <R> the type of element signaled by the {@link Publisher}
+ */
+public interface StreamingRewriteFunction<T, R> extends BiFunction<ServerWebExchange, Flux<T>, Publisher<R>> {
+
+}
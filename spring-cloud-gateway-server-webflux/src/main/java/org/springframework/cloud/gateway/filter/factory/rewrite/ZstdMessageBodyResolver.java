@@ -0,0 +1,42 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory.rewrite;
+
+import io.netty.channel.ChannelHandler;
+import io.netty.handler.codec.compression.ZstdDecoder;
+import io.netty.handler.codec.compression.ZstdEncoder;
+
+/**
+ * Resolves {@code zstd} bodies. Requires {@code com.github.luben:zstd-jni}.
+ */
+public class ZstdMessageBodyResolver extends CompressionMessageBodyResolver {
+
+	public ZstdMessageBodyResolver() {
+		super("zstd");
+	}
+
+	@Override
+	protected ChannelHandler newDecoder() {
+		return new ZstdDecoder();
+	}
+
+	@Override
+	protected ChannelHandler newEncoder() {
+		return new ZstdEncoder();
+	}
+
+}
@@ -18,7 +18,10 @@ package org.springframework.cloud.gateway.filter.ratelimit;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
@@ -35,6 +38,7 @@ import io.github.bucket4j.distributed.proxy.AsyncProxyManager;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
@@ -69,17 +73,10 @@ public class Bucket4jRateLimiter extends AbstractRateLimiter<Bucket4jRateLimiter
 		Config routeConfig = loadRouteConfiguration(routeId);
 
 		AsyncBucketProxy bucket = proxyManager.builder().build(id, routeConfig.getConfigurationSupplier());
-		CompletableFuture<ConsumptionProbe> bucketFuture = bucket
-			.tryConsumeAndReturnRemaining(routeConfig.getRequestedTokens());
-		return Mono.fromFuture(bucketFuture).onErrorResume(throwable -> {
-			if (log.isDebugEnabled()) {
-				log.debug("Error calling Bucket4J rate limiter", throwable);
-			}
-			return Mono.just(ConsumptionProbe.rejected(-1, -1, -1));
-		}).map(consumptionProbe -> {
+		return tryConsume(bucket, routeConfig).map(consumptionProbe -> {
 			boolean allowed = consumptionProbe.isConsumed();
 			long remainingTokens = consumptionProbe.getRemainingTokens();
-			Response response = new Response(allowed, getHeaders(routeConfig, remainingTokens));
+			Response response = new Response(allowed, remainingTokens, getHeaders(routeConfig, remainingTokens));
 
 			if (log.isDebugEnabled()) {
 				log.debug("response: " + response);
@@ -88,6 +85,63 @@ public class Bucket4jRateLimiter extends AbstractRateLimiter<Bucket4jRateLimiter
 		});
 	}
 
+	/**
+	 * Checks all limits in a single pass. Each limit uses the configuration found under
+	 * its name in {@link Config#getLimits()}, or the configuration of the route. The
+	 * pass stops at the first limit that denies the request, and the tokens taken from
+	 * the limits checked before it are given back.
+	 */
+	@Override
+	public Mono<Response> isAllowed(String routeId, Map<String, String> ids) {
+		if (ids.isEmpty()) {
+			return Mono.just(new Response(true, Map.of()));
+		}
+		Config routeConfig = loadRouteConfiguration(routeId);
+		List<Config> configs = new ArrayList<>(ids.size());
+		List<AsyncBucketProxy> buckets = new ArrayList<>(ids.size());
+		for (Map.Entry<String, String> id : ids.entrySet()) {
+			Config config = routeConfig.getLimits().getOrDefault(id.getKey(), routeConfig);
+			configs.add(config);
+			buckets.add(proxyManager.builder()
+				.build(routeId + "." + id.getKey() + "." + id.getValue(), config.getConfigurationSupplier()));
+		}
+
+		return Flux.range(0, buckets.size())
+			.concatMap(i -> tryConsume(buckets.get(i), configs.get(i)))
+			.takeUntil(probe -> !probe.isConsumed())
+			.collectList()
+			.flatMap(probes -> {
+				int last = probes.size() - 1;
+				if (!probes.get(last).isConsumed()) {
+					long tokensLeft = probes.get(last).getRemainingTokens();
+					Response response = new Response(false, tokensLeft, getHeaders(configs.get(last), tokensLeft));
+					return Flux.range(0, last)
+						.concatMap(i -> Mono.fromFuture(buckets.get(i).addTokens(configs.get(i).getRequestedTokens())))
+						.onErrorResume(throwable -> Mono.empty())
+						.then(Mono.just(response));
+				}
+				int index = 0;
+				for (int i = 1; i < probes.size(); i++) {
+					if (probes.get(i).getRemainingTokens() < probes.get(index).getRemainingTokens()) {
+						index = i;
+					}
+				}
+				long tokensLeft = probes.get(index).getRemainingTokens();
+				return Mono.just(new Response(true, tokensLeft, getHeaders(configs.get(index), tokensLeft)));
+			});
+	}
+
+	private Mono<ConsumptionProbe> tryConsume(AsyncBucketProxy bucket, Config config) {
+		CompletableFuture<ConsumptionProbe> bucketFuture = bucket
+			.tryConsumeAndReturnRemaining(config.getRequestedTokens());
+		return Mono.fromFuture(bucketFuture).onErrorResume(throwable -> {
+			if (log.isDebugEnabled()) {
+				log.debug("Error calling Bucket4J rate limiter", throwable);
+			}
+			return Mono.just(ConsumptionProbe.rejected(-1, -1, -1));
+		});
+	}
+
 	protected Config loadRouteConfiguration(String routeId) {
 		Config routeConfig = getConfig().getOrDefault(routeId, defaultConfig);
 
@@ -146,6 +200,8 @@ public class Bucket4jRateLimiter extends AbstractRateLimiter<Bucket4jRateLimiter
 		// for RefillStyle.INTERVALLY_ALIGNED
 		protected @Nullable Instant timeOfFirstRefill;
 
+		Map<String, Config> limits = new LinkedHashMap<>();
+
 		public long getCapacity() {
 			return capacity;
 		}
@@ -231,6 +287,19 @@ public class Bucket4jRateLimiter extends AbstractRateLimiter<Bucket4jRateLimiter
 			return this;
 		}
 
+		/**
+		 * @return limit names to the configuration of the limit, used when checking
+		 * several limits at once
+		 */
+		public Map<String, Config> getLimits() {
+			return limits;
+		}
+
+		public Config setLimits(Map<String, Config> limits) {
+			this.limits = limits;
+			return this;
+		}
+
 		public String toString() {
 			return new ToStringCreator(this).append("capacity", capacity)
 				.append("headerName", headerName)
@@ -239,6 +308,7 @@ public class Bucket4jRateLimiter extends AbstractRateLimiter<Bucket4jRateLimiter
 				.append("refillTokens", refillTokens)
 				.append("requestedTokens", requestedTokens)
 				.append("timeOfFirstRefill", timeOfFirstRefill)
+				.append("limits", limits)
 				.toString();
 		}
 
@@ -20,6 +20,7 @@ import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.support.StatefulConfigurable;
@@ -31,6 +32,39 @@ public interface RateLimiter<C> extends StatefulConfigurable<C> {
 
 	Mono<Response> isAllowed(String routeId, String id);
 
+	/**
+	 * Checks several limits of a route at once, for instance a per user, a per tenant and
+	 * a global limit. A request is only allowed if every limit allows it. The default
+	 * implementation checks the limits one after the other with the configuration of the
+	 * route, each with its id prefixed by the limit name so that limits do not share
+	 * tokens, and stops at the first one that denies the request; implementations may
+	 * evaluate all limits in a single operation with a configuration per limit.
+	 * @param routeId the route id
+	 * @param ids limit names to the ids to check, in order of evaluation
+	 * @return the response of the first limit that denies the request, or else of the
+	 * limit with the fewest remaining tokens
+	 */
+	default Mono<Response> isAllowed(String routeId, Map<String, String> ids) {
+		if (ids.isEmpty()) {
+			return Mono.just(new Response(true, Collections.emptyMap()));
+		}
+		return Flux.fromIterable(ids.entrySet())
+			.concatMap(id -> isAllowed(routeId, id.getKey() + "." + id.getValue()))
+			.takeUntil(response -> !response.isAllowed())
+			.reduce(RateLimiter::mostConstrained);
+	}
+
+	private static Response mostConstrained(Response current, Response next) {
+		if (!next.isAllowed()) {
+			return next;
+		}
+		if (current.getTokensRemaining() < 0
+				|| (next.getTokensRemaining() >= 0 && next.getTokensRemaining() < current.getTokensRemaining())) {
+			return next;
+		}
+		return current;
+	}
+
 	class Response {
 
 		private final boolean allowed;
@@ -40,8 +74,12 @@ public interface RateLimiter<C> extends StatefulConfigurable<C> {
 		private final Map<String, String> headers;
 
 		public Response(boolean allowed, Map<String, String> headers) {
+			this(allowed, -1, headers);
+		}
+
+		public Response(boolean allowed, long tokensRemaining, Map<String, String> headers) {
 			this.allowed = allowed;
-			this.tokensRemaining = -1;
+			this.tokensRemaining = tokensRemaining;
 			Objects.requireNonNull(headers, "headers may not be null");
 			this.headers = headers;
 		}
@@ -50,6 +88,13 @@ public interface RateLimiter<C> extends StatefulConfigurable<C> {
 			return allowed;
 		}
 
+		/**
+		 * @return the tokens remaining after the request, or -1 if unknown
+		 */
+		public long getTokensRemaining() {
+			return tokensRemaining;
+		}
+
 		public Map<String, String> getHeaders() {
 			return Collections.unmodifiableMap(headers);
 		}
@@ -19,11 +19,13 @@ package org.springframework.cloud.gateway.filter.ratelimit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.concurrent.atomic.AtomicBoolean;
 
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -38,6 +40,7 @@ import org.springframework.cloud.gateway.route.RouteDefinitionRouteLocator;
 import org.springframework.cloud.gateway.support.ConfigurationService;
 import org.springframework.context.ApplicationContext;
 import org.springframework.context.ApplicationContextAware;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.style.ToStringCreator;
 import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.script.RedisScript;
@@ -93,6 +96,14 @@ public class RedisRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Confi
 	 */
 	private static final Long REDIS_LUA_MAX_SAFE_INTEGER = 9007199254740991L;
 
+	/**
+	 * Script checking several limits at once, only taking tokens if every limit allows
+	 * the request.
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static final RedisScript<List<Long>> MULTI_KEY_SCRIPT = (RedisScript) RedisScript
+		.of(new ClassPathResource("META-INF/scripts/request_rate_limiter_multi.lua"), List.class);
+
 	private Log log = LogFactory.getLog(getClass());
 
 	private @Nullable ReactiveStringRedisTemplate redisTemplate;
@@ -170,6 +181,13 @@ public class RedisRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Confi
 		return Arrays.asList(tokenKey, timestampKey);
 	}
 
+	static List<String> getKeys(String id, String limitName, String routeId) {
+		// all limits of a route share the route as hash tag, so that they can be checked
+		// by a single script when using redis cluster
+		String prefix = "request_rate_limiter.{" + routeId + "}." + limitName + "." + id + ".";
+		return Arrays.asList(prefix + "tokens", prefix + "timestamp");
+	}
+
 	public boolean isIncludeHeaders() {
 		return includeHeaders;
 	}
@@ -278,7 +296,7 @@ public class RedisRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Confi
 				boolean allowed = results.get(0) == 1L;
 				Long tokensLeft = results.get(1);
 
-				Response response = new Response(allowed, getHeaders(routeConfig, tokensLeft));
+				Response response = new Response(allowed, tokensLeft, getHeaders(routeConfig, tokensLeft));
 
 				if (log.isDebugEnabled()) {
 					log.debug("response: " + response);
@@ -297,6 +315,87 @@ public class RedisRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Confi
 		return Mono.just(new Response(true, getHeaders(routeConfig, -1L)));
 	}
 
+	/**
+	 * Checks all limits with a single script call. Each limit uses the configuration
+	 * found under its name in {@link Config#getLimits()}, or the configuration of the
+	 * route. Tokens are only taken if every limit allows the request.
+	 */
+	@Override
+	public Mono<Response> isAllowed(String routeId, Map<String, String> ids) {
+		if (!this.initialized.get()) {
+			throw new IllegalStateException("RedisRateLimiter is not initialized");
+		}
+		if (ids.isEmpty()) {
+			return Mono.just(new Response(true, Map.of()));
+		}
+
+		Config routeConfig = loadConfiguration(routeId);
+		List<Config> configs = new ArrayList<>(ids.size());
+		List<String> keys = new ArrayList<>(ids.size() * 2);
+		List<String> scriptArgs = new ArrayList<>(ids.size() * 4);
+		for (Map.Entry<String, String> id : ids.entrySet()) {
+			Config config = routeConfig.getLimits().getOrDefault(id.getKey(), routeConfig);
+			// a limit without a rate would let every request through
+			if (config.getReplenishRate() < 1) {
+				throw new IllegalArgumentException(
+						"No replenishRate configured for limit " + id.getKey() + " of route " + routeId);
+			}
+			configs.add(config);
+			keys.addAll(getKeys(id.getValue(), id.getKey(), routeId));
+			scriptArgs.add(config.getReplenishRate() + "");
+			scriptArgs.add(config.getBurstCapacity() + "");
+			scriptArgs.add("");
+			scriptArgs.add(config.getRequestedTokens() + "");
+		}
+
+		try {
+			Objects.requireNonNull(this.redisTemplate, "redisTemplate may not be null");
+			Flux<List<Long>> flux = this.redisTemplate.execute(MULTI_KEY_SCRIPT, keys, scriptArgs);
+			return flux.onErrorResume(throwable -> {
+				log.error("Error calling rate limiter lua", throwable);
+				return Flux.just(List.of(1L));
+			}).reduce(new ArrayList<Long>(), (longs, l) -> {
+				longs.addAll(l);
+				return longs;
+			}).map(results -> {
+				Response response = mostConstrained(results.get(0) == 1L, configs, results);
+
+				if (log.isDebugEnabled()) {
+					log.debug("response: " + response);
+				}
+				return response;
+			});
+		}
+		catch (Exception e) {
+			log.error("Error determining if user allowed from redis", e);
+		}
+		return Mono.just(new Response(true, getHeaders(configs.get(0), -1L)));
+	}
+
+	/**
+	 * Reports the first limit that denied the request, or else the limit with the fewest
+	 * remaining tokens.
+	 */
+	private Response mostConstrained(boolean allowed, List<Config> configs, List<Long> results) {
+		if (results.size() <= configs.size()) {
+			// the script failed, there is nothing to report
+			return new Response(allowed, getHeaders(configs.get(0), -1L));
+		}
+		int index = 0;
+		for (int i = 0; i < configs.size(); i++) {
+			long tokens = results.get(i + 1);
+			if (!allowed && tokens < configs.get(i).getRequestedTokens()) {
+				index = i;
+				break;
+			}
+			if (tokens < results.get(index + 1)) {
+				index = i;
+			}
+		}
+		long tokensLeft = results.get(index + 1);
+		return new Response(allowed, tokensLeft, getHeaders(configs.get(index), tokensLeft));
+	}
+
 	@SuppressWarnings("NullAway")
 	/* for testing */ Config loadConfiguration(String routeId) {
 		Config routeConfig = getConfig().getOrDefault(routeId, defaultConfig);
@@ -334,6 +433,8 @@ public class RedisRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Confi
 		@Min(1)
 		private int requestedTokens = 1;
 
+		private Map<String, @Valid Config> limits = new LinkedHashMap<>();
+
 		public int getReplenishRate() {
 			return replenishRate;
 		}
@@ -365,11 +466,28 @@ public class RedisRateLimiter extends AbstractRateLimiter<RedisRateLimiter.Confi
 			return this;
 		}
 
+		/**
+		 * @return limit names to the configuration of the limit, used when checking
+		 * several limits at once. The configuration of a limit is complete, it does not
+		 * inherit the values of the route.
+		 */
+		public Map<String, Config> getLimits() {
+			return limits;
+		}
+
+		public Config setLimits(Map<String, Config> limits) {
+			limits.forEach((name, limit) -> Assert.isTrue(limit.getReplenishRate() >= 1,
+					() -> "ReplenishRate of limit " + name + " must be at least 1"));
+			this.limits = limits;
+			return this;
+		}
+
 		@Override
 		public String toString() {
 			return new ToStringCreator(this).append("replenishRate", replenishRate)
 				.append("burstCapacity", burstCapacity)
 				.append("requestedTokens", requestedTokens)
+				.append("limits", limits)
 				.toString();
 
 		}
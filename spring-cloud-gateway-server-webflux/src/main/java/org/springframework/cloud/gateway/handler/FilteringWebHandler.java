@@ -25,7 +25,7 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Mono;
 
-import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
@@ -52,7 +52,7 @@ import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.G
  * @author Yuxin Wang
  * @since 0.1
  */
-public class FilteringWebHandler implements WebHandler, ApplicationListener<RefreshRoutesEvent> {
+public class FilteringWebHandler implements WebHandler, ApplicationListener<RefreshRoutesResultEvent> {
 
 	protected static final Log logger = LogFactory.getLog(FilteringWebHandler.class);
 
@@ -89,9 +89,10 @@ public class FilteringWebHandler implements WebHandler, ApplicationListener<Refr
 	}
 
 	@Override
-	public void onApplicationEvent(RefreshRoutesEvent event) {
-		if (this.routeFilterCacheEnabled) {
-			routeFilterMap.clear();
+	public void onApplicationEvent(RefreshRoutesResultEvent event) {
+		if (this.routeFilterCacheEnabled && event.isSuccess()) {
+			// routes that did not change are reused by the refresh
+			routeFilterMap.keySet().removeIf(route -> event.getChangedRouteIds().contains(route.getId()));
 		}
 	}
 
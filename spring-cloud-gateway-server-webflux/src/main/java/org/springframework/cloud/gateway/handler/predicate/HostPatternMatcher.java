@@ -0,0 +1,203 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.handler.predicate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Host patterns compiled into a tree of labels, starting from the top level domain. A host
+ * is matched in a single pass over its labels, which also yields the template variables
+ * of the matching pattern. Supports literal labels, {@code *}, {@code {variable}} and a
+ * leading {@code **}, with the same semantics as an
+ * {@link org.springframework.util.AntPathMatcher} using {@code .} as separator. Patterns
+ * using anything else are not compiled.
+ */
+final class HostPatternMatcher {
+
+	private static final int NO_MATCH = Integer.MAX_VALUE;
+
+	private final Node root = new Node();
+
+	private final String[] patterns;
+
+	/**
+	 * Variable names of every pattern, indexed from the last label.
+	 */
+	private final String[][] variables;
+
+	private HostPatternMatcher(List<String> patterns) {
+		this.patterns = patterns.toArray(new String[0]);
+		this.variables = new String[patterns.size()][];
+	}
+
+	/**
+	 * @param patterns the host patterns, in order of precedence
+	 * @return the compiled matcher, or {@code null} if a pattern uses an unsupported
+	 * syntax
+	 */
+	static @Nullable HostPatternMatcher compile(List<String> patterns) {
+		HostPatternMatcher matcher = new HostPatternMatcher(patterns);
+		for (int index = 0; index < patterns.size(); index++) {
+			if (!matcher.add(index, patterns.get(index))) {
+				return null;
+			}
+		}
+		return matcher;
+	}
+
+	private boolean add(int index, String pattern) {
+		if (!StringUtils.hasLength(pattern) || !isValidHost(pattern)) {
+			return false;
+		}
+		String[] labels = StringUtils.delimitedListToStringArray(pattern, ".");
+		String[] names = new String[labels.length];
+		Node node = root;
+		for (int i = labels.length - 1; i >= 0; i--) {
+			String label = labels[i];
+			if (label.equals("**")) {
+				if (i != 0) {
+					return false;
+				}
+				node.anyDepthTerminal = Math.min(node.anyDepthTerminal, index);
+				variables[index] = names;
+				return true;
+			}
+			if (label.equals("*")) {
+				node = node.anyChild();
+			}
+			else if (isVariable(label)) {
+				names[labels.length - 1 - i] = label.substring(1, label.length() - 1);
+				node = node.anyChild();
+			}
+			else if (isLiteral(label)) {
+				node = node.literalChild(label);
+			}
+			else {
+				return false;
+			}
+		}
+		node.terminal = Math.min(node.terminal, index);
+		variables[index] = names;
+		return true;
+	}
+
+	/**
+	 * @param labels the labels of the host to match, see {@link #labels(String)}
+	 * @return the first matching pattern and its variables, or {@code null} if no
+	 * pattern matches
+	 */
+	@Nullable Match match(String[] labels) {
+		int index = search(root, labels, labels.length - 1);
+		if (index == NO_MATCH) {
+			return null;
+		}
+		String[] names = variables[index];
+		Map<String, String> extracted = Collections.emptyMap();
+		for (int i = 0; i < names.length; i++) {
+			if (names[i] != null) {
+				if (extracted.isEmpty()) {
+					extracted = new LinkedHashMap<>();
+				}
+				extracted.put(names[i], labels[labels.length - 1 - i]);
+			}
+		}
+		return new Match(patterns[index], extracted);
+	}
+
+	private int search(Node node, String[] labels, int i) {
+		// a leading ** matches all remaining labels, including none
+		int best = node.anyDepthTerminal;
+		if (i < 0) {
+			return Math.min(best, node.terminal);
+		}
+		Node literal = node.literals.get(labels[i]);
+		if (literal != null) {
+			best = Math.min(best, search(literal, labels, i - 1));
+		}
+		if (node.any != null) {
+			best = Math.min(best, search(node.any, labels, i - 1));
+		}
+		return best;
+	}
+
+	/**
+	 * Splits a host into its labels.
+	 * @param host the host
+	 * @return the labels, or {@code null} if the host has empty labels and must be
+	 * matched by the path matcher
+	 */
+	static String @Nullable [] labels(String host) {
+		if (host.isEmpty() || !isValidHost(host)) {
+			return null;
+		}
+		return StringUtils.delimitedListToStringArray(host, ".");
+	}
+
+	private static boolean isValidHost(String value) {
+		return value.charAt(0) != '.' && value.charAt(value.length() - 1) != '.' && !value.contains("..");
+	}
+
+	private static boolean isVariable(String label) {
+		return label.length() > 2 && label.charAt(0) == '{' && label.charAt(label.length() - 1) == '}'
+				&& isLiteral(label.substring(1, label.length() - 1)) && label.indexOf(':') < 0;
+	}
+
+	private static boolean isLiteral(String label) {
+		for (int i = 0; i < label.length(); i++) {
+			char c = label.charAt(i);
+			if (c == '*' || c == '?' || c == '{' || c == '}') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	record Match(String pattern, Map<String, String> variables) {
+	}
+
+	private static final class Node {
+
+		private final Map<String, Node> literals = new HashMap<>(4);
+
+		private @Nullable Node any;
+
+		private int terminal = NO_MATCH;
+
+		private int anyDepthTerminal = NO_MATCH;
+
+		Node literalChild(String label) {
+			return literals.computeIfAbsent(label, l -> new Node());
+		}
+
+		Node anyChild() {
+			if (any == null) {
+				any = new Node();
+			}
+			return any;
+		}
+
+	}
+
+}
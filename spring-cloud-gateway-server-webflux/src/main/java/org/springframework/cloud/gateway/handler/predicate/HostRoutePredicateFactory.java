@@ -38,6 +38,8 @@ public class HostRoutePredicateFactory extends AbstractRoutePredicateFactory<Hos
 
 	private PathMatcher pathMatcher = new AntPathMatcher(".");
 
+	private boolean customPathMatcher = false;
+
 	public HostRoutePredicateFactory() {
 		this(true);
 	}
@@ -49,6 +51,7 @@ public class HostRoutePredicateFactory extends AbstractRoutePredicateFactory<Hos
 
 	public void setPathMatcher(PathMatcher pathMatcher) {
 		this.pathMatcher = pathMatcher;
+		this.customPathMatcher = true;
 	}
 
 	/* for testing */ void setIncludePort(boolean includePort) {
@@ -67,6 +70,10 @@ public class HostRoutePredicateFactory extends AbstractRoutePredicateFactory<Hos
 
 	@Override
 	public Predicate<ServerWebExchange> apply(Config config) {
+		// patterns are compiled once, the path matcher is only used for patterns the
+		// compiled matcher does not support or if a custom path matcher is set
+		HostPatternMatcher hostPatternMatcher = customPathMatcher ? null
+				: HostPatternMatcher.compile(config.getPatterns());
 		return new GatewayPredicate() {
 			@Override
 			public boolean test(ServerWebExchange exchange) {
@@ -88,6 +95,18 @@ public class HostRoutePredicateFactory extends AbstractRoutePredicateFactory<Hos
 					return false;
 				}
 
+				if (hostPatternMatcher != null) {
+					String[] labels = HostPatternMatcher.labels(host);
+					if (labels != null) {
+						HostPatternMatcher.Match match = hostPatternMatcher.match(labels);
+						if (match == null) {
+							return false;
+						}
+						ServerWebExchangeUtils.putUriTemplateVariables(exchange, match.variables());
+						return true;
+					}
+				}
+
 				String match = null;
 				for (int i = 0; i < config.getPatterns().size(); i++) {
 					String pattern = config.getPatterns().get(i);
@@ -16,6 +16,7 @@
 
 package org.springframework.cloud.gateway.handler.predicate;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -28,15 +29,21 @@ import org.reactivestreams.Publisher;
 import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.support.RequestBodyCachePolicy;
 import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
 import org.springframework.http.codec.HttpMessageReader;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.web.reactive.function.server.HandlerStrategies;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.server.ServerWebExchange;
 
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CACHED_SERVER_HTTP_REQUEST_DECORATOR_ATTR;
+
 /**
  * Predicate that reads the body and applies a user provided predicate to run on the body.
- * The body is cached in memory so that possible subsequent calls to the predicate do not
+ * The body is cached in memory, or in a temporary file if it is larger than the memory
+ * threshold of the {@link RequestBodyCachePolicy}, and so is the object it is decoded to,
+ * per class, so that possible subsequent calls to the predicate, from any route, do not
  * need to deserialize again.
  */
 public class ReadBodyRoutePredicateFactory extends AbstractRoutePredicateFactory<ReadBodyRoutePredicateFactory.Config> {
@@ -47,16 +54,25 @@ public class ReadBodyRoutePredicateFactory extends AbstractRoutePredicateFactory
 
 	private static final String CACHE_REQUEST_BODY_OBJECT_KEY = "cachedRequestBodyObject";
 
+	private static final String DECODED_REQUEST_BODIES_KEY = "cachedRequestBodyObjects";
+
 	private final List<HttpMessageReader<?>> messageReaders;
 
+	private final RequestBodyCachePolicy requestBodyCachePolicy;
+
 	public ReadBodyRoutePredicateFactory() {
-		super(Config.class);
-		this.messageReaders = HandlerStrategies.withDefaults().messageReaders();
+		this(HandlerStrategies.withDefaults().messageReaders());
 	}
 
 	public ReadBodyRoutePredicateFactory(List<HttpMessageReader<?>> messageReaders) {
+		this(messageReaders, RequestBodyCachePolicy.IN_MEMORY);
+	}
+
+	public ReadBodyRoutePredicateFactory(List<HttpMessageReader<?>> messageReaders,
+			RequestBodyCachePolicy requestBodyCachePolicy) {
 		super(Config.class);
 		this.messageReaders = messageReaders;
+		this.requestBodyCachePolicy = requestBodyCachePolicy;
 	}
 
 	@Override
@@ -65,41 +81,31 @@ public class ReadBodyRoutePredicateFactory extends AbstractRoutePredicateFactory
 		return new AsyncPredicate<ServerWebExchange>() {
 			@Override
 			public Publisher<Boolean> apply(ServerWebExchange exchange) {
-				Class inClass = config.getInClass();
+				Class inClass = Objects.requireNonNull(config.getInClass(), "inClass must not be null");
 
-				Object cachedBody = exchange.getAttribute(CACHE_REQUEST_BODY_OBJECT_KEY);
-				Mono<?> modifiedBody;
 				// We can only read the body from the request once, once that happens if
-				// we try to read the body again an exception will be thrown. The below
-				// if/else caches the body object as a request attribute in the
-				// ServerWebExchange so if this filter is run more than once (due to more
-				// than one route using it) we do not try to read the request body
-				// multiple times
+				// we try to read the body again an exception will be thrown. The body
+				// is cached as a request attribute in the ServerWebExchange, and so are
+				// the objects it is decoded to, one per class, so if this predicate is
+				// run more than once (due to more than one route using it) the body is
+				// decoded only once per class
+				Map<Class<?>, Object> decodedBodies = decodedBodies(exchange);
+				Object cachedBody = decodedBodies.get(inClass);
 				if (cachedBody != null) {
-					try {
-						boolean test = config.predicate != null && config.predicate.test(cachedBody);
-						exchange.getAttributes().put(TEST_ATTRIBUTE, test);
-						return Mono.just(test);
-					}
-					catch (ClassCastException e) {
-						if (log.isDebugEnabled()) {
-							log.debug("Predicate test failed because class in predicate "
-									+ "does not match the cached body object", e);
-						}
-					}
-					return Mono.just(false);
+					boolean test = test(config, cachedBody);
+					exchange.getAttributes().put(TEST_ATTRIBUTE, test);
+					return Mono.just(test);
 				}
-				else {
-					Objects.requireNonNull(inClass, "inClass must not be null");
-					return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange,
-							(serverHttpRequest) -> ServerRequest
-								.create(exchange.mutate().request(serverHttpRequest).build(), messageReaders)
-								.bodyToMono(inClass)
-								.doOnNext(objectValue -> exchange.getAttributes()
-									.put(CACHE_REQUEST_BODY_OBJECT_KEY, objectValue))
-								.map(objectValue -> config.getPredicate() != null
-										&& config.getPredicate().test(objectValue)));
+				ServerHttpRequest cachedRequest = exchange.getAttribute(CACHED_SERVER_HTTP_REQUEST_DECORATOR_ATTR);
+				if (cachedRequest != null) {
+					// the body was cached by another route, it is decoded to this class
+					// from the cached body
+					return decode(exchange, cachedRequest, inClass, decodedBodies)
+						.map(objectValue -> test(config, objectValue));
 				}
+				return ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, requestBodyCachePolicy,
+						(serverHttpRequest) -> decode(exchange, serverHttpRequest, inClass, decodedBodies)
+							.map(objectValue -> test(config, objectValue)));
 			}
 
 			@Override
@@ -114,6 +120,37 @@ public class ReadBodyRoutePredicateFactory extends AbstractRoutePredicateFactory
 		};
 	}
 
+	private Mono<Object> decode(ServerWebExchange exchange, ServerHttpRequest request, Class<?> inClass,
+			Map<Class<?>, Object> decodedBodies) {
+		return ServerRequest.create(exchange.mutate().request(request).build(), messageReaders)
+			.bodyToMono(inClass)
+			.doOnNext(objectValue -> {
+				decodedBodies.put(inClass, objectValue);
+				exchange.getAttributes().put(CACHE_REQUEST_BODY_OBJECT_KEY, objectValue);
+			})
+			.cast(Object.class);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static boolean test(Config config, Object objectValue) {
+		try {
+			return config.getPredicate() != null && config.getPredicate().test(objectValue);
+		}
+		catch (ClassCastException e) {
+			if (log.isDebugEnabled()) {
+				log.debug("Predicate test failed because class in predicate does not match the body object", e);
+			}
+			return false;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<Class<?>, Object> decodedBodies(ServerWebExchange exchange) {
+		// predicates of an exchange are tested one after the other
+		return (Map<Class<?>, Object>) exchange.getAttributes()
+			.computeIfAbsent(DECODED_REQUEST_BODIES_KEY, key -> new HashMap<Class<?>, Object>());
+	}
+
 	@Override
 	@SuppressWarnings("unchecked")
 	public Predicate<ServerWebExchange> apply(Config config) {
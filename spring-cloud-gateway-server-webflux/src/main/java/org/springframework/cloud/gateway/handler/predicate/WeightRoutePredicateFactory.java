@@ -95,12 +95,11 @@ public class WeightRoutePredicateFactory extends AbstractRoutePredicateFactory<W
 					return false;
 				}
 
-				// all calculations and comparison against random num happened in
-				// WeightCalculatorWebFilter
+				// all calculations and comparison against random num happen in
+				// WeightCalculatorWebFilter, lazily on first lookup of the group
 				String group = config.getGroup();
-				if (weights.containsKey(group)) {
-
-					String chosenRoute = weights.get(group);
+				String chosenRoute = weights.get(group);
+				if (chosenRoute != null) {
 					if (log.isTraceEnabled()) {
 						log.trace("in group weight: " + group + ", current route: " + routeId + ", chosen route: "
 								+ chosenRoute);
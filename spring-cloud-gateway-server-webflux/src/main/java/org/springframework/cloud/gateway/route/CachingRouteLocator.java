@@ -16,9 +16,13 @@
 
 package org.springframework.cloud.gateway.route;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
@@ -54,6 +58,8 @@ public class CachingRouteLocator
 
 	private final Map<String, List> cache = new ConcurrentHashMap<>();
 
+	private final RouteRefreshCoordinator refreshCoordinator = new RouteRefreshCoordinator(this::refreshRoutes);
+
 	private @Nullable ApplicationEventPublisher applicationEventPublisher;
 
 	public CachingRouteLocator(RouteLocator delegate) {
@@ -83,43 +89,88 @@ public class CachingRouteLocator
 		return this.routes;
 	}
 
+	/**
+	 * Sets the time that refresh events are collected for before the routes are refreshed
+	 * once for all of them.
+	 * @param debounce the debounce window, zero to refresh right away
+	 */
+	public void setRefreshDebounce(Duration debounce) {
+		this.refreshCoordinator.setDebounce(debounce);
+	}
+
+	public void setRefreshMetrics(RouteRefreshMetrics metrics) {
+		this.refreshCoordinator.setMetrics(metrics);
+	}
+
 	@Override
 	public void onApplicationEvent(RefreshRoutesEvent event) {
-		try {
-			if (this.cache.containsKey(CACHE_KEY) && event.isScoped()) {
-				final Mono<List<Route>> scopedRoutes = fetch(event.getMetadata()).collect(Collectors.toList())
-					.onErrorResume(s -> Mono.just(List.of()));
-
-				scopedRoutes.subscribe(scopedRoutesList -> {
-					updateCache(Flux.concat(Flux.fromIterable(scopedRoutesList), getNonScopedRoutes(event))
-						.sort(AnnotationAwareOrderComparator.INSTANCE));
-				}, this::handleRefreshError);
-			}
-			else {
-				final Mono<List<Route>> allRoutes = fetch().collect(Collectors.toList());
-				allRoutes.subscribe(list -> updateCache(Flux.fromIterable(list)), this::handleRefreshError);
-			}
+		this.refreshCoordinator.submit(event.getMetadata());
+	}
+
+	private Mono<Void> refreshRoutes(@Nullable List<Map<String, Object>> scopes) {
+		Mono<Void> refresh;
+		if (this.cache.containsKey(CACHE_KEY) && scopes != null) {
+			final Mono<List<Route>> scopedRoutes = Flux.fromIterable(scopes)
+				.concatMap(this::fetch)
+				.distinct(Route::getId)
+				.collect(Collectors.toList())
+				.onErrorResume(s -> Mono.just(List.of()));
+
+			refresh = scopedRoutes.flatMap(scopedRoutesList -> updateCache(
+					Flux.concat(Flux.fromIterable(scopedRoutesList), getNonScopedRoutes(scopes))
+						.sort(AnnotationAwareOrderComparator.INSTANCE)));
 		}
-		catch (Throwable e) {
-			handleRefreshError(e);
+		else {
+			final Mono<List<Route>> allRoutes = fetch().collect(Collectors.toList());
+			refresh = allRoutes.flatMap(list -> updateCache(Flux.fromIterable(list)));
 		}
+		return refresh.doOnError(this::handleRefreshError);
 	}
 
-	private synchronized void updateCache(Flux<Route> routes) {
-		routes.materialize()
-			.collect(Collectors.toList())
-			.subscribe(this::publishRefreshEvent, this::handleRefreshError);
+	private Mono<Void> updateCache(Flux<Route> routes) {
+		return routes.materialize().collect(Collectors.toList()).doOnNext(this::publishRefreshEvent).then();
 	}
 
+	@SuppressWarnings("unchecked")
 	private void publishRefreshEvent(List<Signal<Route>> signals) {
-		cache.put(CACHE_KEY, signals);
+		Set<String> changedRouteIds = changedRouteIds(cache.put(CACHE_KEY, signals), signals);
+		if (log.isDebugEnabled()) {
+			log.debug("Routes changed by refresh: " + changedRouteIds);
+		}
 		Objects.requireNonNull(applicationEventPublisher, "ApplicationEventPublisher is required");
-		applicationEventPublisher.publishEvent(new RefreshRoutesResultEvent(this));
+		applicationEventPublisher.publishEvent(new RefreshRoutesResultEvent(this, changedRouteIds));
+	}
+
+	/**
+	 * Routes that are equal to the previous route with the same id, such as the routes
+	 * that {@link RouteDefinitionRouteLocator} reuses, are not considered changed.
+	 */
+	private static Set<String> changedRouteIds(@Nullable List<Signal<Route>> previous, List<Signal<Route>> current) {
+		Map<String, Route> previousRoutes = new HashMap<>();
+		if (previous != null) {
+			for (Signal<Route> signal : previous) {
+				Route route = signal.get();
+				if (route != null) {
+					previousRoutes.put(route.getId(), route);
+				}
+			}
+		}
+		Set<String> changedRouteIds = new LinkedHashSet<>();
+		for (Signal<Route> signal : current) {
+			Route route = signal.get();
+			if (route != null && !route.equals(previousRoutes.remove(route.getId()))) {
+				changedRouteIds.add(route.getId());
+			}
+		}
+		// routes that were removed
+		changedRouteIds.addAll(previousRoutes.keySet());
+		return changedRouteIds;
 	}
 
-	private Flux<Route> getNonScopedRoutes(RefreshRoutesEvent scopedEvent) {
+	private Flux<Route> getNonScopedRoutes(List<Map<String, Object>> scopes) {
 		return this.getRoutes()
-			.filter(route -> !RouteLocator.matchMetadata(route.getMetadata(), scopedEvent.getMetadata()));
+			.filter(route -> scopes.stream()
+				.noneMatch(metadata -> RouteLocator.matchMetadata(route.getMetadata(), metadata)));
 	}
 
 	private void handleRefreshError(Throwable throwable) {
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.route;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * {@link RouteRefreshMetrics} exporting the duration of route refreshes by outcome, the
+ * number of refresh events waiting and the number of events merged into a pending
+ * refresh to a {@link MeterRegistry}.
+ */
+public class MicrometerRouteRefreshMetrics implements RouteRefreshMetrics {
+
+	private final AtomicInteger pendingEvents = new AtomicInteger();
+
+	private final Counter skipped;
+
+	private final Timer success;
+
+	private final Timer failure;
+
+	public MicrometerRouteRefreshMetrics(MeterRegistry meterRegistry, String metricsPrefix) {
+		String prefix = metricsPrefix.endsWith(".") ? metricsPrefix.substring(0, metricsPrefix.length() - 1)
+				: metricsPrefix;
+		Gauge.builder(prefix + ".routes.refresh.pending", pendingEvents, AtomicInteger::get)
+			.description("Route refresh events waiting for the next refresh")
+			.register(meterRegistry);
+		this.skipped = Counter.builder(prefix + ".routes.refresh.skipped")
+			.description("Route refresh events merged into a pending refresh")
+			.register(meterRegistry);
+		this.success = timer(meterRegistry, prefix, "SUCCESS");
+		this.failure = timer(meterRegistry, prefix, "FAILURE");
+	}
+
+	private static Timer timer(MeterRegistry meterRegistry, String prefix, String outcome) {
+		return Timer.builder(prefix + ".routes.refresh.time")
+			.description("Time spent refreshing routes")
+			.tag("outcome", outcome)
+			.register(meterRegistry);
+	}
+
+	@Override
+	public void pending(int events) {
+		pendingEvents.set(events);
+	}
+
+	@Override
+	public void skipped() {
+		skipped.increment();
+	}
+
+	@Override
+	public void refreshed(long durationNanos, boolean success) {
+		(success ? this.success : this.failure).record(durationNanos, TimeUnit.NANOSECONDS);
+	}
+
+}
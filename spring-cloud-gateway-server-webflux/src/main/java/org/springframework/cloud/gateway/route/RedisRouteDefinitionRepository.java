@@ -16,25 +16,49 @@
 
 package org.springframework.cloud.gateway.route;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
 
+import org.jspecify.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
 
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.support.NotFoundException;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.data.redis.core.ReactiveValueOperations;
 import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.stereotype.Repository;
+import org.springframework.util.Assert;
 
 /**
+ * A {@link RouteDefinitionRepository} that stores every route under its own key in
+ * Redis. Routes are read in batches with {@code MGET}. If a
+ * {@link ReactiveStringRedisTemplate} is given, every change also increments a version
+ * key and is published to the other gateway instances. With
+ * {@link #setVersionCheckEnabled(boolean)}, routes are only read again once the version
+ * changed, and a published change updates the changed route alone.
+ *
  * @author Dennis Menge
  * @author lzhpo
  */
 @Repository
-public class RedisRouteDefinitionRepository implements RouteDefinitionRepository {
+public class RedisRouteDefinitionRepository
+		implements RouteDefinitionRepository, ApplicationEventPublisherAware, InitializingBean, DisposableBean {
 
 	private static final Logger log = LoggerFactory.getLogger(RedisRouteDefinitionRepository.class);
 
@@ -43,24 +67,135 @@ public class RedisRouteDefinitionRepository implements RouteDefinitionRepository
 	 */
 	private static final String ROUTEDEFINITION_REDIS_KEY_PREFIX_QUERY = "routedefinition_";
 
+	/**
+	 * Key of the version of the routes, incremented on every change.
+	 */
+	public static final String ROUTEDEFINITION_VERSION_KEY = "routedefinition-version";
+
+	/**
+	 * Channel the changes of routes are published to, as the new version followed by the
+	 * id of the changed route, separated by a space.
+	 */
+	public static final String ROUTEDEFINITION_CHANGES_CHANNEL = "routedefinition-changes";
+
 	private ReactiveRedisTemplate<String, RouteDefinition> reactiveRedisTemplate;
 
 	private ReactiveValueOperations<String, RouteDefinition> routeDefinitionReactiveValueOperations;
 
+	private final @Nullable ReactiveStringRedisTemplate stringRedisTemplate;
+
+	private final AtomicReference<@Nullable Snapshot> snapshot = new AtomicReference<>();
+
+	private int batchSize = 500;
+
+	private boolean changeNotificationsEnabled;
+
+	private boolean versionCheckEnabled;
+
+	private @Nullable ApplicationEventPublisher publisher;
+
+	private @Nullable Disposable subscription;
+
 	public RedisRouteDefinitionRepository(ReactiveRedisTemplate<String, RouteDefinition> reactiveRedisTemplate) {
+		this(reactiveRedisTemplate, null);
+	}
+
+	public RedisRouteDefinitionRepository(ReactiveRedisTemplate<String, RouteDefinition> reactiveRedisTemplate,
+			@Nullable ReactiveStringRedisTemplate stringRedisTemplate) {
 		this.reactiveRedisTemplate = reactiveRedisTemplate;
 		this.routeDefinitionReactiveValueOperations = reactiveRedisTemplate.opsForValue();
+		this.stringRedisTemplate = stringRedisTemplate;
+	}
+
+	/**
+	 * Sets the number of routes read with a single {@code MGET}, defaults to 500.
+	 * @param batchSize the number of routes per batch
+	 */
+	public void setBatchSize(int batchSize) {
+		Assert.isTrue(batchSize > 0, "batchSize must be greater than 0");
+		this.batchSize = batchSize;
+	}
+
+	/**
+	 * Sets whether changes published by other gateway instances are applied, refreshing
+	 * the routes of this instance. Requires a {@link ReactiveStringRedisTemplate}.
+	 * @param changeNotificationsEnabled whether to listen to changes
+	 */
+	public void setChangeNotificationsEnabled(boolean changeNotificationsEnabled) {
+		this.changeNotificationsEnabled = changeNotificationsEnabled;
+	}
+
+	/**
+	 * Sets whether routes are only read again from Redis once the version key changed.
+	 * Every writer of the routes must then increment the version key, as this repository
+	 * does, or its changes are not seen until the next change made through a repository.
+	 * Requires a {@link ReactiveStringRedisTemplate}.
+	 * @param versionCheckEnabled whether to skip reading unchanged routes
+	 */
+	public void setVersionCheckEnabled(boolean versionCheckEnabled) {
+		this.versionCheckEnabled = versionCheckEnabled;
+	}
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+	@Override
+	public void afterPropertiesSet() {
+		if (changeNotificationsEnabled && stringRedisTemplate != null) {
+			subscription = stringRedisTemplate.listenToChannel(ROUTEDEFINITION_CHANGES_CHANNEL)
+				.concatMap(message -> onChange(message.getMessage()))
+				.retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofMinutes(1)))
+				.subscribe();
+		}
+	}
+
+	@Override
+	public void destroy() {
+		if (subscription != null) {
+			subscription.dispose();
+		}
 	}
 
 	@Override
 	public Flux<RouteDefinition> getRouteDefinitions() {
-		return reactiveRedisTemplate.scan(ScanOptions.scanOptions().match(createKey("*")).build())
-			.flatMap(key -> reactiveRedisTemplate.opsForValue().get(key))
-			.onErrorContinue((throwable, routeDefinition) -> {
-				if (log.isErrorEnabled()) {
-					log.error("get routes from redis error cause : {}", throwable.toString(), throwable);
-				}
+		if (!versionCheckEnabled || stringRedisTemplate == null) {
+			return fetchRouteDefinitions();
+		}
+		return currentVersion().flatMapMany(version -> {
+			Snapshot current = snapshot.get();
+			if (current != null && current.version() == version) {
+				return Flux.fromIterable(current.routes().values());
+			}
+			return fetchRouteDefinitions().collectList().flatMapIterable(routeDefinitions -> {
+				Map<String, RouteDefinition> routes = new LinkedHashMap<>();
+				routeDefinitions.forEach(routeDefinition -> routes.put(routeDefinition.getId(), routeDefinition));
+				snapshot.set(new Snapshot(version, routes));
+				return routeDefinitions;
 			});
+		});
+	}
+
+	private Flux<RouteDefinition> fetchRouteDefinitions() {
+		return reactiveRedisTemplate
+			.scan(ScanOptions.scanOptions().match(createKey("*")).count(batchSize).build())
+			.buffer(batchSize)
+			// batches are pipelined over the shared connection
+			.flatMapSequential(this::getAll);
+	}
+
+	private Flux<RouteDefinition> getAll(List<String> keys) {
+		return routeDefinitionReactiveValueOperations.multiGet(keys)
+			.flatMapIterable(routeDefinitions -> routeDefinitions.stream().filter(Objects::nonNull).toList())
+			// read the batch key by key to skip only the routes that cannot be read
+			.onErrorResume(e -> Flux.fromIterable(keys)
+				.concatMap(key -> routeDefinitionReactiveValueOperations.get(key))
+				.onErrorContinue((throwable, routeDefinition) -> {
+					if (log.isErrorEnabled()) {
+						log.error("get routes from redis error cause : {}", throwable.toString(), throwable);
+					}
+				}));
 	}
 
 	@Override
@@ -70,7 +205,7 @@ public class RedisRouteDefinitionRepository implements RouteDefinitionRepository
 			return routeDefinitionReactiveValueOperations.set(createKey(routeDefinition.getId()), routeDefinition)
 				.flatMap(success -> {
 					if (success) {
-						return Mono.empty();
+						return publishChange(routeDefinition.getId());
 					}
 					return Mono.defer(() -> Mono.error(new RuntimeException(
 							String.format("Could not add route to redis repository: %s", routeDefinition))));
@@ -84,15 +219,70 @@ public class RedisRouteDefinitionRepository implements RouteDefinitionRepository
 	public Mono<Void> delete(Mono<String> routeId) {
 		return routeId.flatMap(id -> routeDefinitionReactiveValueOperations.delete(createKey(id)).flatMap(success -> {
 			if (success) {
-				return Mono.empty();
+				return publishChange(id);
 			}
 			return Mono.defer(() -> Mono.error(new NotFoundException(
 					String.format("Could not remove route from redis repository with id: %s", routeId))));
 		}));
 	}
 
+	private Mono<Long> currentVersion() {
+		return stringRedisTemplate.opsForValue()
+			.get(ROUTEDEFINITION_VERSION_KEY)
+			.map(Long::parseLong)
+			.defaultIfEmpty(0L);
+	}
+
+	private Mono<Void> publishChange(String routeId) {
+		if (stringRedisTemplate == null) {
+			return Mono.empty();
+		}
+		return stringRedisTemplate.opsForValue()
+			.increment(ROUTEDEFINITION_VERSION_KEY)
+			.flatMap(version -> stringRedisTemplate.convertAndSend(ROUTEDEFINITION_CHANGES_CHANNEL,
+					version + " " + routeId))
+			.then();
+	}
+
+	private Mono<Void> onChange(String message) {
+		return Mono.defer(() -> {
+			int separator = message.indexOf(' ');
+			long version = Long.parseLong(message.substring(0, separator));
+			String routeId = message.substring(separator + 1);
+			return applyChange(version, routeId);
+		}).then(Mono.fromRunnable(() -> {
+			if (publisher != null) {
+				publisher.publishEvent(new RefreshRoutesEvent(this));
+			}
+		})).onErrorResume(e -> {
+			log.warn("Could not apply route change from redis: {}", message, e);
+			return Mono.empty();
+		}).then();
+	}
+
+	private Mono<Void> applyChange(long version, String routeId) {
+		Snapshot current = snapshot.get();
+		// a change that does not follow the routes read last is not applied, the routes
+		// are then read again as their version differs
+		if (current == null || current.version() != version - 1) {
+			return Mono.empty();
+		}
+		return routeDefinitionReactiveValueOperations.get(createKey(routeId))
+			.map(Optional::of)
+			.defaultIfEmpty(Optional.empty())
+			.doOnNext(routeDefinition -> {
+				Map<String, RouteDefinition> routes = new LinkedHashMap<>(current.routes());
+				routeDefinition.ifPresentOrElse(value -> routes.put(routeId, value), () -> routes.remove(routeId));
+				snapshot.compareAndSet(current, new Snapshot(version, routes));
+			})
+			.then();
+	}
+
 	private String createKey(String routeId) {
 		return ROUTEDEFINITION_REDIS_KEY_PREFIX_QUERY + routeId;
 	}
 
+	private record Snapshot(long version, Map<String, RouteDefinition> routes) {
+	}
+
 }
@@ -22,10 +22,17 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 
 import org.springframework.cloud.gateway.config.GatewayProperties;
 import org.springframework.cloud.gateway.event.FilterArgsEvent;
@@ -68,6 +75,8 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 
 	private final GatewayProperties gatewayProperties;
 
+	private final Map<String, ConvertedRoute> convertedRoutes = new ConcurrentHashMap<>();
+
 	public RouteDefinitionRouteLocator(RouteDefinitionLocator routeDefinitionLocator,
 			List<RoutePredicateFactory> predicates, List<GatewayFilterFactory> gatewayFilterFactories,
 			GatewayProperties gatewayProperties, ConfigurationService configurationService) {
@@ -104,39 +113,103 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 
 	@Override
 	public Flux<Route> getRoutes() {
-		return getRoutes(this.routeDefinitionLocator.getRouteDefinitions());
+		Set<String> routeIds = ConcurrentHashMap.newKeySet();
+		return getRoutes(this.routeDefinitionLocator.getRouteDefinitions().doOnNext(routeDefinition -> {
+			if (routeDefinition.getId() != null) {
+				routeIds.add(routeDefinition.getId());
+			}
+		})).doOnComplete(() -> convertedRoutes.keySet().retainAll(routeIds));
 	}
 
 	private Flux<Route> getRoutes(Flux<RouteDefinition> routeDefinitions) {
-		Flux<Route> routes = routeDefinitions.map(this::convertToRoute);
-
-		if (!gatewayProperties.isFailOnRouteDefinitionError()) {
-			// instead of letting error bubble up, continue
-			routes = routes.onErrorContinue((error, obj) -> {
-				if (logger.isWarnEnabled()) {
-					logger.warn("RouteDefinition id " + ((RouteDefinition) obj).getId()
-							+ " will be ignored. Definition has invalid configs, " + error.getMessage());
+		return Flux.defer(() -> {
+			CompilationTimings timings = new CompilationTimings();
+			int parallelism = gatewayProperties.getRouteCompilationParallelism();
+			Flux<Route> routes;
+			if (parallelism > 1) {
+				// routes are built concurrently and emitted in the order of their definitions
+				routes = routeDefinitions.flatMapSequential(
+						routeDefinition -> Mono.fromCallable(() -> convertToRoute(routeDefinition, timings))
+							.subscribeOn(Schedulers.boundedElastic())
+							.onErrorResume(error -> {
+								if (gatewayProperties.isFailOnRouteDefinitionError()) {
+									return Mono.error(error);
+								}
+								logIgnoredRoute(routeDefinition, error);
+								return Mono.empty();
+							}),
+						parallelism);
+			}
+			else {
+				routes = routeDefinitions.map(routeDefinition -> convertToRoute(routeDefinition, timings));
+				if (!gatewayProperties.isFailOnRouteDefinitionError()) {
+					// instead of letting error bubble up, continue
+					routes = routes.onErrorContinue((error, obj) -> logIgnoredRoute((RouteDefinition) obj, error));
 				}
-			});
+			}
+
+			return routes.map(route -> {
+				if (logger.isDebugEnabled()) {
+					logger.debug("RouteDefinition matched: " + route.getId());
+				}
+				return route;
+			}).doOnComplete(() -> timings.log(parallelism));
+		});
+	}
+
+	private void logIgnoredRoute(RouteDefinition routeDefinition, Throwable error) {
+		if (logger.isWarnEnabled()) {
+			logger.warn("RouteDefinition id " + routeDefinition.getId()
+					+ " will be ignored. Definition has invalid configs, " + error.getMessage());
+		}
+	}
+
+	private Route convertToRoute(RouteDefinition routeDefinition, CompilationTimings timings) {
+		String id = routeDefinition.getId();
+		if (!gatewayProperties.isIncrementalRouteRefresh() || id == null) {
+			return buildRoute(routeDefinition, timings);
+		}
+		List<FilterDefinition> defaultFilters = gatewayProperties.getDefaultFilters();
+		int hash = Objects.hash(routeDefinition, defaultFilters);
+		ConvertedRoute converted = convertedRoutes.get(id);
+		if (converted != null && converted.matches(routeDefinition, defaultFilters, hash)) {
+			return converted.route();
 		}
+		Route route = buildRoute(routeDefinition, timings);
+		// SpEL arguments may evaluate differently on every refresh, so they are not reused
+		if (hasExpressions(routeDefinition.getPredicates(), PredicateDefinition::getArgs)
+				|| hasExpressions(routeDefinition.getFilters(), FilterDefinition::getArgs)
+				|| hasExpressions(defaultFilters, FilterDefinition::getArgs)) {
+			convertedRoutes.remove(id);
+		}
+		else {
+			convertedRoutes.put(id, new ConvertedRoute(routeDefinition, new ArrayList<>(defaultFilters), hash, route));
+		}
+		return route;
+	}
 
-		return routes.map(route -> {
-			if (logger.isDebugEnabled()) {
-				logger.debug("RouteDefinition matched: " + route.getId());
+	private static <T> boolean hasExpressions(List<T> definitions, Function<T, Map<String, String>> args) {
+		for (T definition : definitions) {
+			for (String value : args.apply(definition).values()) {
+				if (value != null && value.contains("#{")) {
+					return true;
+				}
 			}
-			return route;
-		});
+		}
+		return false;
 	}
 
-	private Route convertToRoute(RouteDefinition routeDefinition) {
-		AsyncPredicate<ServerWebExchange> predicate = combinePredicates(routeDefinition);
-		List<GatewayFilter> gatewayFilters = getFilters(routeDefinition);
+	private Route buildRoute(RouteDefinition routeDefinition, CompilationTimings timings) {
+		timings.routes.increment();
+		AsyncPredicate<ServerWebExchange> predicate = combinePredicates(routeDefinition, timings);
+		List<GatewayFilter> gatewayFilters = getFilters(routeDefinition, timings);
 
 		return Route.async(routeDefinition).asyncPredicate(predicate).replaceFilters(gatewayFilters).build();
 	}
 
 	@SuppressWarnings("unchecked")
-	List<GatewayFilter> loadGatewayFilters(String id, List<FilterDefinition> filterDefinitions) {
+	List<GatewayFilter> loadGatewayFilters(String id, List<FilterDefinition> filterDefinitions,
+			CompilationTimings timings) {
 		ArrayList<GatewayFilter> ordered = new ArrayList<>(filterDefinitions.size());
 		for (int i = 0; i < filterDefinitions.size(); i++) {
 			FilterDefinition definition = filterDefinitions.get(i);
@@ -150,6 +223,7 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 						+ definition.getName());
 			}
 
+			long start = System.nanoTime();
 			// @formatter:off
 			Object configuration = this.configurationService.with(factory)
 					.name(definition.getName())
@@ -166,7 +240,10 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 				hasRouteId.setRouteId(id);
 			}
 
+			long bound = System.nanoTime();
 			GatewayFilter gatewayFilter = factory.apply(configuration);
+			timings.binding.add(bound - start);
+			timings.filters.add(System.nanoTime() - bound);
 			if (gatewayFilter instanceof Ordered) {
 				ordered.add(gatewayFilter);
 			}
@@ -178,25 +255,26 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 		return ordered;
 	}
 
-	private List<GatewayFilter> getFilters(RouteDefinition routeDefinition) {
+	private List<GatewayFilter> getFilters(RouteDefinition routeDefinition, CompilationTimings timings) {
 		List<GatewayFilter> filters = new ArrayList<>();
 		Objects.requireNonNull(routeDefinition.getId(), "Route id must be set");
 		// TODO: support option to apply defaults after route specific filters?
 		if (!this.gatewayProperties.getDefaultFilters().isEmpty()) {
 			filters.addAll(loadGatewayFilters(routeDefinition.getId(),
-					new ArrayList<>(this.gatewayProperties.getDefaultFilters())));
+					new ArrayList<>(this.gatewayProperties.getDefaultFilters()), timings));
 		}
 
 		final List<FilterDefinition> definitionFilters = routeDefinition.getFilters();
 		if (!CollectionUtils.isEmpty(definitionFilters)) {
-			filters.addAll(loadGatewayFilters(routeDefinition.getId(), definitionFilters));
+			filters.addAll(loadGatewayFilters(routeDefinition.getId(), definitionFilters, timings));
 		}
 
 		AnnotationAwareOrderComparator.sort(filters);
 		return filters;
 	}
 
-	private AsyncPredicate<ServerWebExchange> combinePredicates(RouteDefinition routeDefinition) {
+	private AsyncPredicate<ServerWebExchange> combinePredicates(RouteDefinition routeDefinition,
+			CompilationTimings timings) {
 		List<PredicateDefinition> predicates = routeDefinition.getPredicates();
 		if (predicates == null || predicates.isEmpty()) {
 			// this is a very rare case, but possible, just match all
@@ -204,12 +282,13 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 		}
 
 		return predicates.stream()
-			.map(nextPredicate -> lookup(routeDefinition, nextPredicate))
+			.map(nextPredicate -> lookup(routeDefinition, nextPredicate, timings))
 			.reduce(AsyncPredicate.from(exchange -> true), AsyncPredicate::and);
 	}
 
 	@SuppressWarnings("unchecked")
-	private AsyncPredicate<ServerWebExchange> lookup(RouteDefinition route, PredicateDefinition predicate) {
+	private AsyncPredicate<ServerWebExchange> lookup(RouteDefinition route, PredicateDefinition predicate,
+			CompilationTimings timings) {
 		RoutePredicateFactory<Object> factory = this.predicates.get(predicate.getName());
 		if (factory == null) {
 			throw new IllegalArgumentException("Unable to find RoutePredicateFactory with name " + predicate.getName());
@@ -219,6 +298,7 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 					+ predicate.getName());
 		}
 
+		long start = System.nanoTime();
 		// @formatter:off
 		Object config = this.configurationService.with(factory)
 				.name(predicate.getName())
@@ -231,7 +311,57 @@ public class RouteDefinitionRouteLocator implements RouteLocator {
 				.bind();
 		// @formatter:on
 
-		return factory.applyAsync(config);
+		long bound = System.nanoTime();
+		AsyncPredicate<ServerWebExchange> asyncPredicate = factory.applyAsync(config);
+		timings.binding.add(bound - start);
+		timings.predicates.add(System.nanoTime() - bound);
+		return asyncPredicate;
+	}
+
+	/**
+	 * Time spent building the routes of a single fetch, per phase. Phases are summed
+	 * across the threads that build routes in parallel.
+	 */
+	final class CompilationTimings {
+
+		private final long start = System.nanoTime();
+
+		private final LongAdder routes = new LongAdder();
+
+		private final LongAdder binding = new LongAdder();
+
+		private final LongAdder predicates = new LongAdder();
+
+		private final LongAdder filters = new LongAdder();
+
+		private void log(int parallelism) {
+			if (logger.isDebugEnabled() && routes.sum() > 0) {
+				logger.debug("Built " + routes.sum() + " routes in " + millis(System.nanoTime() - start)
+						+ " ms with a parallelism of " + parallelism + ", binding: " + millis(binding.sum())
+						+ " ms, predicates: " + millis(predicates.sum()) + " ms, filters: " + millis(filters.sum())
+						+ " ms");
+			}
+		}
+
+		private static long millis(long nanos) {
+			return TimeUnit.NANOSECONDS.toMillis(nanos);
+		}
+
+	}
+
+	/**
+	 * A route with the definitions it was built from, reused as long as they are equal.
+	 * The hash taken when the route was built also detects definitions that were
+	 * modified in place.
+	 */
+	private record ConvertedRoute(RouteDefinition definition, List<FilterDefinition> defaultFilters, int hash,
+			Route route) {
+
+		boolean matches(RouteDefinition definition, List<FilterDefinition> defaultFilters, int hash) {
+			return this.hash == hash && this.definition.equals(definition)
+					&& this.defaultFilters.equals(defaultFilters);
+		}
+
 	}
 
 }
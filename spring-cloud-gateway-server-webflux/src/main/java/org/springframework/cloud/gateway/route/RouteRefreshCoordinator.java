@@ -0,0 +1,170 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.route;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.util.CollectionUtils;
+
+/**
+ * Runs the route refreshes requested by refresh events one at a time. Events received
+ * within the debounce window, or while a refresh is running, are merged into a single
+ * pending refresh: a refresh of all routes absorbs any other, and refreshes scoped by
+ * metadata are combined into one refresh of all their scopes.
+ */
+final class RouteRefreshCoordinator {
+
+	private final Function<@Nullable List<Map<String, Object>>, Mono<Void>> refresher;
+
+	private final Scheduler scheduler;
+
+	private volatile Duration debounce = Duration.ZERO;
+
+	private volatile RouteRefreshMetrics metrics = RouteRefreshMetrics.NONE;
+
+	private @Nullable PendingRefresh pending;
+
+	private boolean scheduled;
+
+	private boolean running;
+
+	/**
+	 * @param refresher refreshes the routes of the given scopes, or all routes if the
+	 * scopes are {@code null}, and completes when they are refreshed
+	 */
+	RouteRefreshCoordinator(Function<@Nullable List<Map<String, Object>>, Mono<Void>> refresher) {
+		this(refresher, Schedulers.parallel());
+	}
+
+	RouteRefreshCoordinator(Function<@Nullable List<Map<String, Object>>, Mono<Void>> refresher,
+			Scheduler scheduler) {
+		this.refresher = refresher;
+		this.scheduler = scheduler;
+	}
+
+	void setDebounce(Duration debounce) {
+		this.debounce = debounce;
+	}
+
+	void setMetrics(RouteRefreshMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	/**
+	 * Requests a refresh.
+	 * @param metadata the metadata of the routes to refresh, all routes are refreshed if
+	 * {@code null} or empty
+	 */
+	void submit(@Nullable Map<String, Object> metadata) {
+		int events;
+		synchronized (this) {
+			if (pending == null) {
+				pending = new PendingRefresh();
+			}
+			else {
+				metrics.skipped();
+			}
+			events = pending.merge(metadata);
+			if (running || scheduled) {
+				metrics.pending(events);
+				return;
+			}
+			scheduled = true;
+		}
+		metrics.pending(events);
+		schedule();
+	}
+
+	private void schedule() {
+		Duration debounce = this.debounce;
+		if (debounce.isZero() || debounce.isNegative()) {
+			runPending();
+		}
+		else {
+			scheduler.schedule(this::runPending, debounce.toNanos(), TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void runPending() {
+		PendingRefresh refresh;
+		synchronized (this) {
+			scheduled = false;
+			refresh = pending;
+			if (refresh == null || running) {
+				return;
+			}
+			pending = null;
+			running = true;
+		}
+		metrics.pending(0);
+		long start = System.nanoTime();
+		Mono.defer(() -> refresher.apply(refresh.scopes()))
+			.subscribe(null, e -> completed(start, false), () -> completed(start, true));
+	}
+
+	private void completed(long start, boolean success) {
+		metrics.refreshed(System.nanoTime() - start, success);
+		synchronized (this) {
+			running = false;
+			if (pending == null || scheduled) {
+				return;
+			}
+			scheduled = true;
+		}
+		schedule();
+	}
+
+	/**
+	 * The refresh events merged into the next refresh.
+	 */
+	private static final class PendingRefresh {
+
+		private final Set<Map<String, Object>> scopes = new LinkedHashSet<>();
+
+		private boolean all;
+
+		private int events;
+
+		int merge(@Nullable Map<String, Object> metadata) {
+			if (CollectionUtils.isEmpty(metadata)) {
+				all = true;
+				scopes.clear();
+			}
+			else if (!all) {
+				scopes.add(metadata);
+			}
+			return ++events;
+		}
+
+		@Nullable List<Map<String, Object>> scopes() {
+			return all ? null : List.copyOf(scopes);
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.route;
+
+/**
+ * Records the route refreshes of {@link CachingRouteLocator}, for example to export them
+ * as metrics.
+ */
+public interface RouteRefreshMetrics {
+
+	/**
+	 * No-op metrics.
+	 */
+	RouteRefreshMetrics NONE = new RouteRefreshMetrics() {
+	};
+
+	/**
+	 * Called when the number of refresh events waiting for the next refresh changed.
+	 * @param events the number of waiting events
+	 */
+	default void pending(int events) {
+	}
+
+	/**
+	 * Called when a refresh event was merged into a refresh that was already pending,
+	 * instead of causing a refresh of its own.
+	 */
+	default void skipped() {
+	}
+
+	/**
+	 * Called when a refresh completed.
+	 * @param durationNanos the time the refresh took
+	 * @param success whether the routes were refreshed
+	 */
+	default void refreshed(long durationNanos, boolean success) {
+	}
+
+}
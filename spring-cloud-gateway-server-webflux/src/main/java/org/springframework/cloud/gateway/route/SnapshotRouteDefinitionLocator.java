@@ -0,0 +1,164 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.route;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.json.JsonMapper;
+
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.ApplicationEventPublisherAware;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * A {@link RouteDefinitionLocator} that writes the route definitions of its delegate to
+ * a file after every refresh. On startup, the route definitions of this file are returned
+ * until the first routes have been built from them, so that the gateway serves requests
+ * without waiting for slow sources, such as a discovery server or a database. The routes
+ * are then refreshed from the delegate in the background.
+ */
+public class SnapshotRouteDefinitionLocator implements RouteDefinitionLocator,
+		ApplicationListener<RefreshRoutesResultEvent>, ApplicationEventPublisherAware {
+
+	private static final Log log = LogFactory.getLog(SnapshotRouteDefinitionLocator.class);
+
+	private static final JsonMapper JSON_MAPPER = JsonMapper.builder().build();
+
+	private final RouteDefinitionLocator delegate;
+
+	private final Path file;
+
+	/**
+	 * The route definitions read from the file on startup, until the routes are refreshed
+	 * from the delegate.
+	 */
+	private volatile @Nullable List<RouteDefinition> snapshot;
+
+	/**
+	 * The route definitions last returned by the delegate.
+	 */
+	private volatile @Nullable List<RouteDefinition> current;
+
+	/**
+	 * The route definitions last written to the file.
+	 */
+	private @Nullable List<RouteDefinition> written;
+
+	private @Nullable ApplicationEventPublisher publisher;
+
+	public SnapshotRouteDefinitionLocator(RouteDefinitionLocator delegate, Path file) {
+		this.delegate = delegate;
+		this.file = file;
+		this.snapshot = read(file);
+		this.written = this.snapshot;
+	}
+
+	@Override
+	public Flux<RouteDefinition> getRouteDefinitions() {
+		List<RouteDefinition> snapshot = this.snapshot;
+		if (snapshot != null) {
+			return Flux.fromIterable(snapshot);
+		}
+		return delegate.getRouteDefinitions().collectList().flatMapIterable(routeDefinitions -> {
+			this.current = routeDefinitions;
+			return routeDefinitions;
+		});
+	}
+
+	@Override
+	public void onApplicationEvent(RefreshRoutesResultEvent event) {
+		if (snapshot != null) {
+			// the first routes were built from the file, refresh them from the delegate
+			snapshot = null;
+			if (log.isDebugEnabled()) {
+				log.debug("Routes built from snapshot " + file + ", refreshing routes");
+			}
+			Objects.requireNonNull(publisher, "ApplicationEventPublisher is required");
+			publisher.publishEvent(new RefreshRoutesEvent(this));
+		}
+		else if (event.isSuccess() && current != null) {
+			Mono.fromRunnable(this::write).subscribeOn(Schedulers.boundedElastic()).subscribe();
+		}
+	}
+
+	private synchronized void write() {
+		List<RouteDefinition> routeDefinitions = current;
+		if (routeDefinitions == null || routeDefinitions.equals(written)) {
+			return;
+		}
+		try {
+			Path parent = file.toAbsolutePath().getParent();
+			Files.createDirectories(parent);
+			Path tempFile = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+			try (OutputStream outputStream = new GZIPOutputStream(Files.newOutputStream(tempFile))) {
+				JSON_MAPPER.writeValue(outputStream, routeDefinitions);
+			}
+			// readers never see a partially written file
+			Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			written = routeDefinitions;
+			if (log.isDebugEnabled()) {
+				log.debug("Wrote " + routeDefinitions.size() + " route definitions to snapshot " + file);
+			}
+		}
+		catch (IOException | JacksonException e) {
+			log.warn("Could not write route definitions to snapshot " + file, e);
+		}
+	}
+
+	private static @Nullable List<RouteDefinition> read(Path file) {
+		if (!Files.isRegularFile(file)) {
+			return null;
+		}
+		try (InputStream inputStream = new GZIPInputStream(Files.newInputStream(file))) {
+			List<RouteDefinition> routeDefinitions = Arrays
+				.asList(JSON_MAPPER.readValue(inputStream, RouteDefinition[].class));
+			if (log.isInfoEnabled()) {
+				log.info("Read " + routeDefinitions.size() + " route definitions from snapshot " + file);
+			}
+			return routeDefinitions;
+		}
+		catch (IOException | JacksonException e) {
+			log.warn("Could not read route definitions from snapshot " + file + ", ignoring it", e);
+			return null;
+		}
+	}
+
+	@Override
+	public void setApplicationEventPublisher(ApplicationEventPublisher publisher) {
+		this.publisher = publisher;
+	}
+
+}
@@ -44,6 +44,7 @@ import org.springframework.cloud.gateway.filter.factory.AddRequestHeadersIfNotPr
 import org.springframework.cloud.gateway.filter.factory.AddRequestParameterGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.AddResponseHeaderGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.CacheRequestBodyGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.CompressResponseGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.DedupeResponseHeaderGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.DedupeResponseHeaderGatewayFilterFactory.Strategy;
 import org.springframework.cloud.gateway.filter.factory.FallbackHeadersGatewayFilterFactory;
@@ -81,6 +82,7 @@ import org.springframework.cloud.gateway.filter.factory.cache.LocalResponseCache
 import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyRequestBodyGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyResponseBodyGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.rewrite.RewriteFunction;
+import org.springframework.cloud.gateway.filter.factory.rewrite.StreamingRewriteFunction;
 import org.springframework.cloud.gateway.filter.ratelimit.RateLimiter;
 import org.springframework.cloud.gateway.route.Route;
 import org.springframework.cloud.gateway.support.config.KeyValue;
@@ -259,6 +261,17 @@ public class GatewayFilterSpec extends UriSpec {
 			.apply(c -> c.setTimeToLive(timeToLive).setSize(size)));
 	}
 
+	/**
+	 * A filter that compresses the response body with the best encoding accepted by the
+	 * client.
+	 * @param minResponseSize the minimum size of the response bodies to compress
+	 * @return a {@link GatewayFilterSpec} that can be used to apply additional filters
+	 */
+	public GatewayFilterSpec compressResponse(DataSize minResponseSize) {
+		return filter(getBean(CompressResponseGatewayFilterFactory.class)
+			.apply(c -> c.setMinResponseSize(minResponseSize)));
+	}
+
 	/**
 	 * A filter that removes duplication on a response header before it is returned to the
 	 * client by the Gateway.
@@ -406,6 +419,23 @@ public class GatewayFilterSpec extends UriSpec {
 		return filter(getBean(ModifyRequestBodyGatewayFilterFactory.class).apply(configConsumer));
 	}
 
+	/**
+	 * A filter that can be used to modify the request body element by element while it
+	 * is sent, without aggregating it.
+	 * @param inClass the class of the request body elements
+	 * @param outClass the class of the elements the Gateway will send downstream
+	 * @param rewriteFunction the {@link StreamingRewriteFunction} that transforms the
+	 * request body elements
+	 * @param <T> the original request body element class
+	 * @param <R> the new request body element class
+	 * @return a {@link GatewayFilterSpec} that can be used to apply additional filters
+	 */
+	public <T, R> GatewayFilterSpec modifyRequestBodyStreaming(Class<T> inClass, Class<R> outClass,
+			StreamingRewriteFunction<T, R> rewriteFunction) {
+		return filter(getBean(ModifyRequestBodyGatewayFilterFactory.class)
+			.apply(c -> c.setStreamingRewriteFunction(inClass, outClass, rewriteFunction)));
+	}
+
 	/**
 	 * A filter that can be used to modify the response body.
 	 * @param inClass the class to conver the response body to
@@ -442,6 +472,24 @@ public class GatewayFilterSpec extends UriSpec {
 			.apply(c -> c.setRewriteFunction(inClass, outClass, rewriteFunction).setNewContentType(newContentType)));
 	}
 
+	/**
+	 * A filter that can be used to modify the response body element by element as it is
+	 * received, without aggregating it.
+	 * @param inClass the class of the response body elements
+	 * @param outClass the class of the elements the Gateway will add to the response
+	 * before it is returned to the client
+	 * @param rewriteFunction the {@link StreamingRewriteFunction} that transforms the
+	 * response body elements
+	 * @param <T> the original response body element class
+	 * @param <R> the new response body element class
+	 * @return a {@link GatewayFilterSpec} that can be used to apply additional filters
+	 */
+	public <T, R> GatewayFilterSpec modifyResponseBodyStreaming(Class<T> inClass, Class<R> outClass,
+			StreamingRewriteFunction<T, R> rewriteFunction) {
+		return filter(getBean(ModifyResponseBodyGatewayFilterFactory.class)
+			.apply(c -> c.setStreamingRewriteFunction(inClass, outClass, rewriteFunction)));
+	}
+
 	/**
 	 * A filter that can be used to modify the response body using custom spec.
 	 * @param configConsumer response spec for response modification
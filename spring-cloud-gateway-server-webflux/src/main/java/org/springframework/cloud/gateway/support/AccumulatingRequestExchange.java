@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+
+/**
+ * A {@link ServerWebExchange} that accumulates the changes of filters to its request, so
+ * that the filters of a route build as few requests as possible. Every change returns a
+ * new exchange that the filter passes down the chain, while the exchange it was made on
+ * is left as it was, so that a filter chain subscribed again, such as by the retry
+ * filter, starts from the request it received. Header changes are applied together when
+ * the request is read, at the latest by the routing filter, or with the next path
+ * change.
+ */
+public final class AccumulatingRequestExchange extends ServerWebExchangeDecorator {
+
+	private final ServerHttpRequest request;
+
+	private final @Nullable HeaderChange headerChanges;
+
+	private volatile @Nullable ServerHttpRequest mutatedRequest;
+
+	private AccumulatingRequestExchange(ServerWebExchange delegate, ServerHttpRequest request,
+			@Nullable HeaderChange headerChanges) {
+		super(delegate);
+		this.request = request;
+		this.headerChanges = headerChanges;
+	}
+
+	/**
+	 * @param exchange the exchange of the filter
+	 * @return the exchange itself if it already accumulates request changes, or an
+	 * exchange that does and delegates to it
+	 */
+	public static AccumulatingRequestExchange from(ServerWebExchange exchange) {
+		if (exchange instanceof AccumulatingRequestExchange accumulatingExchange) {
+			return accumulatingExchange;
+		}
+		return new AccumulatingRequestExchange(exchange, exchange.getRequest(), null);
+	}
+
+	/**
+	 * Adds a change to the headers of the request, applied when the request is read or
+	 * its path is changed.
+	 * @param headersConsumer the change to the headers
+	 * @return the exchange with the change, to pass down the chain
+	 */
+	public AccumulatingRequestExchange mutateHeaders(Consumer<HttpHeaders> headersConsumer) {
+		ServerHttpRequest mutatedRequest = this.mutatedRequest;
+		if (mutatedRequest != null) {
+			// the changes so far were already applied
+			return new AccumulatingRequestExchange(getDelegate(), mutatedRequest,
+					new HeaderChange(headersConsumer, null));
+		}
+		return new AccumulatingRequestExchange(getDelegate(), request,
+				new HeaderChange(headersConsumer, headerChanges));
+	}
+
+	/**
+	 * Changes the path of the request, together with the pending header changes.
+	 * @param path the new raw path
+	 * @return the exchange with the new path, to pass down the chain
+	 */
+	public AccumulatingRequestExchange mutatePath(String path) {
+		ServerHttpRequest.Builder builder = request.mutate().path(path);
+		applyHeaderChanges(builder);
+		return new AccumulatingRequestExchange(getDelegate(), builder.build(), null);
+	}
+
+	/**
+	 * @return the URI of the request, which header changes do not affect, without
+	 * applying the pending header changes
+	 */
+	public URI getRequestURI() {
+		return request.getURI();
+	}
+
+	@Override
+	public ServerHttpRequest getRequest() {
+		if (headerChanges == null) {
+			return request;
+		}
+		ServerHttpRequest mutatedRequest = this.mutatedRequest;
+		if (mutatedRequest == null) {
+			ServerHttpRequest.Builder builder = request.mutate();
+			applyHeaderChanges(builder);
+			mutatedRequest = builder.build();
+			this.mutatedRequest = mutatedRequest;
+		}
+		return mutatedRequest;
+	}
+
+	@Override
+	public ServerWebExchange.Builder mutate() {
+		return getDelegate().mutate().request(getRequest());
+	}
+
+	private void applyHeaderChanges(ServerHttpRequest.Builder builder) {
+		if (headerChanges == null) {
+			return;
+		}
+		Deque<Consumer<HttpHeaders>> changes = new ArrayDeque<>();
+		for (HeaderChange change = headerChanges; change != null; change = change.previous()) {
+			changes.addFirst(change.consumer());
+		}
+		builder.headers(headers -> changes.forEach(change -> change.accept(headers)));
+	}
+
+	/**
+	 * A change to the headers of the request, linked to the changes made before it, so
+	 * that exchanges share the changes they have in common.
+	 */
+	private record HeaderChange(Consumer<HttpHeaders> consumer, @Nullable HeaderChange previous) {
+	}
+
+}
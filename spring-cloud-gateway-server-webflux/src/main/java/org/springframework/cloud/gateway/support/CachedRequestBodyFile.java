@@ -0,0 +1,91 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * A request body cached in a temporary file, because it was larger than the memory
+ * threshold of the {@link RequestBodyCachePolicy}. It is put in the
+ * {@link ServerWebExchangeUtils#CACHED_REQUEST_BODY_ATTR} attribute instead of a
+ * {@link DataBuffer}, and deleted when the cached body is cleared.
+ */
+public final class CachedRequestBodyFile {
+
+	private static final Log log = LogFactory.getLog(CachedRequestBodyFile.class);
+
+	private static final int BUFFER_SIZE = 16 * 1024;
+
+	private final Path path;
+
+	private final long size;
+
+	CachedRequestBodyFile(Path path, long size) {
+		this.path = path;
+		this.size = size;
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * Reads the body from the file, each time it is subscribed to. The file is read on
+	 * the bounded elastic scheduler, one buffer per request of the subscriber.
+	 * @param bufferFactory the factory of the buffers the body is read into
+	 * @return the body
+	 */
+	public Flux<DataBuffer> read(DataBufferFactory bufferFactory) {
+		return DataBufferUtils
+			.readByteChannel(() -> FileChannel.open(path, StandardOpenOption.READ), bufferFactory, BUFFER_SIZE)
+			.subscribeOn(Schedulers.boundedElastic());
+	}
+
+	public void delete() {
+		try {
+			if (Files.deleteIfExists(path) && log.isTraceEnabled()) {
+				log.trace("deleted cached body file " + path);
+			}
+		}
+		catch (IOException e) {
+			log.warn("Unable to delete cached body file " + path, e);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "CachedRequestBodyFile{path=" + path + ", size=" + size + "}";
+	}
+
+}
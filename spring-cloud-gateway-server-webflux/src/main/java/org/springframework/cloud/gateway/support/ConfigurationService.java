@@ -39,6 +39,8 @@ import org.springframework.context.ApplicationEvent;
 import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.ApplicationEventPublisherAware;
 import org.springframework.core.convert.ConversionService;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.util.Assert;
 import org.springframework.validation.Validator;
@@ -69,6 +71,14 @@ public class ConfigurationService implements ApplicationEventPublisherAware {
 		this.validator = validator;
 	}
 
+	/**
+	 * Sets the compiler mode of the SpEL expressions in shortcut arguments.
+	 * @param compilerMode the compiler mode
+	 */
+	public void setSpelCompilerMode(SpelCompilerMode compilerMode) {
+		this.parser = new SpelExpressionParser(new SpelParserConfiguration(compilerMode, null));
+	}
+
 	public ApplicationEventPublisher getPublisher() {
 		return this.publisher;
 	}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * A template with {@code {variable}} placeholders, such as {@code /foo/{segment}}, that
+ * is parsed once and expanded with the URI template variables of an exchange, as
+ * {@link ServerWebExchangeUtils#expand(ServerWebExchange, String)} does. A template is
+ * expanded as the path of {@code UriComponentsBuilder.fromPath(template)}: consecutive
+ * slashes of the template are collapsed, and the name of a variable ends at the first
+ * {@code :}, so that {@code {id:\d+}} is expanded as {@code {id}}.
+ */
+public final class ExpandableTemplate {
+
+	private static final Pattern NAMES_PATTERN = Pattern.compile("\\{([^/]+?)\\}");
+
+	private static final String[] NO_NAMES = new String[0];
+
+	private final String template;
+
+	/**
+	 * The text before each variable, then the text after the last variable.
+	 */
+	private final String[] literals;
+
+	private final String[] names;
+
+	private final int literalsLength;
+
+	private ExpandableTemplate(String template, String[] literals, String[] names) {
+		this.template = template;
+		this.literals = literals;
+		this.names = names;
+		int literalsLength = 0;
+		for (String literal : literals) {
+			literalsLength += literal.length();
+		}
+		this.literalsLength = literalsLength;
+	}
+
+	/**
+	 * @param template the template to parse
+	 * @return the parsed template
+	 */
+	public static ExpandableTemplate compile(String template) {
+		Objects.requireNonNull(template, "template may not be null");
+		if (template.indexOf('{') == -1) {
+			return new ExpandableTemplate(template, new String[] { template }, NO_NAMES);
+		}
+		String source = collapseSlashes(template);
+		if (source.indexOf(':') != -1) {
+			source = removeNestedBraces(source);
+		}
+		List<String> literals = new ArrayList<>();
+		List<String> names = new ArrayList<>();
+		Matcher matcher = NAMES_PATTERN.matcher(source);
+		int start = 0;
+		while (matcher.find()) {
+			literals.add(source.substring(start, matcher.start()));
+			String match = matcher.group(1);
+			int colonIndex = match.indexOf(':');
+			names.add(colonIndex != -1 ? match.substring(0, colonIndex) : match);
+			start = matcher.end();
+		}
+		literals.add(source.substring(start));
+		return new ExpandableTemplate(template, literals.toArray(new String[0]), names.toArray(NO_NAMES));
+	}
+
+	/**
+	 * @return whether the template has variables to expand
+	 */
+	public boolean hasVariables() {
+		return names.length > 0;
+	}
+
+	/**
+	 * @param exchange the exchange with the URI template variables to expand
+	 * @return the expanded template
+	 * @throws IllegalArgumentException if a variable of the template is missing
+	 */
+	public String expand(ServerWebExchange exchange) {
+		if (names.length == 0) {
+			return literals[0];
+		}
+		return expand(ServerWebExchangeUtils.getUriTemplateVariables(exchange));
+	}
+
+	/**
+	 * @param variables the variables to expand
+	 * @return the expanded template
+	 * @throws IllegalArgumentException if a variable of the template is missing
+	 */
+	public String expand(Map<String, ?> variables) {
+		if (names.length == 0) {
+			return literals[0];
+		}
+		StringBuilder expanded = new StringBuilder(literalsLength + 16 * names.length);
+		for (int i = 0; i < names.length; i++) {
+			expanded.append(literals[i]);
+			Object value = variables.get(names[i]);
+			if (value == null && !variables.containsKey(names[i])) {
+				throw new IllegalArgumentException("Map has no value for '" + names[i] + "'");
+			}
+			if (value != null) {
+				expanded.append(value);
+			}
+		}
+		return expanded.append(literals[names.length]).toString();
+	}
+
+	@Override
+	public String toString() {
+		return template;
+	}
+
+	private static String collapseSlashes(String path) {
+		int index = path.indexOf("//");
+		if (index == -1) {
+			return path;
+		}
+		StringBuilder collapsed = new StringBuilder(path);
+		while (index != -1) {
+			collapsed.deleteCharAt(index);
+			index = collapsed.indexOf("//", index);
+		}
+		return collapsed.toString();
+	}
+
+	/**
+	 * Removes the braces nested in variables, such as those of a regular expression.
+	 */
+	private static String removeNestedBraces(String source) {
+		StringBuilder sanitized = new StringBuilder(source.length());
+		int level = 0;
+		for (int i = 0; i < source.length(); i++) {
+			char c = source.charAt(i);
+			if (c == '{') {
+				level++;
+			}
+			if (c == '}') {
+				level--;
+			}
+			if (level > 1 || (level == 1 && c == '}')) {
+				continue;
+			}
+			sanitized.append(c);
+		}
+		return sanitized.toString();
+	}
+
+}
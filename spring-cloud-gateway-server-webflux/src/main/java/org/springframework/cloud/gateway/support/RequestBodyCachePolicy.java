@@ -0,0 +1,81 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.nio.file.Path;
+
+import org.jspecify.annotations.Nullable;
+
+import org.springframework.core.style.ToStringCreator;
+import org.springframework.util.Assert;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Where cached request bodies are held. Bodies up to the memory threshold are joined
+ * into a single buffer, larger bodies are written to a temporary file that is read
+ * again each time the body is replayed, and deleted when the exchange completes.
+ *
+ * @see ServerWebExchangeUtils#cacheRequestBody(org.springframework.web.server.ServerWebExchange,
+ * RequestBodyCachePolicy, java.util.function.Function)
+ */
+public final class RequestBodyCachePolicy {
+
+	/**
+	 * Holds request bodies in memory whatever their size.
+	 */
+	public static final RequestBodyCachePolicy IN_MEMORY = new RequestBodyCachePolicy(Long.MAX_VALUE, null);
+
+	private final long memoryThreshold;
+
+	private final @Nullable Path directory;
+
+	/**
+	 * @param memoryThreshold the size above which request bodies are written to a
+	 * temporary file
+	 * @param directory the directory of the temporary files, or {@code null} for the
+	 * default temporary directory
+	 */
+	public RequestBodyCachePolicy(DataSize memoryThreshold, @Nullable Path directory) {
+		this(memoryThreshold.toBytes(), directory);
+		Assert.isTrue(!memoryThreshold.isNegative(), "memoryThreshold must not be negative");
+	}
+
+	private RequestBodyCachePolicy(long memoryThreshold, @Nullable Path directory) {
+		this.memoryThreshold = memoryThreshold;
+		this.directory = directory;
+	}
+
+	public long getMemoryThreshold() {
+		return memoryThreshold;
+	}
+
+	public @Nullable Path getDirectory() {
+		return directory;
+	}
+
+	boolean isBounded() {
+		return memoryThreshold != Long.MAX_VALUE;
+	}
+
+	@Override
+	public String toString() {
+		return new ToStringCreator(this).append("memoryThreshold", memoryThreshold)
+			.append("directory", directory)
+			.toString();
+	}
+
+}
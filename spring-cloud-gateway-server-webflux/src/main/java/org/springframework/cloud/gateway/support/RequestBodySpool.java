@@ -0,0 +1,155 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import org.jspecify.annotations.Nullable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+/**
+ * Collects a request body in memory until it grows over the memory threshold of a
+ * {@link RequestBodyCachePolicy}, then writes it to a temporary file, the buffers
+ * collected so far first. File writes happen on the bounded elastic scheduler, one
+ * buffer at a time, so that at most one buffer over the threshold is held in memory.
+ */
+final class RequestBodySpool {
+
+	private static final String FILE_PREFIX = "gateway-request-body-";
+
+	private final RequestBodyCachePolicy policy;
+
+	private final DataBufferFactory bufferFactory;
+
+	private final List<DataBuffer> buffers = new ArrayList<>();
+
+	private long size;
+
+	private @Nullable Path path;
+
+	private @Nullable FileChannel channel;
+
+	private RequestBodySpool(RequestBodyCachePolicy policy, DataBufferFactory bufferFactory) {
+		this.policy = policy;
+		this.bufferFactory = bufferFactory;
+	}
+
+	/**
+	 * @param body the request body
+	 * @param policy the policy deciding where the body is held
+	 * @param bufferFactory the factory joining the buffers of a body held in memory
+	 * @return a {@link DataBuffer} or a {@link CachedRequestBodyFile}, or an empty
+	 * {@link Mono} if the body is empty
+	 */
+	static Mono<Object> cache(Flux<DataBuffer> body, RequestBodyCachePolicy policy, DataBufferFactory bufferFactory) {
+		return Mono.defer(() -> {
+			RequestBodySpool spool = new RequestBodySpool(policy, bufferFactory);
+			return body.concatMap(spool::add)
+				.then(Mono.fromCallable(spool::complete))
+				// a write may still be running, so the file is discarded after it
+				.doOnError(e -> Schedulers.boundedElastic().schedule(spool::discard))
+				.doOnCancel(() -> Schedulers.boundedElastic().schedule(spool::discard));
+		});
+	}
+
+	private Mono<Void> add(DataBuffer buffer) {
+		buffers.add(buffer);
+		size += buffer.readableByteCount();
+		if (channel == null && size <= policy.getMemoryThreshold()) {
+			return Mono.empty();
+		}
+		return Mono.<Void>fromRunnable(this::write).subscribeOn(Schedulers.boundedElastic());
+	}
+
+	private synchronized void write() {
+		try {
+			FileChannel channel = this.channel;
+			if (channel == null) {
+				Path directory = policy.getDirectory();
+				this.path = (directory != null) ? Files.createTempFile(directory, FILE_PREFIX, null)
+						: Files.createTempFile(FILE_PREFIX, null);
+				channel = FileChannel.open(this.path, StandardOpenOption.WRITE);
+				this.channel = channel;
+			}
+			for (DataBuffer buffer : buffers) {
+				try (DataBuffer.ByteBufferIterator iterator = buffer.readableByteBuffers()) {
+					while (iterator.hasNext()) {
+						ByteBuffer byteBuffer = iterator.next();
+						while (byteBuffer.hasRemaining()) {
+							channel.write(byteBuffer);
+						}
+					}
+				}
+			}
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException("Failed to write request body to a temporary file", e);
+		}
+		finally {
+			releaseBuffers();
+		}
+	}
+
+	private @Nullable Object complete() throws IOException {
+		FileChannel channel = this.channel;
+		if (channel == null) {
+			if (buffers.isEmpty()) {
+				return null;
+			}
+			DataBuffer body = bufferFactory.join(buffers);
+			buffers.clear();
+			return body;
+		}
+		channel.close();
+		return new CachedRequestBodyFile(Objects.requireNonNull(path), size);
+	}
+
+	private synchronized void discard() {
+		releaseBuffers();
+		if (channel != null) {
+			try {
+				channel.close();
+			}
+			catch (IOException ignored) {
+			}
+		}
+		if (path != null) {
+			new CachedRequestBodyFile(path, size).delete();
+		}
+	}
+
+	private void releaseBuffers() {
+		buffers.forEach(DataBufferUtils::release);
+		buffers.clear();
+	}
+
+}
@@ -51,6 +51,7 @@ import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
 import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.util.CollectionUtils;
+import org.springframework.util.ConcurrentReferenceHashMap;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
 import org.springframework.web.reactive.DispatcherHandler;
@@ -176,7 +177,9 @@ public final class ServerWebExchangeUtils {
 	/**
 	 * Cached request body key. Used when
 	 * {@link #cacheRequestBodyAndRequest(ServerWebExchange, Function)} or
-	 * {@link #cacheRequestBody(ServerWebExchange, Function)} are called.
+	 * {@link #cacheRequestBody(ServerWebExchange, Function)} are called. Holds a
+	 * {@link DataBuffer}, or a {@link CachedRequestBodyFile} if the body was larger than
+	 * the memory threshold of the {@link RequestBodyCachePolicy}.
 	 */
 	public static final String CACHED_REQUEST_BODY_ATTR = "cachedRequestBody";
 
@@ -192,6 +195,8 @@ public final class ServerWebExchangeUtils {
 
 	private static final byte[] EMPTY_BYTES = {};
 
+	private static final Map<String, ExpandableTemplate> expandableTemplates = new ConcurrentReferenceHashMap<>();
+
 	private ServerWebExchangeUtils() {
 		throw new AssertionError("Must not instantiate utility class.");
 	}
@@ -310,17 +315,19 @@ public final class ServerWebExchangeUtils {
 			return template;
 		}
 
-		Map<String, String> variables = getUriTemplateVariables(exchange);
-		return UriComponentsBuilder.fromPath(template).build().expand(variables).getPath();
+		return expandableTemplates.computeIfAbsent(template, ExpandableTemplate::compile).expand(exchange);
 	}
 
 	@SuppressWarnings("unchecked")
 	public static void putUriTemplateVariables(ServerWebExchange exchange, Map<String, String> uriVariables) {
-		if (exchange.getAttributes().containsKey(URI_TEMPLATE_VARIABLES_ATTRIBUTE)) {
-			Map<String, Object> existingVariables = (Map<String, Object>) exchange.getAttributes()
-				.get(URI_TEMPLATE_VARIABLES_ATTRIBUTE);
-			HashMap<String, Object> newVariables = new HashMap<>();
-			newVariables.putAll(existingVariables);
+		Map<String, String> existingVariables = (Map<String, String>) exchange.getAttributes()
+			.get(URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+		if (existingVariables instanceof MergedUriTemplateVariables) {
+			existingVariables.putAll(uriVariables);
+		}
+		else if (existingVariables != null) {
+			// copied once, the variables of later matches are then merged in place
+			MergedUriTemplateVariables newVariables = new MergedUriTemplateVariables(existingVariables);
 			newVariables.putAll(uriVariables);
 			exchange.getAttributes().put(URI_TEMPLATE_VARIABLES_ATTRIBUTE, newVariables);
 		}
@@ -329,8 +336,13 @@ public final class ServerWebExchangeUtils {
 		}
 	}
 
+	/**
+	 * @param exchange the exchange
+	 * @return the URI template variables of the exchange, or an empty, unmodifiable map
+	 * if there are none
+	 */
 	public static Map<String, String> getUriTemplateVariables(ServerWebExchange exchange) {
-		return exchange.getAttributeOrDefault(URI_TEMPLATE_VARIABLES_ATTRIBUTE, new HashMap<>());
+		return exchange.getAttributeOrDefault(URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.emptyMap());
 	}
 
 	/**
@@ -347,7 +359,22 @@ public final class ServerWebExchangeUtils {
 	 */
 	public static <T> Mono<T> cacheRequestBodyAndRequest(ServerWebExchange exchange,
 			Function<ServerHttpRequest, Mono<T>> function) {
-		return cacheRequestBody(exchange, true, function);
+		return cacheRequestBody(exchange, true, RequestBodyCachePolicy.IN_MEMORY, function);
+	}
+
+	/**
+	 * Caches the request body and the created {@link ServerHttpRequestDecorator} like
+	 * {@link #cacheRequestBodyAndRequest(ServerWebExchange, Function)}, holding the body
+	 * in memory or in a temporary file as decided by the given policy.
+	 * @param exchange the available ServerWebExchange.
+	 * @param policy the policy deciding where the body is held.
+	 * @param function a function that accepts the created ServerHttpRequestDecorator.
+	 * @param <T> generic type for the return {@link Mono}.
+	 * @return Mono of type T created by the function parameter.
+	 */
+	public static <T> Mono<T> cacheRequestBodyAndRequest(ServerWebExchange exchange, RequestBodyCachePolicy policy,
+			Function<ServerHttpRequest, Mono<T>> function) {
+		return cacheRequestBody(exchange, true, policy, function);
 	}
 
 	/**
@@ -361,7 +388,21 @@ public final class ServerWebExchangeUtils {
 	 */
 	public static <T> Mono<T> cacheRequestBody(ServerWebExchange exchange,
 			Function<ServerHttpRequest, Mono<T>> function) {
-		return cacheRequestBody(exchange, false, function);
+		return cacheRequestBody(exchange, false, RequestBodyCachePolicy.IN_MEMORY, function);
+	}
+
+	/**
+	 * Caches the request body like {@link #cacheRequestBody(ServerWebExchange, Function)},
+	 * holding it in memory or in a temporary file as decided by the given policy.
+	 * @param exchange the available ServerWebExchange.
+	 * @param policy the policy deciding where the body is held.
+	 * @param function a function that accepts the created ServerHttpRequestDecorator.
+	 * @param <T> generic type for the return {@link Mono}.
+	 * @return Mono of type T created by the function parameter.
+	 */
+	public static <T> Mono<T> cacheRequestBody(ServerWebExchange exchange, RequestBodyCachePolicy policy,
+			Function<ServerHttpRequest, Mono<T>> function) {
+		return cacheRequestBody(exchange, false, policy, function);
 	}
 
 	/**
@@ -373,16 +414,17 @@ public final class ServerWebExchangeUtils {
 	 * @param exchange the available ServerWebExchange.
 	 * @param cacheDecoratedRequest if true, the ServerHttpRequestDecorator will be
 	 * cached.
+	 * @param policy the policy deciding where the body is held.
 	 * @param function a function that accepts a ServerHttpRequest. It can be the created
 	 * ServerHttpRequestDecorator or the original if there is no body.
 	 * @param <T> generic type for the return {@link Mono}.
 	 * @return Mono of type T created by the function parameter.
 	 */
 	private static <T> Mono<T> cacheRequestBody(ServerWebExchange exchange, boolean cacheDecoratedRequest,
-			Function<ServerHttpRequest, Mono<T>> function) {
+			RequestBodyCachePolicy policy, Function<ServerHttpRequest, Mono<T>> function) {
 		// don't cache if body is already cached
 		Object cachedDataBuffer = exchange.getAttribute(CACHED_REQUEST_BODY_ATTR);
-		if (cachedDataBuffer instanceof DataBuffer) {
+		if (cachedDataBuffer instanceof DataBuffer || cachedDataBuffer instanceof CachedRequestBodyFile) {
 			if (log.isTraceEnabled()) {
 				log.trace("body already in exchange attribute, short circuiting");
 			}
@@ -390,10 +432,13 @@ public final class ServerWebExchangeUtils {
 		}
 		ServerHttpResponse response = exchange.getResponse();
 		DataBufferFactory factory = response.bufferFactory();
-		// Join all the DataBuffers so we have a single DataBuffer for the body
-		return DataBufferUtils.join(exchange.getRequest().getBody())
-			.defaultIfEmpty(factory.wrap(EMPTY_BYTES))
-			.map(dataBuffer -> decorate(exchange, dataBuffer, cacheDecoratedRequest))
+		// Join all the DataBuffers so we have a single DataBuffer for the body, unless
+		// the body is larger than the memory threshold
+		Mono<Object> cachedBody = policy.isBounded()
+				? RequestBodySpool.cache(exchange.getRequest().getBody(), policy, factory)
+				: DataBufferUtils.join(exchange.getRequest().getBody()).cast(Object.class);
+		return cachedBody.defaultIfEmpty(factory.wrap(EMPTY_BYTES))
+			.map(body -> decorate(exchange, body, cacheDecoratedRequest))
 			.switchIfEmpty(Mono.just(exchange.getRequest()))
 			.flatMap(function);
 	}
@@ -405,7 +450,10 @@ public final class ServerWebExchangeUtils {
 	 */
 	public static void clearCachedRequestBody(ServerWebExchange exchange) {
 		Object attribute = exchange.getAttributes().remove(CACHED_REQUEST_BODY_ATTR);
-		if (attribute != null && attribute instanceof PooledDataBuffer) {
+		if (attribute instanceof CachedRequestBodyFile file) {
+			file.delete();
+		}
+		else if (attribute != null && attribute instanceof PooledDataBuffer) {
 			PooledDataBuffer dataBuffer = (PooledDataBuffer) attribute;
 			if (dataBuffer.isAllocated()) {
 				if (log.isTraceEnabled()) {
@@ -419,8 +467,12 @@ public final class ServerWebExchangeUtils {
 		}
 	}
 
-	private static ServerHttpRequest decorate(ServerWebExchange exchange, DataBuffer dataBuffer,
+	private static ServerHttpRequest decorate(ServerWebExchange exchange, Object body,
 			boolean cacheDecoratedRequest) {
+		if (body instanceof CachedRequestBodyFile file) {
+			return decorate(exchange, file, cacheDecoratedRequest);
+		}
+		DataBuffer dataBuffer = (DataBuffer) body;
 		if (dataBuffer.readableByteCount() > 0) {
 			if (log.isTraceEnabled()) {
 				log.trace("retaining body in exchange attribute");
@@ -462,6 +514,33 @@ public final class ServerWebExchangeUtils {
 		return decorator;
 	}
 
+	private static ServerHttpRequest decorate(ServerWebExchange exchange, CachedRequestBodyFile file,
+			boolean cacheDecoratedRequest) {
+		if (log.isTraceEnabled()) {
+			log.trace("retaining body in " + file);
+		}
+		exchange.getAttributes().put(CACHED_REQUEST_BODY_ATTR, file);
+
+		DataBufferFactory factory = exchange.getResponse().bufferFactory();
+		ServerHttpRequest decorator = new ServerHttpRequestDecorator(exchange.getRequest()) {
+			@Override
+			public Flux<DataBuffer> getBody() {
+				return Flux.defer(() -> {
+					if (exchange.getAttribute(CACHED_REQUEST_BODY_ATTR) == null) {
+						// probably == downstream closed
+						return Flux.empty();
+					}
+					// read again for each subscriber, such as a retry or a fallback
+					return file.read(factory);
+				});
+			}
+		};
+		if (cacheDecoratedRequest) {
+			exchange.getAttributes().put(CACHED_SERVER_HTTP_REQUEST_DECORATOR_ATTR, decorator);
+		}
+		return decorator;
+	}
+
 	/**
 	 * One place to handle forwarding using DispatcherHandler. Allows for common code to
 	 * be reused.
@@ -481,4 +560,15 @@ public final class ServerWebExchangeUtils {
 		return handler.handle(exchange);
 	}
 
+	/**
+	 * URI template variables merged from several matches, owned by the exchange.
+	 */
+	private static final class MergedUriTemplateVariables extends HashMap<String, String> {
+
+		MergedUriTemplateVariables(Map<String, String> variables) {
+			super(variables);
+		}
+
+	}
+
 }
@@ -40,7 +40,6 @@ import org.springframework.expression.TypeComparator;
 import org.springframework.expression.TypeConverter;
 import org.springframework.expression.TypeLocator;
 import org.springframework.expression.TypedValue;
-import org.springframework.expression.common.TemplateParserContext;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 import org.springframework.expression.spel.support.ReflectivePropertyAccessor;
 import org.springframework.expression.spel.support.SimpleEvaluationContext;
@@ -73,9 +72,8 @@ public interface ShortcutConfigurable {
 		}
 		if (rawValue != null && rawValue.startsWith("#{") && entryValue.endsWith("}")) {
 			// assume it's spel
-			GatewayEvaluationContext context = new GatewayEvaluationContext(beanFactory);
-			Expression expression = parser.parseExpression(entryValue, new TemplateParserContext());
-			value = expression.getValue(context);
+			Expression expression = ShortcutExpressionCache.getExpression(parser, entryValue);
+			value = expression.getValue(ShortcutExpressionCache.getEvaluationContext(beanFactory));
 		}
 		else {
 			value = entryValue;
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.util.Map;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.cloud.gateway.support.ShortcutConfigurable.GatewayEvaluationContext;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.Expression;
+import org.springframework.expression.common.TemplateParserContext;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.util.ConcurrentReferenceHashMap;
+
+/**
+ * Caches the SpEL expressions of shortcut arguments, so that an expression is parsed once
+ * per parser rather than every time routes are built, and the evaluation contexts that
+ * can be shared, one per {@link BeanFactory}.
+ */
+final class ShortcutExpressionCache {
+
+	private static final TemplateParserContext TEMPLATE_PARSER_CONTEXT = new TemplateParserContext();
+
+	private static final Map<ExpressionKey, Expression> expressions = new ConcurrentReferenceHashMap<>();
+
+	private static final Map<BeanFactory, GatewayEvaluationContext> contexts = new ConcurrentReferenceHashMap<>();
+
+	private ShortcutExpressionCache() {
+	}
+
+	static Expression getExpression(SpelExpressionParser parser, String expressionString) {
+		return expressions.computeIfAbsent(new ExpressionKey(parser, expressionString),
+				key -> parser.parseExpression(expressionString, TEMPLATE_PARSER_CONTEXT));
+	}
+
+	static EvaluationContext getEvaluationContext(BeanFactory beanFactory) {
+		GatewayEvaluationContext context = contexts.get(beanFactory);
+		if (context == null) {
+			context = new GatewayEvaluationContext(beanFactory);
+			// a context that expressions can assign variables to is not shared
+			if (!context.isAssignmentEnabled()) {
+				contexts.put(beanFactory, context);
+			}
+		}
+		return context;
+	}
+
+	private record ExpressionKey(SpelExpressionParser parser, String expressionString) {
+	}
+
+}
@@ -0,0 +1,46 @@
+redis.replicate_commands()
+
+-- every limit uses two keys, tokens and timestamp, and four arguments, rate,
+-- capacity, now and requested. The request is only allowed if every limit allows it,
+-- tokens are only taken from the buckets in that case.
+local count = #KEYS / 2
+
+local now = tonumber(ARGV[3]) or tonumber(redis.call('TIME')[1])
+
+local allowed = true
+local filled_tokens = {}
+
+for i = 1, count do
+  local rate = tonumber(ARGV[i * 4 - 3])
+  local capacity = tonumber(ARGV[i * 4 - 2])
+  local requested = tonumber(ARGV[i * 4])
+
+  local last_tokens = tonumber(redis.call("get", KEYS[i * 2 - 1])) or capacity
+  local last_refreshed = tonumber(redis.call("get", KEYS[i * 2])) or 0
+
+  local delta = math.max(0, now-last_refreshed)
+  filled_tokens[i] = math.min(capacity, last_tokens+(delta*rate))
+  if filled_tokens[i] < requested then
+    allowed = false
+  end
+end
+
+local result = { allowed and 1 or 0 }
+
+for i = 1, count do
+  local rate = tonumber(ARGV[i * 4 - 3])
+  local capacity = tonumber(ARGV[i * 4 - 2])
+  local requested = tonumber(ARGV[i * 4])
+
+  local ttl = math.floor(capacity / rate * 2)
+  local new_tokens = allowed and filled_tokens[i] - requested or filled_tokens[i]
+
+  if ttl > 0 then
+    redis.call("setex", KEYS[i * 2 - 1], ttl, new_tokens)
+    redis.call("setex", KEYS[i * 2], ttl, now)
+  end
+
+  result[i + 1] = new_tokens
+end
+
+return result
@@ -58,6 +58,9 @@ import org.springframework.cloud.gateway.actuate.GatewayLegacyControllerEndpoint
 import org.springframework.cloud.gateway.config.GatewayAutoConfigurationTests.CustomHttpClientFactory.CustomSslConfigurer;
 import org.springframework.cloud.gateway.config.HttpClientProperties.Pool.LeasingStrategy;
 import org.springframework.cloud.gateway.filter.factory.TokenRelayGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.rewrite.DeflateMessageBodyResolver;
+import org.springframework.cloud.gateway.filter.factory.rewrite.MessageBodyDecoder;
+import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyResponseBodyGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.headers.ForwardedHeadersFilter;
 import org.springframework.cloud.gateway.filter.headers.GRPCRequestHeadersFilter;
 import org.springframework.cloud.gateway.filter.headers.GRPCResponseHeadersFilter;
@@ -368,6 +371,22 @@ public class GatewayAutoConfigurationTests {
 			});
 	}
 
+	@Test
+	public void userDefinedMessageBodyDecoderForBuiltInEncoding() {
+		new ReactiveWebApplicationContextRunner()
+			.withConfiguration(AutoConfigurations.of(WebFluxAutoConfiguration.class, MetricsAutoConfiguration.class,
+					SimpleMetricsExportAutoConfiguration.class, GatewayAutoConfiguration.class,
+					ServerPropertiesConfig.class, CustomDeflateDecoderConfig.class))
+			.run(context -> {
+				assertThat(context).hasNotFailed()
+					.hasSingleBean(ModifyResponseBodyGatewayFilterFactory.class)
+					.hasSingleBean(DeflateMessageBodyResolver.class);
+				assertThat(context.getBeansOfType(MessageBodyDecoder.class).values())
+					.filteredOn(decoder -> "deflate".equals(decoder.encodingType()))
+					.hasSize(2);
+			});
+	}
+
 	@Configuration
 	@EnableConfigurationProperties(ServerProperties.class)
 	@AutoConfigureBefore(GatewayAutoConfiguration.class)
@@ -524,6 +543,26 @@ public class GatewayAutoConfigurationTests {
 
 	}
 
+	@Configuration
+	protected static class CustomDeflateDecoderConfig {
+
+		@Bean
+		MessageBodyDecoder customDeflateDecoder() {
+			return new MessageBodyDecoder() {
+				@Override
+				public byte[] decode(byte[] encoded) {
+					return encoded;
+				}
+
+				@Override
+				public String encodingType() {
+					return "deflate";
+				}
+			};
+		}
+
+	}
+
 	@Configuration
 	protected static class TestReactiveOAuth2AuthorizedClientManagerConfig {
 
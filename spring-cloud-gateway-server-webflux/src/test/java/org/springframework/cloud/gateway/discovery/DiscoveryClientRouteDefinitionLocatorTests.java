@@ -102,6 +102,36 @@ public class DiscoveryClientRouteDefinitionLocatorTests {
 			.containsEntry(REPLACEMENT_KEY, "/${remaining}");
 	}
 
+	@Test
+	public void definitionsOfUnchangedServicesAreReused() {
+		ReactiveDiscoveryClient discoveryClient = mock(ReactiveDiscoveryClient.class);
+		when(discoveryClient.getServices()).thenReturn(Flux.just("service1", "service2"));
+		when(discoveryClient.getInstances("service1"))
+			.thenReturn(Flux.just(new DefaultServiceInstance("s1", "service1", "localhost", 8001, false)));
+		when(discoveryClient.getInstances("service2")).thenReturn(
+				Flux.just(new DefaultServiceInstance("s2", "service2", "localhost", 8002, false)),
+				Flux.just(new DefaultServiceInstance("s2", "service2", "localhost", 8003, false)));
+		DiscoveryLocatorProperties properties = new DiscoveryLocatorProperties();
+		properties.setPredicates(GatewayDiscoveryClientAutoConfiguration.initPredicates());
+		properties.setFilters(GatewayDiscoveryClientAutoConfiguration.initFilters());
+		DiscoveryClientRouteDefinitionLocator locator = new DiscoveryClientRouteDefinitionLocator(discoveryClient,
+				properties);
+
+		List<RouteDefinition> first = locator.getRouteDefinitions().collectList().block();
+		List<RouteDefinition> second = locator.getRouteDefinitions().collectList().block();
+
+		assertThat(second.get(0)).isSameAs(first.get(0));
+		assertThat(second.get(1)).isNotSameAs(first.get(1));
+		assertThat(second.get(1).getMetadata()).isEqualTo(first.get(1).getMetadata());
+
+		properties.setFilters(List.of());
+		List<RouteDefinition> third = locator.getRouteDefinitions().collectList().block();
+
+		assertThat(third.get(0)).isNotSameAs(second.get(0));
+		assertThat(third.get(0).getFilters()).isEmpty();
+		assertThat(third.get(0).getPredicates()).isEqualTo(first.get(0).getPredicates());
+	}
+
 	@SpringBootConfiguration
 	@EnableAutoConfiguration
 	protected static class Config {
@@ -17,11 +17,13 @@
 package org.springframework.cloud.gateway.filter;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
 
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.event.PredicateArgsEvent;
 import org.springframework.cloud.gateway.event.RouteDeletedEvent;
@@ -35,6 +37,9 @@ import org.springframework.web.server.WebFilterChain;
 import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class WeightCalculatorWebFilterTests {
@@ -130,6 +135,118 @@ public class WeightCalculatorWebFilterTests {
 		assertThat(groupa.weights).doesNotContainKey("route3");
 	}
 
+	@Test
+	public void weightsAreOnlyCalculatedForRequestedGroups() {
+		WeightCalculatorWebFilter filter = createFilter();
+		filter.addWeightConfig(new WeightConfig("groupa", "route1", 1));
+		filter.addWeightConfig(new WeightConfig("groupb", "route2", 1));
+
+		Supplier<Double> random = mock(Supplier.class);
+		when(random.get()).thenReturn(0.5);
+		filter.setRandomSupplier(random);
+
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost").build());
+
+		filter.filter(exchange, mock(WebFilterChain.class));
+		verify(random, never()).get();
+
+		Map<String, String> weights = WeightCalculatorWebFilter.getWeights(exchange);
+		assertThat(weights.get("groupb")).isEqualTo("route2");
+		assertThat(weights.get("groupb")).isEqualTo("route2");
+		assertThat(weights).doesNotContainKey("groupc");
+		verify(random, times(1)).get();
+	}
+
+	@Test
+	public void zeroWeightRoutesAreSkipped() {
+		WeightCalculatorWebFilter filter = createFilter();
+		filter.addWeightConfig(new WeightConfig("groupa", "route1", 0));
+		filter.addWeightConfig(new WeightConfig("groupa", "route2", 1));
+		filter.addWeightConfig(new WeightConfig("groupa", "route3", 0));
+		filter.addWeightConfig(new WeightConfig("groupa", "route4", 1));
+
+		GroupWeightConfig config = filter.getGroupWeights().get("groupa");
+		assertThat(config.rangeIndexOf(0.0)).isEqualTo(1);
+		assertThat(config.rangeIndexOf(0.49)).isEqualTo(1);
+		assertThat(config.rangeIndexOf(0.5)).isEqualTo(3);
+		assertThat(config.rangeIndexOf(0.99)).isEqualTo(3);
+		assertThat(config.rangeIndexOf(1.0)).isEqualTo(-1);
+		assertThat(config.rangeIndexOf(-0.1)).isEqualTo(-1);
+	}
+
+	@Test
+	public void hashKeyAlwaysChoosesSameRoute() {
+		WeightCalculatorWebFilter filter = createFilter();
+		filter.addWeightConfig(new WeightConfig("groupa", "route1", 1));
+		filter.addWeightConfig(new WeightConfig("groupa", "route2", 3));
+		filter.setHashKeyResolver(exchange -> Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst("X-User")));
+		WebFilterChain filterChain = exchange -> Mono.empty();
+
+		Map<String, Integer> counts = new HashMap<>();
+		for (int i = 0; i < 2000; i++) {
+			String chosen = null;
+			for (int j = 0; j < 3; j++) {
+				MockServerWebExchange exchange = MockServerWebExchange
+					.from(MockServerHttpRequest.get("http://localhost").header("X-User", "user" + i).build());
+				filter.filter(exchange, filterChain).block();
+				String routeId = WeightCalculatorWebFilter.getWeights(exchange).get("groupa");
+				if (chosen == null) {
+					chosen = routeId;
+				}
+				assertThat(routeId).isEqualTo(chosen);
+			}
+			counts.merge(chosen, 1, Integer::sum);
+		}
+
+		assertThat(counts.get("route1")).isBetween(400, 600);
+		assertThat(counts.get("route2")).isBetween(1400, 1600);
+	}
+
+	@Test
+	public void weightChangeOnlyMovesProportionalShareOfKeys() {
+		Map<String, Integer> weights = new LinkedHashMap<>();
+		weights.put("route1", 1);
+		weights.put("route2", 1);
+		weights.put("route3", 1);
+		WeightedMaglevTable before = WeightedMaglevTable.build(weights, WeightedMaglevTable.DEFAULT_TABLE_SIZE);
+		weights.put("route4", 1);
+		WeightedMaglevTable after = WeightedMaglevTable.build(weights, WeightedMaglevTable.DEFAULT_TABLE_SIZE);
+
+		int moved = 0;
+		int movedToNewRoute = 0;
+		for (int i = 0; i < 10000; i++) {
+			String key = "key" + i;
+			String previous = before.lookup(key);
+			String current = after.lookup(key);
+			if (!previous.equals(current)) {
+				moved++;
+				if (current.equals("route4")) {
+					movedToNewRoute++;
+				}
+			}
+		}
+
+		// ideally a quarter of the keys move, all of them to the new route
+		assertThat(moved).isBetween(2000, 3000);
+		assertThat(movedToNewRoute).isGreaterThan((int) (moved * 0.9));
+	}
+
+	@Test
+	public void missingHashKeyFallsBackToRandom() {
+		WeightCalculatorWebFilter filter = createFilter();
+		filter.addWeightConfig(new WeightConfig("groupa", "route1", 1));
+		filter.addWeightConfig(new WeightConfig("groupa", "route2", 1));
+		filter.setHashKeyResolver(exchange -> Mono.empty());
+		filter.setRandomSupplier(() -> 0.75);
+
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost").build());
+		filter.filter(exchange, ex -> Mono.empty()).block();
+
+		assertThat(WeightCalculatorWebFilter.getWeights(exchange)).containsEntry("groupa", "route2");
+	}
+
 	@Test
 	public void receivesPredicateArgsEvent() {
 		TestWeightCalculatorWebFilter filter = new TestWeightCalculatorWebFilter();
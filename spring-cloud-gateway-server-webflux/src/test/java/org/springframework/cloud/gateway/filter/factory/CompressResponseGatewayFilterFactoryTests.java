@@ -0,0 +1,245 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.rewrite.DeflateMessageBodyResolver;
+import org.springframework.cloud.gateway.filter.factory.rewrite.GzipMessageBodyResolver;
+import org.springframework.cloud.gateway.filter.factory.rewrite.MessageBodyEncoder;
+import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyResponseBodyGatewayFilterFactory;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.support.DefaultServerCodecConfigurer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.FileCopyUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
+
+public class CompressResponseGatewayFilterFactoryTests {
+
+	private static final String BODY = "{\"message\":\"" + "hello ".repeat(1000) + "\"}";
+
+	private final GzipMessageBodyResolver gzip = new GzipMessageBodyResolver();
+
+	private final DeflateMessageBodyResolver deflate = new DeflateMessageBodyResolver();
+
+	private final List<String> recorded = new ArrayList<>();
+
+	@Test
+	public void compressesResponsesAboveTheThreshold() throws IOException {
+		MockServerWebExchange exchange = filter(new CompressResponseGatewayFilterFactory.Config(), "gzip, deflate",
+				MediaType.APPLICATION_JSON, -1, chunks(BODY));
+
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.getContentLength()).isEqualTo(-1);
+		assertThat(headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+		byte[] body = body(exchange);
+		assertThat(body.length).isLessThan(BODY.length());
+		assertThat(new String(FileCopyUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(body))),
+				StandardCharsets.UTF_8))
+			.isEqualTo(BODY);
+		assertThat(recorded).containsExactly("route1 gzip " + BODY.length() + " " + body.length);
+	}
+
+	@Test
+	public void compressesResponsesWithContentLength() {
+		MockServerWebExchange exchange = filter(new CompressResponseGatewayFilterFactory.Config(), "deflate",
+				MediaType.TEXT_HTML, BODY.length(), chunks(BODY));
+
+		assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("deflate");
+		assertThat(exchange.getResponse().getHeaders().getContentLength()).isEqualTo(-1);
+		assertThat(new String(deflate.decode(body(exchange)), StandardCharsets.UTF_8)).isEqualTo(BODY);
+	}
+
+	@Test
+	public void compressesRewrittenResponses() {
+		ModifyResponseBodyGatewayFilterFactory modifyResponseBody = new ModifyResponseBodyGatewayFilterFactory(
+				new DefaultServerCodecConfigurer().getReaders(), Set.of(), Set.of());
+		GatewayFilter rewrite = modifyResponseBody.apply(new ModifyResponseBodyGatewayFilterFactory.Config()
+			.setRewriteFunction(String.class, String.class, (webExchange, body) -> Mono.just(body + body)));
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+		exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, MediaType.APPLICATION_JSON_VALUE);
+
+		filter(new CompressResponseGatewayFilterFactory.Config(), exchange, response -> {
+			ServerWebExchange compressed = exchange.mutate().response(response).build();
+			// the rewritten body sets its own Content-Length while it is written
+			return rewrite.filter(compressed, rewritten -> {
+				ServerHttpResponse upstream = rewritten.getResponse();
+				upstream.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+				upstream.getHeaders().setContentLength(BODY.length());
+				return upstream.writeWith(chunks(BODY));
+			});
+		});
+
+		HttpHeaders headers = exchange.getResponse().getHeaders();
+		assertThat(headers.getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(headers.containsHeader(HttpHeaders.CONTENT_LENGTH)).isFalse();
+		assertThat(headers.getVary()).contains(HttpHeaders.ACCEPT_ENCODING);
+		assertThat(new String(gzip.decode(body(exchange)), StandardCharsets.UTF_8)).isEqualTo(BODY + BODY);
+	}
+
+	@Test
+	public void weakensStrongETagsOfCompressedResponses() {
+		MockServerWebExchange exchange = filterWithETag(new CompressResponseGatewayFilterFactory.Config(), "\"abc\"");
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo("W/\"abc\"");
+
+		exchange = filterWithETag(new CompressResponseGatewayFilterFactory.Config(), "W/\"abc\"");
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo("W/\"abc\"");
+
+		exchange = filterWithETag(
+				new CompressResponseGatewayFilterFactory.Config().setMinResponseSize(DataSize.ofKilobytes(10)),
+				"\"abc\"");
+		assertThat(exchange.getResponse().getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(exchange.getResponse().getHeaders().getETag()).isEqualTo("\"abc\"");
+	}
+
+	@Test
+	public void doesNotCompressResponsesBelowTheThreshold() {
+		CompressResponseGatewayFilterFactory.Config config = new CompressResponseGatewayFilterFactory.Config()
+			.setMinResponseSize(DataSize.ofKilobytes(10));
+
+		MockServerWebExchange exchange = filter(config, "gzip", MediaType.APPLICATION_JSON, -1, chunks(BODY));
+
+		assertThat(exchange.getResponse().getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(new String(body(exchange), StandardCharsets.UTF_8)).isEqualTo(BODY);
+		assertThat(recorded).isEmpty();
+	}
+
+	@Test
+	public void doesNotCompressOtherMediaTypes() {
+		MockServerWebExchange exchange = filter(new CompressResponseGatewayFilterFactory.Config(), "gzip",
+				MediaType.IMAGE_PNG, -1, chunks(BODY));
+
+		assertThat(exchange.getResponse().getHeaders().containsHeader(HttpHeaders.CONTENT_ENCODING)).isFalse();
+		assertThat(new String(body(exchange), StandardCharsets.UTF_8)).isEqualTo(BODY);
+	}
+
+	@Test
+	public void passesThroughCompressedResponses() {
+		byte[] compressed = gzip
+			.encode(DefaultDataBufferFactory.sharedInstance.wrap(BODY.getBytes(StandardCharsets.UTF_8)));
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("/").header(HttpHeaders.ACCEPT_ENCODING, "deflate"));
+
+		filter(new CompressResponseGatewayFilterFactory.Config(), exchange, response -> {
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			response.getHeaders().set(HttpHeaders.CONTENT_ENCODING, "gzip");
+			return response.writeWith(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(compressed)));
+		});
+
+		assertThat(exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+		assertThat(body(exchange)).isEqualTo(compressed);
+	}
+
+	@Test
+	public void negotiatesAcceptedEncodings() {
+		List<MessageBodyEncoder> encoders = List.of(gzip, deflate);
+
+		assertThat(CompressResponseGatewayFilterFactory.negotiate(List.of("gzip, deflate"), encoders)).isSameAs(gzip);
+		assertThat(CompressResponseGatewayFilterFactory.negotiate(List.of("GZIP;q=0, deflate;q=0.5"), encoders))
+			.isSameAs(deflate);
+		assertThat(CompressResponseGatewayFilterFactory.negotiate(List.of("br", "*;q=0.1"), encoders)).isSameAs(gzip);
+		assertThat(CompressResponseGatewayFilterFactory.negotiate(List.of("identity"), encoders)).isNull();
+		assertThat(CompressResponseGatewayFilterFactory.negotiate(List.of("*;q=0"), encoders)).isNull();
+		assertThat(CompressResponseGatewayFilterFactory.negotiate(List.of(), encoders)).isNull();
+	}
+
+	private MockServerWebExchange filter(CompressResponseGatewayFilterFactory.Config config, String acceptEncoding,
+			MediaType contentType, long contentLength, Flux<DataBuffer> body) {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("/").header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding));
+		filter(config, exchange, response -> {
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(contentType);
+			if (contentLength >= 0) {
+				response.getHeaders().setContentLength(contentLength);
+			}
+			return response.writeWith(body);
+		});
+		return exchange;
+	}
+
+	private MockServerWebExchange filterWithETag(CompressResponseGatewayFilterFactory.Config config, String etag) {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("/").header(HttpHeaders.ACCEPT_ENCODING, "gzip"));
+		filter(config, exchange, response -> {
+			response.setStatusCode(HttpStatus.OK);
+			response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+			response.getHeaders().setETag(etag);
+			return response.writeWith(chunks(BODY));
+		});
+		return exchange;
+	}
+
+	private void filter(CompressResponseGatewayFilterFactory.Config config, MockServerWebExchange exchange,
+			Function<ServerHttpResponse, Mono<Void>> handler) {
+		CompressResponseGatewayFilterFactory factory = new CompressResponseGatewayFilterFactory(Set.of(gzip, deflate));
+		factory.setMetrics(routeId -> (encoding, originalBytes, compressedBytes, encodingNanos) -> {
+			assertThat(encodingNanos).isPositive();
+			recorded.add(routeId + " " + encoding + " " + originalBytes + " " + compressedBytes);
+		});
+		config.setRouteId("route1");
+		GatewayFilter filter = factory.apply(config);
+		GatewayFilterChain chain = filtered -> handler.apply(filtered.getResponse());
+
+		filter.filter(exchange, chain).block();
+	}
+
+	private static Flux<DataBuffer> chunks(String body) {
+		byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+		List<DataBuffer> chunks = new ArrayList<>();
+		for (int offset = 0; offset < bytes.length; offset += 1000) {
+			chunks.add(DefaultDataBufferFactory.sharedInstance
+				.wrap(ByteBuffer.wrap(bytes, offset, Math.min(1000, bytes.length - offset))));
+		}
+		return Flux.fromIterable(chunks);
+	}
+
+	private static byte[] body(MockServerWebExchange exchange) {
+		DataBuffer buffer = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+		byte[] bytes = new byte[buffer.readableByteCount()];
+		buffer.read(bytes);
+		return bytes;
+	}
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.net.URI;
+import java.util.Map;
+
+import io.grpc.ManagedChannel;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class GrpcChannelRegistryTests {
+
+	private static final URI URI_1 = URI.create("https://service1:6565");
+
+	private static final URI URI_2 = URI.create("https://service2:6565");
+
+	private final GrpcChannelRegistry registry = new GrpcChannelRegistry(uri -> mock(ManagedChannel.class));
+
+	@Test
+	public void channelIsReusedForRoute() {
+		ManagedChannel channel = registry.getChannel("route1", URI_1);
+
+		assertThat(registry.getChannel("route1", URI_1)).isSameAs(channel);
+		assertThat(registry.getChannel("route2", URI_1)).isNotSameAs(channel);
+		assertThat(registry.size()).isEqualTo(2);
+	}
+
+	@Test
+	public void channelIsReplacedIfUriChanges() {
+		ManagedChannel channel = registry.getChannel("route1", URI_1);
+
+		assertThat(registry.getChannel("route1", URI_2)).isNotSameAs(channel);
+		verify(channel).shutdown();
+	}
+
+	@Test
+	public void channelsOfRemovedRoutesAreShutDown() {
+		ManagedChannel removed = registry.getChannel("route1", URI_1);
+		ManagedChannel changed = registry.getChannel("route2", URI_1);
+		ManagedChannel retained = registry.getChannel("route3", URI_1);
+
+		registry.retain(Map.of("route2", URI_2, "route3", URI_1));
+
+		verify(removed).shutdown();
+		verify(changed).shutdown();
+		verify(retained, never()).shutdown();
+		assertThat(registry.size()).isEqualTo(1);
+	}
+
+	@Test
+	public void shutdownClosesAllChannels() {
+		ManagedChannel channel = registry.getChannel("route1", URI_1);
+
+		registry.shutdown();
+
+		verify(channel).shutdown();
+		assertThat(registry.size()).isZero();
+	}
+
+}
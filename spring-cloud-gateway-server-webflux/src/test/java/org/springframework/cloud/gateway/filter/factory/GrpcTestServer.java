@@ -0,0 +1,202 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyStore;
+
+import javax.net.ssl.KeyManagerFactory;
+
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FileDescriptorSet;
+import com.google.protobuf.DescriptorProtos.MethodDescriptorProto;
+import com.google.protobuf.DescriptorProtos.ServiceDescriptorProto;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.DynamicMessage;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.netty.GrpcSslContexts;
+import io.grpc.netty.NettyServerBuilder;
+import io.grpc.protobuf.ProtoUtils;
+import io.grpc.stub.ServerCalls;
+import io.netty.handler.ssl.SslContextBuilder;
+
+import org.springframework.boot.ssl.DefaultSslBundleRegistry;
+import org.springframework.cloud.gateway.config.GrpcSslConfigurer;
+import org.springframework.cloud.gateway.config.HttpClientProperties;
+import org.springframework.core.io.DefaultResourceLoader;
+
+/**
+ * A local TLS gRPC server for the JSON to gRPC filter, with a {@code HelloService}
+ * described by a descriptor set written to a temporary file. {@code hello} is unary,
+ * {@code helloStream} streams three greetings and {@code hang} never responds.
+ */
+class GrpcTestServer implements AutoCloseable {
+
+	static final String SERVICE = "HelloService";
+
+	static final String HELLO = "hello";
+
+	static final String HELLO_STREAM = "helloStream";
+
+	static final String HANG = "hang";
+
+	private final Path protoDescriptor;
+
+	private final Server server;
+
+	GrpcTestServer() throws IOException, Descriptors.DescriptorValidationException {
+		FileDescriptorProto fileProto = fileProto();
+		this.protoDescriptor = Files.createTempFile("hello", ".pb");
+		try (OutputStream outputStream = Files.newOutputStream(protoDescriptor)) {
+			FileDescriptorSet.newBuilder().addFile(fileProto).build().writeTo(outputStream);
+		}
+
+		Descriptors.ServiceDescriptor service = Descriptors.FileDescriptor
+			.buildFrom(fileProto, new Descriptors.FileDescriptor[0])
+			.findServiceByName(SERVICE);
+		Descriptors.MethodDescriptor hello = service.findMethodByName(HELLO);
+		Descriptors.MethodDescriptor helloStream = service.findMethodByName(HELLO_STREAM);
+		Descriptors.MethodDescriptor hang = service.findMethodByName(HANG);
+		Descriptors.FieldDescriptor name = hello.getInputType().findFieldByName("name");
+		Descriptors.FieldDescriptor greeting = hello.getOutputType().findFieldByName("greeting");
+
+		ServerServiceDefinition definition = ServerServiceDefinition.builder(service.getFullName())
+			.addMethod(methodDescriptor(hello, MethodDescriptor.MethodType.UNARY),
+					ServerCalls.asyncUnaryCall((request, responseObserver) -> {
+						responseObserver.onNext(DynamicMessage.newBuilder(hello.getOutputType())
+							.setField(greeting, "Hello " + request.getField(name))
+							.build());
+						responseObserver.onCompleted();
+					}))
+			.addMethod(methodDescriptor(helloStream, MethodDescriptor.MethodType.SERVER_STREAMING),
+					ServerCalls.asyncServerStreamingCall((request, responseObserver) -> {
+						for (int i = 1; i <= 3; i++) {
+							responseObserver.onNext(DynamicMessage.newBuilder(hello.getOutputType())
+								.setField(greeting, "Hello " + request.getField(name) + " " + i)
+								.build());
+						}
+						responseObserver.onCompleted();
+					}))
+			.addMethod(methodDescriptor(hang, MethodDescriptor.MethodType.UNARY),
+					ServerCalls.asyncUnaryCall((request, responseObserver) -> {
+						// never responds, the call is cancelled by its deadline
+					}))
+			.build();
+
+		this.server = NettyServerBuilder.forPort(0)
+			.sslContext(GrpcSslContexts.configure(SslContextBuilder.forServer(keyManagerFactory())).build())
+			.addService(definition)
+			.build()
+			.start();
+	}
+
+	URI uri() {
+		return URI.create("https://localhost:" + server.getPort());
+	}
+
+	String protoDescriptor() {
+		return protoDescriptor.toUri().toString();
+	}
+
+	JsonToGrpcGatewayFilterFactory filterFactory() {
+		HttpClientProperties.Ssl ssl = new HttpClientProperties.Ssl();
+		ssl.setUseInsecureTrustManager(true);
+		return new JsonToGrpcGatewayFilterFactory(new GrpcSslConfigurer(ssl, new DefaultSslBundleRegistry()),
+				new DefaultResourceLoader());
+	}
+
+	JsonToGrpcGatewayFilterFactory.Config config(String method) {
+		return new JsonToGrpcGatewayFilterFactory.Config().setService(SERVICE)
+			.setMethod(method)
+			.setProtoDescriptor(protoDescriptor());
+	}
+
+	@Override
+	public void close() throws IOException {
+		server.shutdownNow();
+		Files.deleteIfExists(protoDescriptor);
+	}
+
+	private static MethodDescriptor<DynamicMessage, DynamicMessage> methodDescriptor(
+			Descriptors.MethodDescriptor method, MethodDescriptor.MethodType type) {
+		return MethodDescriptor.<DynamicMessage, DynamicMessage>newBuilder()
+			.setType(type)
+			.setFullMethodName(MethodDescriptor.generateFullMethodName(method.getService().getFullName(),
+					method.getName()))
+			.setRequestMarshaller(ProtoUtils.marshaller(DynamicMessage.getDefaultInstance(method.getInputType())))
+			.setResponseMarshaller(ProtoUtils.marshaller(DynamicMessage.getDefaultInstance(method.getOutputType())))
+			.build();
+	}
+
+	private static FileDescriptorProto fileProto() {
+		return FileDescriptorProto.newBuilder()
+			.setName("hello.proto")
+			.setPackage("hello")
+			.setSyntax("proto3")
+			.addMessageType(message("HelloRequest", "name"))
+			.addMessageType(message("HelloResponse", "greeting"))
+			.addService(ServiceDescriptorProto.newBuilder()
+				.setName(SERVICE)
+				.addMethod(method(HELLO))
+				.addMethod(method(HELLO_STREAM).setServerStreaming(true))
+				.addMethod(method(HANG)))
+			.build();
+	}
+
+	private static MethodDescriptorProto.Builder method(String name) {
+		return MethodDescriptorProto.newBuilder()
+			.setName(name)
+			.setInputType(".hello.HelloRequest")
+			.setOutputType(".hello.HelloResponse");
+	}
+
+	private static DescriptorProto message(String name, String field) {
+		return DescriptorProto.newBuilder()
+			.setName(name)
+			.addField(FieldDescriptorProto.newBuilder()
+				.setName(field)
+				.setNumber(1)
+				.setType(FieldDescriptorProto.Type.TYPE_STRING)
+				.setLabel(FieldDescriptorProto.Label.LABEL_OPTIONAL))
+			.build();
+	}
+
+	private static KeyManagerFactory keyManagerFactory() {
+		try (InputStream inputStream = new DefaultResourceLoader().getResource("classpath:scg-keystore.p12")
+			.getInputStream()) {
+			KeyStore keyStore = KeyStore.getInstance("PKCS12");
+			keyStore.load(inputStream, "scg1234".toCharArray());
+			KeyManagerFactory keyManagerFactory = KeyManagerFactory
+				.getInstance(KeyManagerFactory.getDefaultAlgorithm());
+			keyManagerFactory.init(keyStore, "scg1234".toCharArray());
+			return keyManagerFactory;
+		}
+		catch (Exception e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+/**
+ * Throughput of the JSON to gRPC filter against a local gRPC server, with the channel and
+ * descriptors of the route reused, compared to resolving them on every request.
+ */
+@State(Scope.Benchmark)
+public class JsonToGrpcGatewayFilterFactoryBenchMarkTests {
+
+	private GrpcTestServer server;
+
+	private JsonToGrpcGatewayFilterFactory filterFactory;
+
+	private GatewayFilter filter;
+
+	private Route route;
+
+	@Setup
+	public void setup() throws Exception {
+		server = new GrpcTestServer();
+		filterFactory = server.filterFactory();
+		filter = filterFactory.apply(server.config(GrpcTestServer.HELLO));
+		route = Route.async().id("grpc").predicate(ex -> true).uri(server.uri()).build();
+	}
+
+	@TearDown
+	public void tearDown() throws Exception {
+		filterFactory.destroy();
+		server.close();
+	}
+
+	@Benchmark
+	@Threads(4)
+	@Fork(1)
+	@BenchmarkMode(Mode.Throughput)
+	@Warmup(iterations = 2, time = 3)
+	@Measurement(iterations = 5, time = 3)
+	public String reusedChannel() {
+		return call(filter);
+	}
+
+	@Benchmark
+	@Threads(4)
+	@Fork(1)
+	@BenchmarkMode(Mode.Throughput)
+	@Warmup(iterations = 2, time = 3)
+	@Measurement(iterations = 5, time = 3)
+	public String channelPerRequest() {
+		JsonToGrpcGatewayFilterFactory perRequestFactory = server.filterFactory();
+		try {
+			return call(perRequestFactory.apply(server.config(GrpcTestServer.HELLO)));
+		}
+		finally {
+			perRequestFactory.destroy();
+		}
+	}
+
+	private String call(GatewayFilter filter) {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.post("http://localhost/hello").body("{\"name\":\"benchmark\"}"));
+		exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+		filter.filter(exchange, ex -> Mono.empty()).block();
+		return exchange.getResponse().getBodyAsString().block();
+	}
+
+	public static void main(String[] args) throws Exception {
+		org.openjdk.jmh.Main.main(args);
+	}
+
+}
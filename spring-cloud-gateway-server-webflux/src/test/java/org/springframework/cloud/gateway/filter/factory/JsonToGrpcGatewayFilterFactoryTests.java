@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.RouteMetadataUtils;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JsonToGrpcGatewayFilterFactoryTests {
+
+	private GrpcTestServer server;
+
+	private JsonToGrpcGatewayFilterFactory filterFactory;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		server = new GrpcTestServer();
+		filterFactory = server.filterFactory();
+	}
+
+	@AfterEach
+	public void tearDown() throws Exception {
+		filterFactory.destroy();
+		server.close();
+	}
+
+	@Test
+	public void jsonRequestIsSentToGrpcService() {
+		GatewayFilter filter = filterFactory.apply(server.config(GrpcTestServer.HELLO));
+
+		assertThat(call(filter, "{\"name\":\"gateway\"}")).isEqualTo("{\"greeting\":\"Hello gateway\"}");
+		// the channel and descriptors of the route are reused
+		assertThat(call(filter, "{\"name\":\"again\"}")).isEqualTo("{\"greeting\":\"Hello again\"}");
+	}
+
+	@Test
+	public void serverStreamingIsWrittenAsNewlineDelimitedJson() {
+		GatewayFilter filter = filterFactory.apply(server.config(GrpcTestServer.HELLO_STREAM));
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("http://localhost/hello"),
+				"{\"name\":\"stream\"}", Map.of());
+
+		filter.filter(exchange, ex -> Mono.empty()).block();
+
+		assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.APPLICATION_NDJSON);
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("{\"greeting\":\"Hello stream 1\"}\n"
+				+ "{\"greeting\":\"Hello stream 2\"}\n" + "{\"greeting\":\"Hello stream 3\"}\n");
+	}
+
+	@Test
+	public void serverStreamingIsWrittenAsServerSentEvents() {
+		GatewayFilter filter = filterFactory.apply(server.config(GrpcTestServer.HELLO_STREAM));
+		MockServerWebExchange exchange = exchange(
+				MockServerHttpRequest.post("http://localhost/hello").accept(MediaType.TEXT_EVENT_STREAM),
+				"{\"name\":\"sse\"}", Map.of());
+
+		filter.filter(exchange, ex -> Mono.empty()).block();
+
+		assertThat(exchange.getResponse().getHeaders().getContentType()).isEqualTo(MediaType.TEXT_EVENT_STREAM);
+		assertThat(exchange.getResponse().getBodyAsString().block()).startsWith("data:{\"greeting\":\"Hello sse 1\"}\n\n")
+			.endsWith("data:{\"greeting\":\"Hello sse 3\"}\n\n");
+	}
+
+	@Test
+	public void responseTimeoutIsUsedAsDeadline() {
+		GatewayFilter filter = filterFactory.apply(server.config(GrpcTestServer.HANG));
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("http://localhost/hello"),
+				"{\"name\":\"slow\"}", Map.of(RouteMetadataUtils.RESPONSE_TIMEOUT_ATTR, 200));
+
+		StepVerifier.create(filter.filter(exchange, ex -> Mono.empty()))
+			.expectErrorSatisfies(error -> assertThat(error).isInstanceOf(ResponseStatusException.class)
+				.extracting(e -> ((ResponseStatusException) e).getStatusCode())
+				.isEqualTo(HttpStatus.GATEWAY_TIMEOUT))
+			.verify(Duration.ofSeconds(5));
+	}
+
+	private String call(GatewayFilter filter, String body) {
+		MockServerWebExchange exchange = exchange(MockServerHttpRequest.post("http://localhost/hello"), body,
+				Map.of());
+
+		filter.filter(exchange, ex -> Mono.empty()).block();
+
+		return exchange.getResponse().getBodyAsString().block();
+	}
+
+	private MockServerWebExchange exchange(MockServerHttpRequest.BodyBuilder request, String body,
+			Map<String, Object> metadata) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(request.body(body));
+		exchange.getAttributes()
+			.put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+					Route.async().id("grpc").predicate(ex -> true).uri(server.uri()).metadata(metadata).build());
+		return exchange;
+	}
+
+}
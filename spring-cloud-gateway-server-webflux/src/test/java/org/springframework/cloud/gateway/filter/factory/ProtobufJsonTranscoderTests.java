@@ -0,0 +1,173 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.DescriptorProtos.DescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumDescriptorProto;
+import com.google.protobuf.DescriptorProtos.EnumValueDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Label;
+import com.google.protobuf.DescriptorProtos.FieldDescriptorProto.Type;
+import com.google.protobuf.DescriptorProtos.FileDescriptorProto;
+import com.google.protobuf.DescriptorProtos.MessageOptions;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Descriptors.Descriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.util.JsonFormat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ProtobufJsonTranscoderTests {
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	private Descriptor type;
+
+	private ProtobufJsonTranscoder transcoder;
+
+	@BeforeEach
+	public void setup() throws Exception {
+		FileDescriptorProto fileProto = FileDescriptorProto.newBuilder()
+			.setName("all.proto")
+			.setPackage("test")
+			.setSyntax("proto3")
+			.addEnumType(EnumDescriptorProto.newBuilder()
+				.setName("Color")
+				.addValue(EnumValueDescriptorProto.newBuilder().setName("RED").setNumber(0))
+				.addValue(EnumValueDescriptorProto.newBuilder().setName("GREEN").setNumber(1)))
+			.addMessageType(DescriptorProto.newBuilder()
+				.setName("All")
+				.addField(field("int32_value", 1, Type.TYPE_INT32))
+				.addField(field("int64_value", 2, Type.TYPE_INT64))
+				.addField(field("uint32_value", 3, Type.TYPE_UINT32))
+				.addField(field("uint64_value", 4, Type.TYPE_UINT64))
+				.addField(field("double_value", 5, Type.TYPE_DOUBLE))
+				.addField(field("bool_value", 6, Type.TYPE_BOOL))
+				.addField(field("string_value", 7, Type.TYPE_STRING))
+				.addField(field("bytes_value", 8, Type.TYPE_BYTES))
+				.addField(field("color", 9, Type.TYPE_ENUM).setTypeName(".test.Color"))
+				.addField(field("child", 10, Type.TYPE_MESSAGE).setTypeName(".test.All"))
+				.addField(field("strings", 11, Type.TYPE_STRING).setLabel(Label.LABEL_REPEATED))
+				.addField(field("counts", 12, Type.TYPE_MESSAGE).setTypeName(".test.All.CountsEntry")
+					.setLabel(Label.LABEL_REPEATED))
+				.addNestedType(DescriptorProto.newBuilder()
+					.setName("CountsEntry")
+					.addField(field("key", 1, Type.TYPE_STRING))
+					.addField(field("value", 2, Type.TYPE_INT32))
+					.setOptions(MessageOptions.newBuilder().setMapEntry(true))))
+			.build();
+		type = Descriptors.FileDescriptor.buildFrom(fileProto, new Descriptors.FileDescriptor[0])
+			.findMessageTypeByName("All");
+		transcoder = new ProtobufJsonTranscoder(type, type);
+	}
+
+	@Test
+	public void writesLikeJsonFormat() throws Exception {
+		DynamicMessage message = message();
+
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		transcoder.writeResponse(message, outputStream);
+
+		String expected = JsonFormat.printer().omittingInsignificantWhitespace().print(message);
+		assertThat(jsonMapper.readTree(outputStream.toByteArray())).isEqualTo(jsonMapper.readTree(expected));
+	}
+
+	@Test
+	public void readsLikeJsonFormat() throws Exception {
+		DynamicMessage message = message();
+		String json = JsonFormat.printer().print(message);
+
+		assertThat(read(json)).isEqualTo(message);
+		assertThat(read(json.replace("int32Value", "int32_value"))).isEqualTo(message);
+	}
+
+	@Test
+	public void readsNumbersAsStringsAndEnumsAsNumbers() throws Exception {
+		DynamicMessage message = read("{\"int32Value\":\"7\",\"int64Value\":9,\"color\":1,\"boolValue\":null}");
+
+		assertThat(message.getField(type.findFieldByName("int32_value"))).isEqualTo(7);
+		assertThat(message.getField(type.findFieldByName("int64_value"))).isEqualTo(9L);
+		assertThat(message.getField(type.findFieldByName("color")))
+			.isEqualTo(type.getFile().findEnumTypeByName("Color").findValueByName("GREEN"));
+	}
+
+	@Test
+	public void rejectsUnknownFieldsAndInvalidValues() {
+		assertThatThrownBy(() -> read("{\"unknown\":1}")).isInstanceOf(InvalidProtocolBufferException.class);
+		assertThatThrownBy(() -> read("{\"int32Value\":1.5}")).isInstanceOf(InvalidProtocolBufferException.class);
+		assertThatThrownBy(() -> read("{\"uint32Value\":-1}")).isInstanceOf(InvalidProtocolBufferException.class);
+		assertThatThrownBy(() -> read("[]")).isInstanceOf(InvalidProtocolBufferException.class);
+	}
+
+	@Test
+	public void rejectsNullElementsOfRepeatedFields() {
+		assertThatThrownBy(() -> read("{\"strings\":[\"a\",null]}"))
+			.isInstanceOf(InvalidProtocolBufferException.class)
+			.hasMessageContaining("test.All.strings");
+		assertThatThrownBy(() -> read("{\"child\":{\"strings\":[null]}}"))
+			.isInstanceOf(InvalidProtocolBufferException.class);
+	}
+
+	private DynamicMessage read(String json) throws Exception {
+		return transcoder.readRequest(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private DynamicMessage message() {
+		Descriptor entryType = type.findNestedTypeByName("CountsEntry");
+		DynamicMessage child = DynamicMessage.newBuilder(type)
+			.setField(type.findFieldByName("string_value"), "child <&>")
+			.build();
+		return DynamicMessage.newBuilder(type)
+			.setField(type.findFieldByName("int32_value"), -5)
+			.setField(type.findFieldByName("int64_value"), Long.MAX_VALUE)
+			.setField(type.findFieldByName("uint32_value"), -1)
+			.setField(type.findFieldByName("uint64_value"), -1L)
+			.setField(type.findFieldByName("double_value"), 1.5)
+			.setField(type.findFieldByName("bool_value"), true)
+			.setField(type.findFieldByName("string_value"), "héllo \"world\"")
+			.setField(type.findFieldByName("bytes_value"), ByteString.copyFromUtf8("bytes?>"))
+			.setField(type.findFieldByName("color"), type.getFile().findEnumTypeByName("Color").findValueByName("GREEN"))
+			.setField(type.findFieldByName("child"), child)
+			.addRepeatedField(type.findFieldByName("strings"), "a")
+			.addRepeatedField(type.findFieldByName("strings"), "b")
+			.addRepeatedField(type.findFieldByName("counts"),
+					DynamicMessage.newBuilder(entryType)
+						.setField(entryType.findFieldByName("key"), "one")
+						.setField(entryType.findFieldByName("value"), 1)
+						.build())
+			.build();
+	}
+
+	private static FieldDescriptorProto.Builder field(String name, int number, Type type) {
+		return FieldDescriptorProto.newBuilder()
+			.setName(name)
+			.setNumber(number)
+			.setType(type)
+			.setLabel(Label.LABEL_OPTIONAL);
+	}
+
+}
@@ -17,6 +17,7 @@
 package org.springframework.cloud.gateway.filter.factory;
 
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import org.junit.jupiter.api.Test;
@@ -93,6 +94,62 @@ public class RequestRateLimiterGatewayFilterFactoryTests extends BaseWebClientTe
 		assertFilterFactory(exchange -> Mono.empty(), null, true, HttpStatus.OK, false);
 	}
 
+	@Test
+	public void multipleKeysAreCheckedAtOnce() {
+		Map<String, String> keys = new LinkedHashMap<>();
+		keys.put("user", "alice");
+		keys.put("tenant", "acme");
+		when(rateLimiter.isAllowed("myroute", keys)).thenReturn(
+				Mono.just(new Response(false, 0, Collections.singletonMap("X-Tokens-Remaining", "0"))));
+
+		MockServerWebExchange exchange = exchange();
+		RequestRateLimiterGatewayFilterFactory factory = this.context
+			.getBean(RequestRateLimiterGatewayFilterFactory.class);
+		GatewayFilter filter = factory.apply(config -> {
+			config.setRouteId("myroute");
+			config.addKeyResolver("user", ex -> Mono.just("alice"));
+			config.addKeyResolver("tenant", ex -> Mono.just("acme"));
+		});
+
+		filter.filter(exchange, this.filterChain).block();
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(exchange.getResponse().getHeaders().getFirst("X-Tokens-Remaining")).isEqualTo("0");
+	}
+
+	@Test
+	public void limitsWithEmptyKeyAreSkippedIfAllowed() {
+		when(rateLimiter.isAllowed("myroute", Map.of("tenant", "acme")))
+			.thenReturn(Mono.just(new Response(true, 5, Collections.singletonMap("X-Tokens-Remaining", "5"))));
+
+		MockServerWebExchange exchange = exchange();
+		when(this.filterChain.filter(exchange)).thenReturn(Mono.empty());
+		RequestRateLimiterGatewayFilterFactory factory = this.context
+			.getBean(RequestRateLimiterGatewayFilterFactory.class);
+		factory.setDenyEmptyKey(false);
+		GatewayFilter filter = factory.apply(config -> {
+			config.setRouteId("myroute");
+			config.addKeyResolver("user", ex -> Mono.empty());
+			config.addKeyResolver("tenant", ex -> Mono.just("acme"));
+		});
+
+		try {
+			filter.filter(exchange, this.filterChain).block();
+		}
+		finally {
+			factory.setDenyEmptyKey(true);
+		}
+
+		assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.OK);
+		assertThat(exchange.getResponse().getHeaders().getFirst("X-Tokens-Remaining")).isEqualTo("5");
+	}
+
+	private MockServerWebExchange exchange() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/").build());
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		return exchange;
+	}
+
 	private void assertFilterFactory(KeyResolver keyResolver, String key, boolean allowed, HttpStatus expectedStatus) {
 		assertFilterFactory(keyResolver, key, allowed, expectedStatus, null);
 	}
@@ -18,8 +18,12 @@ package org.springframework.cloud.gateway.filter.factory;
 
 import java.net.URI;
 import java.util.LinkedHashSet;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 import org.mockito.ArgumentCaptor;
 import reactor.core.publisher.Mono;
 
@@ -95,6 +99,36 @@ public class RewritePathGatewayFilterFactoryTests {
 		assertThat(uri.getRawQuery()).isEqualTo("name=%E6%89%8E%E6%A0%B9");
 	}
 
+	@Test
+	public void unchangedPathIsNotMutated() {
+		GatewayFilter filter = new RewritePathGatewayFilterFactory()
+			.apply(c -> c.setRegexp("/red/?(?<segment>.*)").setReplacement("/$\\{segment}"));
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/blue"));
+		GatewayFilterChain filterChain = mock(GatewayFilterChain.class);
+		ArgumentCaptor<ServerWebExchange> captor = ArgumentCaptor.forClass(ServerWebExchange.class);
+		when(filterChain.filter(captor.capture())).thenReturn(Mono.empty());
+
+		filter.filter(exchange, filterChain);
+
+		assertThat(captor.getValue().getRequest()).isSameAs(exchange.getRequest());
+		assertThat((URI) exchange.getRequiredAttribute(GATEWAY_REQUEST_URL_ATTR)).hasPath("/blue");
+	}
+
+	@ParameterizedTest
+	@CsvSource(delimiter = '|',
+			value = { "/red/?(?<segment>.*)|/${segment}", "/red/(?<segment>.*)|/blue/${segment}", "/red(.*)|/blue$1",
+					"^/red/?(.*)|/$1/x/$1", "/red|/blue", "/red/|''", "/red/(?<segment>.*)|/$1", "/red/(.*)|/$0",
+					"/red/(.*)|/$12", "/re.d/(.*)|/$1", "/red/(?<segment>\\d.*)|/${segment}" })
+	public void compiledRewriteMatchesRegex(String regexp, String replacement) {
+		UnaryOperator<String> rewrite = RewritePathGatewayFilterFactory.compileRewrite(regexp, replacement);
+		Pattern pattern = Pattern.compile(regexp);
+		for (String path : new String[] { "/red", "/red/", "/red/a/b", "/redder/a", "/a/red/b", "/blue",
+				"/red/red/a", "/re-d/a", "" }) {
+			assertThat(rewrite.apply(path)).as("%s on %s", regexp, path)
+				.isEqualTo(pattern.matcher(path).replaceAll(replacement));
+		}
+	}
+
 	@Test
 	public void toStringFormat() {
 		Config config = new Config().setRegexp("regexp1").setReplacement("replacement1");
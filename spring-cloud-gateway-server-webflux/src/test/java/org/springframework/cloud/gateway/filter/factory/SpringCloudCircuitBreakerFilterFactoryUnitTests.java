@@ -0,0 +1,154 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.util.Set;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreaker;
+import org.springframework.cloud.client.circuitbreaker.ReactiveCircuitBreakerFactory;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.SpringCloudCircuitBreakerFilterFactory.CircuitBreakerStatusCodeException;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SpringCloudCircuitBreakerFilterFactoryUnitTests {
+
+	private ReactiveCircuitBreakerFactory reactiveCircuitBreakerFactory;
+
+	private SpringCloudCircuitBreakerResilience4JFilterFactory filterFactory;
+
+	private SimpleMeterRegistry meterRegistry;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	public void setup() {
+		reactiveCircuitBreakerFactory = mock(ReactiveCircuitBreakerFactory.class);
+		when(reactiveCircuitBreakerFactory.create("mycb")).thenReturn(new PassThroughCircuitBreaker());
+		filterFactory = new SpringCloudCircuitBreakerResilience4JFilterFactory(reactiveCircuitBreakerFactory,
+				mock(ObjectProvider.class));
+		meterRegistry = new SimpleMeterRegistry();
+		filterFactory.setMetrics(new MicrometerCircuitBreakerFilterMetrics(meterRegistry, "spring.cloud.gateway"));
+	}
+
+	@Test
+	public void circuitBreakerIsCreatedForEveryFilter() {
+		filterFactory.apply(config());
+		filterFactory.apply(config());
+
+		verify(reactiveCircuitBreakerFactory, times(2)).create("mycb");
+	}
+
+	@Test
+	public void countersOfRemovedRoutesAreRemoved() {
+		MicrometerCircuitBreakerFilterMetrics metrics = new MicrometerCircuitBreakerFilterMetrics(meterRegistry,
+				"spring.cloud.gateway");
+		filterFactory.setMetrics(metrics);
+		SpringCloudCircuitBreakerFilterFactory.Config other = config();
+		other.setRouteId("otherroute");
+		filterFactory.apply(config());
+		filterFactory.apply(other);
+		metrics.onApplicationEvent(new RefreshRoutesResultEvent(this, Set.of("myroute", "otherroute")));
+
+		// myroute is rebuilt, otherroute is removed
+		filterFactory.apply(config());
+		metrics.onApplicationEvent(new RefreshRoutesResultEvent(this, Set.of("myroute", "otherroute")));
+
+		assertThat(meterRegistry.find("spring.cloud.gateway.circuitbreaker.errors").tag("routeId", "myroute").counter())
+			.isNotNull();
+		assertThat(meterRegistry.find("spring.cloud.gateway.circuitbreaker.errors")
+			.tag("routeId", "otherroute")
+			.counter()).isNull();
+	}
+
+	@Test
+	public void statusCodeTripIsRecorded() {
+		GatewayFilter filter = filterFactory.apply(config().addStatusCode("500"));
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost").build());
+		GatewayFilterChain chain = ex -> {
+			ex.getResponse().setStatusCode(HttpStatus.INTERNAL_SERVER_ERROR);
+			return Mono.empty();
+		};
+
+		StepVerifier.create(filter.filter(exchange, chain))
+			.expectError(CircuitBreakerStatusCodeException.class)
+			.verify();
+
+		assertThat(meterRegistry.get("spring.cloud.gateway.circuitbreaker.status.trips")
+			.tag("routeId", "myroute")
+			.tag("name", "mycb")
+			.counter()
+			.count()).isEqualTo(1);
+		assertThat(meterRegistry.get("spring.cloud.gateway.circuitbreaker.errors").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void unconfiguredStatusCodeIsNotTripped() {
+		GatewayFilter filter = filterFactory.apply(config().addStatusCode("500"));
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost").build());
+		GatewayFilterChain chain = ex -> {
+			ex.getResponse().setStatusCode(HttpStatus.BAD_GATEWAY);
+			return Mono.empty();
+		};
+
+		StepVerifier.create(filter.filter(exchange, chain)).verifyComplete();
+
+		assertThat(meterRegistry.get("spring.cloud.gateway.circuitbreaker.status.trips").counter().count())
+			.isEqualTo(0);
+	}
+
+	private SpringCloudCircuitBreakerFilterFactory.Config config() {
+		SpringCloudCircuitBreakerFilterFactory.Config config = new SpringCloudCircuitBreakerFilterFactory.Config()
+			.setName("mycb");
+		config.setRouteId("myroute");
+		return config;
+	}
+
+	static class PassThroughCircuitBreaker implements ReactiveCircuitBreaker {
+
+		@Override
+		public <T> Mono<T> run(Mono<T> toRun, Function<Throwable, Mono<T>> fallback) {
+			return toRun.onErrorResume(fallback);
+		}
+
+		@Override
+		public <T> Flux<T> run(Flux<T> toRun, Function<Throwable, Flux<T>> fallback) {
+			return toRun.onErrorResume(fallback);
+		}
+
+	}
+
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+import tools.jackson.databind.node.ObjectNode;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class StreamingJsonAttributeRemoverTests {
+
+	private static final String JSON = "{\"id\":1,\"color\":\"red\",\"name\":\"héllo \\\"world\\\"\","
+			+ "\"items\":[{\"id\":2,\"color\":\"blue\",\"tags\":[\"a\",\"b\"]},{\"id\":3}],"
+			+ "\"user\":{\"id\":4,\"address\":{\"zip\":\"12345\",\"city\":\"Paris\"},\"color\":{\"rgb\":[255,0,0]}},"
+			+ "\"total\":1.5e3,\"active\":true,\"none\":null}";
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+
+	private final DataBufferFactory bufferFactory = DefaultDataBufferFactory.sharedInstance;
+
+	@Test
+	public void removesRootAttributesLikeTreeRemoval() {
+		ObjectNode expected = (ObjectNode) jsonMapper.readTree(JSON);
+		expected.remove(Arrays.asList("id", "color"));
+
+		for (int chunkSize : new int[] { 1, 3, 16, JSON.length() }) {
+			assertThat(remove(JSON, chunkSize, false, "id", "color")).as("chunk size %d", chunkSize)
+				.isEqualTo(expected);
+		}
+	}
+
+	@Test
+	public void removesAttributesRecursively() {
+		JsonNode result = remove(JSON, 5, true, "id", "color");
+
+		assertThat(result.toString()).doesNotContain("\"id\"").doesNotContain("\"color\"");
+		assertThat(result.get("items").get(0).get("tags")).hasSize(2);
+		assertThat(result.get("items").get(1)).isEmpty();
+		assertThat(result.get("user").get("address").get("city").asString()).isEqualTo("Paris");
+	}
+
+	@Test
+	public void removesNestedPathsThroughArrays() {
+		JsonNode result = remove(JSON, 7, false, "user.address.zip", "items.id", "user.color");
+
+		assertThat(result.get("id").asInt()).isEqualTo(1);
+		assertThat(result.get("user").get("id").asInt()).isEqualTo(4);
+		assertThat(result.get("user").has("color")).isFalse();
+		assertThat(result.get("user").get("address").has("zip")).isFalse();
+		assertThat(result.get("items").get(0).has("id")).isFalse();
+		assertThat(result.get("items").get(0).get("color").asString()).isEqualTo("blue");
+		assertThat(result.get("items").get(1)).isEmpty();
+	}
+
+	@Test
+	public void leavesBodyWithoutMatchesUnchanged() {
+		assertThat(remove(JSON, 11, true, "unknown", "user.unknown")).isEqualTo(jsonMapper.readTree(JSON));
+		assertThat(remove("[1,{\"id\":2}]", 2, false, "id")).isEqualTo(jsonMapper.readTree("[1,{\"id\":2}]"));
+	}
+
+	@Test
+	public void writesLargeBodiesInChunks() {
+		List<String> items = new ArrayList<>();
+		for (int i = 0; i < 2000; i++) {
+			items.add("{\"id\":" + i + ",\"secret\":\"" + "x".repeat(20) + "\"}");
+		}
+		String json = "[" + String.join(",", items) + "]";
+
+		List<DataBuffer> output = new StreamingJsonAttributeRemover(List.of("secret"), true)
+			.remove(chunks(json, 1024), bufferFactory)
+			.collectList()
+			.block();
+
+		assertThat(output).hasSizeGreaterThan(1);
+		JsonNode result = jsonMapper.readTree(join(output));
+		assertThat(result).hasSize(2000);
+		assertThat(result.get(1999).toString()).isEqualTo("{\"id\":1999}");
+	}
+
+	@Test
+	public void invalidJsonFails() {
+		assertThatThrownBy(() -> remove("{\"invalid_json\": test", 4, false, "id"))
+			.isInstanceOf(IllegalStateException.class)
+			.hasMessage("Failed to process JSON of response body.");
+		assertThatThrownBy(() -> remove("{\"id\": 1", 4, false, "id")).isInstanceOf(IllegalStateException.class);
+	}
+
+	private JsonNode remove(String json, int chunkSize, boolean recursively, String... fields) {
+		List<DataBuffer> output = new StreamingJsonAttributeRemover(Arrays.asList(fields), recursively)
+			.remove(chunks(json, chunkSize), bufferFactory)
+			.collectList()
+			.block();
+		return jsonMapper.readTree(join(output));
+	}
+
+	private Flux<DataBuffer> chunks(String json, int chunkSize) {
+		byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+		List<byte[]> chunks = new ArrayList<>();
+		for (int i = 0; i < bytes.length; i += chunkSize) {
+			chunks.add(Arrays.copyOfRange(bytes, i, Math.min(bytes.length, i + chunkSize)));
+		}
+		return Flux.fromIterable(chunks).map(bufferFactory::wrap);
+	}
+
+	private static byte[] join(List<DataBuffer> buffers) {
+		byte[] bytes = new byte[buffers.stream().mapToInt(DataBuffer::readableByteCount).sum()];
+		int offset = 0;
+		for (DataBuffer buffer : buffers) {
+			int length = buffer.readableByteCount();
+			buffer.read(bytes, offset, length);
+			offset += length;
+			DataBufferUtils.release(buffer);
+		}
+		return bytes;
+	}
+
+}
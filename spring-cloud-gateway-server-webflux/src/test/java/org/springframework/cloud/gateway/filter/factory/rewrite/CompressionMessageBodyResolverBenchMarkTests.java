@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory.rewrite;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+
+/**
+ * Decoding and encoding gzip JSON bodies of 100 KB and 10 MB chunk by chunk, compared to
+ * aggregating them into a byte array first.
+ */
+@State(Scope.Benchmark)
+public class CompressionMessageBodyResolverBenchMarkTests {
+
+	private final GzipMessageBodyResolver resolver = new GzipMessageBodyResolver();
+
+	private final DataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+	@Param({ "102400", "10485760" })
+	private int size;
+
+	private byte[] body;
+
+	private byte[] compressed;
+
+	private Flux<DataBuffer> bodyChunks;
+
+	private Flux<DataBuffer> compressedChunks;
+
+	@Setup
+	public void setup() throws IOException {
+		body = CompressionMessageBodyResolverTests.body(size);
+		ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+		try (GZIPOutputStream gzip = new GZIPOutputStream(outputStream)) {
+			gzip.write(body);
+		}
+		compressed = outputStream.toByteArray();
+		bodyChunks = CompressionMessageBodyResolverTests.chunks(body, 8192);
+		compressedChunks = CompressionMessageBodyResolverTests.chunks(compressed, 8192);
+	}
+
+	@Benchmark
+	@Threads(2)
+	@Fork(1)
+	@BenchmarkMode(Mode.Throughput)
+	@Warmup(iterations = 2, time = 3)
+	@Measurement(iterations = 5, time = 3)
+	public long decodeStreaming() {
+		return count(resolver.decode(compressedChunks, bufferFactory));
+	}
+
+	@Benchmark
+	@Threads(2)
+	@Fork(1)
+	@BenchmarkMode(Mode.Throughput)
+	@Warmup(iterations = 2, time = 3)
+	@Measurement(iterations = 5, time = 3)
+	public long decodeAggregated() {
+		return resolver.decode(compressed).length;
+	}
+
+	@Benchmark
+	@Threads(2)
+	@Fork(1)
+	@BenchmarkMode(Mode.Throughput)
+	@Warmup(iterations = 2, time = 3)
+	@Measurement(iterations = 5, time = 3)
+	public long encodeStreaming() {
+		return count(resolver.encode(bodyChunks, bufferFactory));
+	}
+
+	@Benchmark
+	@Threads(2)
+	@Fork(1)
+	@BenchmarkMode(Mode.Throughput)
+	@Warmup(iterations = 2, time = 3)
+	@Measurement(iterations = 5, time = 3)
+	public long encodeAggregated() {
+		DataBuffer joined = bufferFactory.wrap(body);
+		return resolver.encode(joined).length;
+	}
+
+	private static long count(Flux<DataBuffer> buffers) {
+		return buffers.map(buffer -> {
+			int count = buffer.readableByteCount();
+			DataBufferUtils.release(buffer);
+			return (long) count;
+		}).reduce(0L, Long::sum).block();
+	}
+
+	public static void main(String[] args) throws Exception {
+		org.openjdk.jmh.Main.main(args);
+	}
+
+}
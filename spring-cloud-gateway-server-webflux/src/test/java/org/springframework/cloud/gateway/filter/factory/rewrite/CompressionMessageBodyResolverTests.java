@@ -0,0 +1,129 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.filter.factory.rewrite;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import io.netty.buffer.PooledByteBufAllocator;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.core.io.buffer.NettyDataBufferFactory;
+import org.springframework.util.FileCopyUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class CompressionMessageBodyResolverTests {
+
+	private final DataBufferFactory bufferFactory = new NettyDataBufferFactory(PooledByteBufAllocator.DEFAULT);
+
+	@Test
+	public void gzipInteroperatesWithJdk() throws IOException {
+		GzipMessageBodyResolver resolver = new GzipMessageBodyResolver();
+		byte[] body = body(100 * 1024);
+
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+		try (GZIPOutputStream outputStream = new GZIPOutputStream(compressed)) {
+			outputStream.write(body);
+		}
+		assertThat(join(resolver.decode(chunks(compressed.toByteArray(), 7), bufferFactory))).isEqualTo(body);
+		assertThat(resolver.decode(compressed.toByteArray())).isEqualTo(body);
+
+		byte[] encoded = join(resolver.encode(chunks(body, 8192), bufferFactory));
+		assertThat(FileCopyUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(encoded))))
+			.isEqualTo(body);
+	}
+
+	@Test
+	public void deflateRoundTrips() {
+		roundTrip(new DeflateMessageBodyResolver());
+	}
+
+	@Test
+	public void gzipRoundTrips() {
+		roundTrip(new GzipMessageBodyResolver());
+	}
+
+	@Test
+	public void encodeDoesNotReleaseTheOriginalBuffer() {
+		GzipMessageBodyResolver resolver = new GzipMessageBodyResolver();
+		DataBuffer original = bufferFactory.wrap(body(1024));
+
+		byte[] encoded = resolver.encode(original);
+
+		assertThat(resolver.decode(encoded)).isEqualTo(body(1024));
+		assertThat(original.readableByteCount()).isEqualTo(1024);
+		assertThat(DataBufferUtils.release(original)).isTrue();
+	}
+
+	@Test
+	public void invalidBodyIsNotDecoded() {
+		assertThatThrownBy(() -> new GzipMessageBodyResolver().decode("this is not a gzip body".getBytes(StandardCharsets.UTF_8)))
+			.isInstanceOf(IllegalStateException.class);
+	}
+
+	private void roundTrip(CompressionMessageBodyResolver resolver) {
+		byte[] body = body(256 * 1024);
+
+		byte[] encoded = join(resolver.encode(chunks(body, 8192), bufferFactory));
+		assertThat(encoded.length).isLessThan(body.length);
+		assertThat(resolver.decode(encoded)).isEqualTo(body);
+		assertThat(join(resolver.decode(chunks(encoded, 1000), bufferFactory))).isEqualTo(body);
+		assertThat(join(resolver.decode(chunks(encoded, 1000), DefaultDataBufferFactory.sharedInstance)))
+			.isEqualTo(body);
+	}
+
+	static byte[] body(int size) {
+		StringBuilder json = new StringBuilder(size + 64).append('[');
+		for (int i = 0; json.length() < size; i++) {
+			json.append("{\"id\":").append(i).append(",\"name\":\"item ").append(i).append("\",\"active\":true},");
+		}
+		json.setCharAt(json.length() - 1, ']');
+		return json.toString().getBytes(StandardCharsets.UTF_8);
+	}
+
+	static Flux<DataBuffer> chunks(byte[] bytes, int chunkSize) {
+		List<byte[]> chunks = new ArrayList<>();
+		for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+			byte[] chunk = new byte[Math.min(chunkSize, bytes.length - offset)];
+			System.arraycopy(bytes, offset, chunk, 0, chunk.length);
+			chunks.add(chunk);
+		}
+		return Flux.fromIterable(chunks).map(DefaultDataBufferFactory.sharedInstance::wrap);
+	}
+
+	private static byte[] join(Flux<DataBuffer> buffers) {
+		DataBuffer joined = DataBufferUtils.join(buffers).block();
+		byte[] bytes = new byte[joined.readableByteCount()];
+		joined.read(bytes);
+		DataBufferUtils.release(joined);
+		return bytes;
+	}
+
+}
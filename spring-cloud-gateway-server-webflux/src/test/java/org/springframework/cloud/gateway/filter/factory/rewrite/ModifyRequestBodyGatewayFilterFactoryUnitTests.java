@@ -16,11 +16,27 @@
 
 package org.springframework.cloud.gateway.filter.factory.rewrite;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicReference;
+
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyRequestBodyGatewayFilterFactory.Config;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -48,4 +64,39 @@ public class ModifyRequestBodyGatewayFilterFactoryUnitTests {
 		assertThat(filter.toString()).contains("String").contains("Integer").contains("mycontenttype");
 	}
 
+	@Test
+	public void streamingRewriteFunctionRewritesChunksWithoutAggregatingThem() {
+		Flux<DataBuffer> body = Flux.just("hello ", "streaming ", "world")
+			.map(chunk -> DefaultDataBufferFactory.sharedInstance.wrap(chunk.getBytes(StandardCharsets.UTF_8)));
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/post")
+			.contentType(MediaType.TEXT_PLAIN)
+			.contentLength(22)
+			.body(body));
+		List<String> received = new ArrayList<>();
+		Config config = new Config().setStreamingRewriteFunction(DataBuffer.class, DataBuffer.class,
+				(serverWebExchange, chunks) -> chunks.map(chunk -> {
+					String value = chunk.toString(StandardCharsets.UTF_8);
+					DataBufferUtils.release(chunk);
+					received.add(value);
+					return DefaultDataBufferFactory.sharedInstance
+						.wrap(value.toUpperCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+				}));
+		AtomicReference<ServerHttpRequest> request = new AtomicReference<>();
+
+		new ModifyRequestBodyGatewayFilterFactory().apply(config).filter(exchange, e -> {
+			request.set(e.getRequest());
+			return Mono.empty();
+		}).block();
+
+		// the body is only read when it is sent
+		assertThat(received).isEmpty();
+		assertThat(request.get().getHeaders().getContentLength()).isEqualTo(-1);
+		assertThat(request.get().getHeaders().getFirst(HttpHeaders.TRANSFER_ENCODING)).isEqualTo("chunked");
+		String sent = DataBufferUtils.join(request.get().getBody())
+			.map(buffer -> buffer.toString(StandardCharsets.UTF_8))
+			.block();
+		assertThat(sent).isEqualTo("HELLO STREAMING WORLD");
+		assertThat(received).containsExactly("hello ", "streaming ", "world");
+	}
+
 }
@@ -16,14 +16,31 @@
 
 package org.springframework.cloud.gateway.filter.factory.rewrite;
 
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
 
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.rewrite.ModifyResponseBodyGatewayFilterFactory.Config;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.codec.support.DefaultServerCodecConfigurer;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 
 import static java.util.Collections.emptySet;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR;
 
 public class ModifyResponseBodyGatewayFilterFactoryUnitTests {
 
@@ -39,4 +56,90 @@ public class ModifyResponseBodyGatewayFilterFactoryUnitTests {
 		assertThat(filter.toString()).contains("String").contains("Integer").contains("mycontenttype");
 	}
 
+	@Test
+	public void streamingRewriteRewritesNdjsonLineByLine() {
+		MockServerWebExchange exchange = exchange(MediaType.APPLICATION_NDJSON);
+		Config config = new Config().setStreamingRewriteFunction(Map.class, Map.class,
+				(ex, elements) -> elements.map(element -> Map.of("name", element.get("name").toString().toUpperCase())));
+
+		StepVerifier
+			.create(modifiedResponse(exchange, config)
+				.writeWith(Flux.just(buffer("{\"name\":\"a\"}\n{\"na"), buffer("me\":\"b\"}\n"))))
+			.verifyComplete();
+
+		assertThat(exchange.getResponse().getBodyAsString().block())
+			.isEqualTo("{\"name\":\"A\"}\n{\"name\":\"B\"}\n");
+		assertThat(exchange.getResponse().getHeaders().getContentLength()).isEqualTo(-1);
+	}
+
+	@Test
+	public void streamingRewriteRewritesDataBuffersChunkByChunk() {
+		MockServerWebExchange exchange = exchange(MediaType.TEXT_PLAIN);
+		Config config = new Config().setStreamingRewriteFunction(DataBuffer.class, String.class,
+				(ex, buffers) -> buffers.map(buffer -> {
+					String chunk = buffer.toString(StandardCharsets.UTF_8);
+					DataBufferUtils.release(buffer);
+					return "[" + chunk + "]";
+				}));
+
+		StepVerifier.create(modifiedResponse(exchange, config).writeWith(Flux.just(buffer("ab"), buffer("cd"))))
+			.verifyComplete();
+
+		assertThat(exchange.getResponse().getBodyAsString().block()).isEqualTo("[ab][cd]");
+		assertThat(exchange.getResponse().getHeaders().getContentLength()).isEqualTo(-1);
+	}
+
+	@Test
+	public void userDefinedDecoderWinsOverBuiltInOne() {
+		MessageBodyDecoder custom = new MessageBodyDecoder() {
+			@Override
+			public byte[] decode(byte[] encoded) {
+				return "custom".getBytes(StandardCharsets.UTF_8);
+			}
+
+			@Override
+			public String encodingType() {
+				return "deflate";
+			}
+		};
+		MessageBodyDecoder builtIn = new DeflateMessageBodyResolver();
+
+		assertThat(decodeDeflated(new LinkedHashSet<>(List.of(custom, builtIn)))).isEqualTo("[custom]");
+		assertThat(decodeDeflated(new LinkedHashSet<>(List.of(builtIn, custom)))).isEqualTo("[custom]");
+	}
+
+	private static String decodeDeflated(Set<MessageBodyDecoder> decoders) {
+		MockServerWebExchange exchange = exchange(MediaType.TEXT_PLAIN);
+		exchange.getResponse().getHeaders().set(HttpHeaders.CONTENT_ENCODING, "deflate");
+		Config config = new Config().setStreamingRewriteFunction(String.class, String.class,
+				(ex, chunks) -> chunks.map(chunk -> "[" + chunk + "]"));
+		ModifyResponseBodyGatewayFilterFactory factory = new ModifyResponseBodyGatewayFilterFactory(
+				new DefaultServerCodecConfigurer().getReaders(), decoders, emptySet());
+
+		StepVerifier.create(factory.new ModifiedServerHttpResponse(exchange, config).writeWith(Flux.just(buffer("ab"))))
+			.verifyComplete();
+
+		return exchange.getResponse().getBodyAsString().block();
+	}
+
+	private static MockServerWebExchange exchange(MediaType contentType) {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/"));
+		exchange.getResponse().setStatusCode(HttpStatus.OK);
+		exchange.getResponse().getHeaders().setContentType(contentType);
+		exchange.getResponse().getHeaders().setContentLength(1024);
+		exchange.getAttributes().put(ORIGINAL_RESPONSE_CONTENT_TYPE_ATTR, contentType.toString());
+		return exchange;
+	}
+
+	private static ModifyResponseBodyGatewayFilterFactory.ModifiedServerHttpResponse modifiedResponse(
+			MockServerWebExchange exchange, Config config) {
+		ModifyResponseBodyGatewayFilterFactory factory = new ModifyResponseBodyGatewayFilterFactory(
+				new DefaultServerCodecConfigurer().getReaders(), emptySet(), emptySet());
+		return factory.new ModifiedServerHttpResponse(exchange, config);
+	}
+
+	private static DataBuffer buffer(String value) {
+		return DefaultDataBufferFactory.sharedInstance.wrap(value.getBytes(StandardCharsets.UTF_8));
+	}
+
 }
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.gateway.filter.ratelimit;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.UUID;
 
 import org.junit.jupiter.api.AfterEach;
@@ -162,6 +164,44 @@ public class RedisRateLimiterTests extends BaseWebClientTests {
 				"request_rate_limiter.{routeId.1}.timestamp");
 	}
 
+	@Test
+	public void multiKeyUsesRouteAsRedisKeyHashTag() {
+		assertThat(RedisRateLimiter.getKeys("1", "user", "routeId")).containsExactly(
+				"request_rate_limiter.{routeId}.user.1.tokens", "request_rate_limiter.{routeId}.user.1.timestamp");
+	}
+
+	@RetryingTest(3)
+	public void redisRateLimiterReportsMostConstrainedKey() {
+		String user = UUID.randomUUID().toString();
+		String tenant = UUID.randomUUID().toString();
+		String routeId = "multi_key_route";
+
+		RedisRateLimiter.Config config = new RedisRateLimiter.Config().setReplenishRate(1).setBurstCapacity(10);
+		config.getLimits().put("tenant", new RedisRateLimiter.Config().setReplenishRate(1).setBurstCapacity(2));
+		rateLimiter.getConfig().put(routeId, config);
+
+		Map<String, String> ids = new LinkedHashMap<>();
+		ids.put("user", user);
+		ids.put("tenant", tenant);
+
+		Response response = rateLimiter.isAllowed(routeId, ids).block();
+		assertThat(response.isAllowed()).isTrue();
+		assertThat(response.getTokensRemaining()).isEqualTo(1);
+		assertThat(response.getHeaders()).containsEntry(RedisRateLimiter.BURST_CAPACITY_HEADER, "2");
+
+		rateLimiter.isAllowed(routeId, ids).block();
+		response = rateLimiter.isAllowed(routeId, ids).block();
+		assertThat(response.isAllowed()).isFalse();
+		assertThat(response.getHeaders()).containsEntry(RedisRateLimiter.BURST_CAPACITY_HEADER, "2");
+
+		// tokens of the user limit are only taken if the request is allowed
+		ids.put("tenant", UUID.randomUUID().toString());
+		response = rateLimiter.isAllowed(routeId, ids).block();
+		assertThat(response.isAllowed()).isTrue();
+		assertThat(rateLimiter.isAllowed(routeId, Map.of("user", user)).block().getTokensRemaining())
+			.isBetween(6L, 7L);
+	}
+
 	@Test
 	public void redisRateLimiterDoesNotSendHeadersIfDeactivated() throws Exception {
 		String id = UUID.randomUUID().toString();
@@ -16,6 +16,8 @@
 
 package org.springframework.cloud.gateway.filter.ratelimit;
 
+import java.util.Map;
+
 import io.lettuce.core.RedisException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -97,4 +99,13 @@ public class RedisRateLimiterUnitTests {
 				entry(redisRateLimiter.getRequestedTokensHeader(), "1"));
 	}
 
+	@Test
+	public void shouldRejectLimitsWithoutReplenishRate() {
+		Map<String, RedisRateLimiter.Config> limits = Map.of("user",
+				new RedisRateLimiter.Config().setBurstCapacity(10));
+
+		assertThatExceptionOfType(IllegalArgumentException.class)
+			.isThrownBy(() -> new RedisRateLimiter.Config().setLimits(limits));
+	}
+
 }
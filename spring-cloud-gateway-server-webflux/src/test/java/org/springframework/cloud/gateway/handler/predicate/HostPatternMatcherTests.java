@@ -0,0 +1,96 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.handler.predicate;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import org.springframework.util.AntPathMatcher;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HostPatternMatcherTests {
+
+	private final AntPathMatcher antPathMatcher = new AntPathMatcher(".");
+
+	@Test
+	public void matchesLikeAntPathMatcher() {
+		List<String> patterns = Arrays.asList("www.example.org", "{tenant}.example.org", "**.example.org",
+				"*.{region}.example.com", "{sub}.example.org:8080", "**");
+		List<String> hosts = Arrays.asList("www.example.org", "acme.example.org", "a.b.example.org", "example.org",
+				"x.eu.example.com", "eu.example.com", "acme.example.org:8080", "example.com", "org");
+
+		assertMatchesLikeAntPathMatcher(patterns, hosts);
+		assertMatchesLikeAntPathMatcher(patterns.subList(0, 5), hosts);
+		assertMatchesLikeAntPathMatcher(Arrays.asList("{tenant}.example.org", "www.example.org"), hosts);
+	}
+
+	@Test
+	public void firstMatchingPatternWins() {
+		HostPatternMatcher matcher = HostPatternMatcher
+			.compile(Arrays.asList("**.example.org", "{tenant}.example.org"));
+
+		HostPatternMatcher.Match match = matcher.match(HostPatternMatcher.labels("acme.example.org"));
+
+		assertThat(match.pattern()).isEqualTo("**.example.org");
+		assertThat(match.variables()).isEmpty();
+	}
+
+	@Test
+	public void unsupportedPatternsAreNotCompiled() {
+		assertThat(HostPatternMatcher.compile(Arrays.asList("www.example.org", "www?.example.org"))).isNull();
+		assertThat(HostPatternMatcher.compile(Arrays.asList("www*.example.org"))).isNull();
+		assertThat(HostPatternMatcher.compile(Arrays.asList("{sub:[a-z]+}.example.org"))).isNull();
+		assertThat(HostPatternMatcher.compile(Arrays.asList("www.**.org"))).isNull();
+		assertThat(HostPatternMatcher.compile(Arrays.asList(".example.org"))).isNull();
+	}
+
+	@Test
+	public void hostsWithEmptyLabelsAreNotSplit() {
+		assertThat(HostPatternMatcher.labels("www..example.org")).isNull();
+		assertThat(HostPatternMatcher.labels("example.org.")).isNull();
+		assertThat(HostPatternMatcher.labels("")).isNull();
+		assertThat(HostPatternMatcher.labels("www.example.org")).containsExactly("www", "example", "org");
+	}
+
+	private void assertMatchesLikeAntPathMatcher(List<String> patterns, List<String> hosts) {
+		HostPatternMatcher matcher = HostPatternMatcher.compile(patterns);
+		assertThat(matcher).isNotNull();
+
+		for (String host : hosts) {
+			String expected = patterns.stream()
+				.filter(pattern -> antPathMatcher.match(pattern, host))
+				.findFirst()
+				.orElse(null);
+
+			HostPatternMatcher.Match match = matcher.match(HostPatternMatcher.labels(host));
+
+			if (expected == null) {
+				assertThat(match).as("match for %s", host).isNull();
+			}
+			else {
+				assertThat(match).as("match for %s", host).isNotNull();
+				assertThat(match.pattern()).as("pattern for %s", host).isEqualTo(expected);
+				assertThat(match.variables()).as("variables for %s", host)
+					.isEqualTo(antPathMatcher.extractUriTemplateVariables(expected, host));
+			}
+		}
+	}
+
+}
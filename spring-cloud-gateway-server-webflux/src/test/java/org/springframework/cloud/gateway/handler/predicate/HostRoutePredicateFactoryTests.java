@@ -17,6 +17,7 @@
 package org.springframework.cloud.gateway.handler.predicate;
 
 import java.util.Arrays;
+import java.util.Map;
 import java.util.function.Predicate;
 
 import org.junit.jupiter.api.Test;
@@ -33,10 +34,15 @@ import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.cloud.gateway.test.BaseWebClientTests;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.server.ServerWebExchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.URI_TEMPLATE_VARIABLES_ATTRIBUTE;
 
 @SpringBootTest(webEnvironment = RANDOM_PORT)
 @DirtiesContext
@@ -101,6 +107,17 @@ public class HostRoutePredicateFactoryTests extends BaseWebClientTests {
 		assertThat(predicate.toString()).contains("pattern1").contains("pattern2");
 	}
 
+	@Test
+	public void uriTemplateVariablesAreSetForPatternsWithoutVariables() {
+		Config config = new Config().setPatterns(Arrays.asList("**.example.org"));
+		Predicate<ServerWebExchange> predicate = new HostRoutePredicateFactory().apply(config);
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("/").header(HttpHeaders.HOST, "www.example.org"));
+
+		assertThat(predicate.test(exchange)).isTrue();
+		assertThat(exchange.getAttributes()).containsEntry(URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of());
+	}
+
 	@EnableAutoConfiguration
 	@SpringBootConfiguration
 	@Import(DefaultTestConfig.class)
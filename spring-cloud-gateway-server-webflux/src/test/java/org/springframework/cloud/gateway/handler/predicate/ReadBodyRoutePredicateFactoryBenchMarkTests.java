@@ -0,0 +1,123 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.handler.predicate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import tools.jackson.databind.JsonNode;
+
+import org.springframework.cloud.gateway.handler.AsyncPredicate;
+import org.springframework.cloud.gateway.handler.predicate.ReadBodyRoutePredicateFactory.Config;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Routing of a JSON request through 50 routes with a {@code ReadBody} predicate, over a
+ * few body classes, where only the last route matches.
+ */
+@State(Scope.Benchmark)
+public class ReadBodyRoutePredicateFactoryBenchMarkTests {
+
+	private static final int ROUTES_NUM = 50;
+
+	private static final String BODY = "{\"foo\":\"route-" + (ROUTES_NUM - 1) + "\",\"bar\":\"bar\"}";
+
+	private final List<AsyncPredicate<ServerWebExchange>> predicates = new ArrayList<>();
+
+	@Setup
+	public void setup() {
+		ReadBodyRoutePredicateFactory factory = new ReadBodyRoutePredicateFactory();
+		for (int i = 0; i < ROUTES_NUM; i++) {
+			String foo = "route-" + i;
+			switch (i % 4) {
+				case 0 -> predicates.add(readBody(factory, Event.class, event -> foo.equals(event.getFoo())));
+				case 1 -> predicates.add(readBody(factory, Map.class, map -> foo.equals(map.get("foo"))));
+				case 2 -> predicates
+					.add(readBody(factory, JsonNode.class, node -> foo.equals(node.path("foo").asString())));
+				default -> predicates.add(readBody(factory, String.class, body -> body.contains("\"" + foo + "\"")));
+			}
+		}
+	}
+
+	@Benchmark
+	@Threads(4)
+	@Fork(1)
+	@BenchmarkMode(Mode.Throughput)
+	@Warmup(iterations = 2, time = 3)
+	@Measurement(iterations = 5, time = 3)
+	public Boolean route() {
+		MockServerHttpRequest request = MockServerHttpRequest.post("http://localhost/events")
+			.contentType(MediaType.APPLICATION_JSON)
+			.body(BODY);
+		MockServerWebExchange exchange = MockServerWebExchange.from(request);
+		return Flux.fromIterable(predicates)
+			.concatMap(predicate -> predicate.apply(exchange))
+			.filter(Boolean::booleanValue)
+			.next()
+			.block();
+	}
+
+	private static <T> AsyncPredicate<ServerWebExchange> readBody(ReadBodyRoutePredicateFactory factory,
+			Class<T> inClass, Predicate<T> predicate) {
+		return factory.applyAsync(new Config().setPredicate(inClass, predicate));
+	}
+
+	public static void main(String[] args) throws Exception {
+		org.openjdk.jmh.Main.main(args);
+	}
+
+	public static class Event {
+
+		private String foo;
+
+		private String bar;
+
+		public String getFoo() {
+			return foo;
+		}
+
+		public void setFoo(String foo) {
+			this.foo = foo;
+		}
+
+		public String getBar() {
+			return bar;
+		}
+
+		public void setBar(String bar) {
+			this.bar = bar;
+		}
+
+	}
+
+}
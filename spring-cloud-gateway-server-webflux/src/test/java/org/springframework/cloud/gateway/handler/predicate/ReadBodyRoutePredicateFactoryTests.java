@@ -16,9 +16,12 @@
 
 package org.springframework.cloud.gateway.handler.predicate;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringBootConfiguration;
@@ -36,6 +39,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.web.reactive.server.WebTestClient;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -93,6 +98,32 @@ public class ReadBodyRoutePredicateFactoryTests {
 		assertThat(predicate.toString()).contains("ReadBody: " + config.getInClass());
 	}
 
+	@Test
+	public void bodyIsDecodedOncePerClass() {
+		CountingEvent.instances.set(0);
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/events")
+			.contentType(MediaType.APPLICATION_JSON)
+			.body("{\"foo\":\"message\",\"bar\":\"bar\"}"));
+		ReadBodyRoutePredicateFactory factory = new ReadBodyRoutePredicateFactory();
+
+		List<Boolean> results = Flux
+			.just(readBody(factory, CountingEvent.class, event -> "other".equals(event.getFoo())),
+					readBody(factory, String.class, body -> body.contains("message")),
+					readBody(factory, CountingEvent.class, event -> "message".equals(event.getFoo())),
+					readBody(factory, String.class, body -> body.contains("other")))
+			.concatMap(predicate -> predicate.apply(exchange))
+			.collectList()
+			.block();
+
+		assertThat(results).containsExactly(false, true, true, false);
+		assertThat(CountingEvent.instances).hasValue(1);
+	}
+
+	private static <T> AsyncPredicate<ServerWebExchange> readBody(ReadBodyRoutePredicateFactory factory,
+			Class<T> inClass, Predicate<T> predicate) {
+		return factory.applyAsync(new Config().setPredicate(inClass, predicate));
+	}
+
 	@EnableAutoConfiguration
 	@SpringBootConfiguration
 	@LoadBalancerClients({ @LoadBalancerClient(name = "message", configuration = TestLoadBalancerConfig.class),
@@ -137,6 +168,16 @@ public class ReadBodyRoutePredicateFactoryTests {
 
 	}
 
+	static class CountingEvent extends Event {
+
+		static final AtomicInteger instances = new AtomicInteger();
+
+		CountingEvent() {
+			instances.incrementAndGet();
+		}
+
+	}
+
 	static class Event {
 
 		private String foo;
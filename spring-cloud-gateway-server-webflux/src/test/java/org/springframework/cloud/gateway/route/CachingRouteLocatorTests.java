@@ -16,8 +16,10 @@
 
 package org.springframework.cloud.gateway.route;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -117,6 +119,58 @@ public class CachingRouteLocatorTests {
 
 	}
 
+	@Test
+	public void refreshPublishesChangedRouteIds() throws InterruptedException {
+		Route route1 = route(1);
+		Route route2 = route(2);
+		Route route3 = route(3);
+		List<List<Route>> results = List.of(List.of(route1, route2), List.of(route1, route(2), route3),
+				List.of(route1, route(2)));
+		CachingRouteLocator locator = new CachingRouteLocator(new RouteLocator() {
+			int i = 0;
+
+			@Override
+			public Flux<Route> getRoutes() {
+				return Flux.fromIterable(results.get(i++));
+			}
+		});
+
+		List<RefreshRoutesResultEvent> resultEvents = new ArrayList<>();
+		waitUntilRefreshFinished(locator, resultEvents);
+		assertThat(resultEvents.get(0).getChangedRouteIds()).containsExactly("1", "2");
+
+		// route 2 is rebuilt with another predicate
+		waitUntilRefreshFinished(locator, resultEvents);
+		assertThat(resultEvents.get(1).getChangedRouteIds()).containsExactly("2", "3");
+
+		waitUntilRefreshFinished(locator, resultEvents);
+		assertThat(resultEvents.get(2).getChangedRouteIds()).containsExactly("2", "3");
+	}
+
+	@Test
+	public void debouncedScopedRefreshesAreCombined() throws InterruptedException {
+		List<Route> routes = new ArrayList<>(List.of(route(1, "a"), route(2, "b"), route(3, "c")));
+		CachingRouteLocator locator = new CachingRouteLocator(() -> Flux.fromIterable(routes));
+		locator.getRoutes().collectList().block();
+		// every route is replaced by a route of the same group with another id
+		routes.replaceAll(
+				route -> route(Integer.parseInt(route.getId()) + 3, (String) route.getMetadata().get("group")));
+		locator.setRefreshDebounce(Duration.ofMillis(100));
+
+		List<RefreshRoutesResultEvent> resultEvents = new ArrayList<>();
+		CountDownLatch cdl = new CountDownLatch(1);
+		locator.setApplicationEventPublisher(o -> {
+			resultEvents.add((RefreshRoutesResultEvent) o);
+			cdl.countDown();
+		});
+		locator.onApplicationEvent(new RefreshRoutesEvent(this, Map.of("group", "a")));
+		locator.onApplicationEvent(new RefreshRoutesEvent(this, Map.of("group", "b")));
+
+		assertThat(cdl.await(5, TimeUnit.SECONDS)).isTrue();
+		assertThat(resultEvents).hasSize(1);
+		assertThat(locator.getRoutes().map(Route::getId).collectList().block()).containsExactly("3", "4", "5");
+	}
+
 	private void waitUntilRefreshFinished(CachingRouteLocator locator, List<RefreshRoutesResultEvent> resultEvents)
 			throws InterruptedException {
 		CountDownLatch cdl = new CountDownLatch(1);
@@ -129,6 +183,16 @@ public class CachingRouteLocatorTests {
 		assertThat(cdl.await(5, TimeUnit.SECONDS)).isTrue();
 	}
 
+	Route route(int id, String group) {
+		return Route.async()
+			.id(String.valueOf(id))
+			.uri("http://localhost/" + id)
+			.order(id)
+			.metadata("group", group)
+			.predicate(exchange -> true)
+			.build();
+	}
+
 	Route route(int id) {
 		return Route.async()
 			.id(String.valueOf(id))
@@ -17,11 +17,15 @@
 package org.springframework.cloud.gateway.route;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.testcontainers.containers.GenericContainer;
@@ -33,12 +37,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringBootConfiguration;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.filter.FilterDefinition;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
 import org.springframework.cloud.gateway.handler.predicate.AbstractRoutePredicateFactory;
 import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
 import org.springframework.context.annotation.Bean;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.ReactiveStringRedisTemplate;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -63,6 +70,12 @@ public class RedisRouteDefinitionRepositoryTests {
 	@Autowired
 	private RedisRouteDefinitionRepository redisRouteDefinitionRepository;
 
+	@Autowired
+	private ReactiveRedisTemplate<String, RouteDefinition> reactiveRedisTemplate;
+
+	@Autowired
+	private ReactiveStringRedisTemplate stringRedisTemplate;
+
 	@BeforeAll
 	public static void startRedisContainer() {
 		redis.start();
@@ -74,6 +87,11 @@ public class RedisRouteDefinitionRepositoryTests {
 		registry.add("spring.data.redis.port", redis::getFirstMappedPort);
 	}
 
+	@BeforeEach
+	public void flushRedis() {
+		stringRedisTemplate.execute(connection -> connection.serverCommands().flushAll()).blockLast();
+	}
+
 	@Test
 	public void testAddRouteToRedis() {
 		RouteDefinition testRouteDefinition = defaultTestRoute();
@@ -110,6 +128,83 @@ public class RedisRouteDefinitionRepositoryTests {
 		assertThat(redisRouteDefinitionRepository.getRouteDefinitions().collectList().block().size()).isEqualTo(0);
 	}
 
+	@Test
+	public void testReadRoutesInBatches() {
+		redisRouteDefinitionRepository.setBatchSize(2);
+		for (int i = 0; i < 5; i++) {
+			RouteDefinition routeDefinition = defaultTestRoute();
+			routeDefinition.setId("test-route-" + i);
+			redisRouteDefinitionRepository.save(Mono.just(routeDefinition)).block();
+		}
+
+		List<RouteDefinition> routeDefinitions = redisRouteDefinitionRepository.getRouteDefinitions()
+			.collectList()
+			.block();
+
+		assertThat(routeDefinitions).extracting(RouteDefinition::getId)
+			.containsExactlyInAnyOrder("test-route-0", "test-route-1", "test-route-2", "test-route-3",
+					"test-route-4");
+	}
+
+	@Test
+	public void testRoutesWrittenWithoutVersionAreReadByDefault() {
+		redisRouteDefinitionRepository.save(Mono.just(defaultTestRoute())).block();
+		assertThat(redisRouteDefinitionRepository.getRouteDefinitions().collectList().block()).hasSize(1);
+
+		RouteDefinition otherRoute = defaultTestRoute();
+		otherRoute.setId("other-route");
+		reactiveRedisTemplate.opsForValue().set("routedefinition_other-route", otherRoute).block();
+		assertThat(redisRouteDefinitionRepository.getRouteDefinitions().collectList().block())
+			.extracting(RouteDefinition::getId)
+			.containsExactlyInAnyOrder("test-route", "other-route");
+	}
+
+	@Test
+	public void testRoutesAreReadAgainOnlyWhenVersionChanged() {
+		RedisRouteDefinitionRepository repository = new RedisRouteDefinitionRepository(reactiveRedisTemplate,
+				stringRedisTemplate);
+		repository.setVersionCheckEnabled(true);
+		repository.save(Mono.just(defaultTestRoute())).block();
+		assertThat(repository.getRouteDefinitions().collectList().block()).hasSize(1);
+
+		// written without incrementing the version
+		RouteDefinition otherRoute = defaultTestRoute();
+		otherRoute.setId("other-route");
+		reactiveRedisTemplate.opsForValue().set("routedefinition_other-route", otherRoute).block();
+		assertThat(repository.getRouteDefinitions().collectList().block()).hasSize(1);
+
+		stringRedisTemplate.opsForValue()
+			.increment(RedisRouteDefinitionRepository.ROUTEDEFINITION_VERSION_KEY)
+			.block();
+		assertThat(repository.getRouteDefinitions().collectList().block()).extracting(RouteDefinition::getId)
+			.containsExactlyInAnyOrder("test-route", "other-route");
+	}
+
+	@Test
+	public void testChangesAreAppliedFromNotifications() {
+		List<Object> events = new CopyOnWriteArrayList<>();
+		RedisRouteDefinitionRepository otherInstance = new RedisRouteDefinitionRepository(reactiveRedisTemplate,
+				stringRedisTemplate);
+		otherInstance.setChangeNotificationsEnabled(true);
+		otherInstance.setVersionCheckEnabled(true);
+		otherInstance.setApplicationEventPublisher(events::add);
+		otherInstance.afterPropertiesSet();
+		try {
+			assertThat(otherInstance.getRouteDefinitions().collectList().block()).isEmpty();
+
+			// saved again until the subscription to the channel is established
+			Awaitility.await().atMost(Duration.ofSeconds(5)).pollInterval(Duration.ofMillis(200)).untilAsserted(() -> {
+				redisRouteDefinitionRepository.save(Mono.just(defaultTestRoute())).block();
+				assertThat(events).hasAtLeastOneElementOfType(RefreshRoutesEvent.class);
+			});
+			assertThat(otherInstance.getRouteDefinitions().collectList().block())
+				.containsExactly(defaultTestRoute());
+		}
+		finally {
+			otherInstance.destroy();
+		}
+	}
+
 	private RouteDefinition defaultTestRoute() {
 		RouteDefinition testRouteDefinition = new RouteDefinition();
 		testRouteDefinition.setId("test-route");
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.route;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import org.springframework.boot.webflux.autoconfigure.WebFluxProperties;
+import org.springframework.cloud.gateway.config.GatewayProperties;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.filter.factory.AddRequestHeaderGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RewritePathGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.SetStatusGatewayFilterFactory;
+import org.springframework.cloud.gateway.handler.predicate.HostRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.MethodRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PathRoutePredicateFactory;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+
+/**
+ * Builds 10,000 routes from their definitions, sequentially or in parallel, as on a cold
+ * start.
+ */
+@State(Scope.Benchmark)
+public class RouteDefinitionRouteLocatorBenchMarkTests {
+
+	private static final int ROUTES_NUM = 10_000;
+
+	@Param({ "1", "4", "8" })
+	private int parallelism;
+
+	private RouteDefinitionRouteLocator routeLocator;
+
+	@Setup
+	public void setup() {
+		List<RouteDefinition> definitions = new ArrayList<>();
+		for (int i = 0; i < ROUTES_NUM; i++) {
+			RouteDefinition definition = new RouteDefinition();
+			definition.setId("route-" + i);
+			definition.setUri(URI.create("https://service-" + i + ".example.com"));
+			definition.setPredicates(List.of(new PredicateDefinition("Path=/service-" + i + "/{segment}/**"),
+					new PredicateDefinition("Host=**.example.com"), new PredicateDefinition("Method=GET,POST")));
+			definition.setFilters(List.of(new FilterDefinition("AddRequestHeader=X-Route, route-" + i),
+					new FilterDefinition("RewritePath=/service-" + i + "/(?<segment>.*), /${segment}"),
+					new FilterDefinition("SetStatus=200")));
+			definitions.add(definition);
+		}
+		GatewayProperties gatewayProperties = new GatewayProperties();
+		gatewayProperties.setIncrementalRouteRefresh(false);
+		gatewayProperties.setRouteCompilationParallelism(parallelism);
+		routeLocator = new RouteDefinitionRouteLocator(() -> Flux.fromIterable(definitions),
+				List.of(new PathRoutePredicateFactory(new WebFluxProperties()), new HostRoutePredicateFactory(),
+						new MethodRoutePredicateFactory()),
+				List.of(new AddRequestHeaderGatewayFilterFactory(), new RewritePathGatewayFilterFactory(),
+						new SetStatusGatewayFilterFactory()),
+				gatewayProperties, new ConfigurationService(null, () -> null, () -> null));
+	}
+
+	@Benchmark
+	@Fork(1)
+	@BenchmarkMode(Mode.AverageTime)
+	@OutputTimeUnit(TimeUnit.MILLISECONDS)
+	@Warmup(iterations = 3, time = 5)
+	@Measurement(iterations = 5, time = 5)
+	public List<Route> buildRoutes() {
+		return routeLocator.getRoutes().collectList().block();
+	}
+
+	public static void main(String[] args) throws Exception {
+		org.openjdk.jmh.Main.main(args);
+	}
+
+}
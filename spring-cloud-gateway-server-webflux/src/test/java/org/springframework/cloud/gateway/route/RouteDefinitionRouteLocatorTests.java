@@ -17,19 +17,25 @@
 package org.springframework.cloud.gateway.route;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.Test;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.cloud.gateway.config.GatewayProperties;
 import org.springframework.cloud.gateway.config.PropertiesRouteDefinitionLocator;
 import org.springframework.cloud.gateway.filter.FilterDefinition;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
 import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.AbstractNameValueGatewayFilterFactory.NameValueConfig;
 import org.springframework.cloud.gateway.filter.factory.AddResponseHeaderGatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.GatewayFilterFactory;
 import org.springframework.cloud.gateway.filter.factory.RemoveResponseHeaderGatewayFilterFactory;
@@ -38,6 +44,7 @@ import org.springframework.cloud.gateway.handler.predicate.HostRoutePredicateFac
 import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
 import org.springframework.cloud.gateway.handler.predicate.RoutePredicateFactory;
 import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.util.ObjectUtils;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -200,6 +207,123 @@ public class RouteDefinitionRouteLocatorTests {
 		}).expectComplete().verify();
 	}
 
+	@Test
+	public void unchangedRoutesAreReusedOnRefresh() {
+		List<RouteDefinition> definitions = new ArrayList<>(
+				List.of(routeDefinition("foo", "X-Foo, 1"), routeDefinition("bar", "X-Bar, 1")));
+		GatewayProperties gatewayProperties = new GatewayProperties();
+		RouteDefinitionRouteLocator routeLocator = new RouteDefinitionRouteLocator(
+				() -> Flux.fromIterable(definitions), List.of(new HostRoutePredicateFactory()),
+				List.of(new AddResponseHeaderGatewayFilterFactory()), gatewayProperties,
+				new ConfigurationService(null, () -> null, () -> null));
+
+		List<Route> routes = routeLocator.getRoutes().collectList().block();
+		List<Route> refreshed = routeLocator.getRoutes().collectList().block();
+		assertThat(refreshed).hasSize(2);
+		assertThat(refreshed.get(0)).isSameAs(routes.get(0));
+		assertThat(refreshed.get(1)).isSameAs(routes.get(1));
+
+		// an equal definition is not rebuilt, a changed one is
+		definitions.set(0, routeDefinition("foo", "X-Foo, 1"));
+		definitions.set(1, routeDefinition("bar", "X-Bar, 2"));
+		refreshed = routeLocator.getRoutes().collectList().block();
+		assertThat(refreshed.get(0)).isSameAs(routes.get(0));
+		assertThat(refreshed.get(1)).isNotSameAs(routes.get(1));
+
+		// a definition modified in place is rebuilt
+		routes = refreshed;
+		definitions.get(1).setOrder(5);
+		refreshed = routeLocator.getRoutes().collectList().block();
+		assertThat(refreshed.get(0)).isSameAs(routes.get(0));
+		assertThat(refreshed.get(1)).isNotSameAs(routes.get(1));
+		assertThat(refreshed.get(1).getOrder()).isEqualTo(5);
+
+		// changed default filters apply to every route
+		routes = refreshed;
+		gatewayProperties.setDefaultFilters(List.of(new FilterDefinition("AddResponseHeader=X-Default, 1")));
+		refreshed = routeLocator.getRoutes().collectList().block();
+		assertThat(refreshed.get(0)).isNotSameAs(routes.get(0));
+		assertThat(refreshed.get(1)).isNotSameAs(routes.get(1));
+		assertThat(refreshed.get(1).getFilters()).hasSize(2);
+	}
+
+	@Test
+	public void routesAreRebuiltWhenIncrementalRefreshIsDisabled() {
+		GatewayProperties gatewayProperties = new GatewayProperties();
+		gatewayProperties.setIncrementalRouteRefresh(false);
+		RouteDefinitionRouteLocator routeLocator = new RouteDefinitionRouteLocator(
+				() -> Flux.just(routeDefinition("foo", "X-Foo, 1")), List.of(new HostRoutePredicateFactory()),
+				List.of(new AddResponseHeaderGatewayFilterFactory()), gatewayProperties,
+				new ConfigurationService(null, () -> null, () -> null));
+
+		Route route = routeLocator.getRoutes().blockFirst();
+
+		assertThat(routeLocator.getRoutes().blockFirst()).isNotSameAs(route);
+	}
+
+	@Test
+	public void routesWithExpressionsAreRebuiltOnRefresh() {
+		DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+		beanFactory.registerSingleton("environment", new StandardEnvironment());
+		RouteDefinitionRouteLocator routeLocator = new RouteDefinitionRouteLocator(
+				() -> Flux.just(routeDefinition("foo", "X-Foo, 1"), routeDefinition("bar", "X-Bar, #{'1'}")),
+				List.of(new HostRoutePredicateFactory()), List.of(new AddResponseHeaderGatewayFilterFactory()),
+				new GatewayProperties(), new ConfigurationService(beanFactory, () -> null, () -> null));
+
+		List<Route> routes = routeLocator.getRoutes().collectList().block();
+		List<Route> refreshed = routeLocator.getRoutes().collectList().block();
+
+		assertThat(refreshed.get(0)).isSameAs(routes.get(0));
+		assertThat(refreshed.get(1)).isNotSameAs(routes.get(1));
+	}
+
+	@Test
+	public void routesAreBuiltInParallelInDefinitionOrder() {
+		Set<String> threads = ConcurrentHashMap.newKeySet();
+		List<RouteDefinition> definitions = new ArrayList<>(
+				IntStream.range(0, 50).mapToObj(i -> routeDefinition("route" + i, "X-Route, " + i)).toList());
+		RouteDefinition invalid = routeDefinition("invalid", "X-Invalid, 1");
+		invalid.setFilters(List.of(new FilterDefinition("Unknown")));
+		definitions.add(25, invalid);
+		GatewayProperties gatewayProperties = new GatewayProperties();
+		gatewayProperties.setRouteCompilationParallelism(4);
+		gatewayProperties.setFailOnRouteDefinitionError(false);
+		RouteDefinitionRouteLocator routeLocator = new RouteDefinitionRouteLocator(
+				() -> Flux.fromIterable(definitions), List.of(new HostRoutePredicateFactory()),
+				List.of(new AddResponseHeaderGatewayFilterFactory() {
+					@Override
+					public String name() {
+						return "AddResponseHeader";
+					}
+
+					@Override
+					public GatewayFilter apply(NameValueConfig config) {
+						threads.add(Thread.currentThread().getName());
+						return super.apply(config);
+					}
+				}), gatewayProperties, new ConfigurationService(null, () -> null, () -> null));
+
+		List<Route> routes = routeLocator.getRoutes().collectList().block();
+
+		assertThat(routes).extracting(Route::getId)
+			.containsExactlyElementsOf(IntStream.range(0, 50).mapToObj(i -> "route" + i).toList());
+		assertThat(threads).noneMatch(thread -> thread.equals(Thread.currentThread().getName()));
+
+		gatewayProperties.setFailOnRouteDefinitionError(true);
+		StepVerifier.create(routeLocator.getRoutes())
+			.thenConsumeWhile(route -> true)
+			.verifyError(IllegalArgumentException.class);
+	}
+
+	private RouteDefinition routeDefinition(String id, String header) {
+		RouteDefinition definition = new RouteDefinition();
+		definition.setId(id);
+		definition.setUri(URI.create("https://" + id + ".example.com"));
+		definition.setPredicates(List.of(new PredicateDefinition("Host=" + id + ".example.com")));
+		definition.setFilters(List.of(new FilterDefinition("AddResponseHeader=" + header)));
+		return definition;
+	}
+
 	private List<RouteDefinition> containsInvalidRoutes() {
 		RouteDefinition foo = new RouteDefinition();
 		foo.setId("foo");
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.route;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.jspecify.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RouteRefreshCoordinatorTests {
+
+	private final List<@Nullable List<Map<String, Object>>> refreshes = new ArrayList<>();
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	@Test
+	public void eventsWithinDebounceWindowAreRefreshedOnce() {
+		VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+		RouteRefreshCoordinator coordinator = coordinator(scopes -> Mono.empty(), scheduler);
+		coordinator.setDebounce(Duration.ofMillis(500));
+
+		coordinator.submit(Map.of("group", "a"));
+		coordinator.submit(Map.of());
+		coordinator.submit(Map.of("group", "b"));
+		assertThat(refreshes).isEmpty();
+		assertThat(meterRegistry.get("spring.cloud.gateway.routes.refresh.pending").gauge().value()).isEqualTo(3);
+
+		scheduler.advanceTimeBy(Duration.ofMillis(500));
+
+		assertThat(refreshes).containsExactly((List<Map<String, Object>>) null);
+		assertThat(meterRegistry.get("spring.cloud.gateway.routes.refresh.pending").gauge().value()).isZero();
+		assertThat(meterRegistry.get("spring.cloud.gateway.routes.refresh.skipped").counter().count()).isEqualTo(2);
+		assertThat(refreshTimer("SUCCESS").count()).isEqualTo(1);
+	}
+
+	@Test
+	public void scopedEventsAreMerged() {
+		VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+		RouteRefreshCoordinator coordinator = coordinator(scopes -> Mono.empty(), scheduler);
+		coordinator.setDebounce(Duration.ofMillis(500));
+
+		coordinator.submit(Map.of("group", "a"));
+		coordinator.submit(Map.of("group", "b"));
+		coordinator.submit(Map.of("group", "a"));
+		scheduler.advanceTimeBy(Duration.ofMillis(500));
+
+		assertThat(refreshes).containsExactly(List.of(Map.of("group", "a"), Map.of("group", "b")));
+	}
+
+	@Test
+	public void oneRefreshRunsAndOneIsPending() {
+		List<Sinks.Empty<Void>> running = new ArrayList<>();
+		RouteRefreshCoordinator coordinator = coordinator(scopes -> {
+			Sinks.Empty<Void> sink = Sinks.empty();
+			running.add(sink);
+			return sink.asMono();
+		}, VirtualTimeScheduler.create());
+
+		coordinator.submit(Map.of());
+		coordinator.submit(Map.of("group", "a"));
+		coordinator.submit(Map.of("group", "b"));
+		assertThat(refreshes).hasSize(1);
+
+		running.get(0).tryEmitEmpty();
+		assertThat(refreshes).containsExactly(null, List.of(Map.of("group", "a"), Map.of("group", "b")));
+
+		running.get(1).tryEmitEmpty();
+		assertThat(refreshes).hasSize(2);
+		assertThat(meterRegistry.get("spring.cloud.gateway.routes.refresh.skipped").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	public void failedRefreshDoesNotBlockNextRefresh() {
+		RouteRefreshCoordinator coordinator = coordinator(
+				scopes -> refreshes.size() == 1 ? Mono.error(new IllegalStateException()) : Mono.empty(),
+				VirtualTimeScheduler.create());
+
+		coordinator.submit(Map.of());
+		coordinator.submit(Map.of());
+
+		assertThat(refreshes).hasSize(2);
+		assertThat(refreshTimer("FAILURE").count()).isEqualTo(1);
+		assertThat(refreshTimer("SUCCESS").count()).isEqualTo(1);
+	}
+
+	private Timer refreshTimer(String outcome) {
+		return meterRegistry.get("spring.cloud.gateway.routes.refresh.time").tag("outcome", outcome).timer();
+	}
+
+	private RouteRefreshCoordinator coordinator(Function<@Nullable List<Map<String, Object>>, Mono<Void>> refresher,
+			VirtualTimeScheduler scheduler) {
+		RouteRefreshCoordinator coordinator = new RouteRefreshCoordinator(scopes -> {
+			refreshes.add(scopes);
+			return refresher.apply(scopes);
+		}, scheduler);
+		coordinator.setMetrics(new MicrometerRouteRefreshMetrics(meterRegistry, "spring.cloud.gateway"));
+		return coordinator;
+	}
+
+}
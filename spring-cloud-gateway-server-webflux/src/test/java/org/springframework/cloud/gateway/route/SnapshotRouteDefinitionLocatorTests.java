@@ -0,0 +1,105 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.route;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.FilterDefinition;
+import org.springframework.cloud.gateway.handler.predicate.PredicateDefinition;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SnapshotRouteDefinitionLocatorTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	public void routeDefinitionsAreWrittenAfterRefresh() {
+		Path file = tempDir.resolve("routes.snapshot");
+		List<RouteDefinition> routeDefinitions = List.of(routeDef(1), routeDef(2));
+		SnapshotRouteDefinitionLocator locator = new SnapshotRouteDefinitionLocator(
+				() -> Flux.fromIterable(routeDefinitions), file);
+		locator.setApplicationEventPublisher(event -> {
+		});
+
+		assertThat(locator.getRouteDefinitions().collectList().block()).isEqualTo(routeDefinitions);
+		locator.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+		Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> Files.exists(file));
+		SnapshotRouteDefinitionLocator restarted = new SnapshotRouteDefinitionLocator(Flux::empty, file);
+		assertThat(restarted.getRouteDefinitions().collectList().block()).isEqualTo(routeDefinitions);
+	}
+
+	@Test
+	public void snapshotIsServedUntilFirstRoutesAreBuilt() {
+		Path file = tempDir.resolve("routes.snapshot");
+		SnapshotRouteDefinitionLocator previous = new SnapshotRouteDefinitionLocator(
+				() -> Flux.just(routeDef(1)), file);
+		previous.getRouteDefinitions().blockLast();
+		previous.onApplicationEvent(new RefreshRoutesResultEvent(this));
+		Awaitility.await().atMost(Duration.ofSeconds(5)).until(() -> Files.exists(file));
+
+		List<Object> events = new CopyOnWriteArrayList<>();
+		SnapshotRouteDefinitionLocator locator = new SnapshotRouteDefinitionLocator(
+				() -> Flux.just(routeDef(1), routeDef(2)), file);
+		locator.setApplicationEventPublisher(events::add);
+
+		assertThat(locator.getRouteDefinitions().collectList().block()).containsExactly(routeDef(1));
+		assertThat(locator.getRouteDefinitions().collectList().block()).containsExactly(routeDef(1));
+
+		locator.onApplicationEvent(new RefreshRoutesResultEvent(this));
+
+		assertThat(events).hasSize(1).first().isInstanceOf(RefreshRoutesEvent.class);
+		assertThat(locator.getRouteDefinitions().collectList().block()).containsExactly(routeDef(1), routeDef(2));
+	}
+
+	@Test
+	public void invalidSnapshotIsIgnored() throws Exception {
+		Path file = tempDir.resolve("routes.snapshot");
+		Files.writeString(file, "not a snapshot");
+
+		SnapshotRouteDefinitionLocator locator = new SnapshotRouteDefinitionLocator(() -> Flux.just(routeDef(1)),
+				file);
+
+		assertThat(locator.getRouteDefinitions().collectList().block()).containsExactly(routeDef(1));
+	}
+
+	private RouteDefinition routeDef(int id) {
+		RouteDefinition def = new RouteDefinition();
+		def.setId(String.valueOf(id));
+		def.setUri(URI.create("https://example" + id + ".com"));
+		def.setOrder(id);
+		def.setPredicates(List.of(new PredicateDefinition("Path=/" + id + "/**")));
+		def.setFilters(List.of(new FilterDefinition("StripPrefix=1")));
+		def.getMetadata().put("team", "team" + id);
+		return def;
+	}
+
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.factory.AddRequestHeaderGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.RetryGatewayFilterFactory;
+import org.springframework.cloud.gateway.filter.factory.StripPrefixGatewayFilterFactory;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccumulatingRequestExchangeTests {
+
+	@Test
+	public void headerChangesAreAppliedOnceWhenRequestIsRead() {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost/a").header("X-Removed", "x"));
+		AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange)
+			.mutateHeaders(headers -> headers.add("X-A", "1"));
+		accumulatingExchange = AccumulatingRequestExchange.from(accumulatingExchange)
+			.mutateHeaders(headers -> headers.set("X-A", "2"))
+			.mutateHeaders(headers -> headers.remove("X-Removed"));
+
+		assertThat(AccumulatingRequestExchange.from(accumulatingExchange)).isSameAs(accumulatingExchange);
+		assertThat(accumulatingExchange.getRequestURI()).isSameAs(exchange.getRequest().getURI());
+
+		ServerHttpRequest request = accumulatingExchange.getRequest();
+		assertThat(request.getHeaders().get("X-A")).containsExactly("2");
+		assertThat(request.getHeaders().containsHeader("X-Removed")).isFalse();
+		assertThat(accumulatingExchange.getRequest()).isSameAs(request);
+		assertThat(exchange.getRequest().getHeaders().containsHeader("X-A")).isFalse();
+	}
+
+	@Test
+	public void changesLeaveOriginalExchangeUnchanged() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/a"));
+		AccumulatingRequestExchange first = AccumulatingRequestExchange.from(exchange)
+			.mutateHeaders(headers -> headers.add("X-A", "1"));
+
+		AccumulatingRequestExchange second = first.mutateHeaders(headers -> headers.add("X-B", "1")).mutatePath("/b");
+
+		assertThat(first.getRequestURI()).hasPath("/a");
+		assertThat(first.getRequest().getHeaders().containsHeader("X-B")).isFalse();
+		assertThat(first.getRequest().getHeaders().getFirst("X-A")).isEqualTo("1");
+		assertThat(second.getRequest().getURI()).hasPath("/b");
+		assertThat(second.getRequest().getHeaders().get("X-A")).containsExactly("1");
+		assertThat(second.getRequest().getHeaders().get("X-B")).containsExactly("1");
+		assertThat(second.getAttributes()).isSameAs(exchange.getAttributes());
+	}
+
+	@Test
+	public void pathChangeAppliesPendingHeaderChanges() {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.get("http://localhost/a?b=c"));
+		AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange)
+			.mutateHeaders(headers -> headers.add("X-A", "1"))
+			.mutatePath("/d/a");
+
+		ServerHttpRequest request = accumulatingExchange.getRequest();
+		assertThat(request.getURI()).hasPath("/d/a").hasQuery("b=c");
+		assertThat(request.getHeaders().getFirst("X-A")).isEqualTo("1");
+		assertThat(accumulatingExchange.getRequestURI()).isEqualTo(request.getURI());
+	}
+
+	@Test
+	public void mutatedExchangeKeepsAccumulatedRequest() {
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/a"));
+		AccumulatingRequestExchange accumulatingExchange = AccumulatingRequestExchange.from(exchange)
+			.mutatePath("/b")
+			.mutateHeaders(headers -> headers.add("X-A", "1"));
+
+		ServerWebExchange mutated = accumulatingExchange.mutate().build();
+
+		assertThat(mutated.getRequest().getURI()).hasPath("/b");
+		assertThat(mutated.getRequest().getHeaders().getFirst("X-A")).isEqualTo("1");
+		assertThat(mutated.getAttributes()).isSameAs(exchange.getAttributes());
+	}
+
+	@Test
+	public void retriedFiltersStartFromRequestReceivedByRetry() {
+		RetryGatewayFilterFactory.RetryConfig retryConfig = new RetryGatewayFilterFactory.RetryConfig();
+		retryConfig.setRetries(3);
+		List<GatewayFilter> filters = List.of(
+				new AddRequestHeaderGatewayFilterFactory().apply(c -> c.setName("X-A").setValue("1")),
+				new RetryGatewayFilterFactory().apply(retryConfig),
+				new StripPrefixGatewayFilterFactory().apply(c -> c.setParts(1)),
+				new AddRequestHeaderGatewayFilterFactory().apply(c -> c.setName("X-B").setValue("1")));
+		List<ServerHttpRequest> routedRequests = new ArrayList<>();
+		GatewayFilterChain chain = chain(filters, 0, exchange -> {
+			routedRequests.add(exchange.getRequest());
+			return routedRequests.size() < 3 ? Mono.error(new IOException()) : Mono.empty();
+		});
+
+		chain.filter(MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/a/b/c"))).block();
+
+		assertThat(routedRequests).hasSize(3).allSatisfy(request -> {
+			assertThat(request.getURI()).hasPath("/b/c");
+			assertThat(request.getHeaders().get("X-A")).containsExactly("1");
+			assertThat(request.getHeaders().get("X-B")).containsExactly("1");
+		});
+	}
+
+	/**
+	 * Subscribes to the filters again on every subscription, like the chain of
+	 * {@code FilteringWebHandler}.
+	 */
+	private static GatewayFilterChain chain(List<GatewayFilter> filters, int index, GatewayFilterChain routing) {
+		if (index == filters.size()) {
+			return exchange -> Mono.defer(() -> routing.filter(exchange));
+		}
+		GatewayFilterChain next = chain(filters, index + 1, routing);
+		return exchange -> Mono.defer(() -> filters.get(index).filter(exchange, next));
+	}
+
+}
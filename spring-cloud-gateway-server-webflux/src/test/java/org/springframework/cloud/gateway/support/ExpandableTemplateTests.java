@@ -0,0 +1,56 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.support;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import org.springframework.web.util.UriComponentsBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ExpandableTemplateTests {
+
+	@ParameterizedTest
+	@ValueSource(strings = { "my-noop", "my-{foo}-{baz}", "/{foo}/{foo}", "{foo}", "//a//{foo}//", "{id:\\d{3}}-{foo}",
+			"{}", "{a/b}", "a{foo", "a}{foo}{", "{empty}x", "{nullValue}", "{foo}$1\\{baz}" })
+	public void expandsLikeUriComponentsBuilder(String template) {
+		Map<String, String> variables = new HashMap<>();
+		variables.put("foo", "bar");
+		variables.put("baz", "b$a\\m");
+		variables.put("id", "123");
+		variables.put("empty", "");
+		variables.put("nullValue", null);
+
+		String expected = UriComponentsBuilder.fromPath(template).build().expand(variables).getPath();
+
+		assertThat(ExpandableTemplate.compile(template).expand(variables)).isEqualTo(expected);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = { "{missing}", "a-{foo}-{missing}" })
+	public void missingVariableThrowsException(String template) {
+		assertThatThrownBy(() -> ExpandableTemplate.compile(template).expand(Map.of("foo", "bar")))
+			.isInstanceOf(IllegalArgumentException.class)
+			.hasMessage("Map has no value for 'missing'");
+	}
+
+}
@@ -17,30 +17,41 @@
 package org.springframework.cloud.gateway.support;
 
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 import org.assertj.core.api.Assertions;
+import org.awaitility.Awaitility;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.core.io.buffer.DefaultDataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
 import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.reactive.DispatcherHandler;
 import org.springframework.web.reactive.function.server.HandlerStrategies;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.server.ServerWebExchange;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.assertArg;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CACHED_REQUEST_BODY_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.CACHED_SERVER_HTTP_REQUEST_DECORATOR_ATTR;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_PREDICATE_PATH_CONTAINER_ATTR;
 import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.expand;
 import static org.springframework.http.server.PathContainer.parsePath;
@@ -62,6 +73,20 @@ public class ServerWebExchangeUtilsTests {
 		assertThat(expanded).isEqualTo("my-noop");
 	}
 
+	@Test
+	public void putUriTemplateVariablesMerges() {
+		MockServerWebExchange exchange = mockExchange(Map.of("foo", "bar"));
+		assertThat(ServerWebExchangeUtils.getUriTemplateVariables(exchange)).containsOnly(entry("foo", "bar"));
+
+		ServerWebExchangeUtils.putUriTemplateVariables(exchange, Map.of("baz", "bam"));
+		Map<String, String> merged = ServerWebExchangeUtils.getUriTemplateVariables(exchange);
+		assertThat(merged).containsOnly(entry("foo", "bar"), entry("baz", "bam"));
+
+		ServerWebExchangeUtils.putUriTemplateVariables(exchange, Map.of("foo", "qux"));
+		assertThat(ServerWebExchangeUtils.getUriTemplateVariables(exchange)).isSameAs(merged)
+			.containsOnly(entry("foo", "qux"), entry("baz", "bam"));
+	}
+
 	@Test
 	public void missingVarThrowsException() {
 		MockServerWebExchange exchange = mockExchange(Collections.emptyMap());
@@ -102,6 +127,58 @@ public class ServerWebExchangeUtilsTests {
 		Assertions.assertThat(dataBufferBeforeCaching).isEqualTo(dataBufferAfterCached);
 	}
 
+	@Test
+	public void bodyWithinMemoryThresholdIsCachedInMemory(@TempDir Path directory) {
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.post("/post").body(chunks(body(1024), 100)));
+		RequestBodyCachePolicy policy = new RequestBodyCachePolicy(DataSize.ofKilobytes(1), directory);
+
+		ServerHttpRequest request = ServerWebExchangeUtils.cacheRequestBody(exchange, policy, Mono::just).block();
+
+		assertThat((Object) exchange.getAttribute(CACHED_REQUEST_BODY_ATTR)).isInstanceOf(DataBuffer.class);
+		assertThat(read(request)).isEqualTo(body(1024));
+		assertThat(directory).isEmptyDirectory();
+	}
+
+	@Test
+	public void bodyOverMemoryThresholdIsCachedInFileAndReplayed(@TempDir Path directory) {
+		byte[] body = body(100 * 1024);
+		MockServerWebExchange exchange = MockServerWebExchange
+			.from(MockServerHttpRequest.post("/post").body(chunks(body, 1000)));
+		RequestBodyCachePolicy policy = new RequestBodyCachePolicy(DataSize.ofKilobytes(8), directory);
+
+		ServerHttpRequest request = ServerWebExchangeUtils.cacheRequestBodyAndRequest(exchange, policy, Mono::just)
+			.block();
+
+		CachedRequestBodyFile file = exchange.getAttribute(CACHED_REQUEST_BODY_ATTR);
+		assertThat(file).isNotNull();
+		assertThat(file.getSize()).isEqualTo(body.length);
+		assertThat(file.getPath()).hasParent(directory).hasBinaryContent(body);
+		assertThat((Object) exchange.getAttribute(CACHED_SERVER_HTTP_REQUEST_DECORATOR_ATTR)).isSameAs(request);
+		// the body can be read again, for example by a retry
+		assertThat(read(request)).isEqualTo(body);
+		assertThat(read(request)).isEqualTo(body);
+
+		ServerWebExchangeUtils.clearCachedRequestBody(exchange);
+
+		assertThat(directory).isEmptyDirectory();
+		assertThat(read(request)).isEmpty();
+	}
+
+	@Test
+	public void fileOfFailedBodyIsDeleted(@TempDir Path directory) {
+		Flux<DataBuffer> body = chunks(body(10 * 1024), 1000).concatWith(Flux.error(new IllegalStateException("boom")));
+		MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/post").body(body));
+		RequestBodyCachePolicy policy = new RequestBodyCachePolicy(DataSize.ofBytes(2048), directory);
+
+		Assertions
+			.assertThatThrownBy(() -> ServerWebExchangeUtils.cacheRequestBody(exchange, policy, Mono::just).block())
+			.hasMessage("boom");
+
+		Awaitility.await().untilAsserted(() -> assertThat(directory).isEmptyDirectory());
+		assertThat((Object) exchange.getAttribute(CACHED_REQUEST_BODY_ATTR)).isNull();
+	}
+
 	@Test
 	public void forwardedRequestsHaveDisruptiveAttributesAndHeadersRemoved() {
 		DispatcherHandler handler = Mockito.mock(DispatcherHandler.class);
@@ -125,6 +202,29 @@ public class ServerWebExchangeUtilsTests {
 		}));
 	}
 
+	private static byte[] body(int size) {
+		byte[] body = new byte[size];
+		for (int i = 0; i < size; i++) {
+			body[i] = (byte) ('a' + i % 26);
+		}
+		return body;
+	}
+
+	private static Flux<DataBuffer> chunks(byte[] body, int chunkSize) {
+		return Flux.range(0, (body.length + chunkSize - 1) / chunkSize)
+			.map(i -> DefaultDataBufferFactory.sharedInstance
+				.wrap(Arrays.copyOfRange(body, i * chunkSize, Math.min(body.length, (i + 1) * chunkSize))));
+	}
+
+	private static byte[] read(ServerHttpRequest request) {
+		return DataBufferUtils.join(request.getBody()).map(buffer -> {
+			byte[] bytes = new byte[buffer.readableByteCount()];
+			buffer.read(bytes);
+			DataBufferUtils.release(buffer);
+			return bytes;
+		}).defaultIfEmpty(new byte[0]).block();
+	}
+
 	private MockServerWebExchange mockExchange(Map<String, String> vars) {
 		return mockExchange(HttpMethod.GET, vars);
 	}
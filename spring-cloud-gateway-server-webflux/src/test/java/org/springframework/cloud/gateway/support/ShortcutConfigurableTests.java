@@ -30,7 +30,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.cloud.gateway.support.ShortcutConfigurable.ShortcutType;
 import org.springframework.context.annotation.Bean;
 import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.expression.spel.SpelCompilerMode;
 import org.springframework.expression.spel.SpelEvaluationException;
+import org.springframework.expression.spel.SpelParserConfiguration;
 import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -166,6 +168,29 @@ public class ShortcutConfigurableTests {
 		assertThat(map).isNotNull().containsEntry("bean", 42).containsEntry("arg1", "val1");
 	}
 
+	@Test
+	public void testNormalizeDefaultTypeWithCachedAndCompiledSpel() {
+		parser = new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.IMMEDIATE, null));
+		ShortcutConfigurable shortcutConfigurable = new ShortcutConfigurable() {
+			@Override
+			public List<String> shortcutFieldOrder() {
+				return Arrays.asList("bean", "arg1");
+			}
+		};
+		Map<String, String> args = new HashMap<>();
+		args.put("bean", "#{@foo + 1}");
+		args.put("arg1", "#{2 * 3}");
+		for (int i = 0; i < 3; i++) {
+			Map<String, Object> map = ShortcutType.DEFAULT.normalize(args, shortcutConfigurable, parser,
+					this.beanFactory);
+			assertThat(map).isNotNull().containsEntry("bean", 43).containsEntry("arg1", 6);
+		}
+		assertThat(ShortcutExpressionCache.getExpression(parser, "#{2 * 3}"))
+			.isSameAs(ShortcutExpressionCache.getExpression(parser, "#{2 * 3}"));
+		assertThat(ShortcutExpressionCache.getEvaluationContext(this.beanFactory))
+			.isSameAs(ShortcutExpressionCache.getEvaluationContext(this.beanFactory));
+	}
+
 	@Test
 	@SuppressWarnings("unchecked")
 	public void testNormalizeGatherListTypeWithSpel() {
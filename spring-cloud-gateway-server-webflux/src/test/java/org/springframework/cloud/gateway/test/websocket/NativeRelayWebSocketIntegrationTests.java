@@ -0,0 +1,102 @@
+/*
+ * Copyright 2013-present the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.springframework.cloud.gateway.test.websocket;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.DisabledIfEnvironmentVariable;
+import reactor.core.publisher.Flux;
+
+import org.springframework.cloud.gateway.filter.WebsocketRoutingFilter;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+/**
+ * Runs the {@link WebSocketIntegrationTests} with frames relayed directly between the
+ * Netty connections.
+ */
+@DisabledIfEnvironmentVariable(named = "GITHUB_ACTIONS", matches = "true")
+public class NativeRelayWebSocketIntegrationTests extends WebSocketIntegrationTests {
+
+	@Override
+	protected String[] getGatewayProperties() {
+		return new String[] { "spring.cloud.gateway.server.webflux.httpclient.websocket.native-relay=true" };
+	}
+
+	@Test
+	public void usesNativeRelay() {
+		assertThat(this.gatewayContext.getBean(WebsocketRoutingFilter.class).isNativeRelay()).isTrue();
+	}
+
+	@Test
+	public void keepsSessionOpenAcrossRoundTrips() throws Exception {
+		int count = 3;
+		Flux<String> input = Flux.range(1, count).map(index -> "msg-" + index).delayElements(Duration.ofMillis(500));
+		AtomicReference<List<String>> actualRef = new AtomicReference<>();
+		this.client
+			.execute(getUrl("/echo"),
+					session -> session.send(input.map(session::textMessage))
+						.and(session.receive()
+							.take(count)
+							.map(WebSocketMessage::getPayloadAsText)
+							.collectList()
+							.doOnNext(actualRef::set)))
+			.block(TIMEOUT);
+
+		assertThat(actualRef.get()).containsExactly("msg-1", "msg-2", "msg-3");
+	}
+
+	@Test
+	public void recordsFramesAndSessions() throws Exception {
+		// the session path records the same metrics
+		assertThat(this.gatewayContext.getBean(WebsocketRoutingFilter.class).isNativeRelay()).isTrue();
+		int count = 10;
+		Flux<String> input = Flux.range(1, count).map(index -> "msg-" + index);
+		AtomicReference<List<String>> actualRef = new AtomicReference<>();
+		this.client
+			.execute(getUrl("/echo"),
+					session -> session.send(input.map(session::textMessage))
+						.thenMany(session.receive().take(count).map(WebSocketMessage::getPayloadAsText))
+						.collectList()
+						.doOnNext(actualRef::set)
+						.then())
+			.block(TIMEOUT);
+		assertThat(actualRef.get()).hasSize(count);
+
+		MeterRegistry meterRegistry = this.gatewayContext.getBean(MeterRegistry.class);
+		await().untilAsserted(() -> {
+			assertThat(count(meterRegistry, "frames", "inbound")).isEqualTo(count);
+			assertThat(count(meterRegistry, "frames", "outbound")).isEqualTo(count);
+			assertThat(count(meterRegistry, "bytes", "outbound")).isEqualTo(count * "msg-1".length() + 1);
+			assertThat(meterRegistry.get("spring.cloud.gateway.websocket.sessions.active").gauge().value()).isZero();
+		});
+	}
+
+	private static double count(MeterRegistry meterRegistry, String name, String direction) {
+		return meterRegistry.get("spring.cloud.gateway.websocket." + name)
+			.tag("direction", direction)
+			.counter()
+			.count();
+	}
+
+}
@@ -91,17 +91,17 @@ import static org.springframework.cloud.gateway.filter.WebsocketRoutingFilter.SE
 @DisabledIfEnvironmentVariable(named = "GITHUB_ACTIONS", matches = "true")
 public class WebSocketIntegrationTests {
 
-	private static final Duration TIMEOUT = Duration.ofMillis(5000);
+	protected static final Duration TIMEOUT = Duration.ofMillis(5000);
 
 	private static final Log logger = LogFactory.getLog(WebSocketIntegrationTests.class);
 
 	protected int serverPort;
 
-	private WebSocketClient client;
+	protected WebSocketClient client;
 
 	private HttpServer server;
 
-	private ConfigurableApplicationContext gatewayContext;
+	protected ConfigurableApplicationContext gatewayContext;
 
 	private int gatewayPort;
 
@@ -125,6 +125,7 @@ public class WebSocketIntegrationTests {
 
 		this.gatewayContext = new SpringApplicationBuilder(GatewayConfig.class)
 			.properties("ws.server.port:" + this.serverPort, "server.port=0", "spring.jmx.enabled=false")
+			.properties(getGatewayProperties())
 			.run();
 
 		ConfigurableEnvironment env = this.gatewayContext.getBean(ConfigurableEnvironment.class);
@@ -149,6 +150,10 @@ public class WebSocketIntegrationTests {
 		return WebHttpHandlerBuilder.applicationContext(context).build();
 	}
 
+	protected String[] getGatewayProperties() {
+		return new String[0];
+	}
+
 	protected URI getUrl(String path) throws URISyntaxException {
 		// return new URI("ws://localhost:" + this.serverPort + path);
 		return new URI("ws://localhost:" + this.gatewayPort + path);